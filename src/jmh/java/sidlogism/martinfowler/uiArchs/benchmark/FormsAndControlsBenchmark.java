@@ -0,0 +1,123 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ConcentrationReading;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ConcentrationReadingDao;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ConnectionPoolManager;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.DbAccessException;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStation;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStationDao;
+import sidlogism.martinfowler.uiArchs.util.DirectoryCache;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
+
+/**
+ * Benchmarks of the persistence hot paths of the forms and controls variant (plain JDBC DAOs).
+ * Runs against the DBS configured by config entry "activeDbs".
+ * 
+ * @see MvcStandaloneBenchmark
+ * @see Model2PassiveViewBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormsAndControlsBenchmark {
+	/**
+	 * External ID of the monitoring station whose data is looked up and updated.
+	 */
+	@Param({"IC001"})
+	public String stationExternalId;
+	/**
+	 * Number of monitoring stations loaded per page of the station list.
+	 */
+	@Param({"200"})
+	public int pageSize;
+	
+	private final MonitoringStationDao stationDao = new MonitoringStationDao();
+	private final ConcentrationReadingDao readingDao = new ConcentrationReadingDao();
+	private long stationId = -1;
+	private long readingId = -1;
+	private int originalConcentration = 0;
+	// state of the updated reading record
+	private int readingVersion = 0;
+	private long updateCount = 0;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws DbAccessException {
+		final MonitoringStation station = this.stationDao.getStation(this.stationExternalId);
+		if(null == station) throw new IllegalStateException("There is no monitoring station with external ID \""+this.stationExternalId+"\".");
+		this.stationId = station.getId();
+		final ConcentrationReading reading = this.readingDao.getLatestConcentrationReading(this.stationId);
+		if(null == reading) throw new IllegalStateException("There is no reading record of monitoring station \""+this.stationExternalId+"\".");
+		this.readingId = reading.getId();
+		this.originalConcentration = reading.getActualConcentration();
+		this.readingVersion = reading.getVersion();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws DbAccessException {
+		// leave the updated reading record as it was found
+		if(0 != this.updateCount % 2) this.readingDao.updateActualConcentration(this.originalConcentration, this.readingId, this.readingVersion);
+		DirectoryCache.shutdownAll();
+		PersistenceExecutor.shutdown();
+		ConnectionPoolManager.getInstance().shutdown();
+	}
+	
+	@Benchmark
+	public MonitoringStation stationLookup() throws DbAccessException {
+		return this.stationDao.getStation(this.stationExternalId);
+	}
+	
+	@Benchmark
+	public ConcentrationReading latestReadingLookup() throws DbAccessException {
+		return this.readingDao.getLatestConcentrationReading(this.stationId);
+	}
+	
+	/**
+	 * Toggles the actual concentration of the youngest reading record of the monitoring station, so that each update really changes the record.
+	 */
+	@Benchmark
+	public int actualConcentrationUpdate() throws DbAccessException {
+		final int newConcentration = this.originalConcentration + (int)(++this.updateCount % 2);
+		this.readingVersion = this.readingDao.updateActualConcentration(newConcentration, this.readingId, this.readingVersion);
+		return this.readingVersion;
+	}
+	
+	@Benchmark
+	public List<MonitoringStation> stationListLoad() throws DbAccessException {
+		return this.stationDao.findPage(0, this.pageSize);
+	}
+}
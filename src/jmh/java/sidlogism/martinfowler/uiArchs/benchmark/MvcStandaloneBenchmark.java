@@ -0,0 +1,133 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.ReadingModel;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.StationModel;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ModelPersistenceException;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.MonitoringStation;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.PersistenceTools;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ReadingSummary;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.StationSummary;
+import sidlogism.martinfowler.uiArchs.util.ChangeFeedPoller;
+import sidlogism.martinfowler.uiArchs.util.DirectoryCache;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
+
+/**
+ * Benchmarks of the persistence hot paths of the MVC variant (JPA models StationModel and ReadingModel).
+ * Runs against the DBS configured by config entry "activeDbs".
+ * 
+ * @see FormsAndControlsBenchmark
+ * @see Model2PassiveViewBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MvcStandaloneBenchmark {
+	/**
+	 * External ID of the monitoring station whose data is looked up and updated.
+	 */
+	@Param({"IC001"})
+	public String stationExternalId;
+	/**
+	 * Number of monitoring stations loaded per page of the station list.
+	 */
+	@Param({"200"})
+	public int pageSize;
+	
+	private final StationModel stationModel = new StationModel();
+	private final ReadingModel readingModel = new ReadingModel();
+	private long stationId = -1;
+	private long readingId = -1;
+	private int originalConcentration = 0;
+	private long updateCount = 0;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws ModelPersistenceException {
+		final MonitoringStation station = this.stationModel.getStation(this.stationExternalId);
+		if(null == station) throw new IllegalStateException("There is no monitoring station with external ID \""+this.stationExternalId+"\".");
+		this.stationId = station.getId();
+		final ReadingSummary reading = this.readingModel.getLatestConcentrationReading(this.stationId);
+		if(null == reading) throw new IllegalStateException("There is no reading record of monitoring station \""+this.stationExternalId+"\".");
+		this.readingId = reading.id();
+		this.originalConcentration = reading.actualConcentration();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws ModelPersistenceException {
+		// leave the updated reading record as it was found
+		if(0 != this.updateCount % 2) this.readingModel.updateActualConcentration(this.originalConcentration, this.readingId);
+		ChangeFeedPoller.shutdownAll();
+		DirectoryCache.shutdownAll();
+		PersistenceExecutor.shutdown();
+		PersistenceTools.shutdown();
+	}
+	
+	@Benchmark
+	public MonitoringStation stationLookup() throws ModelPersistenceException {
+		return this.stationModel.getStation(this.stationExternalId);
+	}
+	
+	/**
+	 * Queries the database like {@link FormsAndControlsBenchmark#latestReadingLookup()}: a new model doesn't know any reading record yet.
+	 */
+	@Benchmark
+	public ReadingSummary latestReadingLookup() throws ModelPersistenceException {
+		return new ReadingModel().getLatestConcentrationReading(this.stationId);
+	}
+	
+	/**
+	 * Repeated lookup as done by the UI: answered by the youngest reading records known to the model.
+	 */
+	@Benchmark
+	public ReadingSummary latestReadingLookupCached() throws ModelPersistenceException {
+		return this.readingModel.getLatestConcentrationReading(this.stationId);
+	}
+	
+	/**
+	 * Toggles the actual concentration of the youngest reading record of the monitoring station, so that each update really changes the record.
+	 */
+	@Benchmark
+	public void actualConcentrationUpdate() throws ModelPersistenceException {
+		final int newConcentration = this.originalConcentration + (int)(++this.updateCount % 2);
+		this.readingModel.updateActualConcentration(newConcentration, this.readingId);
+	}
+	
+	@Benchmark
+	public List<StationSummary> stationListLoad() throws ModelPersistenceException {
+		return this.stationModel.findPage(0, this.pageSize);
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ConnectionPoolManager;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.DbAccessException;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.DbConnector;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.IngestionResult;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStation;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStationDao;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ReadingIngestor;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ReadingSample;
+import sidlogism.martinfowler.uiArchs.util.DirectoryCache;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
+
+/**
+ * Benchmark of the bulk insert of new concentration readings by {@link ReadingIngestor} (plain JDBC batches).
+ * Runs against the DBS configured by config entry "activeDbs".
+ * The score is the average time per inserted reading. Its reciprocal is the throughput in rows per second.
+ * 
+ * The readings are inserted with timestamps before {@link #INGESTED_READINGS_END}, which precede all test data, and are deleted after each iteration.
+ * 
+ * @see FormsAndControlsBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadingIngestionBenchmark {
+	/**
+	 * Number of readings inserted per benchmark invocation.
+	 */
+	public static final int READINGS_PER_INVOCATION = 10_000;
+	private static final LocalDateTime INGESTED_READINGS_START = LocalDateTime.of(1990, 1, 1, 0, 0);
+	private static final LocalDateTime INGESTED_READINGS_END = LocalDateTime.of(2000, 1, 1, 0, 0);
+	private static final String DELETE_INGESTED_READINGS_QUERY = "DELETE FROM concentration_reading WHERE fk_station_id = ? AND reading_timestamp < ?";
+	
+	/**
+	 * External ID of the monitoring station the readings are inserted for.
+	 */
+	@Param({"IC001"})
+	public String stationExternalId;
+	/**
+	 * Number of reading records inserted per JDBC batch and transaction.
+	 */
+	@Param({"100", "1000"})
+	public int batchSize;
+	
+	private final MonitoringStationDao stationDao = new MonitoringStationDao();
+	private ReadingIngestor ingestor = null;
+	private long stationId = -1;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws DbAccessException, SQLException {
+		final MonitoringStation station = this.stationDao.getStation(this.stationExternalId);
+		if(null == station) throw new IllegalStateException("There is no monitoring station with external ID \""+this.stationExternalId+"\".");
+		this.stationId = station.getId();
+		this.ingestor = new ReadingIngestor(this.stationDao, this.batchSize);
+		deleteIngestedReadings();
+	}
+	
+	/**
+	 * Keeps the table at the size of the test data, so all iterations insert into the same indexes.
+	 */
+	@TearDown(Level.Iteration)
+	public void deleteIngestedReadings() throws DbAccessException, SQLException {
+		try(
+			final Connection connection = DbConnector.getConnection();
+			final PreparedStatement stmt = connection.prepareStatement(DELETE_INGESTED_READINGS_QUERY);
+		){
+			stmt.setLong(1, this.stationId);
+			stmt.setTimestamp(2, Timestamp.valueOf(INGESTED_READINGS_END));
+			stmt.executeUpdate();
+			// pooled connections don't auto-commit
+			connection.commit();
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		DirectoryCache.shutdownAll();
+		PersistenceExecutor.shutdown();
+		ConnectionPoolManager.getInstance().shutdown();
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(READINGS_PER_INVOCATION)
+	public IngestionResult ingestReadings() throws DbAccessException {
+		return this.ingestor.ingest( IntStream.range(0, READINGS_PER_INVOCATION).mapToObj(
+				i -> new ReadingSample(this.stationExternalId, INGESTED_READINGS_START.plusSeconds(i), i % 60) ) );
+	}
+}
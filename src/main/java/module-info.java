@@ -14,6 +14,10 @@ module sidlogism.martinfowler.uiArchs.mvc_standalone {
 	//requires net.bytebuddy;
 	requires com.fasterxml.classmate;
 	requires jakarta.xml.bind;
+	// second-level cache provider, only looked up by hibernate at runtime
+	requires org.hibernate.orm.jcache;
+	requires com.github.benmanes.caffeine.jcache;
+	requires com.github.benmanes.caffeine;
 
 	opens sidlogism.martinfowler.uiArchs.mvc_standalone.view to javafx.fxml;
 	opens sidlogism.martinfowler.uiArchs.mvc_standalone.controller to javafx.graphics,javafx.fxml;
@@ -3,7 +3,14 @@ package sidlogism.martinfowler.uiArchs.formsandcontrols;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ConnectionPoolManager;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.DbAccessException;
+import sidlogism.martinfowler.uiArchs.util.Debouncer;
+import sidlogism.martinfowler.uiArchs.util.DirectoryCache;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
+import sidlogism.martinfowler.uiArchs.util.WriteBehindQueue;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.geometry.Insets;
@@ -16,12 +23,25 @@ import javafx.stage.Stage;
 /**
  * "Forms and Controls" version of assessment form from https://www.martinfowler.com/eaaDev/uiArchs.html .
  * 
- * @note    For simplicity DB table locking is done pessimistic.
+ * @note    Concurrent updates of concentration readings are detected by optimistic locking on row level (see ConcentrationReadingDao).
  * @see sidlogism.martinfowler.uiArchs.model2_passive_view.view.AssessmentFormView
  */
 public class IceCreamAssessmentForm extends Application{
 	private static final Logger logger = Logger.getLogger(IceCreamAssessmentForm.class.getName());
 
+	/**
+	 * Open the process-wide connection pool before the UI is constructed.
+	 * Runs in the launcher thread, i. e. before {@link #start(Stage)} loads any data.
+	 */
+	@Override
+	public void init() {
+		try {
+			ConnectionPoolManager.getInstance().warmUp();
+		} catch (DbAccessException e) {
+			logger.log(Level.WARNING, "Failed to warm up database connection pool. Connections are opened on first use instead.", e);
+		}
+	}
+
 	@Override
 	public void start(final Stage stage)
 	{
@@ -38,6 +58,9 @@ public class IceCreamAssessmentForm extends Application{
 		 * 
 		 * NOTE: elegant binding (e. g. bindBidirectional()) not easily possible, because SelectionModel.selectedItemProperty() returns ReadOnlyObjectProperty, which cannot be bound directly.
 		 */
+		// only the last station ID of a burst of keystrokes filters the list and changes the selection, so that no lookups are started for IDs the user has already typed past
+		final Debouncer<String> stationNameDebouncer = new Debouncer<String>("reading-data-sheet-station-id",
+				stationName -> MonitoringStationList.getInstance().filterAndSelect(stationName), Platform::runLater);
 		MonitoringStationList.getInstance().registerStationChangeListener(
 				new ChangeListener<String>() {
 					public void changed(ObservableValue<? extends String> ov, String oldStationName, String newStationName) {
@@ -45,10 +68,12 @@ public class IceCreamAssessmentForm extends Application{
 						// if there is no selection (because of wrong or partial station name) or selection disappears, the new value is null, which must be ignored.
 						if( null == newStationName || newStationName.isEmpty() || newStationName.isBlank() ) return;
 						
-						if(! ReadingDataSheet.getInstance().switchContents(newStationName) ) {
+						// a station ID typed before the user selected a station must not override the selection when it is handed over later
+						if(! MonitoringStationList.getInstance().isChangingSelection() ) stationNameDebouncer.cancel();
+						ReadingDataSheet.getInstance().switchContents(newStationName).thenAccept( switched -> {
 							//if there is a problem with the new station, wipe selection
-							MonitoringStationList.getInstance().wipeSelection();
-						}
+							if(! switched.booleanValue() ) MonitoringStationList.getInstance().wipeSelection();
+						});
 					}
 				}
 			);
@@ -58,7 +83,7 @@ public class IceCreamAssessmentForm extends Application{
 						// don't propagate null or empty values
 						if( null == newStationName || newStationName.isEmpty() || newStationName.isBlank() ) return;
 						
-						MonitoringStationList.getInstance().changeSelection(newStationName);
+						stationNameDebouncer.submit(newStationName);
 					}
 				}
 			);
@@ -85,6 +110,18 @@ public class IceCreamAssessmentForm extends Application{
 		stage.show();
 	}
 
+	/**
+	 * Write pending edits and close the process-wide connection pool on application exit.
+	 */
+	@Override
+	public void stop() {
+		logger.log(Level.INFO, "Stopping application "+this.getClass().getName() );
+		WriteBehindQueue.shutdownAll();
+		DirectoryCache.shutdownAll();
+		PersistenceExecutor.shutdown();
+		ConnectionPoolManager.getInstance().shutdown();
+	}
+
 	public static void main(final String[] args){
 		launch(args);
 	}
@@ -14,15 +14,20 @@
  * limitations under the License.
  */
 package sidlogism.martinfowler.uiArchs.formsandcontrols;
-import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
-import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.DbAccessException;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStation;
 import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStationDao;
+import sidlogism.martinfowler.uiArchs.util.KeysetPager;
+import sidlogism.martinfowler.uiArchs.util.SupersedingRequests;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.layout.Pane;
 
@@ -43,6 +48,19 @@ public class MonitoringStationList{
 
 	
 	private final ListView<String> stationList = new ListView<String>();
+	/**
+	 * External IDs of all monitoring stations loaded so far. Shown unless the list is filtered by a typed external ID.
+	 */
+	private final ObservableList<String> loadedStationListData = FXCollections.observableArrayList();
+	/**
+	 * Loads the monitoring stations page by page while the user scrolls, so startup time and memory don't grow with the number of monitoring stations.
+	 */
+	private final KeysetPager<MonitoringStation> stationPager;
+	private final SupersedingRequests filterRequests = new SupersedingRequests("MonitoringStationList", Platform::runLater);
+	/**
+	 * True while the selection is changed programmatically, e. g. for a station external ID typed in the reading data sheet.
+	 */
+	private boolean changingSelection = false;
 	/**
 	 * private default ctor for singleton pattern
 	 * 
@@ -58,16 +76,27 @@ public class MonitoringStationList{
 		 * Currently the list contains only one string representing column monitoring_station.station_external_id.
 		 * There currently is no out-of-the-box list for multiple columns in JavaFX.
 		 */
-		ObservableList<String> stationListData = null;
-		try {
-			stationListData = FXCollections.observableArrayList( dao.findAll() );
-		} catch (DbAccessException e) {
-			final ArrayList<String> data = new ArrayList<String>();
-			data.add("- data access error -");
-			stationListData = FXCollections.observableArrayList( data );
-			logger.log(Level.SEVERE, "Failed to load data from DB.", e);
-		}
-		this.stationList.setItems(stationListData);
+		this.stationList.setItems(this.loadedStationListData);
+		// load in the background and append each page in the JavaFX application thread
+		this.stationPager = new KeysetPager<MonitoringStation>("MonitoringStationList", dao::findPageAsync, MonitoringStation::getId,
+				page -> this.loadedStationListData.addAll( page.stream().map(MonitoringStation::getStationExternalId).collect( Collectors.toList() ) ),
+				failure -> {
+					logger.log(Level.SEVERE, "Failed to load data from DB.", failure);
+					if( this.loadedStationListData.isEmpty() ) this.loadedStationListData.setAll("- data access error -");
+				},
+				Platform::runLater);
+		// load the next page as soon as the last loaded monitoring station becomes visible
+		this.stationList.setCellFactory( listView -> new ListCell<String>() {
+			@Override
+			protected void updateItem(final String item, final boolean empty) {
+				super.updateItem(item, empty);
+				setText(empty ? null : item);
+				if( !empty && getListView().getItems() == loadedStationListData && getIndex() >= loadedStationListData.size() - 1 ) {
+					stationPager.loadNextPage();
+				}
+			}
+		});
+		this.stationPager.loadNextPage();
 	}
 	
 	/**
@@ -101,7 +130,47 @@ public class MonitoringStationList{
 		 * Incomplete partial names or missing hits are handled implicitly:
 		 * If the selection model doesn't find the given entry, the selection simply doesn't change.
 		 */
-		this.stationList.getSelectionModel().select(newExternalId);
+		this.changingSelection = true;
+		try {
+			this.stationList.getSelectionModel().select(newExternalId);
+		} finally {
+			this.changingSelection = false;
+		}
+	}
+
+	/**
+	 * @return    true while the selection is changed programmatically. Distinguishes these changes from selections made by the user.
+	 */
+	public boolean isChangingSelection() {
+		return this.changingSelection;
+	}
+
+	/**
+	 * Type-ahead search: narrow the list to the monitoring stations whose external ID starts with the given text and select the monitoring station with exactly this external ID, if any.
+	 * 
+	 * @param typedExternalId    external ID or part of it typed by the user. Empty string shows all monitoring stations. Null is ignored.
+	 */
+	public void filterAndSelect(final String typedExternalId) {
+		if(null == typedExternalId) {
+			return;
+		}
+		// the text field echoes selections made in the list. Keep the list as it is in this case.
+		if( typedExternalId.equals( this.stationList.getSelectionModel().getSelectedItem() ) ) {
+			return;
+		}
+		if( typedExternalId.isEmpty() ) {
+			// show all loaded monitoring stations again. Supersedes a filter request still in flight.
+			this.filterRequests.submit( CompletableFuture.completedFuture(this.loadedStationListData), this.stationList::setItems, failure -> {} );
+			return;
+		}
+		// loads one page of matches. Longer prefixes of a complete page are answered by the prefix index of the station directory.
+		this.filterRequests.submit( new MonitoringStationDao().findExternalIdsByPrefixAsync(typedExternalId),
+				matchingExternalIds -> {
+					// wrapped instead of copied
+					this.stationList.setItems( FXCollections.observableList(matchingExternalIds) );
+					changeSelection(typedExternalId);
+				},
+				failure -> logger.log(Level.WARNING, "Failed to filter monitoring stations by external ID \""+typedExternalId+"\".", failure) );
 	}
 
 	/**
@@ -15,6 +15,11 @@
  */
 package sidlogism.martinfowler.uiArchs.formsandcontrols;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,7 +28,12 @@ import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.Concentration
 import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.DbAccessException;
 import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStation;
 import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStationDao;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.StaleRecordException;
+import sidlogism.martinfowler.uiArchs.util.IFlushListener;
+import sidlogism.martinfowler.uiArchs.util.SupersedingRequests;
 import sidlogism.martinfowler.uiArchs.util.TimeTools;
+import sidlogism.martinfowler.uiArchs.util.WriteBehindQueue;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.geometry.HPos;
@@ -63,6 +73,11 @@ public class ReadingDataSheet {
 	private GridPane dataSheetPane = null;
 	// ID of currently displayed concentration reading record
 	private long concentrationReadingId = -1;
+	/*
+	 * Versions of loaded concentration reading records by reading ID, used for optimistic locking.
+	 * Accessed by UI thread and flush thread of the write-behind queue.
+	 */
+	private final Map<Long, Integer> concentrationReadingVersions = new ConcurrentHashMap<Long, Integer>();
 
 	// data depending on current monitoring station
 	private Label lblStationExternalId = null;
@@ -90,13 +105,16 @@ public class ReadingDataSheet {
 					newValue = Integer.parseInt(newActualValue);
 				}catch(NumberFormatException e) {
 					logger.log(Level.WARNING, "The given value \""+newActualValue+"\" is no integer number. Expecting integer value for the actual concentration value.", e);
+					tfActualConcentration.setStyle("-fx-text-inner-color: red");
+					return;
 				}
 				
-				final ConcentrationReadingDao readingDao = new ConcentrationReadingDao();
-				try {
-					readingDao.updateActualConcentration(newValue, concentrationReadingId);
-				} catch (DbAccessException e) {
-					logger.log(Level.WARNING, "Failed to update the actual concentration value in the database. Given actual value was \""+newActualValue+"\".", e);
+				/*
+				 * Don't write each keystroke to the database. The write-behind queue writes the last value after a short quiet period or on focus loss.
+				 * The flush result is reported back by the actualValueFlushListener.
+				 */
+				if(concentrationReadingId >= 0) {
+					actualValueWriteBehind.submit(concentrationReadingId, Integer.valueOf(newValue));
 				}
 				
 				// finally update variance text field
@@ -104,6 +122,49 @@ public class ReadingDataSheet {
 			}
 		};
 	
+	/**
+	 * Reports results of the write-behind queue back to the text field for the actual concentration value.
+	 * Results for reading records which are not displayed anymore are only logged.
+	 */
+	private final IFlushListener<Integer> actualValueFlushListener = new IFlushListener<Integer>() {
+			@Override
+			public void flushSucceeded(final long readingId, final Integer value) {
+				Platform.runLater( () -> {
+					if(readingId != concentrationReadingId) return;
+					tfActualConcentration.setStyle("-fx-text-inner-color: black");
+				});
+			}
+			
+			@Override
+			public void flushFailed(final long readingId, final Integer value, final Exception cause) {
+				if(cause instanceof StaleRecordException) {
+					logger.log(Level.WARNING, "The concentration reading with ID "+readingId+" was modified by someone else. Discarded actual value was \""+value+"\".", cause);
+				}else {
+					logger.log(Level.WARNING, "Failed to update the actual concentration value in the database. Given actual value was \""+value+"\".", cause);
+				}
+				Platform.runLater( () -> {
+					if(readingId != concentrationReadingId) return;
+					if(cause instanceof StaleRecordException) {
+						// Reload a stale record. The reloaded value is highlighted to indicate the discarded edit.
+						switchContents( tfStationExternalId.getText() ).thenAccept( switched -> {
+							if( switched.booleanValue() ) tfActualConcentration.setStyle("-fx-text-inner-color: red");
+						});
+						return;
+					}
+					tfActualConcentration.setStyle("-fx-text-inner-color: red");
+				});
+			}
+		};
+	
+	/**
+	 * Coalesces edits of the actual concentration value and writes them in the background.
+	 */
+	private final WriteBehindQueue<Integer> actualValueWriteBehind = new WriteBehindQueue<Integer>("ReadingDataSheet", this::writeActualConcentrations, this.actualValueFlushListener);
+	/**
+	 * Lookups for switching the displayed contents. Only the lookup of the latest switch is applied.
+	 */
+	private final SupersedingRequests contentRequests = new SupersedingRequests("ReadingDataSheet", Platform::runLater);
+	
 	/**
 	 * private default ctor for singleton pattern
 	 * 
@@ -143,6 +204,10 @@ public class ReadingDataSheet {
 		this.dataSheetPane.add(this.lblActualConcentration, 0, 3);
 		GridPane.setHalignment(lblActualConcentration, HPos.LEFT);
 		this.tfActualConcentration = new TextField();
+		// write pending edits as soon as the user leaves the text field
+		this.tfActualConcentration.focusedProperty().addListener( (observable, wasFocused, isFocused) -> {
+			if( !isFocused ) this.actualValueWriteBehind.flushNow();
+		});
 		this.dataSheetPane.add(this.tfActualConcentration, 1, 3);
 		
 		this.lblVariance = new Label("Variance");
@@ -190,60 +255,79 @@ public class ReadingDataSheet {
 
 	/**
 	 * Set new value for "Station ID" text field.
+	 * The station and its reading record are loaded in the background and displayed in the JavaFX application thread. A newer switch supersedes a switch still in progress.
 	 * 
 	 * @param newExternalId    new value for "Station ID" text field. Null is ignored. Use empty string instead.
-	 * @return    boolean value indicating whether changing the currently displayed reading record was successful. True = success, false = failure.
-	 * @throws DbAccessException 
+	 * @return    future completed in the JavaFX application thread with a boolean value indicating whether changing the currently displayed reading record was successful. True = success, false = failure. Not completed if superseded by a newer switch.
 	 */
-	public synchronized boolean switchContents(final String newExternalId) {
+	public CompletableFuture<Boolean> switchContents(final String newExternalId) {
+		final CompletableFuture<Boolean> switched = new CompletableFuture<Boolean>();
 		if(null == newExternalId) {
-			return false;
+			switched.complete(Boolean.FALSE);
+			return switched;
 		}
+		// don't keep edits of the previously displayed reading record pending
+		this.actualValueWriteBehind.flushNow();
 		
 		/*
 		 * load and display data depending on current monitoring station
 		 */
 		final MonitoringStationDao stationDao = new MonitoringStationDao();
-		MonitoringStation station = null;
-		try {
-			station = stationDao.getStation(newExternalId);
-			if( null == station ) {
-				throw new DbAccessException("There is no station with given external station ID \""+newExternalId+"\".");
-			}
-		} catch (DbAccessException e) {
-			logger.log(Level.WARNING, "Failed to lookup station with given external station ID \""+newExternalId+"\".", e);
-			// wipe text fields to indicate error
-			wipeAllDependentTextFields();
-			return false;
-		}
-		this.tfStationExternalId.setText(newExternalId);
-		this.tfTargetConcentration.setText( Integer.toString(station.getTargetConcentration()) );
-		
-		/*
-		 * load and display data depending on current reading record
-		 */
+		this.contentRequests.submit( stationDao.getStationAsync(newExternalId),
+				station -> {
+					if( null == station ) {
+						throw new CompletionException( new DbAccessException("There is no station with given external station ID \""+newExternalId+"\".") );
+					}
+					return station;
+				},
+				station -> {
+					this.tfStationExternalId.setText(newExternalId);
+					this.tfTargetConcentration.setText( Integer.toString(station.getTargetConcentration()) );
+					switchReadingContents(station, switched);
+				},
+				failure -> {
+					logger.log(Level.WARNING, "Failed to lookup station with given external station ID \""+newExternalId+"\".", failure);
+					// wipe text fields to indicate error
+					wipeAllDependentTextFields();
+					switched.complete(Boolean.FALSE);
+				});
+		return switched;
+	}
+	
+	/**
+	 * Loads and displays data depending on current reading record. Second step of {@link #switchContents(String)}.
+	 * 
+	 * @param station    new monitoring station
+	 * @param switched    result of the switch
+	 */
+	private void switchReadingContents(final MonitoringStation station, final CompletableFuture<Boolean> switched) {
 		final ConcentrationReadingDao readingDao = new ConcentrationReadingDao();
-		ConcentrationReading newRecord = null;
-		try {
-			newRecord = readingDao.getLatestConcentrationReading( station.getId() );
-			if( null == newRecord ) {
-				throw new DbAccessException("There doesn't exist any concentration reading for given station yet. Station: "+station);
-			}
-		} catch (DbAccessException e) {
-			logger.log(Level.WARNING, "Failed to lookup concentration readings for given station. Station: "+station, e);
-			// wipe text fields to indicate error
-			wipeReadingDependentTextFields();
-			return false;
-		}
-		this.tfDate.setText( newRecord.getReadingTimestamp().format( TimeTools.getReadingTimestampFormat() ) );
-		// temporarily disable change listener
-		this.unregisterActualConcentrationChangeListener();
-		this.tfActualConcentration.setText( Integer.toString(newRecord.getActualConcentration()) );
-		this.registerActualConcentrationChangeListener();
-		// update ID of currently displayed concentration reading record
-		this.concentrationReadingId = newRecord.getId();
-		updateVariance( newRecord.getActualConcentration(), station.getTargetConcentration() );
-		return true;
+		this.contentRequests.submit( readingDao.getLatestConcentrationReadingAsync( station.getId() ),
+				newRecord -> {
+					if( null == newRecord ) {
+						throw new CompletionException( new DbAccessException("There doesn't exist any concentration reading for given station yet. Station: "+station) );
+					}
+					return newRecord;
+				},
+				newRecord -> {
+					this.tfDate.setText( newRecord.getReadingTimestamp().format( TimeTools.getReadingTimestampFormat() ) );
+					// temporarily disable change listener
+					this.unregisterActualConcentrationChangeListener();
+					this.tfActualConcentration.setText( Integer.toString(newRecord.getActualConcentration()) );
+					this.registerActualConcentrationChangeListener();
+					this.tfActualConcentration.setStyle("-fx-text-inner-color: black");
+					// update ID and version of currently displayed concentration reading record
+					this.concentrationReadingId = newRecord.getId();
+					this.concentrationReadingVersions.put( Long.valueOf(newRecord.getId()), Integer.valueOf(newRecord.getVersion()) );
+					updateVariance( newRecord.getActualConcentration(), station.getTargetConcentration() );
+					switched.complete(Boolean.TRUE);
+				},
+				failure -> {
+					logger.log(Level.WARNING, "Failed to lookup concentration readings for given station. Station: "+station, failure);
+					// wipe text fields to indicate error
+					wipeReadingDependentTextFields();
+					switched.complete(Boolean.FALSE);
+				});
 	}
 	
 	/**
@@ -255,6 +339,29 @@ public class ReadingDataSheet {
 		this.tfActualConcentration.textProperty().removeListener(this.actualValueChangeListener);
 	}
 	
+	/**
+	 * Writes the given actual concentration values in one batch. Called by the write-behind queue in its flush thread.
+	 * 
+	 * @param newConcentrationValues    new actual concentration values by reading ID
+	 * @return    failures by reading ID: reading records which were modified by someone else in the meantime
+	 * @throws DbAccessException
+	 */
+	private Map<Long, Exception> writeActualConcentrations(final Map<Long, Integer> newConcentrationValues) throws DbAccessException {
+		final ConcentrationReadingDao readingDao = new ConcentrationReadingDao();
+		final Map<Long, Integer> newVersions = readingDao.updateActualConcentrations(newConcentrationValues, this.concentrationReadingVersions);
+		
+		final Map<Long, Exception> failures = new HashMap<Long, Exception>();
+		for(final Long readingId : newConcentrationValues.keySet()) {
+			final Integer newVersion = newVersions.get(readingId);
+			if(null == newVersion) {
+				failures.put(readingId, new StaleRecordException("Concentration reading with ID "+readingId+" was modified or deleted in the meantime."));
+			}else {
+				this.concentrationReadingVersions.put(readingId, newVersion);
+			}
+		}
+		return failures;
+	}
+	
 	/**
 	 * Recomputes the concentration variance based on the given values.
 	 * 
@@ -27,12 +27,14 @@ public class ConcentrationReading {
 	private long stationForeignKey;
 	private LocalDateTime readingTimestamp;
 	private int actualConcentration;
+	private int version;
 	
-	ConcentrationReading(final long id, final long stationForeignKey, final LocalDateTime readingTimestamp, final int actualConcentration){
+	ConcentrationReading(final long id, final long stationForeignKey, final LocalDateTime readingTimestamp, final int actualConcentration, final int version){
 		this.id = id;
 		this.stationForeignKey = stationForeignKey;
 		this.readingTimestamp = readingTimestamp;
 		this.actualConcentration = actualConcentration;
+		this.version = version;
 	}
 	
 	/**
@@ -63,9 +65,16 @@ public class ConcentrationReading {
 		return actualConcentration;
 	}
 	
+	/**
+	 * @return the row version used for optimistic locking
+	 */
+	public int getVersion() {
+		return version;
+	}
+	
 	@Override
 	public String toString() {
 		return "ConcentrationReading [id=" + id + ", stationForeignKey=" + stationForeignKey + ", readingTimestamp="
-				+ readingTimestamp + ", actualConcentration=" + actualConcentration + "]";
+				+ readingTimestamp + ", actualConcentration=" + actualConcentration + ", version=" + version + "]";
 	}
 }
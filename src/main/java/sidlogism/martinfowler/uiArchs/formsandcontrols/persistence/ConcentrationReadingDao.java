@@ -15,22 +15,25 @@
  */
 package sidlogism.martinfowler.uiArchs.formsandcontrols.persistence;
 
-import java.io.IOException;
-import java.net.URISyntaxException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.json.JSONException;
-
-import com.zaxxer.hikari.HikariDataSource;
-
-import sidlogism.martinfowler.uiArchs.util.ConfigParser;
-import sidlogism.martinfowler.uiArchs.util.FileSystemAccessException;
+import sidlogism.martinfowler.uiArchs.util.ConcentrationTimeSeries;
+import sidlogism.martinfowler.uiArchs.util.ConnectionPoolTools;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
 import sidlogism.martinfowler.uiArchs.util.TimeProcessingException;
 import sidlogism.martinfowler.uiArchs.util.TimeTools;
 
@@ -42,57 +45,144 @@ import sidlogism.martinfowler.uiArchs.util.TimeTools;
  */
 public class ConcentrationReadingDao {
 	private static final Logger logger = Logger.getLogger(ConcentrationReadingDao.class.getName());
+	// vendor error code of "ORA-08177: can't serialize access for this transaction"
+	private static final int ORACLE_SERIALIZATION_FAILURE = 8177;
+	// conditional update for optimistic locking
+	private static final String UPDATE_ACTUAL_CONCENTRATION_QUERY = "UPDATE concentration_reading\n"
+			+ "SET actual_concentration = ?, version = version + 1\n"
+			+ "WHERE id = ? AND version = ?\n";
 	
 	/**
 	 * Updates actual concentration value of current reading record.
 	 * 
+	 * Uses optimistic locking: The update only succeeds if the record still has the given version, i. e. if nobody else modified it since it was loaded.
+	 * Concurrent updates of different records don't block each other. Conflicting updates of the same record fail fast instead of waiting for a table lock.
+	 * 
+	 * @param newConcentrationValue    new actual concentration value
+	 * @param readingId    ID of the updated reading record
+	 * @param expectedVersion    version of the reading record as it was loaded by the caller
+	 * @return new version of the updated reading record. -1 if the given ID is invalid.
+	 * @throws StaleRecordException    if the reading record was modified or deleted by someone else in the meantime
 	 * @throws DbAccessException 
 	 */
-	public synchronized void updateActualConcentration(final int newConcentrationValue, final long readingId) throws DbAccessException {
-		if(readingId < 0) return;
-		final String query = "UPDATE concentration_reading\n"
-				+ "SET actual_concentration  = ?\n"
-				+ "WHERE id = ?\n";
-		/*
-		 * Get name of currently used DBS. Need to handle pessimistic locking different for each DBS.
-		 */
-		String activeDbs = null;
-		try {
-			ConfigParser.getInstance().parseConfig();
-			activeDbs = ConfigParser.getInstance().getRootNode().getString("activeDbs");
-		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
-			throw new DbAccessException("Failed reading configuration: Could not get name of currently used DBS.", e);
-		}
+	public int updateActualConcentration(final int newConcentrationValue, final long readingId, final int expectedVersion) throws DbAccessException {
+		if(readingId < 0) return -1;
+		final String query = UPDATE_ACTUAL_CONCENTRATION_QUERY;
 		
-		/*
-		 * Pessimistic locking for update statement.
-		 */
+		int updatedRows = 0;
 		try(
-			final HikariDataSource connPool = DbConnector.getConnectionPool();
-			final Connection connection = connPool.getConnection();
+			final Connection connection = DbConnector.getConnection();
 			final PreparedStatement stmt = connection.prepareStatement(query);
-			final PreparedStatement lockStmtMysql = connection.prepareStatement("LOCK TABLES concentration_reading WRITE");
-			final PreparedStatement lockStmtOracle = connection.prepareStatement("LOCK TABLE concentration_reading IN EXCLUSIVE MODE NOWAIT");
-			final PreparedStatement unlockStmt = connection.prepareStatement("UNLOCK TABLES");
 		){
 			stmt.setLong(1, newConcentrationValue);
 			stmt.setLong(2, readingId);
+			stmt.setInt(3, expectedVersion);
 			connection.setAutoCommit(false);
-			switch(activeDbs) {
-				case "oracleXE":
-					lockStmtOracle.execute();
-					break;
-				case "mysql":
-				default:
-					lockStmtMysql.execute();
+			try {
+				updatedRows = stmt.executeUpdate();
+				connection.commit();
+			}catch(SQLException e) {
+				connection.rollback();
+				// Oracle reports a conflicting concurrent update of the same record as serialization failure (isolation level SERIALIZABLE).
+				if(ORACLE_SERIALIZATION_FAILURE == e.getErrorCode()) {
+					throw new StaleRecordException("Concurrent update of "+ConcentrationReading.class.getSimpleName()+" with ID "+readingId+" and version "+expectedVersion+".", e);
+				}
+				throw e;
 			}
-			
-			stmt.executeUpdate();
-			connection.commit();
-			if( "mysql".equals(activeDbs)) unlockStmt.execute();
-		} catch (SQLException | DbAccessException e) {
+		} catch (SQLException e) {
 			throw new DbAccessException("Error while opening database connection or executing update query. Query:\n"+query, e);
 		}
+		
+		if(0 == updatedRows) {
+			throw new StaleRecordException("Found no "+ConcentrationReading.class.getSimpleName()+" with ID "+readingId+" and version "+expectedVersion+". It was modified or deleted in the meantime.");
+		}
+		return expectedVersion + 1;
+	}
+	
+	/**
+	 * Updates actual concentration values of several reading records in one JDBC batch and one transaction.
+	 * 
+	 * Optimistic locking is applied to each reading record like in {@link #updateActualConcentration(int, long, int)}.
+	 * Reading records which were modified by someone else in the meantime are skipped. All other reading records are updated.
+	 * 
+	 * @param newConcentrationValues    new actual concentration values by reading ID
+	 * @param expectedVersions    versions of the reading records as they were loaded by the caller, by reading ID
+	 * @return new versions of the updated reading records by reading ID. Reading records missing in the result were modified or deleted in the meantime and were not updated.
+	 * @throws StaleRecordException    if the whole batch conflicted with a concurrent transaction
+	 * @throws DbAccessException 
+	 */
+	public Map<Long, Integer> updateActualConcentrations(final Map<Long, Integer> newConcentrationValues, final Map<Long, Integer> expectedVersions) throws DbAccessException {
+		final Map<Long, Integer> newVersions = new HashMap<Long, Integer>();
+		if(newConcentrationValues.isEmpty()) return newVersions;
+		final String query = UPDATE_ACTUAL_CONCENTRATION_QUERY;
+		
+		// fix iteration order for mapping update counts back to reading IDs
+		final List<Long> readingIds = new ArrayList<Long>( newConcentrationValues.keySet() );
+		try(
+			final Connection connection = DbConnector.getConnection();
+			final PreparedStatement stmt = connection.prepareStatement(query);
+		){
+			for(final Long readingId : readingIds) {
+				final Integer expectedVersion = expectedVersions.get(readingId);
+				if(null == expectedVersion) {
+					throw new DbAccessException("Missing expected version of "+ConcentrationReading.class.getSimpleName()+" with ID "+readingId+".");
+				}
+				stmt.setLong(1, newConcentrationValues.get(readingId).intValue());
+				stmt.setLong(2, readingId.longValue());
+				stmt.setInt(3, expectedVersion.intValue());
+				stmt.addBatch();
+			}
+			connection.setAutoCommit(false);
+			int[] updateCounts = null;
+			try {
+				updateCounts = stmt.executeBatch();
+				connection.commit();
+			}catch(SQLException e) {
+				connection.rollback();
+				// Oracle reports a conflicting concurrent update of the same record as serialization failure (isolation level SERIALIZABLE).
+				if(ORACLE_SERIALIZATION_FAILURE == e.getErrorCode()) {
+					throw new StaleRecordException("Concurrent update of one of "+readingIds.size()+" "+ConcentrationReading.class.getSimpleName()+" records.", e);
+				}
+				throw e;
+			}
+			for(int i = 0; i < updateCounts.length; i++) {
+				// Some drivers don't report row counts for batches. Then conflicts can't be detected.
+				if(updateCounts[i] > 0 || Statement.SUCCESS_NO_INFO == updateCounts[i]) {
+					final Long readingId = readingIds.get(i);
+					newVersions.put(readingId, Integer.valueOf( expectedVersions.get(readingId).intValue() + 1 ));
+				}
+			}
+		} catch (SQLException e) {
+			throw new DbAccessException("Error while opening database connection or executing batch update query. Query:\n"+query, e);
+		}
+		return newVersions;
+	}
+	
+	/**
+	 * Builds the query for the youngest concentration reading record of a monitoring station in the SQL dialect of the given DBS.
+	 * 
+	 * IMPORTANT: Don't filter by timestamp-value only because it is not always a unique value. The ID breaks ties.
+	 * The query is resolved by one seek on index concentration_reading__idx__station_latest (fk_station_id, reading_timestamp DESC, id DESC):
+	 * the first index entry of the given station is the youngest reading record.
+	 * The ORDER BY repeats the filtered fk_station_id as leading column, so it equals the index order. This doesn't change the result, but some planners (e. g. H2) only skip the sort if the ORDER BY starts with the first index column.
+	 * 
+	 * @param dbsName    configuration identifier of the used DBS
+	 * @return    query text with the station ID as only parameter
+	 */
+	public static String getLatestConcentrationReadingQuery(final String dbsName) {
+		final String query = 
+				"SELECT id, fk_station_id, reading_timestamp, actual_concentration, version\n"
+				+ "FROM concentration_reading\n"
+				+ "WHERE fk_station_id = ?\n"
+				+ "ORDER BY fk_station_id, reading_timestamp DESC, id DESC\n";
+		switch(dbsName) {
+			case "mysql":
+				return query + "LIMIT 1";
+			case "oracleXE":
+			default:
+				// standard SQL syntax
+				return query + "FETCH FIRST 1 ROW ONLY";
+		}
 	}
 	
 	/**
@@ -102,36 +192,19 @@ public class ConcentrationReadingDao {
 	 * @return domain object of relevant reading record. null if the query result is empty.
 	 * @throws DbAccessException
 	 */
-	public synchronized ConcentrationReading getLatestConcentrationReading(final long internalStationId) throws DbAccessException {
-		/*
-		 * TOP query compatible to standard SQL syntax.
-		 * IMPORTANT: Don't filter by timestamp-value only because it is not always a unique value.
-		 * 
-		 * Other dialects allow elegant single query constructs in combination with ORDER BY:
-		 *     MySQL: "LIMIT 1"
-		 *     Oracle SQL: "FETCH FIRST 1 ROW ONLY"
-		 */
-		final String query = 
-				"SELECT id, fk_station_id, reading_timestamp, actual_concentration\n"
-				+ "FROM concentration_reading\n"
-				+ "WHERE fk_station_id = ? AND reading_timestamp =\n"
-				+ "(\n"
-				+ "    SELECT MAX(reading_timestamp)\n"
-				+ "    FROM concentration_reading\n"
-				+ "    WHERE fk_station_id = ?\n"
-				+ ")";
+	public ConcentrationReading getLatestConcentrationReading(final long internalStationId) throws DbAccessException {
+		final String query = getLatestConcentrationReadingQuery( ConnectionPoolManager.getInstance().getActiveDbs() );
 		
 		long id = -1;
 		long stationForeignKey = -1;
 		LocalDateTime readingTimestamp = null;
 		int actualConcentration = -1;
+		int version = -1;
 		try(
-			final HikariDataSource connPool = DbConnector.getConnectionPool();
-			final Connection connection = connPool.getConnection();
+			final Connection connection = DbConnector.getConnection();
 			final PreparedStatement stmt = connection.prepareStatement(query);
 		){
 			stmt.setLong(1, internalStationId);
-			stmt.setLong(2, internalStationId);
 			connection.setAutoCommit(false);
 			
 			try(
@@ -145,6 +218,7 @@ public class ConcentrationReadingDao {
 				stationForeignKey = resultSet.getLong(2);
 				readingTimestamp = TimeTools.parseReadingTimestamp( resultSet.getString(3) );
 				actualConcentration = resultSet.getInt(4);
+				version = resultSet.getInt(5);
 				
 				if( resultSet.next() ) {
 					throw new DbAccessException("Query result contains more tuples than expected. Expected one single tuple. Query:\n"+query);
@@ -154,7 +228,102 @@ public class ConcentrationReadingDao {
 			throw new DbAccessException("Error while opening database connection or executing query or processing query result. Query:\n"+query, e);
 		}
 		
-		final ConcentrationReading result = new ConcentrationReading(id, stationForeignKey, readingTimestamp, actualConcentration);
+		final ConcentrationReading result = new ConcentrationReading(id, stationForeignKey, readingTimestamp, actualConcentration, version);
+		return result;
+	}
+	
+	/**
+	 * Asynchronous variant of {@link #getLatestConcentrationReading(long)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param internalStationId    ID of relevant monitoring station
+	 * @return future completed with the domain object of relevant reading record or null. Completed exceptionally with DbAccessException on failure.
+	 */
+	public CompletableFuture<ConcentrationReading> getLatestConcentrationReadingAsync(final long internalStationId) {
+		return PersistenceExecutor.getInstance().submit( () -> getLatestConcentrationReading(internalStationId) );
+	}
+	
+	/**
+	 * Streams the concentration reading records of a monitoring station within the given time range from the database, ordered ascending by timestamp.
+	 * 
+	 * The records are read through a forward-only, read-only cursor and handed to the consumer one by one, so memory usage doesn't depend on the size of the time range.
+	 * The driver fetches {@link ConnectionPoolTools#getStreamingFetchSize()} rows per round trip.
+	 * The range is resolved by index concentration_reading__idx__station_latest (fk_station_id, reading_timestamp DESC, id DESC).
+	 * 
+	 * @param internalStationId    ID of relevant monitoring station
+	 * @param from    inclusive lower bound of the reading timestamps. null for no lower bound.
+	 * @param to    exclusive upper bound of the reading timestamps. null for no upper bound.
+	 * @param consumer    receives each reading record. Called on the thread of the caller while the connection is held, so it should not block.
+	 * @return number of streamed reading records
+	 * @throws DbAccessException
+	 */
+	public long streamReadings(final long internalStationId, final LocalDateTime from, final LocalDateTime to, final Consumer<ConcentrationReading> consumer) throws DbAccessException {
+		final String query = 
+				"SELECT id, fk_station_id, reading_timestamp, actual_concentration, version\n"
+				+ "FROM concentration_reading\n"
+				+ "WHERE fk_station_id = ?\n"
+				+ ( null == from ? "" : "AND reading_timestamp >= ?\n" )
+				+ ( null == to ? "" : "AND reading_timestamp < ?\n" )
+				+ "ORDER BY reading_timestamp ASC, id ASC";
+		
+		long streamedRecords = 0;
+		try(
+			final Connection connection = DbConnector.getConnection();
+			final PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		){
+			int parameterIndex = 1;
+			stmt.setLong(parameterIndex++, internalStationId);
+			if(null != from) stmt.setTimestamp(parameterIndex++, Timestamp.valueOf(from));
+			if(null != to) stmt.setTimestamp(parameterIndex++, Timestamp.valueOf(to));
+			stmt.setFetchSize( ConnectionPoolTools.getStreamingFetchSize() );
+			connection.setAutoCommit(false);
+			
+			try(
+				final ResultSet resultSet = stmt.executeQuery();
+			){
+				while( resultSet.next() ) {
+					consumer.accept( new ConcentrationReading(
+							resultSet.getLong(1),
+							resultSet.getLong(2),
+							TimeTools.parseReadingTimestamp( resultSet.getString(3) ),
+							resultSet.getInt(4),
+							resultSet.getInt(5) ) );
+					streamedRecords++;
+				}
+			}
+			connection.commit();
+		} catch (SQLException | TimeProcessingException e) {
+			throw new DbAccessException("Error while opening database connection or executing query or processing query result after "+streamedRecords+" records. Query:\n"+query, e);
+		}
+		return streamedRecords;
+	}
+	
+	/**
+	 * Asynchronous variant of {@link #streamReadings(long, LocalDateTime, LocalDateTime, Consumer)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param internalStationId    ID of relevant monitoring station
+	 * @param from    inclusive lower bound of the reading timestamps. null for no lower bound.
+	 * @param to    exclusive upper bound of the reading timestamps. null for no upper bound.
+	 * @param consumer    receives each reading record on the executing persistence thread
+	 * @return future completed with the number of streamed reading records. Completed exceptionally with DbAccessException on failure.
+	 */
+	public CompletableFuture<Long> streamReadingsAsync(final long internalStationId, final LocalDateTime from, final LocalDateTime to, final Consumer<ConcentrationReading> consumer) {
+		return PersistenceExecutor.getInstance().submit( () -> Long.valueOf( streamReadings(internalStationId, from, to, consumer) ) );
+	}
+	
+	/**
+	 * Loads the concentration reading records of a monitoring station within the given time range into a compact columnar time series.
+	 * The records are streamed like in {@link #streamReadings(long, LocalDateTime, LocalDateTime, Consumer)}, so no list of domain objects is built.
+	 * 
+	 * @param internalStationId    ID of relevant monitoring station
+	 * @param from    inclusive lower bound of the reading timestamps. null for no lower bound.
+	 * @param to    exclusive upper bound of the reading timestamps. null for no upper bound.
+	 * @return time series of timestamps and concentration values of the reading records
+	 * @throws DbAccessException
+	 */
+	public ConcentrationTimeSeries loadReadingHistory(final long internalStationId, final LocalDateTime from, final LocalDateTime to) throws DbAccessException {
+		final ConcentrationTimeSeries result = new ConcentrationTimeSeries();
+		streamReadings( internalStationId, from, to, reading -> result.append(reading.getReadingTimestamp(), reading.getActualConcentration()) );
+		result.trimToSize();
 		return result;
 	}
 
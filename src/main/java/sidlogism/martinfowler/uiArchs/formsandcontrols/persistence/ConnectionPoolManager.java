@@ -0,0 +1,184 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *	 http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.formsandcontrols.persistence;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.json.JSONException;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import sidlogism.martinfowler.uiArchs.util.ConfigParser;
+import sidlogism.martinfowler.uiArchs.util.ConnectionPoolTools;
+import sidlogism.martinfowler.uiArchs.util.FileSystemAccessException;
+
+/**
+ * Owner of the process-wide database connection pools: one pool per configured DBS (see "dbParameters" in config file).
+ * 
+ * Pools are created lazily on first access and stay open for the whole application lifetime.
+ * Callers only borrow connections (and return them by closing the connection). Callers must never close a pool.
+ * All pools are closed by {@link #shutdown()} on application exit.
+ * 
+ * @see DbConnector
+ */
+public class ConnectionPoolManager {
+	private static final Logger logger = Logger.getLogger(ConnectionPoolManager.class.getName());
+	/*
+	 * static members for singleton pattern
+	 */
+	private static ConnectionPoolManager instance = new ConnectionPoolManager();
+	public static ConnectionPoolManager getInstance() {
+		return ConnectionPoolManager.instance;
+	}
+	
+	/**
+	 * connection pools by configuration identifier of the DBS
+	 */
+	private final Map<String, HikariDataSource> pools = new ConcurrentHashMap<String, HikariDataSource>();
+	
+	/**
+	 * private default ctor for singleton pattern
+	 */
+	private ConnectionPoolManager(){}
+	
+	/**
+	 * @return configuration identifier of the currently used DBS (config entry "activeDbs")
+	 * @throws DbAccessException
+	 */
+	public String getActiveDbs() throws DbAccessException {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			return ConfigParser.getInstance().getRootNode().getString("activeDbs");
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			throw new DbAccessException("Failed reading configuration: Could not get name of currently used DBS.", e);
+		}
+	}
+	
+	/**
+	 * Provides the pool of the currently used DBS.
+	 * 
+	 * @return connection pool of the currently used DBS. Never close it. Use {@link #shutdown()} instead.
+	 * @throws DbAccessException
+	 */
+	public HikariDataSource getConnectionPool() throws DbAccessException {
+		return getConnectionPool( getActiveDbs() );
+	}
+	
+	/**
+	 * Provides the pool of the given DBS. Creates the pool on first access.
+	 * 
+	 * @param dbsName    configuration identifier of the DBS
+	 * @return connection pool of the given DBS. Never close it. Use {@link #shutdown()} instead.
+	 * @throws DbAccessException
+	 */
+	public HikariDataSource getConnectionPool(final String dbsName) throws DbAccessException {
+		final HikariDataSource pool = this.pools.get(dbsName);
+		if(null != pool && !pool.isClosed()) return pool;
+		
+		synchronized(this.pools) {
+			final HikariDataSource presentPool = this.pools.get(dbsName);
+			if(null != presentPool && !presentPool.isClosed()) return presentPool;
+			
+			final HikariDataSource newPool = createConnectionPool(dbsName);
+			this.pools.put(dbsName, newPool);
+			return newPool;
+		}
+	}
+	
+	/**
+	 * Borrows a connection from the pool of the currently used DBS.
+	 * 
+	 * @return pooled connection. Closing it returns it to the pool.
+	 * @throws DbAccessException
+	 * @throws SQLException
+	 */
+	public Connection getConnection() throws DbAccessException, SQLException {
+		return getConnectionPool().getConnection();
+	}
+	
+	/**
+	 * Creates the pool of the currently used DBS if necessary and opens its minimum number of idle connections up front.
+	 * I. e. the first queries of the application don't pay for establishing physical connections.
+	 * 
+	 * @throws DbAccessException
+	 */
+	public void warmUp() throws DbAccessException {
+		final long startNanos = System.nanoTime();
+		final HikariDataSource pool = getConnectionPool();
+		/*
+		 * Borrow the minimum number of idle connections at the same time, which forces the pool to establish them, then return all of them.
+		 */
+		final List<Connection> borrowedConnections = new ArrayList<Connection>();
+		try {
+			for(int i = 0; i < pool.getMinimumIdle(); i++) {
+				borrowedConnections.add( pool.getConnection() );
+			}
+		} catch (SQLException e) {
+			throw new DbAccessException("Error while opening database connections for pool \""+pool.getPoolName()+"\".", e);
+		}finally {
+			for(final Connection connection: borrowedConnections) {
+				try {
+					connection.close();
+				} catch (SQLException e) {
+					logger.log(Level.WARNING, "Failed to return connection to pool \""+pool.getPoolName()+"\".", e);
+				}
+			}
+		}
+		logger.log(Level.INFO, "Warmed up pool \""+pool.getPoolName()+"\" with "+borrowedConnections.size()+" connections in "+((System.nanoTime() - startNanos) / 1_000_000)+" ms.");
+	}
+	
+	/**
+	 * Closes all pools. Call on application exit.
+	 */
+	public void shutdown() {
+		synchronized(this.pools) {
+			for(final HikariDataSource pool: this.pools.values()) {
+				if( pool.isClosed() ) continue;
+				logger.log(Level.INFO, "Closing connection pool \""+pool.getPoolName()+"\".");
+				pool.close();
+			}
+			this.pools.clear();
+		}
+	}
+	
+	/**
+	 * Creates a new connection pool initialized with default parameters for the given DBS.
+	 * 
+	 * @param dbsName    configuration identifier of the DBS
+	 * @return new connection pool
+	 * @throws DbAccessException
+	 */
+	private HikariDataSource createConnectionPool(final String dbsName) throws DbAccessException {
+		HikariConfig config = null;
+		try {
+			config = ConnectionPoolTools.createPoolConfig(dbsName, "uiArchs-"+dbsName);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			throw new DbAccessException("Failed reading configuration: Could not get connection parameters.", e);
+		}
+		logger.log(Level.INFO, "Creating connection pool \""+config.getPoolName()+"\".");
+		return new HikariDataSource(config);
+	}
+}
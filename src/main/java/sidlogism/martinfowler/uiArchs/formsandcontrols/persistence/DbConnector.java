@@ -15,20 +15,15 @@
  */
 package sidlogism.martinfowler.uiArchs.formsandcontrols.persistence;
 
-import java.io.IOException;
-import java.net.URISyntaxException;
+import java.sql.Connection;
+import java.sql.SQLException;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
-import sidlogism.martinfowler.uiArchs.util.ConfigParser;
-import sidlogism.martinfowler.uiArchs.util.FileSystemAccessException;
 /**
  * Simple utility wrapper for accessing database connection pool.
  * 
+ * @see ConnectionPoolManager
  * @see sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.PersistenceTools
  */
 public class DbConnector {
@@ -38,65 +33,26 @@ public class DbConnector {
 	private DbConnector(){}
 	
 	/**
-	 * HikariDataSource	global connection pool initialized once using {@link #getConnectionPool()}
+	 * Provides the process-wide connection pool of the currently used DBS initialized with default parameters.
+	 * 
+	 * @return HikariDataSource	connection pool initialized with default parameters.
+	 * @note	The pool is owned by {@link ConnectionPoolManager} and closed on application exit. Don't close it after single queries. If it is closed anyway, the next call creates a new pool.
 	 * 
-	 * @note	pool is not closed at application shutdown or until a calling method closes it (TODO strategy for closing statically. finalize() is deprecated)
+	 * @throws DbAccessException
 	 */
-	private static HikariDataSource CONNECTION_POOL;
+	public static HikariDataSource getConnectionPool() throws DbAccessException{
+		return ConnectionPoolManager.getInstance().getConnectionPool();
+	}
 	
 	/**
-	 * Provides connection pool initialized with default parameters
+	 * Borrows a connection from the process-wide connection pool of the currently used DBS.
 	 * 
-	 * @return HikariDataSource	connection pool initialized with default parameters.
-	 * @note	returns HikariDataSource instead of javax.sql.DataSource to allow closing the pool externally. 
+	 * @return Connection	pooled connection. Closing it returns it to the pool.
 	 * 
 	 * @throws DbAccessException
-	 * @throws FileSystemAccessException 
+	 * @throws SQLException
 	 */
-	public static synchronized HikariDataSource getConnectionPool() throws DbAccessException{
-		JSONObject dbParameters = null;
-		String activeDbs = null;
-		try {
-			ConfigParser.getInstance().parseConfig();
-			activeDbs = ConfigParser.getInstance().getRootNode().getString("activeDbs");
-			dbParameters = ConfigParser.getInstance().getRootNode().getJSONObject("dbParameters").getJSONObject(activeDbs);
-		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
-			throw new DbAccessException("Failed reading configuration: Could not get connection parameters.", e);
-		}
-		if(null == CONNECTION_POOL || CONNECTION_POOL.isClosed()){
-			final HikariConfig config = new HikariConfig();
-				 
-			config.setJdbcUrl(dbParameters.getString("connectionUrl"));
-			config.setUsername(dbParameters.getString("user"));
-			config.setPassword(dbParameters.getString("password"));
-
-			config.setMaximumPoolSize(10);
-			config.setAutoCommit(false);
-			config.addDataSourceProperty("cachePrepStmts", "true");
-			config.addDataSourceProperty("prepStmtCacheSize", "250");
-			config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-			/*
-			 * set global transaction isolation level and query logging properties depending on used DBS
-			 */
-			switch(activeDbs) {
-			case "oracleXE":
-				config.setTransactionIsolation("TRANSACTION_SERIALIZABLE");
-				break;
-			case "mysql":
-				// REPEATABLE READ is default transaction isolation level in MySQL. Just assuring in case of using other DBS.
-				config.setTransactionIsolation("TRANSACTION_REPEATABLE_READ");
-				config.addDataSourceProperty("logger", "com.mysql.cj.log.StandardLogger");
-				config.addDataSourceProperty("logSlowQueries", "true");
-				config.addDataSourceProperty("dumpQueriesOnException", "true");
-				if( dbParameters.getBoolean("logAllDbOperations") ) config.addDataSourceProperty("autoGenerateTestcaseScript", "true");
-				if( dbParameters.getBoolean("logDbOperationTimings") ) config.addDataSourceProperty("profileSQL", "true");
-				if( dbParameters.getBoolean("logJdbcActionTrace") ) config.addDataSourceProperty("traceProtocol", "true");
-				break;
-			default:
-			}
-		 
-			CONNECTION_POOL = new HikariDataSource(config);
-		}
-		return CONNECTION_POOL;
+	public static Connection getConnection() throws DbAccessException, SQLException{
+		return ConnectionPoolManager.getInstance().getConnection();
 	}
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.formsandcontrols.persistence;
+
+/**
+ * Outcome of one run of {@link ReadingIngestor#ingest(java.util.stream.Stream)}.
+ * 
+ * @param insertedRows    number of inserted reading records
+ * @param rejectedRows    number of samples which were not inserted because of an unknown monitoring station or invalid values
+ * @param durationNanos    duration of the whole run including the lookup of the monitoring stations
+ */
+public record IngestionResult(long insertedRows, long rejectedRows, long durationNanos) {
+	/**
+	 * @return throughput of the run in inserted rows per second
+	 */
+	public double rowsPerSecond() {
+		return durationNanos <= 0 ? 0.0 : insertedRows * 1_000_000_000.0 / durationNanos;
+	}
+}
@@ -20,10 +20,14 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.logging.Level;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
-import com.zaxxer.hikari.HikariDataSource;
+import sidlogism.martinfowler.uiArchs.util.DirectoryCache;
+import sidlogism.martinfowler.uiArchs.util.IDirectoryLoader;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
+
 /**
  * DAO for accessing monitoring_station table.
  *
@@ -34,21 +38,181 @@ public class MonitoringStationDao {
 	private static final Logger logger = Logger.getLogger(MonitoringStationDao.class.getName());
 	
 	/**
-	 * Loads the monitoring station with the given external ID from the database.
+	 * Monitoring stations looked up so far. The station table is small and changes rarely, so repeated lookups are answered from memory.
+	 * Shared by all DAO instances because the UI creates a new DAO per lookup.
+	 */
+	private static final DirectoryCache<MonitoringStation, DbAccessException> STATION_DIRECTORY = new DirectoryCache<MonitoringStation, DbAccessException>(
+			"MonitoringStationDao",
+			new IDirectoryLoader<MonitoringStation, DbAccessException>() {
+				@Override
+				public MonitoringStation loadByKey(final String stationExternalId) throws DbAccessException {
+					return findByExternalId(stationExternalId);
+				}
+				@Override
+				public MonitoringStation loadById(final long id) throws DbAccessException {
+					return findById(id);
+				}
+				@Override
+				public long loadGreatestId() throws DbAccessException {
+					return findGreatestId();
+				}
+				@Override
+				public List<MonitoringStation> loadAfterId(final long afterId, final int limit) throws DbAccessException {
+					return findStationsAfterId(afterId, limit);
+				}
+			},
+			MonitoringStationDao::findExternalIds, MonitoringStation::getId, MonitoringStation::getStationExternalId );
+	
+	/**
+	 * Looks up the monitoring station with the given external ID. Each monitoring station is loaded on its first lookup and kept in memory, unknown external IDs are remembered.
+	 * Monitoring stations added by other clients are found after the next incremental refresh (config entry "directoryCache.refreshPeriodMillis").
 	 * 
 	 * @param stationExternalId    external ID of relevant monitoring station
-	 * @return domain object of relevant monitoring station. null if the query result is empty.
+	 * @return domain object of relevant monitoring station. null if there is no such monitoring station.
+	 * @throws DbAccessException
+	 */
+	public MonitoringStation getStation(final String stationExternalId) throws DbAccessException {
+		// incomplete IDs typed by the user are answered by the negative cache of the directory
+		return STATION_DIRECTORY.getByKey(stationExternalId);
+	}
+	
+	/**
+	 * Looks up the monitoring station with the given ID. Each monitoring station is loaded on its first lookup by ID or external ID and kept in memory.
+	 * 
+	 * @param id    ID of relevant monitoring station
+	 * @return domain object of relevant monitoring station. null if there is no such monitoring station.
 	 * @throws DbAccessException
 	 */
-	public synchronized MonitoringStation getStation(final String stationExternalId) throws DbAccessException {
+	public MonitoringStation getStationById(final long id) throws DbAccessException {
+		return STATION_DIRECTORY.getById(id);
+	}
+	
+	/**
+	 * Looks up the ID of the monitoring station with the given external ID on the given connection, e. g. on the connection of a running batch insert.
+	 * Bypasses {@link #STATION_DIRECTORY}, whose misses would borrow a second connection from the pool while the caller holds one.
+	 * 
+	 * @param connection    open connection of the caller. Neither committed nor closed.
+	 * @param stationExternalId    external ID of relevant monitoring station
+	 * @return ID of relevant monitoring station. -1 if there is no such monitoring station.
+	 * @throws SQLException
+	 */
+	long findStationId(final Connection connection, final String stationExternalId) throws SQLException {
+		try(
+			final PreparedStatement stmt = connection.prepareStatement("SELECT id FROM monitoring_station WHERE station_external_id = ?");
+		){
+			stmt.setString(1, stationExternalId);
+			try(
+				final ResultSet resultSet = stmt.executeQuery();
+			){
+				return resultSet.next() ? resultSet.getLong(1) : -1;
+			}
+		}
+	}
+	
+	/**
+	 * Asynchronous variant of {@link #getStation(String)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param stationExternalId    external ID of relevant monitoring station
+	 * @return future completed with the domain object of relevant monitoring station or null. Completed exceptionally with DbAccessException on failure.
+	 */
+	public CompletableFuture<MonitoringStation> getStationAsync(final String stationExternalId) {
+		return PersistenceExecutor.getInstance().submit( () -> getStation(stationExternalId) );
+	}
+	
+	/**
+	 * Looks up the external IDs of all monitoring stations starting with the given prefix, e. g. for filtering the station list while the user types.
+	 * Loads at most one page of matches (config entry "pagination.pageSize"). If the page contains all matches, longer prefixes are answered from memory.
+	 * 
+	 * @param prefix    prefix of the external IDs. null or empty string matches all monitoring stations.
+	 * @return at most one page of external IDs of matching monitoring stations in ascending order.
+	 * @throws DbAccessException
+	 */
+	public List<String> findExternalIdsByPrefix(final String prefix) throws DbAccessException {
+		return STATION_DIRECTORY.getKeysByPrefix(prefix);
+	}
+	
+	/**
+	 * Asynchronous variant of {@link #findExternalIdsByPrefix(String)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param prefix    prefix of the external IDs. null or empty string matches all monitoring stations.
+	 * @return future completed with the external IDs of matching monitoring stations. Completed exceptionally with DbAccessException on failure.
+	 */
+	public CompletableFuture<List<String>> findExternalIdsByPrefixAsync(final String prefix) {
+		return PersistenceExecutor.getInstance().submit( () -> findExternalIdsByPrefix(prefix) );
+	}
+	
+	/**
+	 * Loads one page of monitoring stations ordered ascending by ID using keyset pagination, e. g. for filling the station list while the user scrolls.
+	 * Bypasses {@link #STATION_DIRECTORY}, which only holds the monitoring stations looked up by ID or external ID.
+	 * The filter on the primary key lets the database seek directly to the first requested record instead of skipping an offset.
+	 * 
+	 * @param afterId    ID of the last monitoring station of the previous page. -1 for the first page.
+	 * @param limit    maximum number of monitoring stations of the page
+	 * @return domain objects of the monitoring stations of the page. Fewer than limit monitoring stations indicate the last page.
+	 * @throws DbAccessException
+	 */
+	public List<MonitoringStation> findPage(final long afterId, final int limit) throws DbAccessException {
+		return findStationsAfterId(afterId, limit);
+	}
+	
+	/**
+	 * Loads one page of monitoring stations ordered ascending by ID from the database. Used by {@link #findPage(long, int)} and by the incremental refresh of {@link #STATION_DIRECTORY}.
+	 * 
+	 * @param afterId    ID of the last monitoring station of the previous page or greatest ID known to the directory
+	 * @param limit    maximum number of monitoring stations of the page
+	 * @return domain objects of the monitoring stations of the page
+	 * @throws DbAccessException
+	 */
+	private static List<MonitoringStation> findStationsAfterId(final long afterId, final int limit) throws DbAccessException {
+		final String query = withRowLimit( "SELECT id, station_external_id, station_name, target_concentration FROM monitoring_station WHERE id > ? ORDER BY id ASC",
+				ConnectionPoolManager.getInstance().getActiveDbs() );
+		
+		final List<MonitoringStation> result = new ArrayList<MonitoringStation>();
+		try(
+			final Connection connection = DbConnector.getConnection();
+			final PreparedStatement stmt = connection.prepareStatement(query);
+		){
+			stmt.setLong(1, afterId);
+			stmt.setInt(2, limit);
+			// fetch the page in one round trip
+			stmt.setFetchSize(limit);
+			connection.setAutoCommit(false);
+			try(
+				final ResultSet resultSet = stmt.executeQuery();
+			){
+				while( resultSet.next() ) {
+					result.add( new MonitoringStation(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getInt(4)) );
+				}
+			}
+		} catch (SQLException e) {
+			throw new DbAccessException("Error while opening database connection or executing query or processing query result. Query\n"+query, e);
+		}
+		return result;
+	}
+	
+	/**
+	 * Asynchronous variant of {@link #findPage(long, int)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param afterId    ID of the last monitoring station of the previous page. -1 for the first page.
+	 * @param limit    maximum number of monitoring stations of the page
+	 * @return future completed with the monitoring stations of the page. Completed exceptionally with DbAccessException on failure.
+	 */
+	public CompletableFuture<List<MonitoringStation>> findPageAsync(final long afterId, final int limit) {
+		return PersistenceExecutor.getInstance().submit( () -> findPage(afterId, limit) );
+	}
+	
+	/**
+	 * Loads the monitoring station with the given external ID from the database. Used by {@link #STATION_DIRECTORY}.
+	 * 
+	 * @param stationExternalId    external ID of relevant monitoring station
+	 * @return domain object of relevant monitoring station. null if there is no such monitoring station.
+	 * @throws DbAccessException
+	 */
+	private static MonitoringStation findByExternalId(final String stationExternalId) throws DbAccessException {
 		final String query = "SELECT id, station_external_id, station_name, target_concentration FROM monitoring_station WHERE station_external_id = ?";
-
-		long id = -1;
-		String stationName = null;
-		int targetConcentration = -1;
+		
 		try(
-			final HikariDataSource connPool = DbConnector.getConnectionPool();
-			final Connection connection = connPool.getConnection();
+			final Connection connection = DbConnector.getConnection();
 			final PreparedStatement stmt = connection.prepareStatement(query);
 		){
 			stmt.setString(1, stationExternalId);
@@ -56,37 +220,138 @@ public class MonitoringStationDao {
 			try(
 				final ResultSet resultSet = stmt.executeQuery();
 			){
-				if(! resultSet.next() ) {
-					logger.log(Level.WARNING, "Query result is empty. Expected one single tuple as result. Query:\n"+query);
-					return null;
-				}
-				id = resultSet.getLong(1);
-				stationName = resultSet.getString(3);
-				targetConcentration = resultSet.getInt(4);
-				
-				if( resultSet.next() ) {
-					throw new DbAccessException("Query result contains more tuples than expected. Expected one single tuple. Query:\n"+query);
-				}
+				// an unknown external ID is no error: the user may still be typing
+				if( !resultSet.next() ) return null;
+				return new MonitoringStation(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getInt(4));
+			}
+		} catch (SQLException e) {
+			throw new DbAccessException("Error while opening database connection or executing query or processing query result. Query\n"+query, e);
+		}
+	}
+	
+	/**
+	 * Loads the monitoring station with the given ID from the database. Used by {@link #STATION_DIRECTORY}.
+	 * 
+	 * @param id    ID of relevant monitoring station
+	 * @return domain object of relevant monitoring station. null if there is no such monitoring station.
+	 * @throws DbAccessException
+	 */
+	private static MonitoringStation findById(final long id) throws DbAccessException {
+		final String query = "SELECT id, station_external_id, station_name, target_concentration FROM monitoring_station WHERE id = ?";
+		
+		try(
+			final Connection connection = DbConnector.getConnection();
+			final PreparedStatement stmt = connection.prepareStatement(query);
+		){
+			stmt.setLong(1, id);
+			connection.setAutoCommit(false);
+			try(
+				final ResultSet resultSet = stmt.executeQuery();
+			){
+				if( !resultSet.next() ) return null;
+				return new MonitoringStation(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getInt(4));
+			}
+		} catch (SQLException e) {
+			throw new DbAccessException("Error while opening database connection or executing query or processing query result. Query\n"+query, e);
+		}
+	}
+	
+	/**
+	 * Loads the greatest ID of all monitoring stations from the database. Used by {@link #STATION_DIRECTORY} as high-water mark of its incremental refresh.
+	 * 
+	 * @return greatest ID of all monitoring stations. -1 if there are no monitoring stations.
+	 * @throws DbAccessException
+	 */
+	private static long findGreatestId() throws DbAccessException {
+		// resolved by the primary key index without reading rows
+		final String query = "SELECT MAX(id) FROM monitoring_station";
+		
+		try(
+			final Connection connection = DbConnector.getConnection();
+			final PreparedStatement stmt = connection.prepareStatement(query);
+		){
+			connection.setAutoCommit(false);
+			try(
+				final ResultSet resultSet = stmt.executeQuery();
+			){
+				if( !resultSet.next() ) return -1;
+				final long greatestId = resultSet.getLong(1);
+				return resultSet.wasNull() ? -1 : greatestId;
 			}
-		} catch (SQLException | DbAccessException e) {
+		} catch (SQLException e) {
 			throw new DbAccessException("Error while opening database connection or executing query or processing query result. Query\n"+query, e);
 		}
+	}
+	
+	/**
+	 * Loads one page of external IDs matching the given pattern from the database using keyset pagination. Used by {@link #STATION_DIRECTORY} for type-ahead search.
+	 * The conditions are resolved by a range scan on the index of the external ID, which also provides the order.
+	 * 
+	 * @param likePattern    LIKE pattern of the external IDs escaped by {@link DirectoryCache#LIKE_ESCAPE_CHARACTER}
+	 * @param afterExternalId    last external ID of the previous page. null for the first page.
+	 * @param limit    maximum number of external IDs
+	 * @return external IDs of matching monitoring stations in ascending order
+	 * @throws DbAccessException
+	 */
+	private static List<String> findExternalIds(final String likePattern, final String afterExternalId, final int limit) throws DbAccessException {
+		final String query = withRowLimit( "SELECT station_external_id FROM monitoring_station WHERE station_external_id LIKE ? ESCAPE '"+DirectoryCache.LIKE_ESCAPE_CHARACTER+"'"
+				+( (null == afterExternalId) ? "" : " AND station_external_id > ?" )+" ORDER BY station_external_id ASC",
+				ConnectionPoolManager.getInstance().getActiveDbs() );
 		
-		final MonitoringStation result = new MonitoringStation(id, stationExternalId, stationName, targetConcentration);
+		final List<String> result = new ArrayList<String>();
+		try(
+			final Connection connection = DbConnector.getConnection();
+			final PreparedStatement stmt = connection.prepareStatement(query);
+		){
+			int parameterIndex = 1;
+			stmt.setString(parameterIndex++, likePattern);
+			if(null != afterExternalId) stmt.setString(parameterIndex++, afterExternalId);
+			stmt.setInt(parameterIndex, limit);
+			// fetch the page in one round trip
+			stmt.setFetchSize(limit);
+			connection.setAutoCommit(false);
+			try(
+				final ResultSet resultSet = stmt.executeQuery();
+			){
+				while( resultSet.next() ) {
+					result.add( resultSet.getString(1) );
+				}
+			}
+		} catch (SQLException e) {
+			throw new DbAccessException("Error while opening database connection or executing query or processing query result. Query\n"+query, e);
+		}
 		return result;
 	}
 	
+	/**
+	 * Appends the row limit of a page in the SQL dialect of the given DBS, so that the database stops reading after the page instead of the driver discarding further rows.
+	 * The limit is bound as last parameter, so the query text and its cached prepared statement don't depend on the page size.
+	 * 
+	 * @param query    query text ending with its ORDER BY clause
+	 * @param dbsName    configuration identifier of the used DBS
+	 * @return    query text with the row limit as additional last parameter
+	 */
+	private static String withRowLimit(final String query, final String dbsName) {
+		switch(dbsName) {
+			case "mysql":
+				return query + " LIMIT ?";
+			case "oracleXE":
+			default:
+				// standard SQL syntax
+				return query + " FETCH FIRST ? ROWS ONLY";
+		}
+	}
+	
 	/**
 	 * @return Container holding the String representation of every monitoring station record.
 	 * @throws DbAccessException
 	 */
-	public synchronized ArrayList<String> findAll() throws DbAccessException {
+	public ArrayList<String> findAll() throws DbAccessException {
 		final String query = "SELECT id, station_external_id, station_name, target_concentration FROM monitoring_station ORDER BY id ASC";
 		
 		ArrayList<String> result = new ArrayList<String>();
 		try(
-			final HikariDataSource connPool = DbConnector.getConnectionPool();
-			final Connection connection = connPool.getConnection();
+			final Connection connection = DbConnector.getConnection();
 			final PreparedStatement stmt = connection.prepareStatement(query);
 			final ResultSet resultSet = stmt.executeQuery();
 		){
@@ -102,4 +367,13 @@ public class MonitoringStationDao {
 		}
 		return result;
 	}
+	
+	/**
+	 * Asynchronous variant of {@link #findAll()} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @return future completed with the external IDs of all monitoring stations. Completed exceptionally with DbAccessException on failure.
+	 */
+	public CompletableFuture<ArrayList<String>> findAllAsync() {
+		return PersistenceExecutor.getInstance().submit( () -> findAll() );
+	}
 }
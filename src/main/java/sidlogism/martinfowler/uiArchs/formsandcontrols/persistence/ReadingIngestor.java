@@ -0,0 +1,195 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.formsandcontrols.persistence;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import sidlogism.martinfowler.uiArchs.util.ConfigParser;
+import sidlogism.martinfowler.uiArchs.util.FileSystemAccessException;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
+
+/**
+ * Bulk insert of new concentration readings, e. g. delivered by field sensors.
+ * 
+ * The monitoring stations are resolved by their external IDs on the connection of the insert, once per external ID and ingestion run. Thus an ingestion never holds more than one pooled connection.
+ * The readings are inserted in JDBC batches, one transaction per batch:
+ *     MySQL: Connector/J rewrites each batch into multi-row INSERT statements (see "rewriteBatchedStatements" in ConnectionPoolTools).
+ *     Oracle: the driver's JDBC update batching sends each batch to the database in one round trip instead of one per row.
+ * 
+ * NOTE: Using no OR-mapper on purpose.
+ */
+public class ReadingIngestor {
+	private static final Logger logger = Logger.getLogger(ReadingIngestor.class.getName());
+	/**
+	 * Default for config entry "ingestion.batchSize".
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+	private static final String INSERT_READING_QUERY = "INSERT INTO concentration_reading (fk_station_id, reading_timestamp, actual_concentration)\n"
+			+ "VALUES (?, ?, ?)";
+	
+	private final MonitoringStationDao stationDao;
+	private final int batchSize;
+	
+	/**
+	 * Creates an ingestor with the configured batch size.
+	 * 
+	 * @see #getConfiguredBatchSize()
+	 */
+	public ReadingIngestor() {
+		this(new MonitoringStationDao(), getConfiguredBatchSize());
+	}
+	
+	/**
+	 * @param stationDao    DAO resolving the external IDs of the monitoring stations on the connection of the insert
+	 * @param batchSize    number of reading records inserted per JDBC batch and transaction
+	 */
+	public ReadingIngestor(final MonitoringStationDao stationDao, final int batchSize) {
+		this.stationDao = stationDao;
+		this.batchSize = Math.max(1, batchSize);
+	}
+	
+	/**
+	 * Reads the batch size from the config file.
+	 * 
+	 * @return    value of config entry "ingestion.batchSize" or {@link #DEFAULT_BATCH_SIZE} if the config entry is missing or the config file can't be read
+	 */
+	public static int getConfiguredBatchSize() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject ingestionConfig = ConfigParser.getInstance().getRootNode().optJSONObject("ingestion");
+			if(null == ingestionConfig) return DEFAULT_BATCH_SIZE;
+			return ingestionConfig.optInt("batchSize", DEFAULT_BATCH_SIZE);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default batch size of "+DEFAULT_BATCH_SIZE+" for ingestion.", e);
+			return DEFAULT_BATCH_SIZE;
+		}
+	}
+	
+	/**
+	 * Inserts the given readings as new reading records.
+	 * 
+	 * The samples are consumed one by one, so the stream may be arbitrarily long. Each full batch is committed on its own.
+	 * Samples of unknown monitoring stations, without timestamp or with a concentration exceeding the SMALLINT range are skipped and counted as rejected.
+	 * Applications run it via {@link #ingestAsync(Stream)}, so that it holds a permit of the {@link PersistenceExecutor}. Direct calls, e. g. by tests and benchmarks, bypass the bound of concurrent connections.
+	 * 
+	 * @param samples    new readings
+	 * @return numbers of inserted and rejected readings and the throughput
+	 * @throws DbAccessException    if a batch fails. The batch is rolled back, all batches before stay committed.
+	 */
+	public IngestionResult ingest(final Stream<ReadingSample> samples) throws DbAccessException {
+		final String query = INSERT_READING_QUERY;
+		final long startNanos = System.nanoTime();
+		// station IDs by external ID. -1 for unknown monitoring stations.
+		final Map<String, Long> stationIds = new HashMap<String, Long>();
+		long insertedRows = 0;
+		long rejectedRows = 0;
+		int pendingRows = 0;
+		try(
+			final Connection connection = DbConnector.getConnection();
+			final PreparedStatement stmt = connection.prepareStatement(query);
+		){
+			connection.setAutoCommit(false);
+			final Iterator<ReadingSample> iterator = samples.iterator();
+			while( iterator.hasNext() ) {
+				final ReadingSample sample = iterator.next();
+				final long stationId = resolveStationId(connection, sample.stationExternalId(), stationIds);
+				if(stationId < 0 || null == sample.readingTimestamp()
+						|| sample.actualConcentration() < Short.MIN_VALUE || sample.actualConcentration() > Short.MAX_VALUE) {
+					rejectedRows++;
+					continue;
+				}
+				stmt.setLong(1, stationId);
+				stmt.setTimestamp(2, Timestamp.valueOf( sample.readingTimestamp() ));
+				stmt.setInt(3, sample.actualConcentration());
+				stmt.addBatch();
+				if(++pendingRows == this.batchSize) {
+					insertedRows += executeBatch(connection, stmt, pendingRows);
+					pendingRows = 0;
+				}
+			}
+			if(pendingRows > 0) {
+				insertedRows += executeBatch(connection, stmt, pendingRows);
+			}
+		} catch (SQLException e) {
+			throw new DbAccessException("Error while opening database connection or executing batch insert after "+insertedRows+" inserted records. Query:\n"+query, e);
+		}
+		
+		final IngestionResult result = new IngestionResult(insertedRows, rejectedRows, System.nanoTime() - startNanos);
+		stationIds.values().removeIf( stationId -> stationId.longValue() >= 0 );
+		if(! stationIds.isEmpty() ) {
+			logger.log(Level.WARNING, "Rejected readings of unknown monitoring stations: "+stationIds.keySet());
+		}
+		logger.log(Level.INFO, "Ingested "+result.insertedRows()+" readings in "+(result.durationNanos() / 1_000_000)+" ms ("+Math.round(result.rowsPerSecond())+" rows per second). Rejected "+result.rejectedRows()+" readings.");
+		return result;
+	}
+	
+	/**
+	 * Asynchronous variant of {@link #ingest(Stream)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param samples    new readings
+	 * @return future completed with the numbers of inserted and rejected readings. Completed exceptionally with DbAccessException on failure.
+	 */
+	public CompletableFuture<IngestionResult> ingestAsync(final Stream<ReadingSample> samples) {
+		return PersistenceExecutor.getInstance().submit( () -> ingest(samples) );
+	}
+	
+	/**
+	 * Looks up the ID of the monitoring station with the given external ID on the given connection. Each external ID is looked up once per ingestion run.
+	 * 
+	 * @param stationIds    IDs of the monitoring stations looked up so far by external ID. -1 for unknown monitoring stations.
+	 * @return ID of the monitoring station. -1 if there is no such monitoring station.
+	 */
+	private long resolveStationId(final Connection connection, final String stationExternalId, final Map<String, Long> stationIds) throws SQLException {
+		if(null == stationExternalId) return -1;
+		final Long knownId = stationIds.get(stationExternalId);
+		if(null != knownId) return knownId.longValue();
+		final long stationId = this.stationDao.findStationId(connection, stationExternalId);
+		stationIds.put( stationExternalId, Long.valueOf(stationId) );
+		return stationId;
+	}
+	
+	/**
+	 * Executes and commits the pending batch. Rolls it back on failure.
+	 * 
+	 * @return number of inserted rows
+	 */
+	private static int executeBatch(final Connection connection, final PreparedStatement stmt, final int pendingRows) throws SQLException {
+		try {
+			stmt.executeBatch();
+			connection.commit();
+		}catch(SQLException e) {
+			connection.rollback();
+			throw e;
+		}
+		// rewritten multi-row statements don't report row counts per record
+		return pendingRows;
+	}
+}
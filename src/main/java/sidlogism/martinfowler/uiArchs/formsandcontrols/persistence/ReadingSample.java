@@ -0,0 +1,28 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.formsandcontrols.persistence;
+
+import java.time.LocalDateTime;
+
+/**
+ * New concentration reading as delivered by a field sensor, input of {@link ReadingIngestor}.
+ * 
+ * @param stationExternalId    external ID of the monitoring station the reading was taken at
+ * @param readingTimestamp    time of the reading
+ * @param actualConcentration    actual concentration measured
+ */
+public record ReadingSample(String stationExternalId, LocalDateTime readingTimestamp, int actualConcentration) {
+}
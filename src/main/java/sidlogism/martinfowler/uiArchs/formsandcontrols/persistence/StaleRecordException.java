@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.formsandcontrols.persistence;
+
+/**
+ * Custom exception for optimistic locking conflicts.
+ * Thrown if a record was modified by another writer since it was loaded, i. e. if the version of the loaded record is outdated.
+ * The caller should reload the record before trying again.
+ */
+public class StaleRecordException extends DbAccessException {
+	private static final long serialVersionUID = 4715061298343508211L;
+
+	/**
+	 * @param message
+	 */
+	public StaleRecordException(String message) {
+		super(message);
+	}
+
+	/**
+	 * @param message
+	 * @param cause
+	 */
+	public StaleRecordException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -2,6 +2,7 @@ package sidlogism.martinfowler.uiArchs.model2_passive_view.controller;
 
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ModelPersistenceException;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.MonitoringStation;
@@ -32,6 +33,14 @@ public interface IMonitoringStationController {
 	 */
 	public MonitoringStation getStation(final String stationExternalId) throws ModelPersistenceException;
 
+	/**
+	 * Forwards the asynchronous lookup of the monitoring station with the given external ID to the model.
+	 * 
+	 * @param stationExternalId    external ID of relevant monitoring station
+	 * @return future completed with the domain object of relevant monitoring station or null. Completed exceptionally with ModelPersistenceException on failure.
+	 */
+	public CompletableFuture<MonitoringStation> getStationAsync(final String stationExternalId);
+
 	/**
 	 * ChangeListener callback
 	 *     if selection in station list of station view changed
@@ -1,9 +1,10 @@
 package sidlogism.martinfowler.uiArchs.model2_passive_view.controller;
 
 import java.net.URL;
+import java.util.Collection;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
-import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ModelPersistenceException;
 import javafx.beans.value.ObservableValue;
 
 public interface IReadingDataSheetController {
@@ -22,11 +23,12 @@ public interface IReadingDataSheetController {
 	/**
 	 * Set new value for "Station ID" text field.
 	 * 
+	 * The station and its reading record are loaded in the background and displayed in the JavaFX application thread. A newer switch supersedes a switch still in progress.
+	 * 
 	 * @param newExternalId    new value for "Station ID" text field. Null is ignored. Use empty string instead.
-	 * @return    boolean value indicating whether changing the currently displayed reading record was successful. True = success, false = failure.
-	 * @throws ModelPersistenceException 
+	 * @return    future completed in the JavaFX application thread with a boolean value indicating whether changing the currently displayed reading record was successful. True = success, false = failure. Not completed if superseded by a newer switch.
 	 */
-	public boolean switchContents(final String newExternalId);
+	public CompletableFuture<Boolean> switchContents(final String newExternalId);
 
 	/**
 	 * ChangeListener callback if text field "Actual" changed.
@@ -34,4 +36,11 @@ public interface IReadingDataSheetController {
 	 */
 	public void changed(ObservableValue<? extends String> observable, String oldActualValue, String newActualValue);
 
+	/**
+	 * Loads the youngest reading records of the given monitoring stations in the background with one single query, so that later selections of these monitoring stations don't hit the database.
+	 * 
+	 * @param internalStationIds    IDs of relevant monitoring stations. null or empty for all monitoring stations.
+	 */
+	public void prefetchLatestReadings(final Collection<Long> internalStationIds);
+
 }
\ No newline at end of file
@@ -17,19 +17,23 @@ package sidlogism.martinfowler.uiArchs.model2_passive_view.controller;
 
 
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
-import jakarta.persistence.PersistenceException;
-
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.IMonitoringStationModel;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.MonitoringStationModel;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ModelPersistenceException;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.MonitoringStation;
+import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.StationSummary;
+import sidlogism.martinfowler.uiArchs.util.Debouncer;
+import sidlogism.martinfowler.uiArchs.util.KeysetPager;
+import sidlogism.martinfowler.uiArchs.util.SupersedingRequests;
+import sidlogism.martinfowler.uiArchs.util.ViewSyncBus;
+import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.StringProperty;
 import javafx.beans.value.ChangeListener;
@@ -38,6 +42,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextInputControl;
 
@@ -48,9 +53,30 @@ import javafx.scene.control.TextInputControl;
 public class MonitoringStationController implements Initializable, ChangeListener<String>, IMonitoringStationController {
 	private static final Logger logger = Logger.getLogger(MonitoringStationController.class.getName());
 	private IMonitoringStationModel model = null;
+	/**
+	 * Filters the list and changes its selection only for the last station ID of a burst of keystrokes in the reading view, so that no lookups are started for IDs the user has already typed past.
+	 */
+	private final Debouncer<String> stationExtIdDebouncer = new Debouncer<String>("station-id-text-field", this::filterAndSelect, Platform::runLater);
 
 	@FXML
 	public ListView<String> stationList;
+	/**
+	 * External IDs of all monitoring stations loaded so far. Shown unless the list is filtered by a typed external ID.
+	 */
+	private final ObservableList<String> loadedStationListData = FXCollections.observableArrayList();
+	/**
+	 * Loads the monitoring stations page by page while the user scrolls, so startup time and memory don't grow with the number of monitoring stations.
+	 */
+	private KeysetPager<StationSummary> stationPager = null;
+	private final SupersedingRequests filterRequests = new SupersedingRequests("MonitoringStationController", Platform::runLater);
+	/**
+	 * Keeps the selection of the station list and the station external ID of the reading view in sync. Only user changes start a switch of the displayed monitoring station, echoes of programmatic updates are dropped.
+	 */
+	private final ViewSyncBus<String> stationSync = new ViewSyncBus<String>("MonitoringStationController-station", this::switchStation);
+	/**
+	 * True while the selection of the station list is changed programmatically, e. g. for a station external ID typed in the reading view. Distinguishes these changes from selections made by the user.
+	 */
+	private boolean changingSelection = false;
 	/**
 	 * IMPORTANT: For keeping station view and reading view in sync, the corresponding controllers must know each other.
 	 * This link is established here.
@@ -89,19 +115,33 @@ public class MonitoringStationController implements Initializable, ChangeListene
 		 * Currently the list contains only one string representing column monitoring_station.station_external_id.
 		 * There currently is no out-of-the-box list for multiple columns in JavaFX.
 		 */
-		ObservableList<String> stationListData = null;
-		try {
-			final List<MonitoringStation> stations = model.findAll();
-			final List<String> externalIds = stations.stream().map(MonitoringStation::getStationExternalId).collect( Collectors.toList() );
-			stationListData = FXCollections.observableArrayList( externalIds );
-		} catch (ModelPersistenceException | PersistenceException e) {
-			final List<String> data = new ArrayList<String>();
-			data.add("- data access error -");
-			stationListData = FXCollections.observableArrayList( data );
-			logger.log(Level.SEVERE, "Failed to load data from DB.", e);
-		}
-		logger.log(Level.FINE, "Initializing station list with these entries: "+stationListData);
-		this.stationList.setItems(stationListData);
+		this.stationList.setItems(this.loadedStationListData);
+		// load in the background and append each page in the JavaFX application thread
+		this.stationPager = new KeysetPager<StationSummary>("MonitoringStationController", model::findPageAsync, StationSummary::id,
+				stations -> {
+					final List<String> externalIds = stations.stream().map(StationSummary::stationExternalId).collect( Collectors.toList() );
+					logger.log(Level.FINE, "Appending "+externalIds.size()+" entries to station list.");
+					this.loadedStationListData.addAll(externalIds);
+					// load the reading records of all stations of the page at once instead of one query per selection
+					this.readingViewController.prefetchLatestReadings( stations.stream().map( station -> Long.valueOf(station.id()) ).collect( Collectors.toList() ) );
+				},
+				failure -> {
+					logger.log(Level.SEVERE, "Failed to load data from DB.", failure);
+					if( this.loadedStationListData.isEmpty() ) this.loadedStationListData.setAll("- data access error -");
+				},
+				Platform::runLater);
+		// load the next page as soon as the last loaded monitoring station becomes visible
+		this.stationList.setCellFactory( listView -> new ListCell<String>() {
+			@Override
+			protected void updateItem(final String item, final boolean empty) {
+				super.updateItem(item, empty);
+				setText(empty ? null : item);
+				if( !empty && getListView().getItems() == loadedStationListData && getIndex() >= loadedStationListData.size() - 1 ) {
+					stationPager.loadNextPage();
+				}
+			}
+		});
+		this.stationPager.loadNextPage();
 		
 		/*
 		 * IMPORTANT: Register this controller as listener to changes of the selection in the list of monitoring stations.
@@ -123,7 +163,40 @@ public class MonitoringStationController implements Initializable, ChangeListene
 		 * Incomplete partial names or missing hits are handled implicitly:
 		 * If the selection model doesn't find the given entry, the selection simply doesn't change.
 		 */
-		this.stationList.getSelectionModel().select(newExternalId);
+		this.changingSelection = true;
+		try {
+			this.stationList.getSelectionModel().select(newExternalId);
+		} finally {
+			this.changingSelection = false;
+		}
+	}
+
+	/**
+	 * Type-ahead search: narrow the list to the monitoring stations whose external ID starts with the given text and select the monitoring station with exactly this external ID, if any.
+	 * 
+	 * @param typedExternalId    external ID or part of it typed by the user. Empty string shows all monitoring stations. Null is ignored.
+	 */
+	private void filterAndSelect(final String typedExternalId) {
+		if(null == typedExternalId) {
+			return;
+		}
+		// the text field echoes selections made in the list. Keep the list as it is in this case.
+		if( this.stationSync.isEcho("reading-view", typedExternalId) ) {
+			return;
+		}
+		if( typedExternalId.isEmpty() ) {
+			// show all loaded monitoring stations again. Supersedes a filter request still in flight.
+			this.filterRequests.submit( CompletableFuture.completedFuture(this.loadedStationListData), this.stationList::setItems, failure -> {} );
+			return;
+		}
+		// loads one page of matches. Longer prefixes of a complete page are answered by the prefix index of the station directory.
+		this.filterRequests.submit( this.model.findStationExternalIdsByPrefixAsync(typedExternalId),
+				matchingExternalIds -> {
+					// wrapped instead of copied
+					this.stationList.setItems( FXCollections.observableList(matchingExternalIds) );
+					changeSelection(typedExternalId);
+				},
+				failure -> logger.log(Level.WARNING, "Failed to filter monitoring stations by external ID \""+typedExternalId+"\".", failure) );
 	}
 
 	/**
@@ -142,9 +215,20 @@ public class MonitoringStationController implements Initializable, ChangeListene
 	 * @throws ModelPersistenceException
 	 */
 	@Override
-	public synchronized MonitoringStation getStation(final String stationExternalId) throws ModelPersistenceException{
+	public MonitoringStation getStation(final String stationExternalId) throws ModelPersistenceException{
 		return this.model.getStation(stationExternalId);
 	}
+	
+	/**
+	 * Forwards the asynchronous lookup of the monitoring station with the given external ID to the model.
+	 * 
+	 * @param stationExternalId    external ID of relevant monitoring station
+	 * @return future completed with the domain object of relevant monitoring station or null. Completed exceptionally with ModelPersistenceException on failure.
+	 */
+	@Override
+	public CompletableFuture<MonitoringStation> getStationAsync(final String stationExternalId) {
+		return this.model.getStationAsync(stationExternalId);
+	}
 
 	/**
 	 * ChangeListener callback
@@ -163,15 +247,9 @@ public class MonitoringStationController implements Initializable, ChangeListene
 			 */
 			if( null == newStationName || newStationName.isEmpty() || newStationName.isBlank() ) return;
 			
-			if(! this.readingViewController.switchContents(newStationName) ) {
-				/*
-				 * If there is a problem with the new station, wipe selection.
-				 * To avoid redundant listener updates temporarily unregister from changes of the list selection.
-				 */
-				this.stationList.getSelectionModel().selectedItemProperty().removeListener(this);
-				wipeSelection();
-				this.stationList.getSelectionModel().selectedItemProperty().addListener(this);
-			}
+			// a station ID typed before the user selected a station must not override the selection when it is handed over later
+			if( !this.changingSelection ) this.stationExtIdDebouncer.cancel();
+			this.stationSync.publish("station-list", newStationName);
 			return;
 		}else if ( observable instanceof StringProperty || observable instanceof TextInputControl ) {
 			/*
@@ -181,9 +259,29 @@ public class MonitoringStationController implements Initializable, ChangeListene
 			 * The event handler approach doesn't apply here because events on text fields are only fired on pressing Enter.
 			 * The exactly expected class would be the private nested class TextInputControl$TextProperty, which cannot be imported since it is private.
 			 */
-			changeSelection(newStationName);
+			this.stationExtIdDebouncer.submit(newStationName);
 			return;
 		}
 		logger.log(Level.WARNING, "Unknown class of observed object. The observed object has unknown type "+observable.getClass().getName()+".\nold value:"+oldStationValue+"\nnew value:"+newStationName);
 	}
+	
+	/**
+	 * Switches the contents of the reading view to the given monitoring station. Called by the station sync bus for each selection made by the user.
+	 * 
+	 * @param newStationName    external ID of the newly selected monitoring station
+	 */
+	private void switchStation(final String newStationName) {
+		this.readingViewController.switchContents(newStationName).thenAccept( switched -> {
+			if( switched.booleanValue() ) return;
+			// let the user repeat the same selection
+			this.stationSync.reset();
+			/*
+			 * If there is a problem with the new station, wipe selection.
+			 * To avoid redundant listener updates temporarily unregister from changes of the list selection.
+			 */
+			this.stationList.getSelectionModel().selectedItemProperty().removeListener(this);
+			wipeSelection();
+			this.stationList.getSelectionModel().selectedItemProperty().addListener(this);
+		});
+	}
 }
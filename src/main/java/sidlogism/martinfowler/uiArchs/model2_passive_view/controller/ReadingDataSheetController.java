@@ -16,18 +16,27 @@
 package sidlogism.martinfowler.uiArchs.model2_passive_view.controller;
 
 import java.net.URL;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import jakarta.persistence.PersistenceException;
-
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.ConcentrationReadingModel;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.IConcentrationReadingModel;
-import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ConcentrationReading;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ModelPersistenceException;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.MonitoringStation;
+import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ReadingSummary;
+import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.StaleRecordException;
+import sidlogism.martinfowler.uiArchs.util.IFlushListener;
+import sidlogism.martinfowler.uiArchs.util.SupersedingRequests;
 import sidlogism.martinfowler.uiArchs.util.TimeTools;
+import sidlogism.martinfowler.uiArchs.util.WriteBehindQueue;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
@@ -54,6 +63,20 @@ public class ReadingDataSheetController implements Initializable, ChangeListener
 
 	// ID of currently displayed concentration reading record
 	private long concentrationReadingId = -1;
+	/**
+	 * Coalesces edits of the actual concentration value and writes them in the background.
+	 * Flush results are marked in the text field of the actual concentration.
+	 */
+	private final WriteBehindQueue<Integer> actualValueWriteBehind;
+	/**
+	 * Row versions of the displayed reading records by reading ID: the expected versions of the written edits (optimistic locking).
+	 * Set on display and advanced by own writes. Read by the flush thread of {@link #actualValueWriteBehind}.
+	 */
+	private final Map<Long, Integer> displayedReadingVersions = new ConcurrentHashMap<Long, Integer>();
+	/**
+	 * Lookups for switching the displayed contents. Only the lookup of the latest switch is applied.
+	 */
+	private final SupersedingRequests contentRequests = new SupersedingRequests("ReadingDataSheetController", Platform::runLater);
 	
 	// data depending on current monitoring station
 	@FXML
@@ -71,6 +94,34 @@ public class ReadingDataSheetController implements Initializable, ChangeListener
 	public ReadingDataSheetController() {
 		logger.log(Level.FINE, "reading ctor");
 		this.model = new ConcentrationReadingModel();
+		this.actualValueWriteBehind = new WriteBehindQueue<Integer>("ReadingDataSheetController", this::writeActualConcentrations,
+				new IFlushListener<Integer>() {
+					@Override
+					public void flushSucceeded(final long readingId, final Integer value) {
+						Platform.runLater( () -> {
+							if(readingId == concentrationReadingId) markActualConcentrationValid();
+						});
+					}
+					@Override
+					public void flushFailed(final long readingId, final Integer value, final Exception cause) {
+						if(cause instanceof StaleRecordException) {
+							logger.log(Level.WARNING, "The concentration reading with ID "+readingId+" was modified by someone else. Discarded actual value was \""+value+"\".", cause);
+						}else {
+							logger.log(Level.WARNING, "Failed to update the actual concentration value in the database. Given actual value was \""+value+"\".", cause);
+						}
+						Platform.runLater( () -> {
+							if(readingId != concentrationReadingId) return;
+							if(cause instanceof StaleRecordException) {
+								// Reload a stale record. The reloaded value is highlighted to indicate the discarded edit.
+								switchContents( tfStationExternalId.getText() ).thenAccept( switched -> {
+									if( switched.booleanValue() ) markActualConcentrationErroneous();
+								});
+								return;
+							}
+							markActualConcentrationErroneous();
+						});
+					}
+				});
 	}
 
 	/**
@@ -93,6 +144,10 @@ public class ReadingDataSheetController implements Initializable, ChangeListener
 		 * NOTE: The event handler approach doesn't apply here because events on text fields are only fired on pressing Enter.
 		 */
 		this.tfActualConcentration.textProperty().addListener(this);
+		// write pending edits as soon as the user leaves the text field
+		this.tfActualConcentration.focusedProperty().addListener( (observable, wasFocused, isFocused) -> {
+			if( !isFocused ) this.actualValueWriteBehind.flushNow();
+		});
 	}
 	
 	/**
@@ -119,61 +174,112 @@ public class ReadingDataSheetController implements Initializable, ChangeListener
 
 	/**
 	 * Handle switch in selected monitoring station. All contents of reading data sheet must be updated.
+	 * The station and its reading record are loaded in the background and displayed in the JavaFX application thread. A newer switch supersedes a switch still in progress.
 	 * 
 	 * @param newExternalId    new value for "Station ID" text field. Null is ignored. Use empty string instead.
-	 * @return    boolean value indicating whether changing the currently displayed reading record was successful. True = success, false = failure.
-	 * @throws ModelPersistenceException 
+	 * @return    future completed in the JavaFX application thread with a boolean value indicating whether changing the currently displayed reading record was successful. True = success, false = failure. Not completed if superseded by a newer switch.
 	 */
 	@Override
-	public synchronized boolean switchContents(final String newExternalId) {
+	public CompletableFuture<Boolean> switchContents(final String newExternalId) {
+		final CompletableFuture<Boolean> switched = new CompletableFuture<Boolean>();
 		if(null == newExternalId || null == stationController) {
-			return false;
+			switched.complete(Boolean.FALSE);
+			return switched;
 		}
+		// don't keep edits of the previously displayed reading record pending
+		this.actualValueWriteBehind.flushNow();
 		
 		/*
 		 * load and display data depending on current monitoring station
 		 */
-		MonitoringStation station = null;
-		try {
-			station = stationController.getStation(newExternalId);
-			if( null == station ) {
-				throw new ModelPersistenceException("There is no station with given external station ID \""+newExternalId+"\".");
-			}
-		} catch (ModelPersistenceException | PersistenceException e) {
-			logger.log(Level.WARNING, "Failed to lookup station with given external station ID \""+newExternalId+"\".", e);
-			// wipe text fields to indicate error
-			wipeAllDependentTextFields();
-			return false;
-		}
-		this.tfStationExternalId.setText(newExternalId);
-		this.tfTargetConcentration.setText( Integer.toString(station.getTargetConcentration()) );
+		this.contentRequests.submit( stationController.getStationAsync(newExternalId),
+				station -> {
+					if( null == station ) {
+						throw new CompletionException( new ModelPersistenceException("There is no station with given external station ID \""+newExternalId+"\".") );
+					}
+					return station;
+				},
+				station -> {
+					this.tfStationExternalId.setText(newExternalId);
+					this.tfTargetConcentration.setText( Integer.toString(station.getTargetConcentration()) );
+					switchReadingContents(station, switched);
+				},
+				failure -> {
+					logger.log(Level.WARNING, "Failed to lookup station with given external station ID \""+newExternalId+"\".", failure);
+					// wipe text fields to indicate error
+					wipeAllDependentTextFields();
+					switched.complete(Boolean.FALSE);
+				});
+		return switched;
+	}
+	
+	/**
+	 * Loads and displays data depending on current reading record. Second step of {@link #switchContents(String)}.
+	 * 
+	 * @param station    new monitoring station
+	 * @param switched    result of the switch
+	 */
+	private void switchReadingContents(final MonitoringStation station, final CompletableFuture<Boolean> switched) {
+		this.contentRequests.submit( model.getLatestConcentrationReadingAsync( station.getId() ),
+				newRecord -> {
+					if( null == newRecord ) {
+						throw new CompletionException( new ModelPersistenceException("There doesn't exist any concentration reading for given station yet. Station: "+station) );
+					}
+					return newRecord;
+				},
+				newRecord -> {
+					this.tfDate.setText( newRecord.readingTimestamp().format( TimeTools.getReadingTimestampFormat() ) );
+					/*
+					 * To avoid redundant listener updates temporarily unregister from changes of the actual concentration text field.
+					 */
+					this.tfActualConcentration.textProperty().removeListener(this);
+					this.tfActualConcentration.setText( Integer.toString(newRecord.actualConcentration()) );
+					this.tfActualConcentration.textProperty().addListener(this);
+					markActualConcentrationValid();
+					// update ID of currently displayed concentration reading record
+					this.concentrationReadingId = newRecord.id();
+					rememberReadingVersion( newRecord.id(), newRecord.version() );
+					updateVariance( newRecord.actualConcentration(), station.getTargetConcentration() );
+					switched.complete(Boolean.TRUE);
+				},
+				failure -> {
+					logger.log(Level.WARNING, "Failed to lookup concentration readings for given station. Station: "+station, failure);
+					// wipe text fields to indicate error
+					wipeReadingDependentTextFields();
+					switched.complete(Boolean.FALSE);
+				});
+	}
+	
+	/**
+	 * Remembers the row version of a displayed reading record. Versions only grow, so a late lookup doesn't replace a newer version.
+	 * 
+	 * @param readingId    ID of the reading record
+	 * @param version    row version of the displayed values
+	 */
+	private void rememberReadingVersion(final long readingId, final int version) {
+		this.displayedReadingVersions.merge( Long.valueOf(readingId), Integer.valueOf(version), Math::max );
+	}
+	
+	/**
+	 * Writes the given actual concentration values in one batch. Called by the write-behind queue in its flush thread.
+	 * 
+	 * @param newConcentrationValues    new actual concentration values by reading ID
+	 * @return    failures by reading ID: reading records which were modified by someone else since they were displayed
+	 * @throws ModelPersistenceException
+	 */
+	private Map<Long, Exception> writeActualConcentrations(final Map<Long, Integer> newConcentrationValues) throws ModelPersistenceException {
+		final Map<Long, Integer> newVersions = this.model.updateActualConcentrations(newConcentrationValues, this.displayedReadingVersions);
 		
-		/*
-		 * load and display data depending on current reading record
-		 */
-		ConcentrationReading newRecord = null;
-		try {
-			newRecord = model.getLatestConcentrationReading( station.getId() );
-			if( null == newRecord ) {
-				throw new ModelPersistenceException("There doesn't exist any concentration reading for given station yet. Station: "+station);
+		final Map<Long, Exception> failures = new HashMap<Long, Exception>();
+		for(final Long readingId : newConcentrationValues.keySet()) {
+			final Integer newVersion = newVersions.get(readingId);
+			if(null == newVersion) {
+				failures.put(readingId, new StaleRecordException("Concentration reading with ID "+readingId+" was modified or deleted since it was displayed."));
+			}else {
+				rememberReadingVersion( readingId.longValue(), newVersion.intValue() );
 			}
-		} catch (ModelPersistenceException | PersistenceException e) {
-			logger.log(Level.WARNING, "Failed to lookup concentration readings for given station. Station: "+station, e);
-			// wipe text fields to indicate error
-			wipeReadingDependentTextFields();
-			return false;
 		}
-		this.tfDate.setText( newRecord.getReadingTimestamp().format( TimeTools.getReadingTimestampFormat() ) );
-		/*
-		 * To avoid redundant listener updates temporarily unregister from changes of the actual concentration text field.
-		 */
-		this.tfActualConcentration.textProperty().removeListener(this);
-		this.tfActualConcentration.setText( Integer.toString(newRecord.getActualConcentration()) );
-		this.tfActualConcentration.textProperty().addListener(this);
-		// update ID of currently displayed concentration reading record
-		this.concentrationReadingId = newRecord.getId();
-		updateVariance( newRecord.getActualConcentration(), station.getTargetConcentration() );
-		return true;
+		return failures;
 	}
 	
 	/**
@@ -204,6 +310,35 @@ public class ReadingDataSheetController implements Initializable, ChangeListener
 		}
 	}
 
+	@Override
+	public void prefetchLatestReadings(final Collection<Long> internalStationIds) {
+		/*
+		 * Load in the background so that the station list is displayed without delay.
+		 * A selection before completion simply loads its reading record on its own.
+		 */
+		this.model.getLatestConcentrationReadingsAsync(internalStationIds).whenComplete( (readings, failure) -> {
+			if(null == failure) {
+				logger.log(Level.INFO, "Prefetched youngest reading records of "+readings.size()+" monitoring stations.");
+			}else {
+				logger.log(Level.WARNING, "Failed to prefetch youngest reading records of monitoring stations. Reading records are loaded on selection instead.", failure);
+			}
+		});
+	}
+
+	/**
+	 * Marks the content of the actual concentration text field as valid.
+	 */
+	private void markActualConcentrationValid() {
+		this.tfActualConcentration.setStyle("-fx-text-inner-color: black");
+	}
+	
+	/**
+	 * Marks the content of the actual concentration text field as invalid, e. g. if it couldn't be written to the database.
+	 */
+	private void markActualConcentrationErroneous() {
+		this.tfActualConcentration.setStyle("-fx-text-inner-color: red");
+	}
+
 	/**
 	 * Wipes all text fields which depend on external station ID.
 	 * The current concentration reading record indirectly depends on the current monitoring station record.
@@ -236,12 +371,16 @@ public class ReadingDataSheetController implements Initializable, ChangeListener
 			newValue = Integer.parseInt(newActualValue);
 		}catch(NumberFormatException e) {
 			logger.log(Level.WARNING, "The given value \""+newActualValue+"\" is no integer number. Expecting integer value for the actual concentration value.", e);
+			markActualConcentrationErroneous();
+			return;
 		}
 		
-		try {
-			model.updateActualConcentration(newValue, concentrationReadingId);
-		} catch (ModelPersistenceException | PersistenceException e) {
-			logger.log(Level.WARNING, "Failed to update the actual concentration value in the database. Given actual value was \""+newActualValue+"\".", e);
+		/*
+		 * Don't write each keystroke to the database. The write-behind queue writes the last value after a short quiet period or on focus loss.
+		 * The flush result is marked in the text field afterwards.
+		 */
+		if(concentrationReadingId >= 0) {
+			this.actualValueWriteBehind.submit(concentrationReadingId, Integer.valueOf(newValue));
 		}
 		
 		// finally update variance text field
@@ -15,15 +15,40 @@
  */
 package sidlogism.martinfowler.uiArchs.model2_passive_view.model;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ConcentrationReading;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ModelPersistenceException;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.PersistenceTools;
+import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ReadingSummary;
+import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.StaleRecordException;
+import sidlogism.martinfowler.uiArchs.util.ConfigParser;
+import sidlogism.martinfowler.uiArchs.util.ConnectionPoolTools;
+import sidlogism.martinfowler.uiArchs.util.FileSystemAccessException;
 
 /**
  * Business logic for accessing and processing all data related to concentration readings.
@@ -32,15 +57,60 @@ import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.Pers
 public class ConcentrationReadingModel implements IConcentrationReadingModel {
 	// TODO make observed object? add relevant UI-controls? controller + view observe model.
 	private static final Logger logger = Logger.getLogger(ConcentrationReadingModel.class.getName());
+	/**
+	 * Default for config entry "latestReadingCache.maxAgeMillis".
+	 */
+	public static final long DEFAULT_LATEST_READING_MAX_AGE_MILLIS = 10_000;
+	/**
+	 * Summary of the youngest reading record by station ID.
+	 * Filled by bulk and single lookups and refreshed by own updates, so that repeated lookups of the same station are served from memory.
+	 * There is no change feed in this variant. Hence entries expire after {@link #latestReadingMaxAgeNanos}, so that reading records inserted by other clients are displayed at the latest on the first lookup after that period.
+	 */
+	private final Map<Long, CachedReading> latestReadingsByStation = new ConcurrentHashMap<Long, CachedReading>();
+	private final long latestReadingMaxAgeNanos;
+	
+	/**
+	 * Creates a reading model with the configured maximum age of known youngest reading records.
+	 * @see #getConfiguredLatestReadingMaxAgeMillis()
+	 */
+	public ConcentrationReadingModel() {
+		this( getConfiguredLatestReadingMaxAgeMillis() );
+	}
+	
+	/**
+	 * @param latestReadingMaxAgeMillis    period in which a loaded youngest reading record is served from memory. 0 or less disables caching.
+	 */
+	public ConcentrationReadingModel(final long latestReadingMaxAgeMillis) {
+		this.latestReadingMaxAgeNanos = TimeUnit.MILLISECONDS.toNanos( Math.max(0, latestReadingMaxAgeMillis) );
+	}
+	
+	/**
+	 * Reads the maximum age of known youngest reading records from the config file.
+	 * 
+	 * @return    value of config entry "latestReadingCache.maxAgeMillis" or {@link #DEFAULT_LATEST_READING_MAX_AGE_MILLIS} if the config entry is missing or the config file can't be read
+	 */
+	public static long getConfiguredLatestReadingMaxAgeMillis() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject cacheConfig = ConfigParser.getInstance().getRootNode().optJSONObject("latestReadingCache");
+			if(null == cacheConfig) return DEFAULT_LATEST_READING_MAX_AGE_MILLIS;
+			return cacheConfig.optLong("maxAgeMillis", DEFAULT_LATEST_READING_MAX_AGE_MILLIS);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default maximum age of "+DEFAULT_LATEST_READING_MAX_AGE_MILLIS+" ms for known youngest reading records.", e);
+			return DEFAULT_LATEST_READING_MAX_AGE_MILLIS;
+		}
+	}
+	
 	/**
 	 * Updates actual concentration value of current reading record.
 	 * 
 	 * @throws ModelPersistenceException 
 	 */
 	@Override
-	public synchronized void updateActualConcentration(final int newConcentrationValue, final long readingId) throws ModelPersistenceException {
+	public void updateActualConcentration(final int newConcentrationValue, final long readingId) throws ModelPersistenceException {
 		if(readingId < 0) return;
 
+		final long startNanos = System.nanoTime();
 		EntityManager em = null;
 		ConcentrationReading updatedReading = null;
 		try {
@@ -59,8 +129,72 @@ public class ConcentrationReadingModel implements IConcentrationReadingModel {
 			}
 			throw new ModelPersistenceException("Error while updating "+ConcentrationReading.class.getName()+" with ID: "+readingId+".", e);
 		}finally {
-			if( null != em && em.getEntityManagerFactory().isOpen() ) em.getEntityManagerFactory().close();
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ConcentrationReadingModel.updateActualConcentration", startNanos);
 		}
+		refreshLatestReading( ReadingSummary.of(updatedReading) );
+	}
+	
+	/**
+	 * Updates actual concentration values of several reading records in one transaction. Reading records modified by someone else since they were displayed are skipped.
+	 * 
+	 * @throws ModelPersistenceException 
+	 */
+	@Override
+	public Map<Long, Integer> updateActualConcentrations(final Map<Long, Integer> newConcentrationValues, final Map<Long, Integer> expectedVersions) throws ModelPersistenceException {
+		final Map<Long, Integer> newVersions = new HashMap<Long, Integer>();
+		if(newConcentrationValues.isEmpty()) return newVersions;
+		/*
+		 * Optimistic locking against the version the user saw: the update matches a reading record only if it still has the expected version.
+		 * Reloading the reading record in this transaction would check against the current version instead and overwrite modifications made since the user's read.
+		 * The bulk update bypasses the persistence context. Its row count tells whether the reading record was updated.
+		 */
+		final String queryText = 
+			"UPDATE Model2ConcentrationReading r SET r.actualConcentration = :value, r.version = r.version + 1\n"
+			+ "WHERE r.id = :id AND r.version = :expectedVersion";
+		
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		List<ReadingSummary> updatedReadings = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			final Query query = em.createQuery(queryText);
+			final List<Long> updatedIds = new ArrayList<Long>();
+			for(final Map.Entry<Long, Integer> newValue : newConcentrationValues.entrySet()) {
+				final Integer expectedVersion = expectedVersions.get( newValue.getKey() );
+				if(null == expectedVersion) {
+					throw new ModelPersistenceException("Missing expected version of "+ConcentrationReading.class.getName()+" record with ID "+newValue.getKey()+".");
+				}
+				query.setParameter("value", newValue.getValue() );
+				query.setParameter("id", newValue.getKey() );
+				query.setParameter("expectedVersion", expectedVersion );
+				if( query.executeUpdate() > 0 ) updatedIds.add( newValue.getKey() );
+			}
+			// the updated rows stay locked until commit, so the reloaded summaries carry the written values and versions
+			updatedReadings = updatedIds.isEmpty() ? Collections.emptyList() : findReadingSummaries(em, updatedIds);
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			if(null != em && em.getTransaction().isActive()) {
+				em.getTransaction().rollback();
+			}
+			if( PersistenceTools.isOptimisticLockConflict(e) ) {
+				// the known youngest reading records are outdated as well. Reload them on next lookup.
+				this.latestReadingsByStation.values().removeIf( knownReading -> newConcentrationValues.containsKey( Long.valueOf(knownReading.reading().id()) ) );
+				throw new StaleRecordException("At least one of the "+ConcentrationReading.class.getName()+" records with IDs "+newConcentrationValues.keySet()+" was modified by a concurrent transaction. No record was updated.", e);
+			}
+			throw new ModelPersistenceException("Error while updating "+ConcentrationReading.class.getName()+" records with IDs: "+newConcentrationValues.keySet()+". Query:\n"+queryText, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ConcentrationReadingModel.updateActualConcentrations", startNanos);
+		}
+		for(final ReadingSummary updatedReading : updatedReadings) {
+			newVersions.put( Long.valueOf(updatedReading.id()), Integer.valueOf(updatedReading.version()) );
+			refreshLatestReading(updatedReading);
+		}
+		// the known youngest reading records of skipped reading records are outdated. Reload them on next lookup.
+		this.latestReadingsByStation.values().removeIf( knownReading -> newConcentrationValues.containsKey( Long.valueOf(knownReading.reading().id()) ) && !newVersions.containsKey( Long.valueOf(knownReading.reading().id()) ) );
+		return newVersions;
 	}
 	
 	/**
@@ -71,27 +205,35 @@ public class ConcentrationReadingModel implements IConcentrationReadingModel {
 	 * @throws ModelPersistenceException
 	 */
 	@Override
-	public synchronized ConcentrationReading getLatestConcentrationReading(final long internalStationId) throws ModelPersistenceException {
+	public ReadingSummary getLatestConcentrationReading(final long internalStationId) throws ModelPersistenceException {
+		final CachedReading knownReading = this.latestReadingsByStation.get( Long.valueOf(internalStationId) );
+		if(null != knownReading && !isExpired(knownReading)) return knownReading.reading();
+		
 		/*
-		 * IMPORTANT: Don't filter by timestamp-value only because it is not always a unique value.
+		 * IMPORTANT: Don't filter by timestamp-value only because it is not always a unique value. The ID breaks ties.
 		 * 
-		 * Retrieving all reading records related to the given station ID, then order descending by timestamp and get the first record.
-		 * Equivalent constructs in other SQL dialects:
+		 * Order the reading records of the given station descending by timestamp and get the first record.
+		 * Hibernate renders the row limit in the dialect of the used DBS:
 		 *     MySQL: "LIMIT 1"
 		 *     Oracle SQL: "FETCH FIRST 1 ROW ONLY"
+		 * Filtering by the foreign key column and ordering like index concentration_reading__idx__station_latest (fk_station_id, reading_timestamp DESC, id DESC) resolves the query by one index seek.
+		 * The ORDER BY repeats the filtered station as leading column, so that planners which only skip the sort for an ORDER BY starting with the first index column (e. g. H2) use the index as well.
+		 * Selecting only the displayed columns into a record neither loads the monitoring station nor puts the reading record into the persistence context.
 		 */
 		final String queryText = 
-			"FROM Model2ConcentrationReading\n"
-			+ "WHERE station = :station\n"
-			+ "ORDER BY readingTimestamp DESC";
+			"SELECT new "+ReadingSummary.class.getName()+"(r.id, r.station.id, r.readingTimestamp, r.actualConcentration, r.version)\n"
+			+ "FROM Model2ConcentrationReading r\n"
+			+ "WHERE r.station.id = :stationId\n"
+			+ "ORDER BY r.station.id, r.readingTimestamp DESC, r.id DESC";
 
-		ConcentrationReading result = null;
+		ReadingSummary result = null;
+		final long startNanos = System.nanoTime();
 		EntityManager em = null;
 		try {
 			em = PersistenceTools.getEntityManager();
 			em.getTransaction().begin();
-			final TypedQuery<ConcentrationReading> query = em.createQuery( queryText, ConcentrationReading.class );
-			query.setParameter("station", Long.valueOf(internalStationId) );
+			final TypedQuery<ReadingSummary> query = em.createQuery( queryText, ReadingSummary.class );
+			query.setParameter("stationId", Long.valueOf(internalStationId) );
 			query.setFirstResult(0);
 			query.setMaxResults(1);
 			result = query.getSingleResult();
@@ -99,9 +241,145 @@ public class ConcentrationReadingModel implements IConcentrationReadingModel {
 		} catch (ModelPersistenceException | PersistenceException e) {
 			throw new ModelPersistenceException("Error while accessing or processing "+ConcentrationReading.class.getName()+" with station foreign key (station ID): "+internalStationId+". Query\n"+queryText, e);
 		}finally {
-			if( null != em && em.getEntityManagerFactory().isOpen() ) em.getEntityManagerFactory().close();
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ConcentrationReadingModel.getLatestConcentrationReading", startNanos);
+		}
+		if(null != result) {
+			this.latestReadingsByStation.put( Long.valueOf(internalStationId), new CachedReading(result, System.nanoTime()) );
+		}else {
+			this.latestReadingsByStation.remove( Long.valueOf(internalStationId) );
+		}
+		return result;
+	}
+	
+	@Override
+	public Map<Long, ReadingSummary> getLatestConcentrationReadings(final Collection<Long> internalStationIds) throws ModelPersistenceException {
+		final boolean allStations = null == internalStationIds || internalStationIds.isEmpty();
+		/*
+		 * Anti-join: A reading record is the youngest of its station if there is no younger reading record of the same station. The ID breaks ties of equal timestamps.
+		 * Each NOT EXISTS probe is resolved by one seek on index concentration_reading__idx__station_latest.
+		 * Select only the displayed columns into records, so neither the stations are loaded nor the reading records are put into the persistence context.
+		 */
+		final String queryText = 
+			"SELECT new "+ReadingSummary.class.getName()+"(r.id, r.station.id, r.readingTimestamp, r.actualConcentration, r.version)\n"
+			+ "FROM Model2ConcentrationReading r\n"
+			+ "WHERE NOT EXISTS (\n"
+			+ "    SELECT 1 FROM Model2ConcentrationReading younger\n"
+			+ "    WHERE younger.station = r.station\n"
+			+ "    AND ( younger.readingTimestamp > r.readingTimestamp OR ( younger.readingTimestamp = r.readingTimestamp AND younger.id > r.id ) )\n"
+			+ ")"
+			+ ( allStations ? "" : "\nAND r.station.id IN :stationIds" );
+		
+		final Map<Long, ReadingSummary> result = new HashMap<Long, ReadingSummary>();
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			final TypedQuery<ReadingSummary> query = em.createQuery( queryText, ReadingSummary.class );
+			if( !allStations ) {
+				query.setParameter("stationIds", internalStationIds );
+			}
+			for(final ReadingSummary reading : query.getResultList()) {
+				result.put( Long.valueOf(reading.stationId()), reading );
+			}
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while accessing or processing youngest "+ConcentrationReading.class.getName()+" records of stations: "+( allStations ? "all" : internalStationIds )+". Query:\n"+queryText, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ConcentrationReadingModel.getLatestConcentrationReadings", startNanos);
+		}
+		final long loadedAtNanos = System.nanoTime();
+		for(final ReadingSummary reading : result.values()) {
+			this.latestReadingsByStation.put( Long.valueOf(reading.stationId()), new CachedReading(reading, loadedAtNanos) );
 		}
 		return result;
 	}
+	
+	@Override
+	public long streamReadings(final long internalStationId, final LocalDateTime from, final LocalDateTime to, final Consumer<ReadingSummary> consumer) throws ModelPersistenceException {
+		/*
+		 * Hibernate scrolls through the result with a forward-only cursor and fetches the rows in chunks of the streaming fetch size (see ConnectionPoolTools.getStreamingFetchSize()) instead of reading the whole result into a list.
+		 * Selecting into records keeps the persistence context empty, so memory usage doesn't depend on the size of the time range.
+		 * The range is resolved by index concentration_reading__idx__station_latest (fk_station_id, reading_timestamp DESC, id DESC).
+		 */
+		final String queryText = 
+			"SELECT new "+ReadingSummary.class.getName()+"(r.id, r.station.id, r.readingTimestamp, r.actualConcentration, r.version)\n"
+			+ "FROM Model2ConcentrationReading r\n"
+			+ "WHERE r.station.id = :stationId\n"
+			+ ( null == from ? "" : "AND r.readingTimestamp >= :from\n" )
+			+ ( null == to ? "" : "AND r.readingTimestamp < :to\n" )
+			+ "ORDER BY r.readingTimestamp ASC, r.id ASC";
+		
+		long streamedRecords = 0;
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			final TypedQuery<ReadingSummary> query = em.createQuery( queryText, ReadingSummary.class );
+			query.setParameter("stationId", Long.valueOf(internalStationId) );
+			if(null != from) query.setParameter("from", from);
+			if(null != to) query.setParameter("to", to);
+			query.setHint(HibernateHints.HINT_FETCH_SIZE, Integer.valueOf( ConnectionPoolTools.getStreamingFetchSize() ));
+			try( final Stream<ReadingSummary> readings = query.getResultStream() ){
+				final Iterator<ReadingSummary> iterator = readings.iterator();
+				while( iterator.hasNext() ) {
+					consumer.accept( iterator.next() );
+					streamedRecords++;
+				}
+			}
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while streaming "+ConcentrationReading.class.getName()+" records of station with ID "+internalStationId+" after "+streamedRecords+" records. Query:\n"+queryText, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ConcentrationReadingModel.streamReadings", startNanos);
+		}
+		return streamedRecords;
+	}
+	
+	/**
+	 * Replaces the summary of the known youngest reading record of a station by a summary of the given updated reading record, if it is the same record.
+	 * 
+	 * @param updatedReading    updated reading record
+	 */
+	private void refreshLatestReading(final ReadingSummary updatedReading) {
+		this.latestReadingsByStation.computeIfPresent( Long.valueOf(updatedReading.stationId()),
+				(stationId, knownReading) -> knownReading.reading().id() == updatedReading.id() ? new CachedReading(updatedReading, knownReading.loadedAtNanos()) : knownReading );
+	}
+	
+	/**
+	 * Loads the summaries of the given reading records.
+	 * 
+	 * @param em    entity manager of the running operation
+	 * @param readingIds    IDs of the relevant reading records
+	 * @return read-only summaries of the found reading records
+	 */
+	private static List<ReadingSummary> findReadingSummaries(final EntityManager em, final Collection<Long> readingIds) {
+		final String queryText = 
+			"SELECT new "+ReadingSummary.class.getName()+"(r.id, r.station.id, r.readingTimestamp, r.actualConcentration, r.version)\n"
+			+ "FROM Model2ConcentrationReading r\n"
+			+ "WHERE r.id IN :ids";
+		final TypedQuery<ReadingSummary> query = em.createQuery( queryText, ReadingSummary.class );
+		query.setParameter("ids", readingIds);
+		return query.getResultList();
+	}
+	
+	/**
+	 * @return    true if the known youngest reading record is older than the maximum age, i. e. a younger reading record may have been inserted by another client meanwhile
+	 */
+	private boolean isExpired(final CachedReading knownReading) {
+		return System.nanoTime() - knownReading.loadedAtNanos() >= this.latestReadingMaxAgeNanos;
+	}
+	
+	/**
+	 * Known youngest reading record of a station.
+	 * 
+	 * @param reading    summary of the reading record
+	 * @param loadedAtNanos    value of {@link System#nanoTime()} when the reading record was loaded. Own updates keep the value, since they don't reveal younger reading records.
+	 */
+	private record CachedReading(ReadingSummary reading, long loadedAtNanos) {}
 
 }
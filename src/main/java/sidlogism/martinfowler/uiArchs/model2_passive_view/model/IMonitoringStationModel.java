@@ -1,9 +1,12 @@
 package sidlogism.martinfowler.uiArchs.model2_passive_view.model;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ModelPersistenceException;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.MonitoringStation;
+import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.StationSummary;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
 
 /**
  * Business logic for accessing and processing all data related to monitoring stations.
@@ -11,7 +14,8 @@ import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.Moni
  */
 public interface IMonitoringStationModel {
 	/**
-	 * Loads the monitoring station with the given external ID from the database.
+	 * Looks up the monitoring station with the given external ID. Each monitoring station is loaded on its first lookup and kept in memory, unknown external IDs are remembered.
+	 * Monitoring stations added by other clients are found after the next incremental refresh (config entry "directoryCache.refreshPeriodMillis").
 	 * 
 	 * @param stationExternalId    external ID of relevant monitoring station
 	 * @return domain object of relevant monitoring station. null if the query result is empty.
@@ -19,9 +23,80 @@ public interface IMonitoringStationModel {
 	 */
 	public MonitoringStation getStation(final String stationExternalId) throws ModelPersistenceException;
 
+	/**
+	 * Looks up the monitoring station with the given ID. Each monitoring station is loaded on its first lookup by ID or external ID and kept in memory.
+	 * 
+	 * @param id    ID of relevant monitoring station
+	 * @return domain object of relevant monitoring station. null if there is no such monitoring station.
+	 * @throws ModelPersistenceException
+	 */
+	public MonitoringStation getStationById(final long id) throws ModelPersistenceException;
+
 	/**
 	 * @return Container holding the String representation of every monitoring station record.
 	 * @throws ModelPersistenceException
 	 */
 	public List<MonitoringStation> findAll() throws ModelPersistenceException;
+
+	/**
+	 * Looks up the external IDs of all monitoring stations starting with the given prefix, e. g. for filtering the station list while the user types.
+	 * Loads at most one page of matches (config entry "pagination.pageSize"). If the page contains all matches, longer prefixes are answered from memory.
+	 * 
+	 * @param prefix    prefix of the external IDs. null or empty string matches all monitoring stations.
+	 * @return at most one page of external IDs of matching monitoring stations in ascending order.
+	 * @throws ModelPersistenceException
+	 */
+	public List<String> findStationExternalIdsByPrefix(final String prefix) throws ModelPersistenceException;
+
+	/**
+	 * Loads one page of monitoring stations ordered ascending by ID using keyset pagination, e. g. for filling the station list while the user scrolls.
+	 * Every page costs the same because the database seeks directly to the first monitoring station after the given ID.
+	 * 
+	 * @param afterId    ID of the last monitoring station of the previous page. -1 for the first page.
+	 * @param limit    maximum number of monitoring stations of the page
+	 * @return read-only summaries of the monitoring stations of the page. Fewer than limit monitoring stations indicate the last page.
+	 * @throws ModelPersistenceException
+	 */
+	public List<StationSummary> findPage(final long afterId, final int limit) throws ModelPersistenceException;
+
+	/**
+	 * Asynchronous variant of {@link #getStation(String)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param stationExternalId    external ID of relevant monitoring station
+	 * @return future completed with the domain object of relevant monitoring station or null. Completed exceptionally with ModelPersistenceException on failure.
+	 */
+	public default CompletableFuture<MonitoringStation> getStationAsync(final String stationExternalId) {
+		return PersistenceExecutor.getInstance().submit( () -> getStation(stationExternalId) );
+	}
+
+	/**
+	 * Asynchronous variant of {@link #findAll()} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @return future completed with all monitoring stations. Completed exceptionally with ModelPersistenceException on failure.
+	 */
+	public default CompletableFuture<List<MonitoringStation>> findAllAsync() {
+		return PersistenceExecutor.getInstance().submit( () -> findAll() );
+	}
+
+	/**
+	 * Asynchronous variant of {@link #findPage(long, int)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param afterId    ID of the last monitoring station of the previous page. -1 for the first page.
+	 * @param limit    maximum number of monitoring stations of the page
+	 * @return future completed with the read-only summaries of the monitoring stations of the page. Completed exceptionally with ModelPersistenceException on failure.
+	 */
+	public default CompletableFuture<List<StationSummary>> findPageAsync(final long afterId, final int limit) {
+		return PersistenceExecutor.getInstance().submit( () -> findPage(afterId, limit) );
+	}
+
+	/**
+	 * Asynchronous variant of {@link #findStationExternalIdsByPrefix(String)} running on the {@link PersistenceExecutor}.
+	 * Runs no query for prefixes answered from memory.
+	 * 
+	 * @param prefix    prefix of the external IDs. null or empty string matches all monitoring stations.
+	 * @return future completed with the external IDs of matching monitoring stations. Completed exceptionally with ModelPersistenceException on failure.
+	 */
+	public default CompletableFuture<List<String>> findStationExternalIdsByPrefixAsync(final String prefix) {
+		return PersistenceExecutor.getInstance().submit( () -> findStationExternalIdsByPrefix(prefix) );
+	}
 }
\ No newline at end of file
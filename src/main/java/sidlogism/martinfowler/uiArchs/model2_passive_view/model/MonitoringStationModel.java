@@ -18,69 +18,273 @@ package sidlogism.martinfowler.uiArchs.model2_passive_view.model;
 import java.util.List;
 import java.util.logging.Logger;
 
+import org.hibernate.jpa.HibernateHints;
+
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
 
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.ModelPersistenceException;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.MonitoringStation;
 import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.PersistenceTools;
+import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.StationSummary;
+import sidlogism.martinfowler.uiArchs.util.DirectoryCache;
+import sidlogism.martinfowler.uiArchs.util.IDirectoryLoader;
 /**
  * Business logic for accessing and processing all data related to monitoring stations.
  * @see sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStationDao
  */
 public class MonitoringStationModel implements IMonitoringStationModel {
 	private static final Logger logger = Logger.getLogger(MonitoringStationModel.class.getName());
+	/**
+	 * Monitoring stations looked up so far. The station table is small and changes rarely, so repeated lookups are answered from memory.
+	 */
+	private final DirectoryCache<MonitoringStation, ModelPersistenceException> stationDirectory = new DirectoryCache<MonitoringStation, ModelPersistenceException>(
+			"MonitoringStationModel",
+			new IDirectoryLoader<MonitoringStation, ModelPersistenceException>() {
+				@Override
+				public MonitoringStation loadByKey(final String stationExternalId) throws ModelPersistenceException {
+					return findByExternalId(stationExternalId);
+				}
+				@Override
+				public MonitoringStation loadById(final long id) throws ModelPersistenceException {
+					return findById(id);
+				}
+				@Override
+				public long loadGreatestId() throws ModelPersistenceException {
+					return findGreatestId();
+				}
+				@Override
+				public List<MonitoringStation> loadAfterId(final long afterId, final int limit) throws ModelPersistenceException {
+					return findStationsAfterId(afterId, limit);
+				}
+			},
+			this::findExternalIds, MonitoringStation::getId, MonitoringStation::getStationExternalId );
 	
 	/**
-	 * Loads the monitoring station with the given external ID from persistence layer.
+	 * Looks up the monitoring station with the given external ID.
 	 * 
 	 * @param stationExternalId    external ID of relevant monitoring station
-	 * @return domain object of relevant monitoring station. null if the query result is empty.
+	 * @return domain object of relevant monitoring station. null if there is no such monitoring station.
 	 * @throws ModelPersistenceException
 	 */
 	@Override
-	public synchronized MonitoringStation getStation(final String stationExternalId) throws ModelPersistenceException {
+	public MonitoringStation getStation(final String stationExternalId) throws ModelPersistenceException {
 		// TODO make observed object? add relevant UI-controls? controller + view observe model.
+		// incomplete IDs typed by the user are answered by the negative cache of the directory
+		return this.stationDirectory.getByKey(stationExternalId);
+	}
+	
+	/**
+	 * @return Container holding the String representation of every monitoring station record.
+	 * @throws ModelPersistenceException
+	 */
+	@Override
+	public MonitoringStation getStationById(final long id) throws ModelPersistenceException {
+		return this.stationDirectory.getById(id);
+	}
+	
+	@Override
+	public List<MonitoringStation> findAll() throws ModelPersistenceException {
+		final String query = "FROM Model2MonitoringStation ORDER BY id ASC";
+		
+		List<MonitoringStation> result = null;
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			result = em.createQuery( query, MonitoringStation.class ).getResultList();
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while accessing or processing all "+MonitoringStation.class.getName()+". Query\n"+query, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("MonitoringStationModel.findAll", startNanos);
+		}
+		return result;
+	}
+	
+	@Override
+	public List<String> findStationExternalIdsByPrefix(final String prefix) throws ModelPersistenceException {
+		return this.stationDirectory.getKeysByPrefix(prefix);
+	}
+	
+	@Override
+	public List<StationSummary> findPage(final long afterId, final int limit) throws ModelPersistenceException {
+		/*
+		 * Keyset pagination bypasses the directory, which only holds the monitoring stations looked up by ID or external ID.
+		 * The filter on the primary key lets the database seek directly to the first requested record instead of skipping an offset.
+		 * Only the listed columns are selected into records, which are neither tracked by the persistence context nor dirty-checked.
+		 * Pages are kept in the query cache, which is invalidated by own writes to the station table. Writes of other applications become visible after the expiry of the query cache region.
+		 */
+		final String query = "SELECT new "+StationSummary.class.getName()+"(s.id, s.stationExternalId) FROM Model2MonitoringStation s WHERE s.id > :afterId ORDER BY s.id ASC";
+		
+		List<StationSummary> result = null;
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			result = em.createQuery( query, StationSummary.class )
+				.setParameter("afterId", Long.valueOf(afterId) )
+				.setMaxResults(limit)
+				.setHint(HibernateHints.HINT_CACHEABLE, Boolean.TRUE)
+				.getResultList();
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while accessing or processing page of "+MonitoringStation.class.getName()+" records with ID greater than "+afterId+". Query:\n"+query, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("MonitoringStationModel.findPage", startNanos);
+		}
+		return result;
+	}
+	
+	/**
+	 * Loads the monitoring station with the given external ID. Used by {@link #stationDirectory}.
+	 * 
+	 * @param stationExternalId    external ID of relevant monitoring station
+	 * @return domain object of relevant monitoring station. null if there is no such monitoring station.
+	 * @throws ModelPersistenceException
+	 */
+	private MonitoringStation findByExternalId(final String stationExternalId) throws ModelPersistenceException {
 		final String query = "FROM Model2MonitoringStation WHERE stationExternalId = :id";
-
-		MonitoringStation result = null;
+		
+		List<MonitoringStation> result = null;
+		final long startNanos = System.nanoTime();
 		EntityManager em = null;
 		try {
 			em = PersistenceTools.getEntityManager();
 			em.getTransaction().begin();
 			result = em.createQuery( query, MonitoringStation.class )
 				.setParameter("id", stationExternalId)
-				.getSingleResult();
+				.getResultList();
 			em.getTransaction().commit();
 		} catch (ModelPersistenceException | PersistenceException e) {
-			// TODO resource leak on exception: [JavaFX Application Thread] ERROR org.hibernate.orm.connections.pooling - Connection leak detected: there are 1 unclosed connections upon shutting down pool jdbc:...
-			throw new ModelPersistenceException("Error while accessing or processing "+MonitoringStation.class.getName()+" with external ID: "+stationExternalId+". Query\n"+query, e);
+			throw new ModelPersistenceException("Error while accessing or processing "+MonitoringStation.class.getName()+" with external ID: "+stationExternalId+". Query:\n"+query, e);
 		}finally {
-			if( null != em && em.getEntityManagerFactory().isOpen() ) em.getEntityManagerFactory().close();
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("MonitoringStationModel.findByExternalId", startNanos);
+		}
+		// an unknown external ID is no error: the user may still be typing
+		return result.isEmpty() ? null : result.get(0);
+	}
+	
+	/**
+	 * Loads the monitoring station with the given ID. Used by {@link #stationDirectory}.
+	 * 
+	 * @param id    ID of relevant monitoring station
+	 * @return domain object of relevant monitoring station. null if there is no such monitoring station.
+	 * @throws ModelPersistenceException
+	 */
+	private MonitoringStation findById(final long id) throws ModelPersistenceException {
+		MonitoringStation result = null;
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			result = em.find( MonitoringStation.class, Long.valueOf(id) );
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while accessing or processing "+MonitoringStation.class.getName()+" with ID: "+id, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("MonitoringStationModel.findById", startNanos);
 		}
-
 		return result;
 	}
 	
 	/**
-	 * @return Container holding the String representation of every monitoring station record.
+	 * Loads the greatest ID of all monitoring stations. Used by {@link #stationDirectory} as high-water mark of its incremental refresh.
+	 * 
+	 * @return greatest ID of all monitoring stations. -1 if there are no monitoring stations.
 	 * @throws ModelPersistenceException
 	 */
-	@Override
-	public synchronized List<MonitoringStation> findAll() throws ModelPersistenceException {
-		final String query = "FROM Model2MonitoringStation ORDER BY id ASC";
+	private long findGreatestId() throws ModelPersistenceException {
+		// resolved by the primary key index without reading rows
+		final String query = "SELECT MAX(s.id) FROM Model2MonitoringStation s";
+		
+		Long result = null;
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			result = em.createQuery( query, Long.class ).getSingleResult();
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while accessing or processing greatest ID of "+MonitoringStation.class.getName()+". Query:\n"+query, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("MonitoringStationModel.findGreatestId", startNanos);
+		}
+		return (null == result) ? -1 : result.longValue();
+	}
+	
+	/**
+	 * Loads one page of monitoring stations ordered ascending by ID. Used by the incremental refresh of {@link #stationDirectory}.
+	 * 
+	 * @param afterId    greatest ID known to the directory or last ID of the previous page
+	 * @param limit    maximum number of monitoring stations
+	 * @return domain objects of the monitoring stations of the page
+	 * @throws ModelPersistenceException
+	 */
+	private List<MonitoringStation> findStationsAfterId(final long afterId, final int limit) throws ModelPersistenceException {
+		final String query = "FROM Model2MonitoringStation s WHERE s.id > :afterId ORDER BY s.id ASC";
 		
 		List<MonitoringStation> result = null;
+		final long startNanos = System.nanoTime();
 		EntityManager em = null;
 		try {
 			em = PersistenceTools.getEntityManager();
 			em.getTransaction().begin();
-			result = em.createQuery( query, MonitoringStation.class ).getResultList();
+			result = em.createQuery( query, MonitoringStation.class )
+				.setParameter("afterId", Long.valueOf(afterId) )
+				.setMaxResults(limit)
+				.getResultList();
 			em.getTransaction().commit();
 		} catch (ModelPersistenceException | PersistenceException e) {
-			throw new ModelPersistenceException("Error while accessing or processing all "+MonitoringStation.class.getName()+". Query\n"+query, e);
+			throw new ModelPersistenceException("Error while accessing or processing "+MonitoringStation.class.getName()+" records with ID greater than "+afterId+". Query:\n"+query, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("MonitoringStationModel.findStationsAfterId", startNanos);
+		}
+		return result;
+	}
+	
+	/**
+	 * Loads one page of external IDs matching the given pattern using keyset pagination. Used by {@link #stationDirectory} for type-ahead search.
+	 * The conditions are resolved by a range scan on the index of the external ID, which also provides the order.
+	 * 
+	 * @param likePattern    LIKE pattern of the external IDs escaped by {@link DirectoryCache#LIKE_ESCAPE_CHARACTER}
+	 * @param afterExternalId    last external ID of the previous page. null for the first page.
+	 * @param limit    maximum number of external IDs
+	 * @return external IDs of matching monitoring stations in ascending order
+	 * @throws ModelPersistenceException
+	 */
+	private List<String> findExternalIds(final String likePattern, final String afterExternalId, final int limit) throws ModelPersistenceException {
+		final String query = "SELECT s.stationExternalId FROM Model2MonitoringStation s WHERE s.stationExternalId LIKE :pattern ESCAPE '"+DirectoryCache.LIKE_ESCAPE_CHARACTER+"'"
+				+( (null == afterExternalId) ? "" : " AND s.stationExternalId > :afterExternalId" )+" ORDER BY s.stationExternalId ASC";
+		
+		List<String> result = null;
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			final TypedQuery<String> typedQuery = em.createQuery( query, String.class )
+				.setParameter("pattern", likePattern)
+				.setMaxResults(limit);
+			if(null != afterExternalId) typedQuery.setParameter("afterExternalId", afterExternalId);
+			result = typedQuery.getResultList();
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while accessing or processing external IDs of "+MonitoringStation.class.getName()+" matching \""+likePattern+"\". Query:\n"+query, e);
 		}finally {
-			if( null != em && em.getEntityManagerFactory().isOpen() ) em.getEntityManagerFactory().close();
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("MonitoringStationModel.findExternalIds", startNanos);
 		}
 		return result;
 	}
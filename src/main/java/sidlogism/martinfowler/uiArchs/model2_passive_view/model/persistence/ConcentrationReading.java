@@ -24,6 +24,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import sidlogism.martinfowler.uiArchs.util.TimeProcessingException;
 
@@ -40,6 +41,7 @@ public class ConcentrationReading implements Comparable< ConcentrationReading >
 	private MonitoringStation station;
 	private LocalDateTime readingTimestamp;
 	private int actualConcentration;
+	private int version;
 	
 	public ConcentrationReading(){}
 	
@@ -109,10 +111,25 @@ public class ConcentrationReading implements Comparable< ConcentrationReading >
 		this.actualConcentration = actualConcentration;
 	}
 	
+	/**
+	 * @return the row version used for optimistic locking. Incremented by the persistence provider on every update.
+	 */
+	@Version
+	@Column(name="version", nullable=false)
+	public int getVersion() {
+		return version;
+	}
+	/**
+	 * @param version the version to set
+	 */
+	public void setVersion(int version) {
+		this.version = version;
+	}
+	
 	@Override
 	public String toString() {
 		return "ConcentrationReading [id=" + id + ", station=" + station + ", readingTimestamp="
-				+ readingTimestamp + ", actualConcentration=" + actualConcentration + "]";
+				+ readingTimestamp + ", actualConcentration=" + actualConcentration + ", version=" + version + "]";
 	}
 
 	@Override
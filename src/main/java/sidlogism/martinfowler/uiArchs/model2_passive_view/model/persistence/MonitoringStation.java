@@ -18,6 +18,10 @@ package sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence;
 import java.util.Collection;
 import java.util.HashSet;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -27,11 +31,15 @@ import jakarta.persistence.Table;
 
 /**
  * Domain object holding data of a monitoring station record.
+ * Monitoring stations are read-mostly reference data, so their records are kept in the second-level cache (see {@link PersistenceTools}).
+ * Own updates invalidate the cached record at commit (READ_WRITE). Changes by other applications become visible after the expiry of the region configured in application.conf.
  * 
  * @see sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStation
  */
 @Entity(name = "Model2MonitoringStation")
 @Table(name = "monitoring_station")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "model2_passive_view.monitoringStation")
 public class MonitoringStation implements Comparable< MonitoringStation >{
 	private long id;
 	private String stationExternalId;
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a concentration reading record holding only the values displayed by the reading view.
+ * 
+ * Filled directly from the query result: unlike {@link ConcentrationReading} it is neither tracked by the persistence context nor dirty-checked, and it doesn't load the monitoring station.
+ * 
+ * @param id    ID of the reading record
+ * @param stationId    ID of the monitoring station the reading record belongs to
+ * @param readingTimestamp    time of the reading
+ * @param actualConcentration    actual concentration measured
+ * @param version    row version of the reading record as loaded. Expected version of later updates (optimistic locking).
+ */
+public record ReadingSummary(long id, long stationId, LocalDateTime readingTimestamp, int actualConcentration, int version) {
+	/**
+	 * @param reading    reading record with loaded monitoring station
+	 * @return    projection of the given reading record
+	 */
+	public static ReadingSummary of(final ConcentrationReading reading) {
+		return new ReadingSummary( reading.getId(), reading.getStation().getId(), reading.getReadingTimestamp(), reading.getActualConcentration(), reading.getVersion() );
+	}
+}
@@ -5,6 +5,10 @@ import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import sidlogism.martinfowler.uiArchs.model2_passive_view.model.persistence.PersistenceTools;
+import sidlogism.martinfowler.uiArchs.util.DirectoryCache;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
+import sidlogism.martinfowler.uiArchs.util.WriteBehindQueue;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -44,6 +48,18 @@ public class AssessmentFormView extends Application implements IAssessmentFormVi
 		logger.log(Level.INFO, "Displaying and starting application "+this.getClass().getName() );
 		stage.show();
 	}
+	
+	/**
+	 * Write pending edits and release process-wide persistence resources on application exit.
+	 */
+	@Override
+	public void stop() {
+		logger.log(Level.INFO, "Stopping application "+this.getClass().getName() );
+		WriteBehindQueue.shutdownAll();
+		DirectoryCache.shutdownAll();
+		PersistenceExecutor.shutdown();
+		PersistenceTools.shutdown();
+	}
 
 
 }
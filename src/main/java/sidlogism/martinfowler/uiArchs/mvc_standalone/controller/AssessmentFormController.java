@@ -5,7 +5,12 @@ import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.PersistenceTools;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.view.StationView;
+import sidlogism.martinfowler.uiArchs.util.ChangeFeedPoller;
+import sidlogism.martinfowler.uiArchs.util.DirectoryCache;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
+import sidlogism.martinfowler.uiArchs.util.WriteBehindQueue;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -63,6 +68,19 @@ public class AssessmentFormController extends Application implements IAssessment
 		logger.log(Level.INFO, "Displaying and starting application "+this.getClass().getName() );
 		stage.show();
 	}
+	
+	/**
+	 * Write pending edits and release process-wide persistence resources on application exit.
+	 */
+	@Override
+	public void stop() {
+		logger.log(Level.INFO, "Stopping application "+this.getClass().getName() );
+		ChangeFeedPoller.shutdownAll();
+		WriteBehindQueue.shutdownAll();
+		DirectoryCache.shutdownAll();
+		PersistenceExecutor.shutdown();
+		PersistenceTools.shutdown();
+	}
 
 
 }
@@ -1,5 +1,7 @@
 package sidlogism.martinfowler.uiArchs.mvc_standalone.controller;
 
+import java.util.Collection;
+
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ModelPersistenceException;
 
 public interface IReadingController {
@@ -13,6 +15,13 @@ public interface IReadingController {
 	 */
 	public void handleUserChangedStationExtId(String newStationExternalId);
 
+	/**
+	 * Handle new selection in station view made by user. Selections echoing the monitoring station already displayed by the reading view are dropped.
+	 * 
+	 * @param newExternalId    external ID of the newly selected monitoring station. Null is ignored.
+	 */
+	public void handleUserChangedStationSelection(String newExternalId);
+
 	/**
 	 * Handle change of UI element for actual concentration.
 	 * The record entry "Actual" can be modified to change the entry "actual concentration" of the currently active ice cream concentration reading record.
@@ -22,4 +31,17 @@ public interface IReadingController {
 	 */
 	public void handleUserChangedActualConcentration(String newActualValue, long currentReadingId);
 
+	/**
+	 * Handle end of editing the UI element for actual concentration, e. g. focus loss.
+	 * Pending changes of the actual concentration are written without further delay.
+	 */
+	public void handleUserFinishedEditingActualConcentration();
+
+	/**
+	 * Loads the youngest reading records of the given monitoring stations in the background with one single query, so that later selections of these monitoring stations don't hit the database.
+	 * 
+	 * @param internalStationIds    IDs of relevant monitoring stations. null or empty for all monitoring stations.
+	 */
+	public void prefetchLatestReadings(final Collection<Long> internalStationIds);
+
 }
\ No newline at end of file
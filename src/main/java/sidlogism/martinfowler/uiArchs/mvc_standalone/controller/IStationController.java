@@ -28,6 +28,18 @@ public interface IStationController {
 	 */
 	public void wipeSelection();
 
+	/**
+	 * Narrow the station view to the monitoring stations whose external ID starts with the given prefix.
+	 * 
+	 * @param stationExternalIdPrefix    external ID or part of it typed by the user. Empty string shows all monitoring stations. Null is ignored.
+	 */
+	public void filterStationList(String stationExternalIdPrefix);
+
+	/**
+	 * Handle scrolling of the user to the last monitoring station loaded so far: load the next page of monitoring stations.
+	 */
+	public void handleUserScrolledToEndOfList();
+
 	/**
 	 * Handle new selection in station view made by user.
 	 * 
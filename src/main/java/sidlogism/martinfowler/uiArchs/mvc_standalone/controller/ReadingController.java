@@ -15,20 +15,31 @@
  */
 package sidlogism.martinfowler.uiArchs.mvc_standalone.controller;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import jakarta.persistence.PersistenceException;
-
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.IReadingModel;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.IReadingModelDataProvider;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.IReadingModelListener;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.IStationModel;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.ReadingModel;
-import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ConcentrationReading;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ModelPersistenceException;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.MonitoringStation;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ReadingSummary;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.StaleRecordException;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.view.IReadingView;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.view.ReadingView;
+import sidlogism.martinfowler.uiArchs.util.IFlushListener;
+import sidlogism.martinfowler.uiArchs.util.SupersedingRequests;
+import sidlogism.martinfowler.uiArchs.util.ViewSyncBus;
+import sidlogism.martinfowler.uiArchs.util.WriteBehindQueue;
+import javafx.application.Platform;
 
 
 
@@ -45,6 +56,29 @@ public class ReadingController implements IReadingController {
 	 * see constructor
 	 */
 	private IStationController stationController;
+	/**
+	 * Coalesces edits of the actual concentration value and writes them in the background.
+	 * Flush results are reported back to the view's markers for the actual concentration.
+	 */
+	private final WriteBehindQueue<Integer> actualValueWriteBehind;
+	/**
+	 * Row versions of the displayed reading records by reading ID: the expected versions of the written edits (optimistic locking).
+	 * Set on display and advanced by own writes and by model notifications, e. g. about modifications by other clients. Read by the flush thread of {@link #actualValueWriteBehind}.
+	 */
+	private final Map<Long, Integer> displayedReadingVersions = new ConcurrentHashMap<Long, Integer>();
+	/**
+	 * Lookups for switching the displayed contents. Only the lookup of the latest switch is applied to the view.
+	 */
+	private final SupersedingRequests contentRequests = new SupersedingRequests("ReadingController", Platform::runLater);
+	/**
+	 * Keeps the station external ID of the reading view and the selection of the station view in sync. Only user changes start a switch of the displayed monitoring station, echoes of programmatic updates are dropped.
+	 */
+	private final ViewSyncBus<String> stationSync = new ViewSyncBus<String>("ReadingController-station", this::switchStation);
+	/*
+	 * IDs of the displayed monitoring station and reading record. -1 while none is displayed. Accessed in the JavaFX application thread only.
+	 */
+	private long displayedStationId = -1;
+	private long displayedReadingId = -1;
 	
 	/**
 	 * Constructor for reading controller
@@ -57,12 +91,34 @@ public class ReadingController implements IReadingController {
 	 */
 	public ReadingController(final IStationController stationController, final IReadingView view, final IStationModel stationModel) {
 		logger.log(Level.INFO, "reading controller ctor");
-		this.model = new ReadingModel();
+		// deliver model notifications in batches on the JavaFX application thread
+		this.model = new ReadingModel(Platform::runLater);
 		this.view = view;
 		if(this.model instanceof IReadingModelDataProvider && this.view instanceof ReadingView) {
 			// down-casting here in order to avoid MVC interfaces inheriting from observer interfaces
 			( (ReadingModel)this.model ).addReadingModelListener( (ReadingView)this.view );
 		}
+		if(this.model instanceof IReadingModelDataProvider) {
+			/*
+			 * Reading records inserted or modified by other clients of the database are delivered by the change feed of the model.
+			 * Modified actual concentrations are displayed by the view itself. A new youngest reading record of the displayed monitoring station replaces the displayed one.
+			 */
+			( (IReadingModelDataProvider)this.model ).addReadingModelListener( new IReadingModelListener() {
+				@Override
+				public void actualConcentrationChanged(final long readingId, final int newValue) {
+					// displayed by the view
+				}
+				@Override
+				public void readingVersionChanged(final long readingId, final int newVersion) {
+					rememberReadingVersion(readingId, newVersion);
+				}
+				@Override
+				public void latestReadingChanged(final ReadingSummary reading) {
+					showLatestReading(reading);
+				}
+			});
+			( (IReadingModelDataProvider)this.model ).startChangeFeed();
+		}
 		/*
 		 * Inform reading view about its corresponding controller:
 		 * Since the reading view is nested in other views and cannot be accessed directly before construction, the reading controller reference is handed to it here.
@@ -70,46 +126,93 @@ public class ReadingController implements IReadingController {
 		this.view.setReadingController( this );
 		this.stationController = stationController;
 		this.stationModel = stationModel;
+		this.actualValueWriteBehind = new WriteBehindQueue<Integer>("ReadingController", this::writeActualConcentrations,
+				new IFlushListener<Integer>() {
+					@Override
+					public void flushSucceeded(final long readingId, final Integer value) {
+						// mark new content of actual concentration as VALID
+						Platform.runLater( () -> view.markUIActualConcentrationValid() );
+					}
+					@Override
+					public void flushFailed(final long readingId, final Integer value, final Exception cause) {
+						if(cause instanceof StaleRecordException) {
+							// the model reports the stored value to the view via IReadingModelListener.actualConcentrationRejected
+							logger.log(Level.WARNING, "The concentration reading with ID "+readingId+" was modified by someone else. Discarded actual value was \""+value+"\".", cause);
+							return;
+						}
+						logger.log(Level.WARNING, "Failed to update the actual concentration value in the database. Given actual value was \""+value+"\".", cause);
+						// mark new content of actual concentration as INVALID
+						Platform.runLater( () -> view.markUIActualConcentrationErroneous() );
+					}
+				});
 	}
 
 	@Override
 	public void handleUserChangedStationExtId(final String newStationExternalId) {
+		if(null == this.stationModel) return;
+		this.stationSync.publish("reading-view", newStationExternalId);
+	}
+	
+	@Override
+	public void handleUserChangedStationSelection(final String newExternalId) {
+		if(null == this.stationModel) return;
+		// a station ID typed before the selection must not override the selection when it is handed over later
+		if( this.stationSync.publish("station-view", newExternalId) ) this.view.cancelPendingStationExtIdChange();
+	}
+	
+	/**
+	 * Switches the displayed monitoring station. Called by the station sync bus for each change of the station external ID made by the user.
+	 * 
+	 * @param newStationExternalId    external ID of the new monitoring station as given by the user. Not null.
+	 */
+	private void switchStation(final String newStationExternalId) {
 		/*
 		 * Changing the station external ID implies a switch of the selected monitoring station.
 		 * Thus all contents of reading data sheet must be updated.
 		 */
-
-		/*
-		 * After initial loading of station list selection may be empty => newStationExternalId may be NULL
-		 */
-		if(null == newStationExternalId || null == this.stationModel) {
-			return;
-		}
+		// type-ahead: narrow the station list to the stations matching the typed part of the external ID
+		this.stationController.filterStationList(newStationExternalId);
+		// don't keep edits of the previously displayed reading record pending
+		this.actualValueWriteBehind.flushNow();
+		this.displayedStationId = -1;
 		
 		/*
-		 * load and display data depending on current monitoring station
+		 * Load data depending on current monitoring station in the background and display it in the JavaFX application thread.
+		 * A newer change of the station external ID supersedes this one.
 		 */
-		MonitoringStation station = null;
-		try {
-			station = this.stationModel.getStation(newStationExternalId);
-			if( null == station ) {
-				throw new ModelPersistenceException("There is no station with given external station ID \""+newStationExternalId+"\".");
-			}
-			// mark new content of station external ID as VALID
-			this.view.markUIStationExternalIdValid();
-			this.view.restoreEditabilityOnAllDependentTextFields();
-		} catch (ModelPersistenceException | PersistenceException e) {
-			logger.log(Level.WARNING, "Failed to lookup station with given external station ID \""+newStationExternalId+"\".", e);
-			/*
-			 * If there is a problem with the new station, wipe all dependent text fields and selections to indicate error.
-			 */
-			this.view.wipeAllDependentTextFields();
-			this.stationController.wipeSelection();
-			this.view.removeEditabilityFromAllDependentTextFields();
-			// mark new content of station external ID as INVALID
-			this.view.markUIStationExternalIdErroneous();
-			return;
-		}
+		this.contentRequests.submit( this.stationModel.getStationAsync(newStationExternalId),
+				station -> {
+					if( null == station ) {
+						throw new CompletionException( new ModelPersistenceException("There is no station with given external station ID \""+newStationExternalId+"\".") );
+					}
+					return station;
+				},
+				station -> applyStation(newStationExternalId, station),
+				failure -> {
+					logger.log(Level.WARNING, "Failed to lookup station with given external station ID \""+newStationExternalId+"\".", failure);
+					// let the user repeat the same change
+					this.stationSync.reset();
+					/*
+					 * If there is a problem with the new station, wipe all dependent text fields and selections to indicate error.
+					 */
+					this.view.wipeAllDependentTextFields();
+					this.stationController.wipeSelection();
+					this.view.removeEditabilityFromAllDependentTextFields();
+					// mark new content of station external ID as INVALID
+					this.view.markUIStationExternalIdErroneous();
+				});
+	}
+	
+	/**
+	 * Displays the data of the given monitoring station and loads its youngest reading record. Runs in the JavaFX application thread.
+	 * 
+	 * @param newStationExternalId    external ID of the monitoring station as given by the user
+	 * @param station    monitoring station found for the external ID
+	 */
+	private void applyStation(final String newStationExternalId, final MonitoringStation station) {
+		// mark new content of station external ID as VALID
+		this.view.markUIStationExternalIdValid();
+		this.view.restoreEditabilityOnAllDependentTextFields();
 		if( newStationExternalId != this.view.getStationExternalId() ) {
 			/*
 			 * Hand new data to reading view if necessary.
@@ -129,27 +232,85 @@ public class ReadingController implements IReadingController {
 		 * If the current monitoring station has no corresponding concentration readings, the depending data fields remain empty.
 		 * Insertion of new concentration readings is currently not supported by the UI.
 		 */
-		ConcentrationReading newRecord = null;
-		try {
-			newRecord = model.getLatestConcentrationReading( station.getId() );
-			if( null == newRecord ) {
-				throw new ModelPersistenceException("There doesn't exist any concentration reading for given station yet. Station: "+station);
-			}
-		} catch (ModelPersistenceException | PersistenceException e) {
-			logger.log(Level.WARNING, "Failed to lookup concentration readings for given station. Station: "+station, e);
-			// wipe text fields to indicate error
-			this.view.wipeReadingDependentTextFields();
-			this.view.removeEditabilityFromReadingDependentTextFields();
-			return;
-		}
-		if( newRecord.getReadingTimestamp() != this.view.getReadingTimestamp() ) {
-			this.view.overwriteUIReadingTimestamp( newRecord.getReadingTimestamp() );
+		this.contentRequests.submit( this.model.getLatestConcentrationReadingAsync( station.getId() ),
+				newRecord -> {
+					if( null == newRecord ) {
+						throw new CompletionException( new ModelPersistenceException("There doesn't exist any concentration reading for given station yet. Station: "+station) );
+					}
+					return newRecord;
+				},
+				newRecord -> {
+					this.displayedStationId = station.getId();
+					showReading(newRecord);
+				},
+				failure -> {
+					logger.log(Level.WARNING, "Failed to lookup concentration readings for given station. Station: "+station, failure);
+					// wipe text fields to indicate error
+					this.view.wipeReadingDependentTextFields();
+					this.view.removeEditabilityFromReadingDependentTextFields();
+				});
+	}
+	
+	/**
+	 * Displays the given reading record. Runs in the JavaFX application thread.
+	 * 
+	 * @param newRecord    summary of the reading record
+	 */
+	private void showReading(final ReadingSummary newRecord) {
+		if( newRecord.readingTimestamp() != this.view.getReadingTimestamp() ) {
+			this.view.overwriteUIReadingTimestamp( newRecord.readingTimestamp() );
 		}
-		if( newRecord.getActualConcentration() != this.view.getActualConcentration() ) {
-			this.view.overwriteUIActualConcentration( newRecord.getActualConcentration() );
+		if( newRecord.actualConcentration() != this.view.getActualConcentration() ) {
+			this.view.overwriteUIActualConcentration( newRecord.actualConcentration() );
 		}
 		// update ID of currently displayed concentration reading record
-		this.view.setCurrentReadingId( newRecord.getId() );
+		this.view.setCurrentReadingId( newRecord.id() );
+		this.displayedReadingId = newRecord.id();
+		rememberReadingVersion( newRecord.id(), newRecord.version() );
+	}
+	
+	/**
+	 * Remembers the row version of a displayed reading record. Versions only grow, so a late notification doesn't replace a newer version.
+	 * 
+	 * @param readingId    ID of the reading record
+	 * @param version    row version of the displayed values
+	 */
+	private void rememberReadingVersion(final long readingId, final int version) {
+		this.displayedReadingVersions.merge( Long.valueOf(readingId), Integer.valueOf(version), Math::max );
+	}
+	
+	/**
+	 * Writes the given actual concentration values in one batch. Called by the write-behind queue in its flush thread.
+	 * 
+	 * @param newConcentrationValues    new actual concentration values by reading ID
+	 * @return    failures by reading ID: reading records which were modified by someone else since they were displayed
+	 * @throws ModelPersistenceException
+	 */
+	private Map<Long, Exception> writeActualConcentrations(final Map<Long, Integer> newConcentrationValues) throws ModelPersistenceException {
+		final Map<Long, Integer> newVersions = this.model.updateActualConcentrations(newConcentrationValues, this.displayedReadingVersions);
+		
+		final Map<Long, Exception> failures = new HashMap<Long, Exception>();
+		for(final Long readingId : newConcentrationValues.keySet()) {
+			final Integer newVersion = newVersions.get(readingId);
+			if(null == newVersion) {
+				failures.put(readingId, new StaleRecordException("Concentration reading with ID "+readingId+" was modified or deleted since it was displayed."));
+			}else {
+				rememberReadingVersion( readingId.longValue(), newVersion.intValue() );
+			}
+		}
+		return failures;
+	}
+	
+	/**
+	 * Replaces the displayed reading record by the given youngest reading record of the same monitoring station, e. g. inserted by another client. Runs in the JavaFX application thread.
+	 * 
+	 * @param reading    summary of the new youngest reading record of a monitoring station
+	 */
+	private void showLatestReading(final ReadingSummary reading) {
+		if(reading.stationId() != this.displayedStationId || reading.id() == this.displayedReadingId) return;
+		// don't keep edits of the previously displayed reading record pending
+		this.actualValueWriteBehind.flushNow();
+		showReading(reading);
 	}
 	
 	@Override
@@ -161,13 +322,12 @@ public class ReadingController implements IReadingController {
 		try {
 			newValue = Integer.parseInt(newActualValue);
 			
-			try {
-				model.updateActualConcentration(newValue, currentReadingId);
-				// mark new content of actual concentration as VALID
-				this.view.markUIActualConcentrationValid();
-			} catch (ModelPersistenceException | PersistenceException e) {
-				logger.log(Level.WARNING, "Failed to update the actual concentration value in the database. Given actual value was \""+newValue+"\".", e);
-				this.view.markUIActualConcentrationErroneous();
+			/*
+			 * Don't write each keystroke to the database. The write-behind queue writes the last value after a short quiet period or on focus loss.
+			 * The flush result is marked in the view afterwards.
+			 */
+			if(currentReadingId >= 0) {
+				this.actualValueWriteBehind.submit(currentReadingId, Integer.valueOf(newValue));
 			}
 		}catch(NumberFormatException e) {
 			logger.log(Level.WARNING, "The given value \""+newActualValue+"\" is no integer number. Expecting integer value for the actual concentration value.", e);
@@ -176,4 +336,24 @@ public class ReadingController implements IReadingController {
 		}
 		
 	}
+	
+	@Override
+	public void handleUserFinishedEditingActualConcentration() {
+		this.actualValueWriteBehind.flushNow();
+	}
+	
+	@Override
+	public void prefetchLatestReadings(final Collection<Long> internalStationIds) {
+		/*
+		 * Load in the background so that the station list is displayed without delay.
+		 * A selection before completion simply loads its reading record on its own.
+		 */
+		this.model.getLatestConcentrationReadingsAsync(internalStationIds).whenComplete( (readings, failure) -> {
+			if(null == failure) {
+				logger.log(Level.INFO, "Prefetched youngest reading records of "+readings.size()+" monitoring stations.");
+			}else {
+				logger.log(Level.WARNING, "Failed to prefetch youngest reading records of monitoring stations. Reading records are loaded on selection instead.", failure);
+			}
+		});
+	}
 }
@@ -18,18 +18,19 @@ package sidlogism.martinfowler.uiArchs.mvc_standalone.controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
-import jakarta.persistence.PersistenceException;
-
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.IStationModel;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.StationModel;
-import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ModelPersistenceException;
-import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.MonitoringStation;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.StationSummary;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.view.IReadingView;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.view.IStationView;
+import sidlogism.martinfowler.uiArchs.util.KeysetPager;
+import sidlogism.martinfowler.uiArchs.util.SupersedingRequests;
+import javafx.application.Platform;
 
 /**
  * Controller handling user actions in views related to monitoring stations.
@@ -46,6 +47,11 @@ public class StationController implements IStationController{
 	 * @see #initializeController
 	 */
 	private IReadingController readingController = null;
+	/**
+	 * Loads the monitoring stations page by page while the user scrolls, so startup time and memory don't grow with the number of monitoring stations.
+	 */
+	private KeysetPager<StationSummary> stationPager = null;
+	private final SupersedingRequests filterRequests = new SupersedingRequests("StationController", Platform::runLater);
 	
 
 	public StationController() {
@@ -64,16 +70,23 @@ public class StationController implements IStationController{
 		 * Initialize list of monitoring stations.
 		 * Currently the list contains only one single string representing a monitoring station because there currently is no out-of-the-box list for multiple columns in JavaFX.
 		 */
-		List<String> stationIdentifiers = null;
-		try {
-			final List<MonitoringStation> stations = model.findAll();
-			stationIdentifiers = stations.stream().map(MonitoringStation::getStationExternalId).collect( Collectors.toList() );
-		} catch (ModelPersistenceException | PersistenceException e) {
-			stationIdentifiers = new ArrayList<String>();
-			stationIdentifiers.add("- data access error -");
-			logger.log(Level.SEVERE, "Failed to load station-related data from DB.", e);
-		}
-		this.view.overwriteUIStationList(stationIdentifiers);
+		// load in the background and append each page in the JavaFX application thread
+		this.stationPager = new KeysetPager<StationSummary>("StationController", model::findPageAsync, StationSummary::id,
+				stations -> {
+					this.view.appendUIStationList( stations.stream().map(StationSummary::stationExternalId).collect( Collectors.toList() ) );
+					// load the reading records of all stations of the page at once instead of one query per selection
+					this.readingController.prefetchLatestReadings( stations.stream().map( station -> Long.valueOf(station.id()) ).collect( Collectors.toList() ) );
+				},
+				failure -> {
+					logger.log(Level.SEVERE, "Failed to load station-related data from DB.", failure);
+					// keep the stations of the pages loaded before. The page is requested again when the user scrolls.
+					if( this.stationPager.getLoadedEntryCount() > 0 ) return;
+					final List<String> stationIdentifiers = new ArrayList<String>();
+					stationIdentifiers.add("- data access error -");
+					this.view.overwriteUIStationList(stationIdentifiers);
+				},
+				Platform::runLater);
+		this.stationPager.loadNextPage();
 	}
 	
 	@Override
@@ -86,9 +99,30 @@ public class StationController implements IStationController{
 		this.view.wipeSelection();
 	}
 	
+	@Override
+	public void filterStationList(final String stationExternalIdPrefix) {
+		if(null == stationExternalIdPrefix) return;
+		// the reading view echoes selections made in the station view. Keep the list as it is in this case.
+		if( stationExternalIdPrefix.equals( this.view.getSelectedStationExternalId() ) ) return;
+		if( stationExternalIdPrefix.isEmpty() ) {
+			// show all loaded monitoring stations again. Supersedes a filter request still in flight.
+			this.filterRequests.submit( CompletableFuture.completedFuture(null), ignored -> this.view.restoreUIStationList(), failure -> {} );
+			return;
+		}
+		// loads one page of matches. Longer prefixes of a complete page are answered by the prefix index of the station directory.
+		this.filterRequests.submit( this.model.findStationExternalIdsByPrefixAsync(stationExternalIdPrefix),
+				matchingExternalIds -> this.view.overwriteUIStationList(matchingExternalIds),
+				failure -> logger.log(Level.WARNING, "Failed to filter monitoring stations by external ID \""+stationExternalIdPrefix+"\".", failure) );
+	}
+	
+	@Override
+	public void handleUserScrolledToEndOfList() {
+		if(null != this.stationPager) this.stationPager.loadNextPage();
+	}
+	
 	@Override
 	public void handleUserChangedSelection(final String newExternalId) {
 		//IMPORTANT: For keeping station view and reading view in sync, also inform reading controller.
-		this.readingController.handleUserChangedStationExtId( newExternalId );
+		this.readingController.handleUserChangedStationSelection( newExternalId );
 	}
 }
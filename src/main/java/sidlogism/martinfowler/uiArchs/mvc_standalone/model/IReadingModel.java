@@ -15,8 +15,16 @@
  */
 package sidlogism.martinfowler.uiArchs.mvc_standalone.model;
 
-import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ConcentrationReading;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ModelPersistenceException;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ReadingSummary;
+import sidlogism.martinfowler.uiArchs.util.ConcentrationTimeSeries;
+import sidlogism.martinfowler.uiArchs.util.PersistenceExecutor;
 
 public interface IReadingModel {
 	/**
@@ -26,13 +34,112 @@ public interface IReadingModel {
 	 */
 	public void updateActualConcentration(final int newConcentrationValue, final long readingId) throws ModelPersistenceException;
 
+	/**
+	 * Updates actual concentration values of several reading records in one transaction.
+	 * 
+	 * Optimistic locking is applied to each reading record against the version the caller displayed (see {@link ReadingSummary#version()}).
+	 * Reading records which were modified by someone else in the meantime are skipped and the listeners are notified about their stored values via {@link IReadingModelListener#actualConcentrationRejected(long, int)}. All other reading records are updated.
+	 * 
+	 * @param newConcentrationValues    new actual concentration values by reading ID
+	 * @param expectedVersions    versions of the reading records as they were displayed, by reading ID
+	 * @return new versions of the updated reading records by reading ID. Reading records missing in the result were modified or deleted in the meantime and were not updated.
+	 * @throws StaleRecordException    if the whole transaction conflicted with a concurrent transaction. None of the records is updated then.
+	 * @throws ModelPersistenceException 
+	 */
+	public Map<Long, Integer> updateActualConcentrations(final Map<Long, Integer> newConcentrationValues, final Map<Long, Integer> expectedVersions) throws ModelPersistenceException;
+
 	/**
 	 * Loads the youngest concentration reading record belonging to the monitoring station with the given ID from persistence layer.
 	 * 
 	 * @param internalStationId    ID of relevant monitoring station
-	 * @return domain object of relevant reading record. null if the query result is empty.
+	 * @return read-only summary of relevant reading record. null if the query result is empty.
+	 * @throws ModelPersistenceException
+	 */
+	public ReadingSummary getLatestConcentrationReading(final long internalStationId) throws ModelPersistenceException;
+
+	/**
+	 * Loads the youngest concentration reading record of each given monitoring station from persistence layer with one single query.
+	 * Later calls of {@link #getLatestConcentrationReading(long)} for these monitoring stations are served from memory until the loaded reading records expire (config entry "latestReadingCache.maxAgeMillis").
+	 * 
+	 * @param internalStationIds    IDs of relevant monitoring stations. null or empty for all monitoring stations.
+	 * @return read-only summary of the youngest reading record by station ID. Monitoring stations without reading records are missing.
+	 * @throws ModelPersistenceException
+	 */
+	public Map<Long, ReadingSummary> getLatestConcentrationReadings(final Collection<Long> internalStationIds) throws ModelPersistenceException;
+
+	/**
+	 * Streams the history of concentration reading records of the monitoring station with the given ID within the given time range, ordered ascending by timestamp.
+	 * The records are handed to the consumer one by one while they are read from persistence layer, so memory usage stays constant for arbitrary large time ranges.
+	 * 
+	 * @param internalStationId    ID of relevant monitoring station
+	 * @param from    inclusive lower bound of the reading timestamps. null for no lower bound.
+	 * @param to    exclusive upper bound of the reading timestamps. null for no upper bound.
+	 * @param consumer    receives the read-only summary of each reading record on the calling thread. Should not block, because the database cursor stays open meanwhile.
+	 * @return number of streamed reading records
+	 * @throws ModelPersistenceException
+	 */
+	public long streamReadings(final long internalStationId, final LocalDateTime from, final LocalDateTime to, final Consumer<ReadingSummary> consumer) throws ModelPersistenceException;
+
+	/**
+	 * Loads the history of concentration reading records of the monitoring station with the given ID within the given time range into a compact columnar time series.
+	 * The records are streamed like in {@link #streamReadings(long, LocalDateTime, LocalDateTime, Consumer)}, so no list of domain objects is built.
+	 * 
+	 * @param internalStationId    ID of relevant monitoring station
+	 * @param from    inclusive lower bound of the reading timestamps. null for no lower bound.
+	 * @param to    exclusive upper bound of the reading timestamps. null for no upper bound.
+	 * @return time series of timestamps and concentration values of the reading records
 	 * @throws ModelPersistenceException
 	 */
-	public ConcentrationReading getLatestConcentrationReading(final long internalStationId) throws ModelPersistenceException;
+	public default ConcentrationTimeSeries loadReadingHistory(final long internalStationId, final LocalDateTime from, final LocalDateTime to) throws ModelPersistenceException {
+		final ConcentrationTimeSeries result = new ConcentrationTimeSeries();
+		streamReadings( internalStationId, from, to, reading -> result.append(reading.readingTimestamp(), reading.actualConcentration()) );
+		result.trimToSize();
+		return result;
+	}
+
+	/**
+	 * Asynchronous variant of {@link #updateActualConcentration(int, long)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @return future completed after the update. Completed exceptionally with ModelPersistenceException on failure.
+	 */
+	public default CompletableFuture<Void> updateActualConcentrationAsync(final int newConcentrationValue, final long readingId) {
+		return PersistenceExecutor.getInstance().submit( () -> {
+			updateActualConcentration(newConcentrationValue, readingId);
+			return null;
+		});
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getLatestConcentrationReading(long)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param internalStationId    ID of relevant monitoring station
+	 * @return future completed with the read-only summary of relevant reading record or null. Completed exceptionally with ModelPersistenceException on failure.
+	 */
+	public default CompletableFuture<ReadingSummary> getLatestConcentrationReadingAsync(final long internalStationId) {
+		return PersistenceExecutor.getInstance().submit( () -> getLatestConcentrationReading(internalStationId) );
+	}
+
+	/**
+	 * Asynchronous variant of {@link #getLatestConcentrationReadings(Collection)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param internalStationIds    IDs of relevant monitoring stations. null or empty for all monitoring stations.
+	 * @return future completed with the youngest reading record by station ID. Completed exceptionally with ModelPersistenceException on failure.
+	 */
+	public default CompletableFuture<Map<Long, ReadingSummary>> getLatestConcentrationReadingsAsync(final Collection<Long> internalStationIds) {
+		return PersistenceExecutor.getInstance().submit( () -> getLatestConcentrationReadings(internalStationIds) );
+	}
+
+	/**
+	 * Asynchronous variant of {@link #streamReadings(long, LocalDateTime, LocalDateTime, Consumer)} running on the {@link PersistenceExecutor}.
+	 * 
+	 * @param internalStationId    ID of relevant monitoring station
+	 * @param from    inclusive lower bound of the reading timestamps. null for no lower bound.
+	 * @param to    exclusive upper bound of the reading timestamps. null for no upper bound.
+	 * @param consumer    receives the read-only summary of each reading record on the executing persistence thread
+	 * @return future completed with the number of streamed reading records. Completed exceptionally with ModelPersistenceException on failure.
+	 */
+	public default CompletableFuture<Long> streamReadingsAsync(final long internalStationId, final LocalDateTime from, final LocalDateTime to, final Consumer<ReadingSummary> consumer) {
+		return PersistenceExecutor.getInstance().submit( () -> Long.valueOf( streamReadings(internalStationId, from, to, consumer) ) );
+	}
 
 }
\ No newline at end of file
@@ -42,5 +42,11 @@ public interface IReadingModelDataProvider {
 	 * @param listener
 	 */
 	public void notifyReadingModelListeners(final ConcentrationReading reading);
+	
+	/**
+	 * Starts notifying the listeners also about reading records which are inserted or modified by other clients of the database, e. g. other operators or ingestion jobs.
+	 * Changes are polled in the background with one query for all monitoring stations. Calls after the first one are ignored.
+	 */
+	public void startChangeFeed();
 
 }
\ No newline at end of file
@@ -15,13 +15,43 @@
  */
 package sidlogism.martinfowler.uiArchs.mvc_standalone.model;
 
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ReadingSummary;
+
 /**
  * Simple observer type for changes in reading model.
  */
 public interface IReadingModelListener {
 	/**
 	 * Handle change in actual concentration value.
+	 * @note    Called by the dispatch executor of the model, i. e. the JavaFX application thread for models created by the UI. Repeated changes of the same reading record may be reported once with the latest value.
+	 * @param readingId    ID of the changed reading record
 	 * @param newValue    changed actual concentration value
 	 */
-	void actualConcentrationChanged(int newValue);
+	void actualConcentrationChanged(long readingId, int newValue);
+	
+	/**
+	 * Handle a new row version of a reading record. Delivered right after the changed or rejected values of the same reading record, so the version always belongs to the displayed values.
+	 * @note    Called by the dispatch executor of the model, i. e. the JavaFX application thread for models created by the UI. Listeners writing changes use the version as expected version of their next update (see {@link IReadingModel#updateActualConcentrations(java.util.Map, java.util.Map)}).
+	 * @param readingId    ID of the reading record
+	 * @param newVersion    row version of the displayed values
+	 */
+	default void readingVersionChanged(final long readingId, final int newVersion) {
+	}
+	
+	/**
+	 * Handle a new youngest reading record of a monitoring station, e. g. inserted by another client of the database.
+	 * @note    Called by the dispatch executor of the model, i. e. the JavaFX application thread for models created by the UI.
+	 * @param reading    summary of the new youngest reading record
+	 */
+	default void latestReadingChanged(final ReadingSummary reading) {
+	}
+	
+	/**
+	 * Handle a rejected change of the actual concentration value, i. e. the reading record was modified by someone else since it was loaded.
+	 * @note    Called by the dispatch executor of the model, i. e. the JavaFX application thread for models created by the UI.
+	 * @param readingId    ID of the reading record whose change was discarded
+	 * @param storedValue    actual concentration value currently stored in the database
+	 */
+	default void actualConcentrationRejected(final long readingId, final int storedValue) {
+	}
 }
\ No newline at end of file
@@ -15,18 +15,47 @@
  */
 package sidlogism.martinfowler.uiArchs.mvc_standalone.model;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ConcentrationReading;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ModelPersistenceException;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.PersistenceTools;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ReadingSummary;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.StaleRecordException;
+import sidlogism.martinfowler.uiArchs.util.ChangeFeedPoller;
+import sidlogism.martinfowler.uiArchs.util.CoalescingDispatcher;
+import sidlogism.martinfowler.uiArchs.util.ConfigParser;
+import sidlogism.martinfowler.uiArchs.util.ConnectionPoolTools;
+import sidlogism.martinfowler.uiArchs.util.FileSystemAccessException;
+import sidlogism.martinfowler.uiArchs.util.IChangeLoader;
 
 /**
  * Business logic for accessing and processing all data related to concentration readings.
@@ -34,16 +63,74 @@ import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.Persisten
  */
 public class ReadingModel implements IReadingModel, IReadingModelDataProvider {
 	private static final Logger logger = Logger.getLogger(ReadingModel.class.getName());
-	private List<IReadingModelListener> observers = null;
+	/**
+	 * Default for config entry "latestReadingCache.maxAgeMillis".
+	 */
+	public static final long DEFAULT_LATEST_READING_MAX_AGE_MILLIS = 10_000;
+	/**
+	 * Summary of the youngest reading record by station ID.
+	 * Filled by bulk and single lookups and refreshed by own updates and by the change feed, so that repeated lookups of the same station are served from memory.
+	 * Entries expire after {@link #latestReadingMaxAgeNanos} like in the model2 variant. This bounds their age if the change feed isn't started or fails to poll.
+	 */
+	private final Map<Long, CachedReading> latestReadingsByStation = new ConcurrentHashMap<Long, CachedReading>();
+	private final long latestReadingMaxAgeNanos;
+	/**
+	 * Registry of the listeners. Delivers notifications asynchronously and coalesced per reading record, so that slow listeners never delay a database commit.
+	 */
+	private final CoalescingDispatcher<IReadingModelListener> listenerDispatcher;
+	/**
+	 * Polls reading records changed by other clients of the database. Created by {@link #startChangeFeed()}.
+	 */
+	private ChangeFeedPoller<ReadingSummary, ModelPersistenceException> changeFeed = null;
 	
+	/**
+	 * Creates a reading model notifying its listeners in the common fork-join pool.
+	 */
 	public ReadingModel(){
-		this.observers = new ArrayList<IReadingModelListener>();
+		this( ForkJoinPool.commonPool() );
+	}
+	
+	/**
+	 * Creates a reading model with the configured maximum age of known youngest reading records.
+	 * 
+	 * @param listenerExecutor    executor delivering the notifications to the listeners, e. g. Platform::runLater for listeners updating the UI
+	 * @see #getConfiguredLatestReadingMaxAgeMillis()
+	 */
+	public ReadingModel(final Executor listenerExecutor){
+		this( listenerExecutor, getConfiguredLatestReadingMaxAgeMillis() );
+	}
+	
+	/**
+	 * @param listenerExecutor    executor delivering the notifications to the listeners, e. g. Platform::runLater for listeners updating the UI
+	 * @param latestReadingMaxAgeMillis    period in which a loaded youngest reading record is served from memory. 0 or less disables caching.
+	 */
+	public ReadingModel(final Executor listenerExecutor, final long latestReadingMaxAgeMillis){
+		this.listenerDispatcher = new CoalescingDispatcher<IReadingModelListener>("ReadingModel", listenerExecutor);
+		this.latestReadingMaxAgeNanos = TimeUnit.MILLISECONDS.toNanos( Math.max(0, latestReadingMaxAgeMillis) );
+	}
+	
+	/**
+	 * Reads the maximum age of known youngest reading records from the config file.
+	 * 
+	 * @return    value of config entry "latestReadingCache.maxAgeMillis" or {@link #DEFAULT_LATEST_READING_MAX_AGE_MILLIS} if the config entry is missing or the config file can't be read
+	 */
+	public static long getConfiguredLatestReadingMaxAgeMillis() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject cacheConfig = ConfigParser.getInstance().getRootNode().optJSONObject("latestReadingCache");
+			if(null == cacheConfig) return DEFAULT_LATEST_READING_MAX_AGE_MILLIS;
+			return cacheConfig.optLong("maxAgeMillis", DEFAULT_LATEST_READING_MAX_AGE_MILLIS);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default maximum age of "+DEFAULT_LATEST_READING_MAX_AGE_MILLIS+" ms for known youngest reading records.", e);
+			return DEFAULT_LATEST_READING_MAX_AGE_MILLIS;
+		}
 	}
 	
 	@Override
-	public synchronized void updateActualConcentration(final int newConcentrationValue, final long readingId) throws ModelPersistenceException {
+	public void updateActualConcentration(final int newConcentrationValue, final long readingId) throws ModelPersistenceException {
 		if(readingId < 0) return;
 
+		final long startNanos = System.nanoTime();
 		EntityManager em = null;
 		ConcentrationReading updatedReading = null;
 		try {
@@ -61,8 +148,10 @@ public class ReadingModel implements IReadingModel, IReadingModelDataProvider {
 			}
 			throw new ModelPersistenceException("Error while updating "+ConcentrationReading.class.getName()+" with ID: "+readingId+".", e);
 		}finally {
-			if( null != em && em.getEntityManagerFactory().isOpen() ) em.getEntityManagerFactory().close();
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ReadingModel.updateActualConcentration", startNanos);
 		}
+		refreshLatestReading( ReadingSummary.of(updatedReading) );
 		
 		/*
 		 * rudimentary observer pattern: notify model observers about model change
@@ -71,27 +160,100 @@ public class ReadingModel implements IReadingModel, IReadingModelDataProvider {
 	}
 	
 	@Override
-	public synchronized ConcentrationReading getLatestConcentrationReading(final long internalStationId) throws ModelPersistenceException {
+	public Map<Long, Integer> updateActualConcentrations(final Map<Long, Integer> newConcentrationValues, final Map<Long, Integer> expectedVersions) throws ModelPersistenceException {
+		final Map<Long, Integer> newVersions = new HashMap<Long, Integer>();
+		if(newConcentrationValues.isEmpty()) return newVersions;
+		/*
+		 * Optimistic locking against the version the user saw: the update matches a reading record only if it still has the expected version.
+		 * Reloading the reading record in this transaction would check against the current version instead and overwrite modifications made since the user's read.
+		 * The bulk update bypasses the persistence context. Its row count tells whether the reading record was updated.
+		 */
+		final String queryText = 
+			"UPDATE ConcentrationReading r SET r.actualConcentration = :value, r.version = r.version + 1\n"
+			+ "WHERE r.id = :id AND r.version = :expectedVersion";
+		
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		List<ReadingSummary> updatedReadings = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			final Query query = em.createQuery(queryText);
+			final List<Long> updatedIds = new ArrayList<Long>();
+			for(final Map.Entry<Long, Integer> newValue : newConcentrationValues.entrySet()) {
+				final Integer expectedVersion = expectedVersions.get( newValue.getKey() );
+				if(null == expectedVersion) {
+					throw new ModelPersistenceException("Missing expected version of "+ConcentrationReading.class.getName()+" record with ID "+newValue.getKey()+".");
+				}
+				query.setParameter("value", newValue.getValue() );
+				query.setParameter("id", newValue.getKey() );
+				query.setParameter("expectedVersion", expectedVersion );
+				if( query.executeUpdate() > 0 ) updatedIds.add( newValue.getKey() );
+			}
+			// the updated rows stay locked until commit, so the reloaded summaries carry the written values and versions
+			updatedReadings = updatedIds.isEmpty() ? Collections.emptyList() : findReadingSummaries(em, updatedIds);
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			if(null != em && em.getTransaction().isActive()) {
+				em.getTransaction().rollback();
+			}
+			if( PersistenceTools.isOptimisticLockConflict(e) ) {
+				notifyRejectedConcentrations( newConcentrationValues.keySet() );
+				throw new StaleRecordException("At least one of the "+ConcentrationReading.class.getName()+" records with IDs "+newConcentrationValues.keySet()+" was modified by a concurrent transaction. No record was updated.", e);
+			}
+			throw new ModelPersistenceException("Error while updating "+ConcentrationReading.class.getName()+" records with IDs: "+newConcentrationValues.keySet()+". Query:\n"+queryText, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ReadingModel.updateActualConcentrations", startNanos);
+		}
+		for(final ReadingSummary updatedReading : updatedReadings) {
+			newVersions.put( Long.valueOf(updatedReading.id()), Integer.valueOf(updatedReading.version()) );
+		}
+		// skipped reading records were modified or deleted by someone else: display their stored values instead of the discarded ones
+		final Set<Long> rejectedIds = new HashSet<Long>( newConcentrationValues.keySet() );
+		rejectedIds.removeAll( newVersions.keySet() );
+		if( !rejectedIds.isEmpty() ) notifyRejectedConcentrations(rejectedIds);
+		
+		for(final ReadingSummary updatedReading : updatedReadings) {
+			refreshLatestReading(updatedReading);
+			/*
+			 * rudimentary observer pattern: notify model observers about model change
+			 */
+			postActualConcentrationChanged( updatedReading.id(), updatedReading.actualConcentration(), updatedReading.version() );
+		}
+		return newVersions;
+	}
+	
+	@Override
+	public ReadingSummary getLatestConcentrationReading(final long internalStationId) throws ModelPersistenceException {
+		final CachedReading knownReading = this.latestReadingsByStation.get( Long.valueOf(internalStationId) );
+		if(null != knownReading && !isExpired(knownReading)) return knownReading.reading();
+		
 		/*
-		 * IMPORTANT: Don't filter by timestamp-value only because it is not always a unique value.
+		 * IMPORTANT: Don't filter by timestamp-value only because it is not always a unique value. The ID breaks ties.
 		 * 
-		 * Retrieving all reading records related to the given station ID, then order descending by timestamp and get the first record.
-		 * Equivalent constructs in other SQL dialects:
+		 * Order the reading records of the given station descending by timestamp and get the first record.
+		 * Hibernate renders the row limit in the dialect of the used DBS:
 		 *     MySQL: "LIMIT 1"
 		 *     Oracle SQL: "FETCH FIRST 1 ROW ONLY"
+		 * Filtering by the foreign key column and ordering like index concentration_reading__idx__station_latest (fk_station_id, reading_timestamp DESC, id DESC) resolves the query by one index seek.
+		 * The ORDER BY repeats the filtered station as leading column, so that planners which only skip the sort for an ORDER BY starting with the first index column (e. g. H2) use the index as well.
+		 * Selecting only the displayed columns into a record neither loads the monitoring station nor puts the reading record into the persistence context.
 		 */
 		final String queryText = 
-			"FROM ConcentrationReading\n"
-			+ "WHERE station = :station\n"
-			+ "ORDER BY readingTimestamp DESC";
+			"SELECT new "+ReadingSummary.class.getName()+"(r.id, r.station.id, r.readingTimestamp, r.actualConcentration, r.version)\n"
+			+ "FROM ConcentrationReading r\n"
+			+ "WHERE r.station.id = :stationId\n"
+			+ "ORDER BY r.station.id, r.readingTimestamp DESC, r.id DESC";
 
-		ConcentrationReading result = null;
+		ReadingSummary result = null;
+		final long startNanos = System.nanoTime();
 		EntityManager em = null;
 		try {
 			em = PersistenceTools.getEntityManager();
 			em.getTransaction().begin();
-			final TypedQuery<ConcentrationReading> query = em.createQuery( queryText, ConcentrationReading.class );
-			query.setParameter("station", Long.valueOf(internalStationId) );
+			final TypedQuery<ReadingSummary> query = em.createQuery( queryText, ReadingSummary.class );
+			query.setParameter("stationId", Long.valueOf(internalStationId) );
 			query.setFirstResult(0);
 			query.setMaxResults(1);
 			result = query.getSingleResult();
@@ -99,31 +261,344 @@ public class ReadingModel implements IReadingModel, IReadingModelDataProvider {
 		} catch (ModelPersistenceException | PersistenceException e) {
 			throw new ModelPersistenceException("Error while accessing or processing "+ConcentrationReading.class.getName()+" with station foreign key (station ID): "+internalStationId+". Query:\n"+queryText, e);
 		}finally {
-			if( null != em && em.getEntityManagerFactory().isOpen() ) em.getEntityManagerFactory().close();
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ReadingModel.getLatestConcentrationReading", startNanos);
+		}
+		if(null != result) {
+			this.latestReadingsByStation.put( Long.valueOf(internalStationId), new CachedReading(result, System.nanoTime()) );
+		}else {
+			this.latestReadingsByStation.remove( Long.valueOf(internalStationId) );
+		}
+		return result;
+	}
+	
+	@Override
+	public Map<Long, ReadingSummary> getLatestConcentrationReadings(final Collection<Long> internalStationIds) throws ModelPersistenceException {
+		final boolean allStations = null == internalStationIds || internalStationIds.isEmpty();
+		/*
+		 * Anti-join: A reading record is the youngest of its station if there is no younger reading record of the same station. The ID breaks ties of equal timestamps.
+		 * Each NOT EXISTS probe is resolved by one seek on index concentration_reading__idx__station_latest.
+		 * Select only the displayed columns into records, so neither the stations are loaded nor the reading records are put into the persistence context.
+		 */
+		final String queryText = 
+			"SELECT new "+ReadingSummary.class.getName()+"(r.id, r.station.id, r.readingTimestamp, r.actualConcentration, r.version)\n"
+			+ "FROM ConcentrationReading r\n"
+			+ "WHERE NOT EXISTS (\n"
+			+ "    SELECT 1 FROM ConcentrationReading younger\n"
+			+ "    WHERE younger.station = r.station\n"
+			+ "    AND ( younger.readingTimestamp > r.readingTimestamp OR ( younger.readingTimestamp = r.readingTimestamp AND younger.id > r.id ) )\n"
+			+ ")"
+			+ ( allStations ? "" : "\nAND r.station.id IN :stationIds" );
+		
+		final Map<Long, ReadingSummary> result = new HashMap<Long, ReadingSummary>();
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			final TypedQuery<ReadingSummary> query = em.createQuery( queryText, ReadingSummary.class );
+			if( !allStations ) {
+				query.setParameter("stationIds", internalStationIds );
+			}
+			for(final ReadingSummary reading : query.getResultList()) {
+				result.put( Long.valueOf(reading.stationId()), reading );
+			}
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while accessing or processing youngest "+ConcentrationReading.class.getName()+" records of stations: "+( allStations ? "all" : internalStationIds )+". Query:\n"+queryText, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ReadingModel.getLatestConcentrationReadings", startNanos);
+		}
+		final long loadedAtNanos = System.nanoTime();
+		for(final ReadingSummary reading : result.values()) {
+			this.latestReadingsByStation.put( Long.valueOf(reading.stationId()), new CachedReading(reading, loadedAtNanos) );
 		}
 		return result;
 	}
+	
+	@Override
+	public long streamReadings(final long internalStationId, final LocalDateTime from, final LocalDateTime to, final Consumer<ReadingSummary> consumer) throws ModelPersistenceException {
+		/*
+		 * Hibernate scrolls through the result with a forward-only cursor and fetches the rows in chunks of the streaming fetch size (see ConnectionPoolTools.getStreamingFetchSize()) instead of reading the whole result into a list.
+		 * Selecting into records keeps the persistence context empty, so memory usage doesn't depend on the size of the time range.
+		 * The range is resolved by index concentration_reading__idx__station_latest (fk_station_id, reading_timestamp DESC, id DESC).
+		 */
+		final String queryText = 
+			"SELECT new "+ReadingSummary.class.getName()+"(r.id, r.station.id, r.readingTimestamp, r.actualConcentration, r.version)\n"
+			+ "FROM ConcentrationReading r\n"
+			+ "WHERE r.station.id = :stationId\n"
+			+ ( null == from ? "" : "AND r.readingTimestamp >= :from\n" )
+			+ ( null == to ? "" : "AND r.readingTimestamp < :to\n" )
+			+ "ORDER BY r.readingTimestamp ASC, r.id ASC";
+		
+		long streamedRecords = 0;
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			final TypedQuery<ReadingSummary> query = em.createQuery( queryText, ReadingSummary.class );
+			query.setParameter("stationId", Long.valueOf(internalStationId) );
+			if(null != from) query.setParameter("from", from);
+			if(null != to) query.setParameter("to", to);
+			query.setHint(HibernateHints.HINT_FETCH_SIZE, Integer.valueOf( ConnectionPoolTools.getStreamingFetchSize() ));
+			try( final Stream<ReadingSummary> readings = query.getResultStream() ){
+				final Iterator<ReadingSummary> iterator = readings.iterator();
+				while( iterator.hasNext() ) {
+					consumer.accept( iterator.next() );
+					streamedRecords++;
+				}
+			}
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while streaming "+ConcentrationReading.class.getName()+" records of station with ID "+internalStationId+" after "+streamedRecords+" records. Query:\n"+queryText, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ReadingModel.streamReadings", startNanos);
+		}
+		return streamedRecords;
+	}
+	
+	/**
+	 * Replaces the summary of the known youngest reading record of a station by a summary of the given updated reading record, if it is the same record.
+	 * 
+	 * @param updatedReading    updated reading record
+	 */
+	private void refreshLatestReading(final ReadingSummary updatedReading) {
+		this.latestReadingsByStation.computeIfPresent( Long.valueOf(updatedReading.stationId()),
+				(stationId, knownReading) -> knownReading.reading().id() == updatedReading.id() ? new CachedReading(updatedReading, knownReading.loadedAtNanos()) : knownReading );
+	}
+	
+	/**
+	 * @return    true if the known youngest reading record is older than the maximum age, i. e. a younger reading record may have been inserted by another client meanwhile
+	 */
+	private boolean isExpired(final CachedReading knownReading) {
+		return System.nanoTime() - knownReading.loadedAtNanos() >= this.latestReadingMaxAgeNanos;
+	}
 
+	@Override
+	public synchronized void startChangeFeed() {
+		if(null != this.changeFeed) return;
+		this.changeFeed = new ChangeFeedPoller<ReadingSummary, ModelPersistenceException>("ReadingModel",
+				new IChangeLoader<ReadingSummary, ModelPersistenceException>() {
+					@Override
+					public long loadGreatestId() throws ModelPersistenceException {
+						return findGreatestReadingId();
+					}
+					@Override
+					public LocalDateTime loadDatabaseTime() throws ModelPersistenceException {
+						return findDatabaseTime();
+					}
+					@Override
+					public List<ReadingSummary> loadChanges(final long afterId, final LocalDateTime modifiedSince) throws ModelPersistenceException {
+						return findChangedReadings(afterId, modifiedSince);
+					}
+				},
+				ReadingSummary::id, ReadingSummary::readingTimestamp, this::applyChangedReadings);
+		this.changeFeed.start();
+	}
+	
+	/**
+	 * @return greatest ID of all reading records. -1 if there are none.
+	 * @throws ModelPersistenceException
+	 */
+	private long findGreatestReadingId() throws ModelPersistenceException {
+		final String queryText = "SELECT max(r.id) FROM ConcentrationReading r";
+		
+		Long result = null;
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			result = em.createQuery( queryText, Long.class ).getSingleResult();
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while accessing greatest ID of "+ConcentrationReading.class.getName()+" records. Query:\n"+queryText, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ReadingModel.findGreatestReadingId", startNanos);
+		}
+		return null == result ? -1 : result.longValue();
+	}
+	
+	/**
+	 * @return current time of the database clock, which sets the reading timestamps on insert and update
+	 * @throws ModelPersistenceException
+	 */
+	private LocalDateTime findDatabaseTime() throws ModelPersistenceException {
+		// translated by Hibernate to LOCALTIMESTAMP of the active DBS, without FROM clause or FROM DUAL
+		final String queryText = "SELECT LOCAL DATETIME";
+		
+		LocalDateTime result = null;
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			result = em.createQuery( queryText, LocalDateTime.class ).getSingleResult();
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while accessing the database time. Query:\n"+queryText, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ReadingModel.findDatabaseTime", startNanos);
+		}
+		return result;
+	}
+	
+	/**
+	 * Loads the reading records inserted or modified since the given high-water marks. Used by {@link #changeFeed}.
+	 * 
+	 * @param afterId    greatest known reading ID
+	 * @param modifiedSince    reading records with a timestamp at or after this time are loaded. The database sets the timestamp on every update.
+	 * @return read-only summaries of the new and modified reading records ordered ascending by ID
+	 * @throws ModelPersistenceException
+	 */
+	private List<ReadingSummary> findChangedReadings(final long afterId, final LocalDateTime modifiedSince) throws ModelPersistenceException {
+		/*
+		 * Both conditions are resolved by an index: the primary key and concentration_reading__idx__reading_timestamp.
+		 * MySQL unites both index ranges (index merge), Oracle expands the OR into two index accesses.
+		 */
+		final String queryText = 
+			"SELECT new "+ReadingSummary.class.getName()+"(r.id, r.station.id, r.readingTimestamp, r.actualConcentration, r.version)\n"
+			+ "FROM ConcentrationReading r\n"
+			+ "WHERE r.id > :afterId OR r.readingTimestamp >= :modifiedSince\n"
+			+ "ORDER BY r.id ASC";
+		
+		List<ReadingSummary> result = null;
+		final long startNanos = System.nanoTime();
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			em.getTransaction().begin();
+			result = em.createQuery( queryText, ReadingSummary.class )
+				.setParameter("afterId", Long.valueOf(afterId) )
+				.setParameter("modifiedSince", modifiedSince )
+				.getResultList();
+			em.getTransaction().commit();
+		} catch (ModelPersistenceException | PersistenceException e) {
+			throw new ModelPersistenceException("Error while accessing "+ConcentrationReading.class.getName()+" records changed since ID "+afterId+" or timestamp "+modifiedSince+". Query:\n"+queryText, e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
+			PersistenceTools.logOperationDuration("ReadingModel.findChangedReadings", startNanos);
+		}
+		return result;
+	}
+	
+	/**
+	 * Updates the known youngest reading records and notifies the listeners about reading records changed by any client. Runs on the poll thread of {@link #changeFeed}.
+	 * 
+	 * @param changedReadings    new and modified reading records
+	 */
+	private void applyChangedReadings(final List<ReadingSummary> changedReadings) {
+		logger.log(Level.FINE, "Change feed delivered "+changedReadings.size()+" new or modified reading records.");
+		for(final ReadingSummary reading : changedReadings) {
+			final CachedReading knownLatest = this.latestReadingsByStation.get( Long.valueOf(reading.stationId()) );
+			// only stations whose youngest reading record was looked up are tracked
+			final boolean newLatest = null != knownLatest && knownLatest.reading().id() != reading.id() && isYounger(reading, knownLatest.reading());
+			if( null != knownLatest && (newLatest || knownLatest.reading().id() == reading.id()) ) {
+				this.latestReadingsByStation.put( Long.valueOf(reading.stationId()), new CachedReading(reading, knownLatest.loadedAtNanos()) );
+			}
+			postActualConcentrationChanged( reading.id(), reading.actualConcentration(), reading.version() );
+			if(newLatest) {
+				this.listenerDispatcher.post( new LatestReadingKey(reading.stationId()), listener -> listener.latestReadingChanged(reading) );
+			}
+		}
+	}
+	
+	/**
+	 * @return true if the first reading record is younger than the second one in the order of {@link #getLatestConcentrationReading(long)}
+	 */
+	private static boolean isYounger(final ReadingSummary reading, final ReadingSummary other) {
+		final int comparison = reading.readingTimestamp().compareTo( other.readingTimestamp() );
+		return comparison > 0 || (0 == comparison && reading.id() > other.id());
+	}
+	
 	@Override
 	public void addReadingModelListener(IReadingModelListener listener) {
 		logger.log(Level.INFO, "Adding new listener: "+listener);
-		this.observers.add(listener);
+		this.listenerDispatcher.addListener(listener);
 	}
 
 	@Override
 	public void removeReadingModelListener(IReadingModelListener listener) {
-		this.observers.remove(listener);
+		this.listenerDispatcher.removeListener(listener);
 	}
 
 	@Override
-	public synchronized void notifyReadingModelListeners(final ConcentrationReading reading) {
+	public void notifyReadingModelListeners(final ConcentrationReading reading) {
 		/*
 		 * note: currently the only user-changeable field is the actual concentration.
 		 * FIXME: hand over the entire updated object.
+		 * Until then, a notification carries the actual concentration only. Notifications are coalesced per reading record, so listeners get the latest posted value and never the intermediate ones.
+		 * Once more fields are changeable, they must be handed over in the same notification: a separate notification per field would let a coalesced delivery combine values of different updates.
 		 */
 		logger.log(Level.FINE, "Reading entity was updated. Changed reading tuple: "+reading);
-		for(final IReadingModelListener listener: this.observers) {
-			listener.actualConcentrationChanged( reading.getActualConcentration() );
+		postActualConcentrationChanged( reading.getId(), reading.getActualConcentration(), reading.getVersion() );
+	}
+	
+	/**
+	 * Reloads the stored values of reading records whose update was rejected because of an optimistic locking conflict and notifies the listeners about them.
+	 * 
+	 * @param readingIds    IDs of the rejected reading records
+	 */
+	private void notifyRejectedConcentrations(final Collection<Long> readingIds) {
+		EntityManager em = null;
+		try {
+			em = PersistenceTools.getEntityManager();
+			for(final ReadingSummary storedReading : findReadingSummaries(em, readingIds)) {
+				refreshLatestReading(storedReading);
+				this.listenerDispatcher.post( new RejectedConcentrationKey(storedReading.id()), listener -> {
+					listener.actualConcentrationRejected( storedReading.id(), storedReading.actualConcentration() );
+					listener.readingVersionChanged( storedReading.id(), storedReading.version() );
+				});
+			}
+		} catch (ModelPersistenceException | PersistenceException e) {
+			logger.log(Level.WARNING, "Failed to reload the stored values of the rejected "+ConcentrationReading.class.getName()+" records with IDs: "+readingIds+".", e);
+		}finally {
+			PersistenceTools.closeEntityManager(em);
 		}
 	}
+	
+	/**
+	 * Loads the summaries of the given reading records.
+	 * 
+	 * @param em    entity manager of the running operation
+	 * @param readingIds    IDs of the relevant reading records
+	 * @return read-only summaries of the found reading records
+	 */
+	private static List<ReadingSummary> findReadingSummaries(final EntityManager em, final Collection<Long> readingIds) {
+		final String queryText = 
+			"SELECT new "+ReadingSummary.class.getName()+"(r.id, r.station.id, r.readingTimestamp, r.actualConcentration, r.version)\n"
+			+ "FROM ConcentrationReading r\n"
+			+ "WHERE r.id IN :ids";
+		final TypedQuery<ReadingSummary> query = em.createQuery( queryText, ReadingSummary.class );
+		query.setParameter("ids", readingIds);
+		return query.getResultList();
+	}
+	
+	/**
+	 * Schedules the notification of the listeners about a changed actual concentration and the new row version. Replaces a pending notification about the same reading record.
+	 */
+	private void postActualConcentrationChanged(final long readingId, final int newValue, final int newVersion) {
+		this.listenerDispatcher.post( new ActualConcentrationKey(readingId), listener -> {
+			listener.actualConcentrationChanged(readingId, newValue);
+			listener.readingVersionChanged(readingId, newVersion);
+		});
+	}
+	
+	/**
+	 * Known youngest reading record of a station.
+	 * 
+	 * @param reading    summary of the reading record
+	 * @param loadedAtNanos    value of {@link System#nanoTime()} when the reading record was loaded. Own updates and the change feed keep the value.
+	 */
+	private record CachedReading(ReadingSummary reading, long loadedAtNanos) {}
+	
+	// keys of coalesced notifications
+	private record ActualConcentrationKey(long readingId) {}
+	private record RejectedConcentrationKey(long readingId) {}
+	private record LatestReadingKey(long stationId) {}
 }
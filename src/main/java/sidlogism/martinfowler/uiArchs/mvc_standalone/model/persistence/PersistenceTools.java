@@ -17,87 +17,269 @@ package sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceException;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool.PoolInitializationException;
+
 import sidlogism.martinfowler.uiArchs.util.ConfigParser;
+import sidlogism.martinfowler.uiArchs.util.ConnectionPoolTools;
 import sidlogism.martinfowler.uiArchs.util.FileSystemAccessException;
 /**
  * Simple utility wrapper for accessing persistence layer.
  * 
+ * The entity manager factory is bootstrapped once per process and lives until {@link #shutdown()} is called.
+ * Every unit of work gets its own short-lived entity manager via {@link #getEntityManager()} and releases it via {@link #closeEntityManager(EntityManager)}.
+ * Hibernate obtains its connections from a HikariCP pool tuned like the pool of the plain JDBC variant (see {@link ConnectionPoolTools}).
+ * Entities annotated with {@link jakarta.persistence.Cacheable} are kept in an in-process second-level cache (JCache provider Caffeine, regions configured in application.conf).
+ * Hit and miss counters per region are provided by {@link #getCacheRegionStatistics()} if Hibernate statistics are enabled by config entry "jpa.generateStatistics". They are disabled by default because they cost synchronized counter updates on every operation.
+ * 
  * @see sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.DbConnector
  */
 public class PersistenceTools {
+	private static final Logger logger = Logger.getLogger(PersistenceTools.class.getName());
+	// vendor error code of "ORA-08177: can't serialize access for this transaction"
+	private static final int ORACLE_SERIALIZATION_FAILURE = 8177;
 	/*
 	 * No ctor needed. Class has only a static utility interface.
 	 */
 	private PersistenceTools(){}
 	
 	/**
-	 * EntityManager	global entity manager initialized once using {@link #getEntityManager()}
+	 * EntityManagerFactory	global entity manager factory initialized once using {@link #getEntityManagerFactory()}
 	 * 
-	 * @note	pool is not closed at application shutdown or until a calling method closes it (TODO strategy for closing statically. finalize() is deprecated)
+	 * @note	factory is closed at application shutdown using {@link #shutdown()}. If a caller closes it prematurely, it is bootstrapped again on next access.
 	 */
-	private static EntityManager ENTITY_MANAGER;
+	private static volatile EntityManagerFactory ENTITY_MANAGER_FACTORY;
+	/**
+	 * HikariDataSource	connection pool used by {@link #ENTITY_MANAGER_FACTORY}. Owned by this class, not by Hibernate.
+	 */
+	private static HikariDataSource CONNECTION_POOL;
+	/**
+	 * Maximum number of statements Hibernate groups into one JDBC batch.
+	 */
+	private static final int JDBC_BATCH_SIZE = 25;
+	/**
+	 * Default for config entry "jpa.generateStatistics".
+	 */
+	public static final boolean DEFAULT_GENERATE_STATISTICS = false;
+	/**
+	 * Duration of the last bootstrap of {@link #ENTITY_MANAGER_FACTORY} in nanoseconds. Negative if not bootstrapped yet.
+	 */
+	private static volatile long bootstrapDurationNanos = -1;
 	
 	/**
-	 * Provides entity manager initialized with default parameters for data source
-	 * 
-	 * @return EntityManager	entity manager initialized with default parameters for data source.
-	 * @note	Caller is responsible for closing the returned entity manager.
+	 * Provides the process-wide entity manager factory initialized with default parameters for data source.
+	 * Bootstraps the persistence unit on first call only.
 	 * 
+	 * @return EntityManagerFactory	entity manager factory initialized with default parameters for data source.
 	 * @throws ModelPersistenceException
-	 * @throws FileSystemAccessException 
 	 */
-	public static synchronized EntityManager getEntityManager() throws ModelPersistenceException{
-		JSONObject dbParameters = null;
-		String activeDbs = null;
-		String persistenceUnitName = null;
-		try {
-			ConfigParser.getInstance().parseConfig();
-			activeDbs = ConfigParser.getInstance().getRootNode().getString("activeDbs");
-			persistenceUnitName = ConfigParser.getInstance().getRootNode().getString("defaultPersistenceUnit");
-			dbParameters = ConfigParser.getInstance().getRootNode().getJSONObject("dbParameters").getJSONObject(activeDbs);
-		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
-			throw new ModelPersistenceException("Failed reading configuration: Could not get connection parameters.", e);
-		}
-		if(null == ENTITY_MANAGER || !ENTITY_MANAGER.isOpen() ){
+	public static EntityManagerFactory getEntityManagerFactory() throws ModelPersistenceException{
+		final EntityManagerFactory emf = ENTITY_MANAGER_FACTORY;
+		if(null != emf && emf.isOpen()) return emf;
+		
+		synchronized(PersistenceTools.class) {
+			if(null != ENTITY_MANAGER_FACTORY && ENTITY_MANAGER_FACTORY.isOpen()) return ENTITY_MANAGER_FACTORY;
+			
+			JSONObject dbParameters = null;
+			String activeDbs = null;
+			String persistenceUnitName = null;
+			boolean generateStatistics = DEFAULT_GENERATE_STATISTICS;
+			try {
+				ConfigParser.getInstance().parseConfig();
+				activeDbs = ConfigParser.getInstance().getRootNode().getString("activeDbs");
+				persistenceUnitName = ConfigParser.getInstance().getRootNode().getString("defaultPersistenceUnit");
+				dbParameters = ConfigParser.getInstance().getRootNode().getJSONObject("dbParameters").getJSONObject(activeDbs);
+				final JSONObject jpaConfig = ConfigParser.getInstance().getRootNode().optJSONObject("jpa");
+				if(null != jpaConfig) generateStatistics = jpaConfig.optBoolean("generateStatistics", DEFAULT_GENERATE_STATISTICS);
+				if(null == CONNECTION_POOL || CONNECTION_POOL.isClosed()) {
+					CONNECTION_POOL = new HikariDataSource( ConnectionPoolTools.createPoolConfig(activeDbs, "uiArchs-jpa-"+activeDbs) );
+				}
+			}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+				throw new ModelPersistenceException("Failed reading configuration: Could not get connection parameters.", e);
+			}catch(PoolInitializationException e) {
+				throw new ModelPersistenceException("Failed to initialize connection pool for DBS \""+activeDbs+"\".", e);
+			}
 			final Map<String, Object> configOverrides = new HashMap<String, Object>();
-			configOverrides.put("jakarta.persistence.jdbc.driver", dbParameters.getString("driverName"));
-			configOverrides.put("jakarta.persistence.jdbc.url", dbParameters.getString("connectionUrl") );
-			configOverrides.put("jakarta.persistence.jdbc.user", dbParameters.getString("user") );
-			configOverrides.put("jakarta.persistence.jdbc.password", dbParameters.getString("password") );
+			/*
+			 * Hand the pool to Hibernate instead of plain "jakarta.persistence.jdbc.*" parameters. Otherwise Hibernate falls back to its built-in pool, which is not meant for production use.
+			 * Transaction isolation level and auto-commit mode are configured on the pool (see ConnectionPoolTools).
+			 */
+			configOverrides.put("jakarta.persistence.nonJtaDataSource", CONNECTION_POOL );
+			configOverrides.put("hibernate.connection.provider_disables_autocommit", "true" );
+			// group updates of several entities (e. g. write-behind flushes) into JDBC batches
+			configOverrides.put("hibernate.jdbc.batch_size", Integer.toString(JDBC_BATCH_SIZE) );
+			configOverrides.put("hibernate.order_updates", "true" );
 			configOverrides.put("hibernate.format_sql", "true" );
 			configOverrides.put("hibernate.use_sql_comments", "true" );
 			/*
-			 * set global transaction isolation level and other properties depending on used DBS
+			 * Second-level cache and query cache in the heap of this process. No cache server is involved.
+			 * Only entities annotated with @Cacheable are cached (see shared-cache-mode in persistence.xml). Own writes invalidate the cached entries at commit.
+			 * Statistics, which include the hit and miss counters of the cache regions, are only collected on demand. Logging of metrics per session stays optional.
+			 */
+			configOverrides.put("hibernate.cache.use_second_level_cache", "true" );
+			configOverrides.put("hibernate.cache.use_query_cache", "true" );
+			configOverrides.put("hibernate.cache.region.factory_class", "jcache" );
+			configOverrides.put("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider" );
+			configOverrides.put("hibernate.javax.cache.missing_cache_strategy", "create" );
+			configOverrides.put("hibernate.generate_statistics", Boolean.toString(generateStatistics) );
+			configOverrides.put("hibernate.session.events.log", "false" );
+			/*
+			 * set SQL dialect and other properties depending on used DBS
 			 */
 			switch(activeDbs) {
 			case "oracleXE":
 				configOverrides.put("hibernate.dialect", "org.hibernate.dialect.Oracle12cDialect" );
-				configOverrides.put("jakarta.persistence.jdbc.transactionIsolation", "TRANSACTION_SERIALIZABLE" );
 				//TODO test setting a schema: configOverrides.put("jakarta.persistence.jdbc.schema", dbParameters.getString("schema") );
 				break;
 			case "mysql":
 				configOverrides.put("hibernate.dialect", "org.hibernate.dialect.MySQL8Dialect" );
-				// REPEATABLE READ is default transaction isolation level in MySQL. Just assuring in case of using other DBS.
-				configOverrides.put("jakarta.persistence.jdbc.transactionIsolation", "TRANSACTION_REPEATABLE_READ" );
 				if( dbParameters.getBoolean("logAllDbOperations") ) configOverrides.put("hibernate.show_sql", "true" );
-				if( dbParameters.getBoolean("logDbOperationTimings") ) configOverrides.put("hibernate.generate_statistics", "true" );
+				if( dbParameters.getBoolean("logDbOperationTimings") ) configOverrides.put("hibernate.session.events.log", "true" );
+				break;
+			case "h2":
+				// embedded in-process database for benchmarks and tests without DB server
+				configOverrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect" );
+				if( dbParameters.getBoolean("logAllDbOperations") ) configOverrides.put("hibernate.show_sql", "true" );
+				if( dbParameters.getBoolean("logDbOperationTimings") ) configOverrides.put("hibernate.session.events.log", "true" );
 				break;
 			default:
 			}
 			
-			final EntityManagerFactory emf = Persistence.createEntityManagerFactory( persistenceUnitName , configOverrides);
-			ENTITY_MANAGER = emf.createEntityManager();
+			final long startNanos = System.nanoTime();
+			try {
+				ENTITY_MANAGER_FACTORY = Persistence.createEntityManagerFactory( persistenceUnitName , configOverrides);
+			}catch(PersistenceException e) {
+				throw new ModelPersistenceException("Failed to bootstrap persistence unit \""+persistenceUnitName+"\".", e);
+			}
+			bootstrapDurationNanos = System.nanoTime() - startNanos;
+			logger.log(Level.INFO, "Bootstrapped persistence unit \""+persistenceUnitName+"\" for DBS \""+activeDbs+"\" in "+(bootstrapDurationNanos / 1_000_000)+" ms.");
+			return ENTITY_MANAGER_FACTORY;
+		}
+	}
+	
+	/**
+	 * Provides a new entity manager for one unit of work, created by the process-wide entity manager factory.
+	 * 
+	 * @return EntityManager	new entity manager initialized with default parameters for data source.
+	 * @note	Caller is responsible for closing the returned entity manager using {@link #closeEntityManager(EntityManager)}. Never close its factory.
+	 * 
+	 * @throws ModelPersistenceException
+	 */
+	public static EntityManager getEntityManager() throws ModelPersistenceException{
+		try {
+			return getEntityManagerFactory().createEntityManager();
+		}catch(IllegalStateException | PersistenceException e) {
+			throw new ModelPersistenceException("Failed to create entity manager.", e);
+		}
+	}
+	
+	/**
+	 * Ends the unit of work of the given entity manager: rolls back a still active transaction and closes the entity manager.
+	 * The entity manager factory stays open.
+	 * 
+	 * @param em    entity manager to be closed. Null is ignored.
+	 */
+	public static void closeEntityManager(final EntityManager em) {
+		if(null == em || !em.isOpen()) return;
+		try {
+			if( em.getTransaction().isActive() ) em.getTransaction().rollback();
+		}catch(PersistenceException e) {
+			logger.log(Level.WARNING, "Failed to roll back active transaction while closing entity manager.", e);
+		}finally {
+			em.close();
+		}
+	}
+	
+	/**
+	 * Checks whether the given failure was caused by an optimistic locking conflict, i. e. by a versioned record modified by someone else since it was loaded.
+	 * Oracle reports a conflicting concurrent update of the same record as serialization failure (isolation level SERIALIZABLE).
+	 * 
+	 * @param failure    caught exception
+	 * @return    true if the cause chain contains an optimistic locking conflict
+	 */
+	public static boolean isOptimisticLockConflict(final Throwable failure) {
+		for(Throwable cause = failure; null != cause; cause = cause.getCause()) {
+			if(cause instanceof OptimisticLockException || cause instanceof StaleStateException) return true;
+			if(cause instanceof SQLException && ORACLE_SERIALIZATION_FAILURE == ( (SQLException)cause ).getErrorCode()) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Reports the duration of one persistence operation.
+	 * 
+	 * @param operationName    name of the finished operation
+	 * @param startNanos    value of {@link System#nanoTime()} at the start of the operation
+	 */
+	public static void logOperationDuration(final String operationName, final long startNanos) {
+		if(! logger.isLoggable(Level.FINE) ) return;
+		final long durationMicros = (System.nanoTime() - startNanos) / 1_000;
+		logger.log(Level.FINE, "Persistence operation \""+operationName+"\" took "+durationMicros+" microseconds.");
+	}
+	
+	/**
+	 * @return duration of the last bootstrap of the entity manager factory in milliseconds. Negative if not bootstrapped yet.
+	 */
+	public static long getBootstrapDurationMillis() {
+		final long durationNanos = bootstrapDurationNanos;
+		return durationNanos < 0 ? -1 : durationNanos / 1_000_000;
+	}
+	
+	/**
+	 * Provides the counters of all second-level cache regions, i. e. entity and query cache regions.
+	 * 
+	 * @return statistics by region name. Empty if the entity manager factory is not bootstrapped or if statistics are disabled (config entry "jpa.generateStatistics").
+	 */
+	public static Map<String, CacheRegionStatistics> getCacheRegionStatistics() {
+		final Map<String, CacheRegionStatistics> result = new TreeMap<String, CacheRegionStatistics>();
+		final EntityManagerFactory emf = ENTITY_MANAGER_FACTORY;
+		if(null == emf || !emf.isOpen()) return result;
+		
+		final Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		if( !statistics.isStatisticsEnabled() ) return result;
+		for(final String regionName : statistics.getSecondLevelCacheRegionNames()) {
+			final CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regionName);
+			if(null != regionStatistics) result.put(regionName, regionStatistics);
+		}
+		return result;
+	}
+	
+	/**
+	 * Closes the process-wide entity manager factory and its connection pool. Call on application exit.
+	 */
+	public static synchronized void shutdown() {
+		if(null != ENTITY_MANAGER_FACTORY && ENTITY_MANAGER_FACTORY.isOpen()) {
+			for(final Map.Entry<String, CacheRegionStatistics> region : getCacheRegionStatistics().entrySet()) {
+				logger.log(Level.INFO, "Cache region \""+region.getKey()+"\": "+region.getValue().getHitCount()+" hits, "+region.getValue().getMissCount()+" misses, "+region.getValue().getPutCount()+" puts.");
+			}
+			logger.log(Level.INFO, "Closing entity manager factory.");
+			ENTITY_MANAGER_FACTORY.close();
+		}
+		ENTITY_MANAGER_FACTORY = null;
+		if(null != CONNECTION_POOL && !CONNECTION_POOL.isClosed()) {
+			logger.log(Level.INFO, "Closing connection pool \""+CONNECTION_POOL.getPoolName()+"\".");
+			CONNECTION_POOL.close();
 		}
-		return ENTITY_MANAGER;
+		CONNECTION_POOL = null;
 	}
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence;
+
+/**
+ * Read-only projection of a monitoring station record holding only the values displayed by the station list.
+ * 
+ * Filled directly from the query result: unlike {@link MonitoringStation} it is neither tracked by the persistence context nor dirty-checked.
+ * 
+ * @param id    ID of the monitoring station
+ * @param stationExternalId    external ID of the monitoring station
+ */
+public record StationSummary(long id, String stationExternalId) {
+}
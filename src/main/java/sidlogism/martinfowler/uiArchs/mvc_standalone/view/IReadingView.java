@@ -133,4 +133,9 @@ public interface IReadingView {
 	 * Change editability in UI: remove editability in UI from all text field which depend on the current concentration reading record, which are originally editable.
 	 */
 	void removeEditabilityFromReadingDependentTextFields();
+	
+	/**
+	 * Drop a change of the text field "Station ID" which the user typed but which wasn't handed to the controller yet, e. g. because the user selected a monitoring station in the station view afterwards.
+	 */
+	void cancelPendingStationExtIdChange();
 }
\ No newline at end of file
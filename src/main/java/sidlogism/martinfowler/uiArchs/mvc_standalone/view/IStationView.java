@@ -28,7 +28,8 @@ public interface IStationView {
 	public void setStationController(final IStationController controller);
 	
 	/**
-	 * Initialize list of monitoring stations.
+	 * Overwrite list of monitoring stations, e. g. by the monitoring stations matching the external ID typed by the user.
+	 * The current selection is kept if the selected monitoring station is contained in the new list.
 	 * Currently the list contains only one string representing a monitoring station because there currently is no out-of-the-box list for multiple columns in JavaFX.
 	 * 
 	 * @param    stationIdentifiers    list of single strings representing a monitoring station each
@@ -36,6 +37,18 @@ public interface IStationView {
 	 */
 	public void overwriteUIStationList(final List<String> stationIdentifiers);
 
+	/**
+	 * Append the next page of monitoring stations to the list of all loaded monitoring stations.
+	 * 
+	 * @param    stationIdentifiers    list of single strings representing a monitoring station each
+	 */
+	public void appendUIStationList(final List<String> stationIdentifiers);
+
+	/**
+	 * Show the list of all loaded monitoring stations again after it was overwritten, e. g. by a filtered list.
+	 */
+	public void restoreUIStationList();
+
 	/**
 	 * Set new selection for station view.
 	 * 
@@ -48,4 +61,9 @@ public interface IStationView {
 	 * Wipe any selection in station view.
 	 */
 	public void wipeSelection();
+
+	/**
+	 * @return    external ID of the monitoring station currently selected in station view. null if there is no selection.
+	 */
+	public String getSelectedStationExternalId();
 }
\ No newline at end of file
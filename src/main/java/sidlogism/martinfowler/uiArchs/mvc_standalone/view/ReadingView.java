@@ -21,8 +21,11 @@ import java.util.logging.Logger;
 
 import sidlogism.martinfowler.uiArchs.mvc_standalone.controller.IReadingController;
 import sidlogism.martinfowler.uiArchs.mvc_standalone.model.IReadingModelListener;
+import sidlogism.martinfowler.uiArchs.util.Debouncer;
 import sidlogism.martinfowler.uiArchs.util.TimeProcessingException;
 import sidlogism.martinfowler.uiArchs.util.TimeTools;
+import sidlogism.martinfowler.uiArchs.util.UpdateBatcher;
+import javafx.application.Platform;
 import javafx.event.Event;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextField;
@@ -35,6 +38,11 @@ import javafx.scene.control.TextField;
  */
 public class ReadingView implements IReadingView, IReadingModelListener {
 	private static final Logger logger = Logger.getLogger(ReadingView.class.getName());
+	/**
+	 * Applies the updates of the views of the assessment form in one task of the JavaFX application thread, so that a switch of the monitoring station is rendered in one pulse.
+	 * Shared with the station view.
+	 */
+	static final UpdateBatcher viewUpdates = new UpdateBatcher("mvc-views", Platform::runLater);
 	/**
 	 * Flag indicating whether the current UI change is induced by user input (external) or by view code itself (internal).
 	 * 
@@ -55,7 +63,13 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 	 * @see #overwriteUIStationExternalId
 	 */
 	private volatile boolean currentlyOverwritingStationExtId = false;
+	private final UpdateBatcher updateBatcher;
 	private IReadingController controller = null;
+	/**
+	 * Hands only the last station ID of a burst of keystrokes to the controller, so that no lookups are started for IDs the user has already typed past.
+	 */
+	private final Debouncer<String> stationExtIdDebouncer = new Debouncer<String>("reading-view-station-id",
+			stationExternalId -> this.controller.handleUserChangedStationExtId(stationExternalId), Platform::runLater);
 
 	// data depending on current monitoring station
 	@FXML
@@ -75,9 +89,27 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 	 * @note: like the selection state and text contents this is part of the presentation model: i. e. the portion of the application data representing the current state of the view.
 	 */
 	private long currentReadingId = -1;
+	/*
+	 * Values to be written to the text fields by the next batch of view updates. null if the text field keeps its content.
+	 * Accessed in the JavaFX application thread only.
+	 */
+	private String pendingStationExternalId = null;
+	private Integer pendingTargetConcentration = null;
+	private LocalDateTime pendingReadingTimestamp = null;
+	private Integer pendingActualConcentration = null;
+	// true if the pending actual concentration replaces a rejected edit and must be marked as such
+	private boolean pendingActualConcentrationRejected = false;
 
 	public ReadingView() {
+		this(viewUpdates);
+	}
+	
+	/**
+	 * @param updateBatcher    applies the pending values to the text fields, e. g. a batcher with a manually run executor in tests
+	 */
+	ReadingView(final UpdateBatcher updateBatcher) {
 		logger.log(Level.INFO, "reading view ctor");
+		this.updateBatcher = updateBatcher;
 	}
 	
 	/**
@@ -88,6 +120,10 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 	@FXML
 	public void initialize() {
 		logger.log(Level.INFO, "reading view init");
+		// write pending edits as soon as the user leaves the text field
+		this.tfActualConcentration.focusedProperty().addListener( (observable, wasFocused, isFocused) -> {
+			if( !isFocused && null != this.controller ) this.controller.handleUserFinishedEditingActualConcentration();
+		});
 	}
 	
 	@Override
@@ -102,30 +138,31 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 
 	@Override
 	public String getStationExternalId() {
+		if(null != this.pendingStationExternalId) return this.pendingStationExternalId;
 		return tfStationExternalId.getText();
 	}
 	
 	@Override
 	public void overwriteUIStationExternalId(String stationExternalId) {
-		this.currentlyOverwritingStationExtId = true;
-		this.tfStationExternalId.setText( stationExternalId );
-		this.currentlyOverwritingStationExtId = false;
+		this.pendingStationExternalId = stationExternalId;
+		scheduleUpdate();
 	}
 	
 	@Override
 	public void markUIStationExternalIdErroneous() {
-		this.tfStationExternalId.setStyle("-fx-text-inner-color: red");
+		setStyleIfChanged(this.tfStationExternalId, "-fx-text-inner-color: red");
 		
 	}
 
 	@Override
 	public void markUIStationExternalIdValid() {
-		this.tfStationExternalId.setStyle("-fx-text-inner-color: black");
+		setStyleIfChanged(this.tfStationExternalId, "-fx-text-inner-color: black");
 		
 	}
 
 	@Override
 	public int getTargetConcentration() {
+		if(null != this.pendingTargetConcentration) return this.pendingTargetConcentration.intValue();
 		final String text = this.tfTargetConcentration.getText();
 		try {
 			return Integer.parseInt( text );
@@ -142,23 +179,13 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 
 	@Override
 	public void overwriteUITargetConcentration(int targetConcentration) {
-		this.tfTargetConcentration.setText( Integer.valueOf(targetConcentration).toString() );
-		
-		final String actualConcentrationText = this.tfActualConcentration.getText();
-		try {
-			overwriteUIVariance( Integer.valueOf(actualConcentrationText).intValue(), targetConcentration );
-		}catch(NumberFormatException e) {
-			// not logging exception because of verbosity
-			if( null == actualConcentrationText || actualConcentrationText.isEmpty() || actualConcentrationText.isBlank() ) {
-				logger.log(Level.FINE, "Couldn't compute variance because actual concentration is empty. Reading view is propably not initialized yet or was wiped before. Refill of reading view is propably currently in progress.");
-			}else {
-				logger.log(Level.WARNING, "Couldn't compute variance because actual concentration has invalid value \""+ actualConcentrationText +"\".");
-			}
-		}
+		this.pendingTargetConcentration = Integer.valueOf(targetConcentration);
+		scheduleUpdate();
 	}
 	
 	@Override
 	public LocalDateTime getReadingTimestamp() {
+		if(null != this.pendingReadingTimestamp) return this.pendingReadingTimestamp;
 		final String text = this.tfReadingTimestamp.getText();
 		try {
 			return TimeTools.parseReadingTimestamp( text );
@@ -175,11 +202,13 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 
 	@Override
 	public void overwriteUIReadingTimestamp(LocalDateTime readingTimestamp){
-		this.tfReadingTimestamp.setText( readingTimestamp.format( TimeTools.getReadingTimestampFormat() ) );
+		this.pendingReadingTimestamp = readingTimestamp;
+		scheduleUpdate();
 	}
 	
 	@Override
 	public int getActualConcentration() {
+		if(null != this.pendingActualConcentration) return this.pendingActualConcentration.intValue();
 		final String text = this.tfActualConcentration.getText();
 		try {
 			return Integer.parseInt( text );
@@ -197,38 +226,95 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 	@Override
 	public void overwriteUIActualConcentration(final int actualConcentration) {
 		logger.log(Level.FINE, "Overwriting text field with new actual concentration: "+actualConcentration);
-		this.currentlyOverwritingActualConcentration = true;
-		this.tfActualConcentration.setText( Integer.valueOf(actualConcentration).toString() );
-		// mark new content of actual concentration as VALID
-		this.markUIActualConcentrationValid();
-		this.currentlyOverwritingActualConcentration = false;
-		
-		final String targetConcentrationText = this.tfTargetConcentration.getText();
-		try {
-			overwriteUIVariance( actualConcentration, Integer.valueOf(targetConcentrationText).intValue() );
-		}catch(NumberFormatException e) {
-			// not logging exception because of verbosity
-			if( null == targetConcentrationText || targetConcentrationText.isEmpty() || targetConcentrationText.isBlank() ) {
-				logger.log(Level.FINE, "Couldn't compute variance because target concentration is empty. Reading view is propably not initialized yet or was wiped before. Refill of reading view is propably currently in progress.");
-			}else {
-				logger.log(Level.WARNING, "Couldn't compute variance because target concentration has invalid value \""+ targetConcentrationText +"\".");
-			}
-		}
+		this.pendingActualConcentration = Integer.valueOf(actualConcentration);
+		scheduleUpdate();
 	}
 	
 
 	@Override
 	public void markUIActualConcentrationErroneous() {
-		this.tfActualConcentration.setStyle("-fx-text-inner-color: red");
+		setStyleIfChanged(this.tfActualConcentration, "-fx-text-inner-color: red");
 		
 	}
 
 	@Override
 	public void markUIActualConcentrationValid() {
-		this.tfActualConcentration.setStyle("-fx-text-inner-color: black");
+		setStyleIfChanged(this.tfActualConcentration, "-fx-text-inner-color: black");
 		
 	}
 	
+	/**
+	 * Schedules writing the pending values to the text fields with the next batch of view updates.
+	 * A burst of overwrites, e. g. by a switch of the monitoring station, thus writes each text field at most once and recomputes the variance once.
+	 */
+	private void scheduleUpdate() {
+		this.updateBatcher.schedule(this, this::applyPendingValues);
+	}
+	
+	/**
+	 * Writes the pending values to the text fields. Runs in the JavaFX application thread.
+	 * Text fields which already show the pending value aren't written, so that their handlers and listeners aren't called in vain.
+	 */
+	private void applyPendingValues() {
+		final boolean varianceAffected = null != this.pendingTargetConcentration || null != this.pendingActualConcentration;
+		if(null != this.pendingStationExternalId) {
+			this.currentlyOverwritingStationExtId = true;
+			setTextIfChanged(this.tfStationExternalId, this.pendingStationExternalId);
+			this.currentlyOverwritingStationExtId = false;
+		}
+		if(null != this.pendingTargetConcentration) {
+			setTextIfChanged(this.tfTargetConcentration, this.pendingTargetConcentration.toString());
+		}
+		if(null != this.pendingReadingTimestamp) {
+			setTextIfChanged(this.tfReadingTimestamp, this.pendingReadingTimestamp.format( TimeTools.getReadingTimestampFormat() ));
+		}
+		if(null != this.pendingActualConcentration) {
+			this.currentlyOverwritingActualConcentration = true;
+			setTextIfChanged(this.tfActualConcentration, this.pendingActualConcentration.toString());
+			if(this.pendingActualConcentrationRejected) {
+				// highlight the reloaded value to indicate the discarded edit
+				this.markUIActualConcentrationErroneous();
+			}else {
+				// mark new content of actual concentration as VALID
+				this.markUIActualConcentrationValid();
+			}
+			this.currentlyOverwritingActualConcentration = false;
+		}
+		this.pendingActualConcentrationRejected = false;
+		this.pendingStationExternalId = null;
+		this.pendingTargetConcentration = null;
+		this.pendingReadingTimestamp = null;
+		this.pendingActualConcentration = null;
+		
+		if(varianceAffected) recomputeUIVariance();
+	}
+	
+	/**
+	 * Recomputes the variance from the displayed actual and target concentration.
+	 */
+	private void recomputeUIVariance() {
+		final String actualConcentrationText = this.tfActualConcentration.getText();
+		final String targetConcentrationText = this.tfTargetConcentration.getText();
+		try {
+			overwriteUIVariance( Integer.valueOf(actualConcentrationText).intValue(), Integer.valueOf(targetConcentrationText).intValue() );
+		}catch(NumberFormatException e) {
+			// not logging exception because of verbosity
+			if( null == actualConcentrationText || actualConcentrationText.isBlank() || null == targetConcentrationText || targetConcentrationText.isBlank() ) {
+				logger.log(Level.FINE, "Couldn't compute variance because actual or target concentration is empty. Reading view is propably not initialized yet or was wiped before. Refill of reading view is propably currently in progress.");
+			}else {
+				logger.log(Level.WARNING, "Couldn't compute variance because actual concentration \""+ actualConcentrationText +"\" or target concentration \""+ targetConcentrationText +"\" has an invalid value.");
+			}
+		}
+	}
+	
+	private static void setTextIfChanged(final TextField textField, final String text) {
+		if( !text.equals( textField.getText() ) ) textField.setText(text);
+	}
+	
+	private static void setStyleIfChanged(final TextField textField, final String style) {
+		if( !style.equals( textField.getStyle() ) ) textField.setStyle(style);
+	}
+	
 	/**
 	 * Recomputes the concentration variance based on the given values.
 	 * @note    This implicitly overwrites current variance in UI.
@@ -239,7 +325,7 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 	 */
 	private void overwriteUIVariance(final int actualConcentration, final int targetConcentration) {
 		final double variance = actualConcentration - targetConcentration;
-		this.tfVariance.setText( Double.toString(variance) );
+		setTextIfChanged( this.tfVariance, Double.toString(variance) );
 		
 		// Important: use double to avoid integer arithmetics (rounding of decimal digits)
 		double variancePercentage = ( variance / targetConcentration )*100;
@@ -249,19 +335,21 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 		/*
 		 * Apply color code to variance text field.
 		 * 
-		 * I. e. calculate necessity of changing font color of text field. First set font color back to normal.
+		 * I. e. calculate necessity of changing font color of text field. Start with the normal font color and only set the resulting one.
 		 * NOTE like the selection state and text contents this is part of the presentation model: i. e. the portion of the application data representing the current state of the view.
 		 */
-		this.tfVariance.setStyle("-fx-text-inner-color: black");
+		String varianceStyle = "-fx-text-inner-color: black";
 		if( variance < 0 && variancePercentage >= 10) {
-			this.tfVariance.setStyle("-fx-text-inner-color: red");
+			varianceStyle = "-fx-text-inner-color: red";
 		}else if( variance > 0 && variancePercentage >= 5) {
-			this.tfVariance.setStyle("-fx-text-inner-color: green");
+			varianceStyle = "-fx-text-inner-color: green";
 		}
+		setStyleIfChanged(this.tfVariance, varianceStyle);
 	}
 
 	@Override
 	public void wipeAllDependentTextFields() {
+		this.pendingTargetConcentration = null;
 		this.tfTargetConcentration.clear();
 		wipeReadingDependentTextFields();
 	}
@@ -280,9 +368,18 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 		removeEditabilityFromReadingDependentTextFields();
 	}
 	
+	@Override
+	public void cancelPendingStationExtIdChange() {
+		this.stationExtIdDebouncer.cancel();
+	}
+	
 	
 	@Override
 	public void wipeReadingDependentTextFields() {
+		// wiping supersedes pending overwrites
+		this.pendingReadingTimestamp = null;
+		this.pendingActualConcentration = null;
+		this.pendingActualConcentrationRejected = false;
 		this.tfReadingTimestamp.clear();
 		this.tfActualConcentration.clear();
 		this.tfVariance.clear();
@@ -301,11 +398,34 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 	}	
 	
 	@Override
-	public void actualConcentrationChanged(final int newValue) {
+	public void actualConcentrationChanged(final long readingId, final int newValue) {
 		logger.log(Level.FINE, "Observer notification: Model was updated to new actual concentration: "+newValue);
+		// delivered on the JavaFX application thread by the dispatcher of the model
+		// ignore updates of reading records which are not displayed anymore
+		if(readingId != this.currentReadingId) return;
+		/*
+		 * Don't overwrite the text field while the user is editing it. The written value may already be outdated by further keystrokes.
+		 * Only recompute the variance from the currently displayed value.
+		 */
+		if( this.tfActualConcentration.isFocused() ) {
+			final int displayedValue = getActualConcentration();
+			final int targetConcentration = getTargetConcentration();
+			if(displayedValue >= 0 && targetConcentration >= 0) overwriteUIVariance(displayedValue, targetConcentration);
+			return;
+		}
 		overwriteUIActualConcentration(newValue);
 	}
 	
+	@Override
+	public void actualConcentrationRejected(final long readingId, final int storedValue) {
+		logger.log(Level.WARNING, "Edit of the actual concentration was rejected because the reading record with ID "+readingId+" was modified by someone else. Stored value is "+storedValue+".");
+		// delivered on the JavaFX application thread by the dispatcher of the model
+		if(readingId != this.currentReadingId) return;
+		// Replace the discarded edit by the stored value even while the user is editing, so that the user continues from the value kept in the database.
+		overwriteUIActualConcentration(storedValue);
+		this.pendingActualConcentrationRejected = true;
+	}
+	
 	/**
 	 * Handle change of text field for station external ID in UI.
 	 * 
@@ -315,7 +435,7 @@ public class ReadingView implements IReadingView, IReadingModelListener {
 	public void handleUserChangedStationExtId(final Event event) {
 		if(this.currentlyOverwritingStationExtId) return;
 		logger.log(Level.FINE, "User changed value of "+event.getSource());
-		this.controller.handleUserChangedStationExtId( this.tfStationExternalId.getText() );
+		this.stationExtIdDebouncer.submit( this.tfStationExternalId.getText() );
 	}
 	
 	/**
@@ -26,6 +26,7 @@ import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 
 /**
@@ -35,9 +36,17 @@ import javafx.scene.control.ListView;
 public class StationView implements ChangeListener<String>, IStationView {
 	private static final Logger logger = Logger.getLogger(StationView.class.getName());
 	private IStationController controller = null;
+	/**
+	 * Selection to be applied by the next batch of view updates. null if the selection is kept. Accessed in the JavaFX application thread only.
+	 */
+	private String pendingSelection = null;
 	
 	@FXML
 	public ListView<String> stationList;
+	/**
+	 * Monitoring stations loaded so far. Shown unless the list is overwritten, e. g. by a filtered list.
+	 */
+	private final ObservableList<String> loadedStationListData = FXCollections.observableArrayList();
 	/**
 	 * Reference to nested reading view created and initialized externally.
 	 * 
@@ -64,6 +73,18 @@ public class StationView implements ChangeListener<String>, IStationView {
 		 * IMPORTANT: Register this object as listener to changes of the selection in the station view.
 		 */
 		this.stationList.getSelectionModel().selectedItemProperty().addListener(this);
+		this.stationList.setItems(this.loadedStationListData);
+		// request the next page as soon as the last loaded monitoring station becomes visible
+		this.stationList.setCellFactory( listView -> new ListCell<String>() {
+			@Override
+			protected void updateItem(final String item, final boolean empty) {
+				super.updateItem(item, empty);
+				setText(empty ? null : item);
+				if( !empty && getListView().getItems() == loadedStationListData && getIndex() >= loadedStationListData.size() - 1 ) {
+					controller.handleUserScrolledToEndOfList();
+				}
+			}
+		});
 		this.controller.initializeController(this, readingViewController);
 	}
 	
@@ -78,9 +99,33 @@ public class StationView implements ChangeListener<String>, IStationView {
 		 * Initialize list of monitoring stations.
 		 * Currently the list contains only one single string representing a monitoring station because there currently is no out-of-the-box list for multiple columns in JavaFX.
 		 */
-		final ObservableList<String> stationListData = FXCollections.observableArrayList( stationIdentifiers );
-		logger.log(Level.FINE, "Initializing station list with these entries: "+stationListData);
+		// wrap instead of copying: the list is replaced on every keystroke while the user filters by typing
+		final ObservableList<String> stationListData = FXCollections.observableList( stationIdentifiers );
+		logger.log(Level.FINE, "Overwriting station list with "+stationListData.size()+" entries.");
+		showStationList(stationListData);
+	}
+	
+	@Override
+	public void appendUIStationList(final List<String> stationIdentifiers) {
+		this.loadedStationListData.addAll(stationIdentifiers);
+	}
+	
+	@Override
+	public void restoreUIStationList() {
+		showStationList(this.loadedStationListData);
+	}
+	
+	/**
+	 * Replaces the entries shown by the station list. Replacing the entries wipes the selection, so it is restored without notifying the controller again.
+	 * 
+	 * @param stationListData    entries to be shown
+	 */
+	private void showStationList(final ObservableList<String> stationListData) {
+		final String selectedStation = getSelectedStationExternalId();
+		this.stationList.getSelectionModel().selectedItemProperty().removeListener(this);
 		this.stationList.setItems(stationListData);
+		if(null != selectedStation) this.stationList.getSelectionModel().select(selectedStation);
+		this.stationList.getSelectionModel().selectedItemProperty().addListener(this);
 	}
 	
 	@Override
@@ -88,6 +133,18 @@ public class StationView implements ChangeListener<String>, IStationView {
 		if(null == newExternalId) {
 			return;
 		}
+		// applied together with the updates of the reading view
+		this.pendingSelection = newExternalId;
+		ReadingView.viewUpdates.schedule(this, this::applyPendingSelection);
+	}
+	
+	/**
+	 * Applies the pending selection. Runs in the JavaFX application thread.
+	 */
+	private void applyPendingSelection() {
+		final String newExternalId = this.pendingSelection;
+		this.pendingSelection = null;
+		if( null == newExternalId || newExternalId.equals( this.stationList.getSelectionModel().getSelectedItem() ) ) return;
 		/*
 		 * Incomplete partial names or missing hits are handled implicitly:
 		 * If the selection model doesn't find the given entry, the selection simply doesn't change.
@@ -97,9 +154,17 @@ public class StationView implements ChangeListener<String>, IStationView {
 
 	@Override
 	public void wipeSelection() {
+		// wiping supersedes a pending selection
+		this.pendingSelection = null;
 		this.stationList.getSelectionModel().clearSelection();
 	}
 
+	@Override
+	public String getSelectedStationExternalId() {
+		if(null != this.pendingSelection) return this.pendingSelection;
+		return this.stationList.getSelectionModel().getSelectedItem();
+	}
+
 	/**
 	 * Handle selection change in station view.
 	 * 
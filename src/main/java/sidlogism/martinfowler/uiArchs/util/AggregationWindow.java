@@ -0,0 +1,60 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Length of the time windows readings are aggregated in by {@link WindowedAggregator}.
+ * Windows are aligned to calendar boundaries of the reading timestamps, e. g. a day window starts at midnight.
+ * Timestamps are given as converted by {@link TimeTools#toEpochMillis(LocalDateTime)}.
+ */
+public enum AggregationWindow {
+	HOUR(3_600_000L),
+	DAY(86_400_000L),
+	/**
+	 * Calendar month. Its length varies, so its boundaries are calculated by calendar arithmetic.
+	 */
+	MONTH(-1);
+	
+	/**
+	 * Fixed length of the window in milliseconds. Negative if the length varies.
+	 */
+	private final long lengthMillis;
+	
+	private AggregationWindow(final long lengthMillis) {
+		this.lengthMillis = lengthMillis;
+	}
+	
+	/**
+	 * @param timestampMillis    reading timestamp
+	 * @return start of the window containing the given timestamp
+	 */
+	public long windowStartMillis(final long timestampMillis) {
+		if(this.lengthMillis > 0) return Math.floorDiv(timestampMillis, this.lengthMillis) * this.lengthMillis;
+		return TimeTools.toEpochMillis( TimeTools.fromEpochMillis(timestampMillis).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS) );
+	}
+	
+	/**
+	 * @param windowStartMillis    start of a window as returned by {@link #windowStartMillis(long)}
+	 * @return start of the following window
+	 */
+	public long nextWindowStartMillis(final long windowStartMillis) {
+		if(this.lengthMillis > 0) return windowStartMillis + this.lengthMillis;
+		return TimeTools.toEpochMillis( TimeTools.fromEpochMillis(windowStartMillis).plusMonths(1) );
+	}
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Incremental change feed of records which are inserted or modified by any client of the database, e. g. by other operators or by ingestion jobs.
+ * 
+ * Polls periodically in the background with one query for the records changed since the last poll, instead of re-querying all displayed records.
+ * Two high-water marks are tracked:
+ *     the greatest known internal ID detects new records, whatever their timestamp is,
+ *     the modification mark detects modified records, whose timestamp is set by the database on every update. It is the database time at the start of the last successful poll, so it advances with every poll and doesn't depend on the local clock.
+ * The modification mark is lowered by an overlap, so that updates committed a bit after their timestamp are not missed. Records delivered again within the overlap are suppressed unless their values changed.
+ * Records which are older than the overlap can't be loaded again and are forgotten, so the loaded records and the suppression state stay bounded under steady ingestion.
+ * 
+ * Changes are handed to the consumer on the poll thread, in one list per poll.
+ * Background polls hold a permit of the {@link PersistenceExecutor}, so that they count against the bound of concurrent connections.
+ * 
+ * Relevant config entries: "changeFeed.pollPeriodMillis" and "changeFeed.overlapMillis".
+ * 
+ * @param <V>    type of the records
+ * @param <E>    type of the exception thrown by the persistence layer
+ */
+public class ChangeFeedPoller<V, E extends Exception> {
+	private static final Logger logger = Logger.getLogger(ChangeFeedPoller.class.getName());
+	/**
+	 * Default for config entry "changeFeed.pollPeriodMillis".
+	 */
+	public static final long DEFAULT_POLL_PERIOD_MILLIS = 2_000;
+	/**
+	 * Default for config entry "changeFeed.overlapMillis". Covers the commit delay of updates and the precision of timestamp columns in seconds.
+	 */
+	public static final long DEFAULT_OVERLAP_MILLIS = 5_000;
+	/**
+	 * All change feeds which are not shut down yet.
+	 * @see #shutdownAll()
+	 */
+	private static final Set<ChangeFeedPoller<?, ?>> activeFeeds = ConcurrentHashMap.newKeySet();
+	
+	private final String name;
+	private final long pollPeriodMillis;
+	private final long overlapMillis;
+	private final IChangeLoader<V, E> loader;
+	private final ToLongFunction<V> idOfRecord;
+	private final Function<V, LocalDateTime> modificationOfRecord;
+	private final Consumer<List<V>> onChanges;
+	private final ScheduledExecutorService pollExecutor;
+	// statistics
+	private final AtomicLong pollCount = new AtomicLong();
+	private final AtomicLong deliveredChangeCount = new AtomicLong();
+	
+	// guarded by this: polls are never run concurrently
+	private boolean started = false;
+	private boolean shutDown = false;
+	private long greatestKnownId = -1;
+	private LocalDateTime modificationMark = null;
+	/**
+	 * Records delivered within the overlap by internal ID, for suppressing unchanged records which are loaded again.
+	 */
+	private final Map<Long, V> recentlyDelivered = new HashMap<Long, V>();
+	
+	/**
+	 * Creates a change feed with the configured poll period and overlap. Polling starts with {@link #start()}.
+	 * 
+	 * @param name    name of the change feed used for the poll thread and in log messages
+	 * @param loader    loader of the changed records
+	 * @param idOfRecord    provides the internal ID of a record
+	 * @param modificationOfRecord    provides the modification timestamp of a record as set by the database
+	 * @param onChanges    receives the new and changed records of each poll on the poll thread. Not called for polls without changes.
+	 * @see #getConfiguredPollPeriodMillis()
+	 * @see #getConfiguredOverlapMillis()
+	 */
+	public ChangeFeedPoller(final String name, final IChangeLoader<V, E> loader, final ToLongFunction<V> idOfRecord, final Function<V, LocalDateTime> modificationOfRecord, final Consumer<List<V>> onChanges) {
+		this(name, getConfiguredPollPeriodMillis(), getConfiguredOverlapMillis(), loader, idOfRecord, modificationOfRecord, onChanges);
+	}
+	
+	/**
+	 * Creates a change feed. Polling starts with {@link #start()}.
+	 * 
+	 * @param name    name of the change feed used for the poll thread and in log messages
+	 * @param pollPeriodMillis    period between two polls
+	 * @param overlapMillis    time the modification mark is lowered by for each poll
+	 * @param loader    loader of the changed records
+	 * @param idOfRecord    provides the internal ID of a record
+	 * @param modificationOfRecord    provides the modification timestamp of a record as set by the database
+	 * @param onChanges    receives the new and changed records of each poll on the poll thread. Not called for polls without changes.
+	 */
+	public ChangeFeedPoller(final String name, final long pollPeriodMillis, final long overlapMillis, final IChangeLoader<V, E> loader, final ToLongFunction<V> idOfRecord, final Function<V, LocalDateTime> modificationOfRecord, final Consumer<List<V>> onChanges) {
+		this.name = name;
+		this.pollPeriodMillis = Math.max(1, pollPeriodMillis);
+		this.overlapMillis = Math.max(0, overlapMillis);
+		this.loader = loader;
+		this.idOfRecord = idOfRecord;
+		this.modificationOfRecord = modificationOfRecord;
+		this.onChanges = onChanges;
+		this.pollExecutor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+			final Thread thread = new Thread(runnable, "change-feed-"+name);
+			thread.setDaemon(true);
+			return thread;
+		});
+		activeFeeds.add(this);
+	}
+	
+	/**
+	 * Reads the poll period from the config file.
+	 * 
+	 * @return    value of config entry "changeFeed.pollPeriodMillis" or {@link #DEFAULT_POLL_PERIOD_MILLIS} if the config entry is missing or the config file can't be read
+	 */
+	public static long getConfiguredPollPeriodMillis() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject changeFeedConfig = ConfigParser.getInstance().getRootNode().optJSONObject("changeFeed");
+			if(null == changeFeedConfig) return DEFAULT_POLL_PERIOD_MILLIS;
+			return changeFeedConfig.optLong("pollPeriodMillis", DEFAULT_POLL_PERIOD_MILLIS);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default poll period of "+DEFAULT_POLL_PERIOD_MILLIS+" ms for change feeds.", e);
+			return DEFAULT_POLL_PERIOD_MILLIS;
+		}
+	}
+	
+	/**
+	 * Reads the overlap of the modification mark from the config file.
+	 * 
+	 * @return    value of config entry "changeFeed.overlapMillis" or {@link #DEFAULT_OVERLAP_MILLIS} if the config entry is missing or the config file can't be read
+	 */
+	public static long getConfiguredOverlapMillis() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject changeFeedConfig = ConfigParser.getInstance().getRootNode().optJSONObject("changeFeed");
+			if(null == changeFeedConfig) return DEFAULT_OVERLAP_MILLIS;
+			return changeFeedConfig.optLong("overlapMillis", DEFAULT_OVERLAP_MILLIS);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default overlap of "+DEFAULT_OVERLAP_MILLIS+" ms for change feeds.", e);
+			return DEFAULT_OVERLAP_MILLIS;
+		}
+	}
+	
+	/**
+	 * Starts polling in the background. The high-water marks are initialized by the first poll: records existing before aren't reported, except for records modified within the overlap before.
+	 * Calls after the first one are ignored.
+	 */
+	public synchronized void start() {
+		if(this.started || this.shutDown) return;
+		this.started = true;
+		this.pollExecutor.scheduleWithFixedDelay(this::pollInBackground, 0, this.pollPeriodMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Loads the records changed since the last poll and hands them to the consumer. The first poll only initializes the high-water marks.
+	 * 
+	 * @return    number of delivered records
+	 * @throws E    if the records can't be loaded. The high-water marks are kept, so the next poll loads the same changes again.
+	 */
+	public synchronized int poll() throws E {
+		if(this.shutDown) return 0;
+		this.pollCount.incrementAndGet();
+		// read before the changes: records modified later carry a later timestamp and are loaded by the next poll
+		final LocalDateTime pollStart = this.loader.loadDatabaseTime();
+		if(null == this.modificationMark) {
+			this.greatestKnownId = this.loader.loadGreatestId();
+			this.modificationMark = pollStart;
+			return 0;
+		}
+		final LocalDateTime modifiedSince = this.modificationMark.minusNanos( this.overlapMillis * 1_000_000L );
+		final List<V> records = this.loader.loadChanges(this.greatestKnownId, modifiedSince);
+		
+		final List<V> changes = new ArrayList<V>(records.size());
+		for(final V record : records) {
+			final long id = this.idOfRecord.applyAsLong(record);
+			// new records may carry any timestamp, e. g. the time of a sensor reading
+			this.greatestKnownId = Math.max(this.greatestKnownId, id);
+			final V previousDelivery = this.recentlyDelivered.put( Long.valueOf(id), record );
+			if( Objects.equals(previousDelivery, record) ) continue;
+			changes.add(record);
+		}
+		if( pollStart.isAfter(this.modificationMark) ) this.modificationMark = pollStart;
+		forgetDeliveriesBefore( this.modificationMark.minusNanos( this.overlapMillis * 1_000_000L ) );
+		
+		if(! changes.isEmpty() ) {
+			this.deliveredChangeCount.addAndGet(changes.size());
+			this.onChanges.accept(changes);
+		}
+		return changes.size();
+	}
+	
+	/**
+	 * Removes deliveries which can't be loaded again because they are older than the overlap.
+	 */
+	private void forgetDeliveriesBefore(final LocalDateTime limit) {
+		final Iterator<V> iterator = this.recentlyDelivered.values().iterator();
+		while( iterator.hasNext() ) {
+			final LocalDateTime modification = this.modificationOfRecord.apply( iterator.next() );
+			if(null == modification || modification.isBefore(limit)) iterator.remove();
+		}
+	}
+	
+	/**
+	 * Task of the background polling. Failures are logged only. The next poll retries.
+	 */
+	private void pollInBackground() {
+		try {
+			PersistenceExecutor.getInstance().callWithPermit(this::poll);
+		}catch(Exception e) {
+			logger.log(Level.WARNING, "Change feed \""+this.name+"\" failed to load changes. Retrying in "+this.pollPeriodMillis+" ms.", e);
+		}
+	}
+	
+	/**
+	 * @return    number of polls including the initial one
+	 */
+	public long getPollCount() {
+		return this.pollCount.get();
+	}
+	
+	/**
+	 * @return    number of records handed to the consumer
+	 */
+	public long getDeliveredChangeCount() {
+		return this.deliveredChangeCount.get();
+	}
+	
+	/**
+	 * Stops polling.
+	 */
+	public void shutdown() {
+		synchronized(this) {
+			if(this.shutDown) return;
+			this.shutDown = true;
+		}
+		this.pollExecutor.shutdownNow();
+		activeFeeds.remove(this);
+		logger.log(Level.INFO, "Change feed \""+this.name+"\" shut down. Polls: "+getPollCount()+", delivered changes: "+getDeliveredChangeCount()+".");
+	}
+	
+	/**
+	 * Stops polling of all change feeds which are not shut down yet.
+	 * To be called on application exit before releasing persistence resources.
+	 */
+	public static void shutdownAll() {
+		for(final ChangeFeedPoller<?, ?> feed : activeFeeds) {
+			feed.shutdown();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivers change notifications of a model to its listeners asynchronously, e. g. on the JavaFX application thread, so that slow listeners never delay the thread reporting the change (e. g. a database commit).
+ * 
+ * Listeners are kept in a copy-on-write registry: registering and removing listeners is thread-safe, and each delivery works on a snapshot of the listeners.
+ * Notifications are keyed, e. g. by record ID. A notification replaces a pending notification with the same key, so repeated changes of one record result in one delivery of its latest state.
+ * All notifications pending at the start of a delivery are delivered in one batch, i. e. in one task of the dispatch executor, in the order of their first posting.
+ * Batches are delivered one after the other: a new batch is scheduled when the previous one has taken its notifications.
+ * 
+ * @param <L>    type of the listeners
+ */
+public class CoalescingDispatcher<L> {
+	private static final Logger logger = Logger.getLogger(CoalescingDispatcher.class.getName());
+	
+	private final String name;
+	private final Executor dispatchExecutor;
+	private final List<L> listeners = new CopyOnWriteArrayList<L>();
+	// statistics
+	private final AtomicLong postedNotificationCount = new AtomicLong();
+	private final AtomicLong deliveredNotificationCount = new AtomicLong();
+	private final AtomicLong deliveredBatchCount = new AtomicLong();
+	
+	// guarded by pendingNotifications
+	private final Map<Object, Consumer<L>> pendingNotifications = new LinkedHashMap<Object, Consumer<L>>();
+	private boolean batchScheduled = false;
+	
+	/**
+	 * @param name    name used in log messages
+	 * @param dispatchExecutor    executor delivering the notifications to the listeners, e. g. Platform::runLater
+	 */
+	public CoalescingDispatcher(final String name, final Executor dispatchExecutor) {
+		this.name = name;
+		this.dispatchExecutor = dispatchExecutor;
+	}
+	
+	/**
+	 * Registers a listener for all notifications posted afterwards.
+	 * 
+	 * @param listener    new listener. null is ignored.
+	 */
+	public void addListener(final L listener) {
+		if(null != listener) this.listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener. Notifications of a batch which is already being delivered may still reach it.
+	 * 
+	 * @param listener    registered listener
+	 */
+	public void removeListener(final L listener) {
+		this.listeners.remove(listener);
+	}
+	
+	/**
+	 * Schedules a notification of all listeners. Returns immediately.
+	 * 
+	 * @param key    identifies the changed state, e. g. the ID of a changed record. A pending notification with an equal key is replaced.
+	 * @param notification    calls the listener method reporting the change
+	 */
+	public void post(final Object key, final Consumer<L> notification) {
+		this.postedNotificationCount.incrementAndGet();
+		synchronized(this.pendingNotifications) {
+			this.pendingNotifications.put(key, notification);
+			if(this.batchScheduled) return;
+			this.batchScheduled = true;
+		}
+		this.dispatchExecutor.execute(this::deliverBatch);
+	}
+	
+	/**
+	 * Delivers all pending notifications to a snapshot of the listeners. Runs in the dispatch executor.
+	 */
+	private void deliverBatch() {
+		final List<Consumer<L>> batch;
+		synchronized(this.pendingNotifications) {
+			batch = new ArrayList<Consumer<L>>( this.pendingNotifications.values() );
+			this.pendingNotifications.clear();
+			this.batchScheduled = false;
+		}
+		for(final Consumer<L> notification : batch) {
+			for(final L listener : this.listeners) {
+				try {
+					notification.accept(listener);
+				}catch(RuntimeException e) {
+					// one failing listener must not prevent the notification of the others
+					logger.log(Level.WARNING, "Listener "+listener+" of \""+this.name+"\" failed to handle notification.", e);
+				}
+			}
+		}
+		this.deliveredNotificationCount.addAndGet(batch.size());
+		this.deliveredBatchCount.incrementAndGet();
+	}
+	
+	/**
+	 * @return    number of posted notifications
+	 */
+	public long getPostedNotificationCount() {
+		return this.postedNotificationCount.get();
+	}
+	
+	/**
+	 * @return    number of delivered notifications. Posted notifications which were replaced by later ones with the same key aren't delivered.
+	 */
+	public long getDeliveredNotificationCount() {
+		return this.deliveredNotificationCount.get();
+	}
+	
+	/**
+	 * @return    number of batches, i. e. tasks of the dispatch executor
+	 */
+	public long getDeliveredBatchCount() {
+		return this.deliveredBatchCount.get();
+	}
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Append-only in-memory history of the concentration readings of one monitoring station, stored column by column in primitive arrays.
+ * 
+ * A reading takes 10 bytes: the timestamp as long (see {@link TimeTools#toEpochMillis(LocalDateTime)}) and the concentration as short like the SMALLINT column.
+ * A reading entity additionally needs an object header per reading, its LocalDateTime with the nested LocalDate and LocalTime objects and the reference to its monitoring station.
+ * Timestamps are kept with millisecond precision. Sub-millisecond parts of the reading timestamps are truncated. The MySQL and Oracle schemas store seconds only, but timestamps written with microseconds into the H2 schema lose their sub-millisecond part.
+ * Readings are only converted from and to objects at the edges, e. g. while loading them from the persistence layer or while displaying them.
+ * 
+ * Readings are appended in ascending order of their timestamps, so time ranges are located by binary search.
+ * Appends are serialized. Readers aren't blocked: they see all readings which were appended before they read {@link #size()}.
+ */
+public class ConcentrationTimeSeries {
+	/**
+	 * Default initial number of readings the columns can hold without growing.
+	 */
+	public static final int DEFAULT_INITIAL_CAPACITY = 64;
+	/**
+	 * Approximate heap size of an array header in bytes.
+	 */
+	private static final int ARRAY_HEADER_BYTES = 16;
+	
+	/*
+	 * Columns. Replaced by larger copies when full. Assigned before size is incremented, so readers always see filled columns up to size.
+	 */
+	private volatile long[] timestampsMillis;
+	private volatile short[] concentrations;
+	/**
+	 * Number of appended readings.
+	 */
+	private volatile int size = 0;
+	
+	/**
+	 * Creates an empty time series with {@link #DEFAULT_INITIAL_CAPACITY}.
+	 */
+	public ConcentrationTimeSeries() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+	
+	/**
+	 * Creates an empty time series.
+	 * 
+	 * @param initialCapacity    number of readings the columns can hold without growing, e. g. the expected number of readings
+	 */
+	public ConcentrationTimeSeries(final int initialCapacity) {
+		final int capacity = Math.max(1, initialCapacity);
+		this.timestampsMillis = new long[capacity];
+		this.concentrations = new short[capacity];
+	}
+	
+	/**
+	 * Appends a reading.
+	 * 
+	 * @param timestampMillis    reading timestamp as converted by {@link TimeTools#toEpochMillis(LocalDateTime)}. Not older than the last appended reading.
+	 * @param concentration    actual concentration value within the range of a SMALLINT column
+	 * @throws IllegalArgumentException    if the reading is older than the last appended reading or the concentration is out of range
+	 */
+	public synchronized void append(final long timestampMillis, final int concentration) {
+		if(concentration < Short.MIN_VALUE || concentration > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Concentration "+concentration+" exceeds the range of a SMALLINT column.");
+		}
+		final int currentSize = this.size;
+		if(currentSize > 0 && timestampMillis < this.timestampsMillis[currentSize - 1]) {
+			throw new IllegalArgumentException("Reading at "+TimeTools.fromEpochMillis(timestampMillis)+" is older than the last appended reading at "+TimeTools.fromEpochMillis(this.timestampsMillis[currentSize - 1])+".");
+		}
+		if(currentSize == this.timestampsMillis.length) {
+			final int newCapacity = currentSize + (currentSize >> 1) + 1;
+			this.timestampsMillis = Arrays.copyOf(this.timestampsMillis, newCapacity);
+			this.concentrations = Arrays.copyOf(this.concentrations, newCapacity);
+		}
+		this.timestampsMillis[currentSize] = timestampMillis;
+		this.concentrations[currentSize] = (short) concentration;
+		this.size = currentSize + 1;
+	}
+	
+	/**
+	 * Appends a reading given as objects. Conversion for the edge to the persistence layer.
+	 * 
+	 * @param readingTimestamp    reading timestamp. Not older than the last appended reading.
+	 * @param concentration    actual concentration value within the range of a SMALLINT column
+	 * @throws IllegalArgumentException    if the reading is older than the last appended reading or the concentration is out of range
+	 */
+	public void append(final LocalDateTime readingTimestamp, final int concentration) {
+		append(TimeTools.toEpochMillis(readingTimestamp), concentration);
+	}
+	
+	/**
+	 * @return number of appended readings
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * @param index    position of the reading in ascending order of timestamps. Less than {@link #size()}.
+	 * @return reading timestamp as converted by {@link TimeTools#toEpochMillis(LocalDateTime)}
+	 */
+	public long getTimestampMillis(final int index) {
+		checkIndex(index);
+		return this.timestampsMillis[index];
+	}
+	
+	/**
+	 * @param index    position of the reading in ascending order of timestamps. Less than {@link #size()}.
+	 * @return reading timestamp. Conversion for the edge to the UI.
+	 */
+	public LocalDateTime getTimestamp(final int index) {
+		return TimeTools.fromEpochMillis( getTimestampMillis(index) );
+	}
+	
+	/**
+	 * @param index    position of the reading in ascending order of timestamps. Less than {@link #size()}.
+	 * @return actual concentration value of the reading
+	 */
+	public short getConcentration(final int index) {
+		checkIndex(index);
+		return this.concentrations[index];
+	}
+	
+	/**
+	 * @return timestamp of the youngest reading, e. g. for loading only younger readings. {@link Long#MIN_VALUE} if empty.
+	 */
+	public long getLastTimestampMillis() {
+		final int currentSize = this.size;
+		return 0 == currentSize ? Long.MIN_VALUE : this.timestampsMillis[currentSize - 1];
+	}
+	
+	/**
+	 * Locates the first reading not older than the given timestamp by binary search.
+	 * 
+	 * @param timestampMillis    timestamp as converted by {@link TimeTools#toEpochMillis(LocalDateTime)}
+	 * @return position of the first reading with a timestamp greater than or equal to the given one. {@link #size()} if there is none.
+	 */
+	public int indexOf(final long timestampMillis) {
+		final int currentSize = this.size;
+		return lowerBound(this.timestampsMillis, currentSize, timestampMillis);
+	}
+	
+	/**
+	 * Visits the readings within the given time range in ascending order of their timestamps.
+	 * 
+	 * @param fromMillis    inclusive lower bound of the reading timestamps
+	 * @param toMillis    exclusive upper bound of the reading timestamps
+	 * @param visitor    receives each reading
+	 * @return number of visited readings
+	 */
+	public int forEachInRange(final long fromMillis, final long toMillis, final IConcentrationVisitor visitor) {
+		// read size first: columns assigned afterwards hold at least this number of readings
+		final int currentSize = this.size;
+		final long[] timestamps = this.timestampsMillis;
+		final short[] values = this.concentrations;
+		final int start = lowerBound(timestamps, currentSize, fromMillis);
+		final int end = lowerBound(timestamps, currentSize, toMillis);
+		for(int i = start; i < end; i++) {
+			visitor.visit(timestamps[i], values[i]);
+		}
+		return Math.max(0, end - start);
+	}
+	
+	/**
+	 * Visits the readings within the given time range in ascending order of their timestamps.
+	 * 
+	 * @param from    inclusive lower bound of the reading timestamps. null for no lower bound.
+	 * @param to    exclusive upper bound of the reading timestamps. null for no upper bound.
+	 * @param visitor    receives each reading
+	 * @return number of visited readings
+	 */
+	public int forEachInRange(final LocalDateTime from, final LocalDateTime to, final IConcentrationVisitor visitor) {
+		return forEachInRange( null == from ? Long.MIN_VALUE : TimeTools.toEpochMillis(from), null == to ? Long.MAX_VALUE : TimeTools.toEpochMillis(to), visitor );
+	}
+	
+	/**
+	 * Releases unused capacity of the columns, e. g. after loading a complete history.
+	 */
+	public synchronized void trimToSize() {
+		final int currentSize = this.size;
+		if(currentSize == this.timestampsMillis.length) return;
+		this.timestampsMillis = Arrays.copyOf(this.timestampsMillis, Math.max(1, currentSize));
+		this.concentrations = Arrays.copyOf(this.concentrations, Math.max(1, currentSize));
+	}
+	
+	/**
+	 * @return approximate heap size of the columns in bytes, including unused capacity
+	 */
+	public long getHeapBytes() {
+		final long capacity = this.timestampsMillis.length;
+		return 2 * ARRAY_HEADER_BYTES + capacity * Long.BYTES + capacity * Short.BYTES;
+	}
+	
+	/**
+	 * Timestamp column for tight loops within this package, e. g. in {@link WindowedAggregator}.
+	 * Read {@link #size()} before: the returned column holds at least this number of readings. Must not be modified.
+	 */
+	long[] timestampColumn() {
+		return this.timestampsMillis;
+	}
+	
+	/**
+	 * Concentration column for tight loops within this package, e. g. in {@link WindowedAggregator}.
+	 * Read {@link #size()} before: the returned column holds at least this number of readings. Must not be modified.
+	 */
+	short[] concentrationColumn() {
+		return this.concentrations;
+	}
+	
+	/**
+	 * Locates the first of the given number of timestamps which is not less than the given key by binary search.
+	 */
+	static int lowerBound(final long[] timestamps, final int size, final long key) {
+		int low = 0;
+		int high = size;
+		while(low < high) {
+			final int middle = (low + high) >>> 1;
+			if(timestamps[middle] < key) {
+				low = middle + 1;
+			}else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+	
+	@Override
+	public String toString() {
+		return "ConcentrationTimeSeries [size="+this.size+", heapBytes="+getHeapBytes()+"]";
+	}
+	
+	private void checkIndex(final int index) {
+		if(index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index "+index+" out of bounds for "+this.size+" readings.");
+		}
+	}
+}
@@ -29,6 +29,10 @@ public class ConfigParser {
 	 * Relative path to default config file in classpath.
 	 */
 	final static String configRelativePath = "/config.json";
+	/**
+	 * System property overriding config entry "activeDbs", e. g. for running benchmarks against another DBS without editing the config file.
+	 */
+	public final static String ACTIVE_DBS_PROPERTY = "uiArchs.activeDbs";
 	/*
 	 * static members for singleton pattern
 	 */
@@ -51,6 +55,7 @@ public class ConfigParser {
 	 * Parses the default JSON config file.
 	 * 
 	 * @note: The config file is parsed only once during application lifetime (more precisely: lifetime of corresponing classloader). Further calls always return the same parsed config from the very first call.
+	 * @note: A non-blank system property {@value #ACTIVE_DBS_PROPERTY} replaces the config entry "activeDbs".
 	 * 
 	 * @return    unmarshalled content of the default JSON config file
 	 * @throws FileSystemAccessException 
@@ -60,7 +65,12 @@ public class ConfigParser {
 		
 		final String configContent = FileTools.getFileContent(configRelativePath);
 		
-		this.rootNode = new JSONObject(configContent);
+		final JSONObject parsedConfig = new JSONObject(configContent);
+		final String activeDbsOverride = System.getProperty(ACTIVE_DBS_PROPERTY);
+		if(null != activeDbsOverride && !activeDbsOverride.isBlank()) {
+			parsedConfig.put("activeDbs", activeDbsOverride.strip());
+		}
+		this.rootNode = parsedConfig;
 		return getRootNode();
 	}
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *	 http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * Shared tuning of HikariCP connection pools, driven by the config file.
+ * Used by the plain JDBC variant as well as by the JPA variants, so all variants have comparable connection handling.
+ * 
+ * Relevant config entries: "dbParameters.&lt;dbsName&gt;" for connection parameters and "connectionPool" for pool sizing, statement caching and leak detection.
+ */
+public class ConnectionPoolTools {
+	private static final Logger logger = Logger.getLogger(ConnectionPoolTools.class.getName());
+	/**
+	 * Default for config entry "connectionPool.maximumPoolSize".
+	 */
+	public static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+	/**
+	 * Default for config entry "connectionPool.minimumIdle".
+	 */
+	public static final int DEFAULT_MINIMUM_IDLE = 2;
+	/**
+	 * Default for config entry "connectionPool.leakDetectionThresholdMillis". 0 disables leak detection.
+	 */
+	public static final long DEFAULT_LEAK_DETECTION_THRESHOLD_MILLIS = 0;
+	/**
+	 * Default for config entry "connectionPool.prepStmtCacheSize".
+	 */
+	public static final int DEFAULT_PREP_STMT_CACHE_SIZE = 250;
+	/**
+	 * Default for config entry "connectionPool.prepStmtCacheSqlLimit".
+	 */
+	public static final int DEFAULT_PREP_STMT_CACHE_SQL_LIMIT = 2048;
+	/**
+	 * Default for config entry "connectionPool.streamingFetchSize".
+	 */
+	public static final int DEFAULT_STREAMING_FETCH_SIZE = 1000;
+	
+	/*
+	 * No ctor needed. Class has only a static utility interface.
+	 */
+	private ConnectionPoolTools(){}
+	
+	/**
+	 * Reads the maximum pool size from the config file. Sizing aid for thread pools which hold one connection per thread.
+	 * 
+	 * @return    value of config entry "connectionPool.maximumPoolSize" or {@link #DEFAULT_MAXIMUM_POOL_SIZE} if the config entry is missing or the config file can't be read
+	 */
+	public static int getConfiguredMaximumPoolSize() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject poolParameters = ConfigParser.getInstance().getRootNode().optJSONObject("connectionPool", new JSONObject());
+			return poolParameters.optInt("maximumPoolSize", DEFAULT_MAXIMUM_POOL_SIZE);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default maximum pool size of "+DEFAULT_MAXIMUM_POOL_SIZE+".", e);
+			return DEFAULT_MAXIMUM_POOL_SIZE;
+		}
+	}
+	
+	/**
+	 * Reads the fetch size for queries whose results are streamed through a forward-only cursor instead of being collected into a list, e. g. the reading history of a station.
+	 * The fetch size limits the number of rows the driver holds in memory at once. Larger values need fewer round trips.
+	 * 
+	 * @return    value of config entry "connectionPool.streamingFetchSize" or {@link #DEFAULT_STREAMING_FETCH_SIZE} if the config entry is missing or the config file can't be read
+	 * @see #getStreamingFetchSize()
+	 */
+	public static int getConfiguredStreamingFetchSize() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject poolParameters = ConfigParser.getInstance().getRootNode().optJSONObject("connectionPool", new JSONObject());
+			return poolParameters.optInt("streamingFetchSize", DEFAULT_STREAMING_FETCH_SIZE);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default streaming fetch size of "+DEFAULT_STREAMING_FETCH_SIZE+".", e);
+			return DEFAULT_STREAMING_FETCH_SIZE;
+		}
+	}
+	
+	/**
+	 * Provides the fetch size to be set on statements whose results are streamed through a forward-only cursor, depending on the active DBS.
+	 * 
+	 * MySQL Connector/J ignores positive fetch sizes and reads the whole result into memory, unless fetching by server-side cursor is enabled for the connection ("useCursorFetch").
+	 * That property would turn every statement of the pool into a server-side prepared statement with additional round trips, although only the streamed queries need it.
+	 * Instead, Integer.MIN_VALUE makes Connector/J stream the rows of a forward-only, read-only statement one by one without cursor. The connection is busy until the result is closed, which is fine for a result that is consumed right away.
+	 * 
+	 * @return    Integer.MIN_VALUE for MySQL, the configured streaming fetch size for all other DBS
+	 * @see #getConfiguredStreamingFetchSize()
+	 */
+	public static int getStreamingFetchSize() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			if( "mysql".equals( ConfigParser.getInstance().getRootNode().optString("activeDbs") ) ) return Integer.MIN_VALUE;
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using the configured streaming fetch size.", e);
+		}
+		return getConfiguredStreamingFetchSize();
+	}
+	
+	/**
+	 * Creates the pool configuration for the given DBS from the config file.
+	 * 
+	 * @param dbsName    configuration identifier of the DBS
+	 * @param poolName    name of the pool shown in logs and JMX
+	 * @return new pool configuration
+	 * @throws IOException
+	 * @throws JSONException
+	 * @throws URISyntaxException
+	 * @throws FileSystemAccessException
+	 */
+	public static HikariConfig createPoolConfig(final String dbsName, final String poolName) throws IOException, JSONException, URISyntaxException, FileSystemAccessException {
+		ConfigParser.getInstance().parseConfig();
+		final JSONObject dbParameters = ConfigParser.getInstance().getRootNode().getJSONObject("dbParameters").getJSONObject(dbsName);
+		final JSONObject poolParameters = ConfigParser.getInstance().getRootNode().optJSONObject("connectionPool", new JSONObject());
+		
+		final HikariConfig config = new HikariConfig();
+		config.setPoolName(poolName);
+		config.setJdbcUrl(dbParameters.getString("connectionUrl"));
+		config.setUsername(dbParameters.getString("user"));
+		config.setPassword(dbParameters.getString("password"));
+
+		config.setMaximumPoolSize( poolParameters.optInt("maximumPoolSize", DEFAULT_MAXIMUM_POOL_SIZE) );
+		config.setMinimumIdle( Math.min(config.getMaximumPoolSize(), poolParameters.optInt("minimumIdle", DEFAULT_MINIMUM_IDLE)) );
+		config.setLeakDetectionThreshold( poolParameters.optLong("leakDetectionThresholdMillis", DEFAULT_LEAK_DETECTION_THRESHOLD_MILLIS) );
+		config.setAutoCommit(false);
+		final int prepStmtCacheSize = poolParameters.optInt("prepStmtCacheSize", DEFAULT_PREP_STMT_CACHE_SIZE);
+		config.addDataSourceProperty("cachePrepStmts", "true");
+		config.addDataSourceProperty("prepStmtCacheSize", Integer.toString(prepStmtCacheSize));
+		config.addDataSourceProperty("prepStmtCacheSqlLimit", Integer.toString( poolParameters.optInt("prepStmtCacheSqlLimit", DEFAULT_PREP_STMT_CACHE_SQL_LIMIT) ));
+		/*
+		 * set global transaction isolation level, statement caching and query logging properties depending on used DBS
+		 */
+		switch(dbsName) {
+		case "oracleXE":
+			config.setTransactionIsolation("TRANSACTION_SERIALIZABLE");
+			// Oracle equivalent of the client side statement cache of MySQL Connector/J
+			config.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize", Integer.toString(prepStmtCacheSize));
+			break;
+		case "mysql":
+			// REPEATABLE READ is default transaction isolation level in MySQL. Just assuring in case of using other DBS.
+			config.setTransactionIsolation("TRANSACTION_REPEATABLE_READ");
+			config.addDataSourceProperty("logger", "com.mysql.cj.log.StandardLogger");
+			// send JDBC batches of INSERT statements as multi-row INSERT statements, e. g. for ingesting readings
+			config.addDataSourceProperty("rewriteBatchedStatements", "true");
+			config.addDataSourceProperty("logSlowQueries", "true");
+			config.addDataSourceProperty("dumpQueriesOnException", "true");
+			if( dbParameters.getBoolean("logAllDbOperations") ) config.addDataSourceProperty("autoGenerateTestcaseScript", "true");
+			if( dbParameters.getBoolean("logDbOperationTimings") ) config.addDataSourceProperty("profileSQL", "true");
+			if( dbParameters.getBoolean("logJdbcActionTrace") ) config.addDataSourceProperty("traceProtocol", "true");
+			break;
+		case "h2":
+			// same isolation level as MySQL, so that benchmarks on the embedded database are comparable. Default of H2 is READ COMMITTED.
+			config.setTransactionIsolation("TRANSACTION_REPEATABLE_READ");
+			break;
+		default:
+		}
+		return config;
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Debounce stage for frequently changing UI input, e. g. IDs typed into a text field.
+ * 
+ * Submitted values are not handled at once. Only the last value of a burst is handed to the action after a quiet period without further submissions.
+ * Intermediate values the user has already typed past are dropped and counted as avoided actions.
+ * The action runs in the given dispatcher, e. g. Platform::runLater for the JavaFX application thread.
+ * 
+ * Relevant config entry: "debounce.quietPeriodMillis".
+ * 
+ * @param <T>    type of the debounced values
+ */
+public class Debouncer<T> {
+	private static final Logger logger = Logger.getLogger(Debouncer.class.getName());
+	/**
+	 * Default for config entry "debounce.quietPeriodMillis".
+	 */
+	public static final long DEFAULT_QUIET_PERIOD_MILLIS = 250;
+	/**
+	 * Timer shared by all debouncers. It only hands values to the dispatchers, so one thread suffices.
+	 */
+	private static final ScheduledExecutorService sharedTimer = Executors.newSingleThreadScheduledExecutor( runnable -> {
+		final Thread thread = new Thread(runnable, "debouncer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private final String name;
+	private final long quietPeriodMillis;
+	private final Consumer<T> action;
+	private final Executor dispatcher;
+	private final ScheduledExecutorService timer;
+	// statistics
+	private final AtomicLong submittedValueCount = new AtomicLong();
+	private final AtomicLong executedActionCount = new AtomicLong();
+	private final AtomicLong avoidedActionCount = new AtomicLong();
+	
+	// guarded by this
+	private T pendingValue = null;
+	private ScheduledFuture<?> scheduledAction = null;
+	// incremented by each submission. A scheduled action only runs if no newer value was submitted in the meantime.
+	private long generation = 0;
+	
+	/**
+	 * Creates a debouncer with the configured quiet period.
+	 * 
+	 * @param name    name of the debouncer used in log messages
+	 * @param action    handler of the last value of a burst
+	 * @param dispatcher    executor running the action, e. g. Platform::runLater
+	 * @see #getConfiguredQuietPeriodMillis()
+	 */
+	public Debouncer(final String name, final Consumer<T> action, final Executor dispatcher) {
+		this(name, getConfiguredQuietPeriodMillis(), action, dispatcher);
+	}
+	
+	/**
+	 * Creates a debouncer.
+	 * 
+	 * @param name    name of the debouncer used in log messages
+	 * @param quietPeriodMillis    time without new submissions after which the last value is handled
+	 * @param action    handler of the last value of a burst
+	 * @param dispatcher    executor running the action, e. g. Platform::runLater
+	 */
+	public Debouncer(final String name, final long quietPeriodMillis, final Consumer<T> action, final Executor dispatcher) {
+		this(name, quietPeriodMillis, action, dispatcher, sharedTimer);
+	}
+	
+	/**
+	 * Creates a debouncer with its own timer. Package-private for tests controlling the time.
+	 * 
+	 * @param name    name of the debouncer used in log messages
+	 * @param quietPeriodMillis    time without new submissions after which the last value is handled
+	 * @param action    handler of the last value of a burst
+	 * @param dispatcher    executor running the action, e. g. Platform::runLater
+	 * @param timer    timer scheduling the end of the quiet period
+	 */
+	Debouncer(final String name, final long quietPeriodMillis, final Consumer<T> action, final Executor dispatcher, final ScheduledExecutorService timer) {
+		this.name = name;
+		this.quietPeriodMillis = quietPeriodMillis;
+		this.action = action;
+		this.dispatcher = dispatcher;
+		this.timer = timer;
+	}
+	
+	/**
+	 * Reads the quiet period from the config file.
+	 * 
+	 * @return    value of config entry "debounce.quietPeriodMillis" or {@link #DEFAULT_QUIET_PERIOD_MILLIS} if the config entry is missing or the config file can't be read
+	 */
+	public static long getConfiguredQuietPeriodMillis() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject debounceConfig = ConfigParser.getInstance().getRootNode().optJSONObject("debounce");
+			if(null == debounceConfig) return DEFAULT_QUIET_PERIOD_MILLIS;
+			return debounceConfig.optLong("quietPeriodMillis", DEFAULT_QUIET_PERIOD_MILLIS);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default quiet period of "+DEFAULT_QUIET_PERIOD_MILLIS+" ms for debouncing.", e);
+			return DEFAULT_QUIET_PERIOD_MILLIS;
+		}
+	}
+	
+	/**
+	 * Replaces any pending value by the given one and restarts the quiet period.
+	 * 
+	 * @param value    new value
+	 */
+	public synchronized void submit(final T value) {
+		this.submittedValueCount.incrementAndGet();
+		if(null != this.scheduledAction) {
+			// the user has already typed past the pending value
+			this.scheduledAction.cancel(false);
+			this.avoidedActionCount.incrementAndGet();
+		}
+		this.pendingValue = value;
+		final long submittedGeneration = ++this.generation;
+		this.scheduledAction = this.timer.schedule( () -> dispatch(submittedGeneration), this.quietPeriodMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Drops the pending value, if any.
+	 */
+	public synchronized void cancel() {
+		if(null == this.scheduledAction) return;
+		this.scheduledAction.cancel(false);
+		this.scheduledAction = null;
+		this.pendingValue = null;
+		this.generation++;
+		this.avoidedActionCount.incrementAndGet();
+	}
+	
+	/**
+	 * Hands the pending value to the dispatcher at the end of the quiet period. Runs in the timer thread.
+	 * 
+	 * @param scheduledGeneration    generation of the submission which scheduled this call
+	 */
+	private void dispatch(final long scheduledGeneration) {
+		final T value;
+		synchronized(this) {
+			// superseded by a newer submission which couldn't cancel this call anymore
+			if(scheduledGeneration != this.generation) return;
+			value = this.pendingValue;
+			this.pendingValue = null;
+			this.scheduledAction = null;
+		}
+		this.executedActionCount.incrementAndGet();
+		logger.log(Level.FINE, "Debouncer \""+this.name+"\" handles value \""+value+"\". Avoided actions so far: "+getAvoidedActionCount()+".");
+		this.dispatcher.execute( () -> this.action.accept(value) );
+	}
+	
+	/**
+	 * @return    number of values submitted so far
+	 */
+	public long getSubmittedValueCount() {
+		return this.submittedValueCount.get();
+	}
+	
+	/**
+	 * @return    number of values handed to the action so far
+	 */
+	public long getExecutedActionCount() {
+		return this.executedActionCount.get();
+	}
+	
+	/**
+	 * @return    number of values dropped because a newer value was submitted within the quiet period
+	 */
+	public long getAvoidedActionCount() {
+		return this.avoidedActionCount.get();
+	}
+}
@@ -0,0 +1,502 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * In-memory directory of small and rarely changing records, e. g. monitoring stations.
+ * 
+ * Entries are loaded lazily: the first lookup of a key or internal ID loads only the entry with this key or internal ID, later lookups of the same entry by key or by internal ID are answered from memory without touching the persistence layer.
+ * 
+ * Type-ahead search loads about one page of matching keys per prefix (see {@link #getKeysByPrefix(String)}). The loaded keys are held in a {@link PrefixIndex}.
+ * If the loaded keys contain all matches of their prefix, each longer prefix typed afterwards is answered from the index without a query. Thus the heap only holds the entries and pages actually requested.
+ * A lookup of an unknown key loads the page of its own prefix instead of the entry. Thus an incomplete ID typed by the user costs at most one page query, the longer IDs typed afterwards are answered from the index once the page was complete.
+ * Other unknown keys are remembered in a negative cache. Repeated lookups of unknown keys never query the persistence layer.
+ * 
+ * The directory is refreshed incrementally, periodically in the background or on demand (see {@link #refresh()}): only the entries with an internal ID above the high-water mark, i. e. the entries added since the last refresh, are loaded.
+ * Their keys are merged into the index and removed from the negative cache, so complete prefixes stay complete. Cached entries and pages are kept.
+ * Entries renamed or deleted by other clients are not detected by the refresh. They are served until {@link #evictAll()} is called.
+ * 
+ * Relevant config entries: "directoryCache.refreshPeriodMillis", "pagination.pageSize".
+ * 
+ * @param <V>    type of the directory entries
+ * @param <E>    type of the exception thrown by the persistence layer
+ */
+public class DirectoryCache<V, E extends Exception> {
+	private static final Logger logger = Logger.getLogger(DirectoryCache.class.getName());
+	/**
+	 * Default for config entry "directoryCache.refreshPeriodMillis".
+	 */
+	public static final long DEFAULT_REFRESH_PERIOD_MILLIS = 60_000;
+	/**
+	 * Escape character of the LIKE patterns passed to the {@link IKeyPageLoader}. Unlike the backslash, it needs no escaping in string literals of any supported DBS.
+	 */
+	public static final char LIKE_ESCAPE_CHARACTER = '!';
+	/**
+	 * Upper bound of the negative cache. Typing never produces more distinct keys than this between two evictions, but pasted garbage could.
+	 */
+	private static final int MAX_UNKNOWN_KEYS = 1_000;
+	/**
+	 * Upper bound of the keys of all loaded pages.
+	 */
+	private static final int MAX_INDEXED_KEYS = 10_000;
+	/**
+	 * All directories which are not shut down yet.
+	 * @see #shutdownAll()
+	 */
+	private static final Set<DirectoryCache<?, ?>> activeDirectories = ConcurrentHashMap.newKeySet();
+	
+	private final String name;
+	private final long refreshPeriodMillis;
+	private final int pageSize;
+	private final IDirectoryLoader<V, E> loader;
+	private final IKeyPageLoader<E> keyPageLoader;
+	private final ToLongFunction<V> idOfEntry;
+	private final Function<V, String> keyOfEntry;
+	private final ScheduledExecutorService refreshExecutor;
+	
+	private final ConcurrentHashMap<String, V> entriesByKey = new ConcurrentHashMap<String, V>();
+	private final ConcurrentHashMap<Long, V> entriesById = new ConcurrentHashMap<Long, V>();
+	// written while holding prefixLock only. Concurrent for the unlocked lookups.
+	private final Set<String> unknownKeys = ConcurrentHashMap.newKeySet();
+	// keys of all loaded pages
+	private final PrefixIndex keyIndex = new PrefixIndex();
+	// guarded by prefixLock: prefixes whose matching keys are all contained in keyIndex
+	private final Set<String> completePrefixes = new HashSet<String>();
+	/**
+	 * Incremented by each eviction and by each refresh adding entries. Results of loads which started before are dropped instead of being cached.
+	 */
+	private volatile long generation = 0;
+	/**
+	 * Greatest internal ID known to the directory. Entries with greater internal IDs are loaded by the next refresh.
+	 * Written while holding refreshLock only.
+	 */
+	private volatile long highWaterMark = -1;
+	private volatile boolean highWaterMarkKnown = false;
+	// statistics
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong negativeHitCount = new AtomicLong();
+	private final AtomicLong indexedPrefixHitCount = new AtomicLong();
+	private final AtomicLong loadedPageCount = new AtomicLong();
+	private final AtomicLong refreshedEntryCount = new AtomicLong();
+	
+	// guards the consistency of generation, entriesByKey, entriesById, unknownKeys, keyIndex and completePrefixes
+	private final Object prefixLock = new Object();
+	// refreshes are never run concurrently
+	private final Object refreshLock = new Object();
+	private volatile boolean shutDown = false;
+	
+	/**
+	 * Creates a directory with the configured refresh period and page size.
+	 * 
+	 * @param name    name of the directory used for the refresh thread and in log messages
+	 * @param loader    loader of single directory entries and of the entries added since the last refresh
+	 * @param keyPageLoader    loader of one page of keys starting with a prefix
+	 * @param idOfEntry    provides the internal ID of an entry
+	 * @param keyOfEntry    provides the lookup key of an entry, e. g. the external ID
+	 * @see #getConfiguredRefreshPeriodMillis()
+	 * @see KeysetPager#getConfiguredPageSize()
+	 */
+	public DirectoryCache(final String name, final IDirectoryLoader<V, E> loader, final IKeyPageLoader<E> keyPageLoader, final ToLongFunction<V> idOfEntry, final Function<V, String> keyOfEntry) {
+		this(name, getConfiguredRefreshPeriodMillis(), KeysetPager.getConfiguredPageSize(), loader, keyPageLoader, idOfEntry, keyOfEntry);
+	}
+	
+	/**
+	 * Creates a directory.
+	 * 
+	 * @param name    name of the directory used for the refresh thread and in log messages
+	 * @param refreshPeriodMillis    period of the incremental background refresh. 0 or less disables the background refresh.
+	 * @param pageSize    maximum number of keys loaded per prefix and of entries loaded per query of the refresh
+	 * @param loader    loader of single directory entries and of the entries added since the last refresh
+	 * @param keyPageLoader    loader of one page of keys starting with a prefix
+	 * @param idOfEntry    provides the internal ID of an entry
+	 * @param keyOfEntry    provides the lookup key of an entry, e. g. the external ID
+	 */
+	public DirectoryCache(final String name, final long refreshPeriodMillis, final int pageSize, final IDirectoryLoader<V, E> loader, final IKeyPageLoader<E> keyPageLoader,
+			final ToLongFunction<V> idOfEntry, final Function<V, String> keyOfEntry) {
+		this.name = name;
+		this.refreshPeriodMillis = refreshPeriodMillis;
+		this.pageSize = pageSize;
+		this.loader = loader;
+		this.keyPageLoader = keyPageLoader;
+		this.idOfEntry = idOfEntry;
+		this.keyOfEntry = keyOfEntry;
+		this.refreshExecutor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+			final Thread thread = new Thread(runnable, "directory-refresh-"+name);
+			thread.setDaemon(true);
+			return thread;
+		});
+		if(refreshPeriodMillis > 0) {
+			this.refreshExecutor.scheduleWithFixedDelay(this::refreshInBackground, refreshPeriodMillis, refreshPeriodMillis, TimeUnit.MILLISECONDS);
+		}
+		activeDirectories.add(this);
+	}
+	
+	/**
+	 * Reads the refresh period from the config file.
+	 * 
+	 * @return    value of config entry "directoryCache.refreshPeriodMillis" or {@link #DEFAULT_REFRESH_PERIOD_MILLIS} if the config entry is missing or the config file can't be read
+	 */
+	public static long getConfiguredRefreshPeriodMillis() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject directoryConfig = ConfigParser.getInstance().getRootNode().optJSONObject("directoryCache");
+			if(null == directoryConfig) return DEFAULT_REFRESH_PERIOD_MILLIS;
+			return directoryConfig.optLong("refreshPeriodMillis", DEFAULT_REFRESH_PERIOD_MILLIS);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default refresh period of "+DEFAULT_REFRESH_PERIOD_MILLIS+" ms for directory caches.", e);
+			return DEFAULT_REFRESH_PERIOD_MILLIS;
+		}
+	}
+	
+	/**
+	 * Converts the given prefix into the pattern of a LIKE condition matching all strings starting with the prefix.
+	 * The wildcards "%" and "_" contained in the prefix are escaped by {@link #LIKE_ESCAPE_CHARACTER}, e. g. "LIKE ? ESCAPE '!'".
+	 * 
+	 * @param prefix    prefix. null is treated as empty string.
+	 * @return    LIKE pattern
+	 */
+	public static String toLikePattern(final String prefix) {
+		if(null == prefix) return "%";
+		final StringBuilder pattern = new StringBuilder( prefix.length() + 1 );
+		for(final char character : prefix.toCharArray()) {
+			if(LIKE_ESCAPE_CHARACTER == character || '%' == character || '_' == character) {
+				pattern.append(LIKE_ESCAPE_CHARACTER);
+			}
+			pattern.append(character);
+		}
+		return pattern.append('%').toString();
+	}
+	
+	/**
+	 * Looks up the entry with the given key.
+	 * 
+	 * @param key    lookup key, e. g. external ID. null is ignored.
+	 * @return    entry with the given key. null if the directory doesn't contain such an entry.
+	 * @throws E    if loading the entry or the page of keys starting with the given key failed
+	 */
+	public V getByKey(final String key) throws E {
+		if(null == key) return null;
+		final V entry = this.entriesByKey.get(key);
+		if(null != entry) {
+			this.hitCount.incrementAndGet();
+			return entry;
+		}
+		if( this.unknownKeys.contains(key) ) {
+			this.negativeHitCount.incrementAndGet();
+			return null;
+		}
+		ensureHighWaterMark();
+		synchronized(this.prefixLock) {
+			if( isCompletelyIndexed(key) && !this.keyIndex.contains(key) ) {
+				this.negativeHitCount.incrementAndGet();
+				return null;
+			}
+		}
+		this.missCount.incrementAndGet();
+		final long loadGeneration = this.generation;
+		// an unknown key is most likely an incomplete ID typed by the user. The page of its prefix also answers the longer IDs typed afterwards.
+		if( !this.keyIndex.contains(key) && !getKeysByPrefix(key).contains(key) ) {
+			rememberUnknownKey(key, loadGeneration);
+			return null;
+		}
+		final V loadedEntry = this.loader.loadByKey(key);
+		if(null == loadedEntry) {
+			rememberUnknownKey(key, loadGeneration);
+			return null;
+		}
+		cacheEntry(loadedEntry, loadGeneration);
+		return loadedEntry;
+	}
+	
+	/**
+	 * Looks up the entry with the given internal ID.
+	 * 
+	 * @param id    internal ID
+	 * @return    entry with the given internal ID. null if the directory doesn't contain such an entry.
+	 * @throws E    if loading the entry failed
+	 */
+	public V getById(final long id) throws E {
+		final V entry = this.entriesById.get( Long.valueOf(id) );
+		if(null != entry) {
+			this.hitCount.incrementAndGet();
+			return entry;
+		}
+		this.missCount.incrementAndGet();
+		final long loadGeneration = this.generation;
+		final V loadedEntry = this.loader.loadById(id);
+		if(null != loadedEntry) {
+			cacheEntry(loadedEntry, loadGeneration);
+		}
+		return loadedEntry;
+	}
+	
+	/**
+	 * Caches the given entry by key and by internal ID unless the directory was evicted or refreshed since the start of its load.
+	 */
+	private void cacheEntry(final V entry, final long loadGeneration) {
+		synchronized(this.prefixLock) {
+			if(loadGeneration != this.generation) return;
+			this.entriesByKey.put( this.keyOfEntry.apply(entry), entry );
+			this.entriesById.put( Long.valueOf( this.idOfEntry.applyAsLong(entry) ), entry );
+		}
+	}
+	
+	/**
+	 * Remembers the given key in the negative cache unless the directory was evicted or refreshed since the start of its load. Otherwise the key might have been added meanwhile.
+	 */
+	private void rememberUnknownKey(final String key, final long loadGeneration) {
+		synchronized(this.prefixLock) {
+			if(loadGeneration != this.generation) return;
+			if( this.unknownKeys.size() >= MAX_UNKNOWN_KEYS ) {
+				this.unknownKeys.clear();
+			}
+			this.unknownKeys.add(key);
+		}
+	}
+	
+	/**
+	 * Looks up the keys starting with the given prefix, e. g. for filtering a list while the user types.
+	 * Matching is case-sensitive like the lookup by key. If the DBS compares case-insensitively, it also returns keys differing in case, which are dropped. Further pages are loaded until one page of matches is found or all matches are loaded.
+	 * 
+	 * @param prefix    prefix of the keys. null or empty string matches all keys.
+	 * @return    matching keys in ascending order. About one page if there are more matches, a longer prefix narrows the result.
+	 * @throws E    if loading the page failed
+	 */
+	public List<String> getKeysByPrefix(final String prefix) throws E {
+		final String validPrefix = (null == prefix) ? "" : prefix;
+		ensureHighWaterMark();
+		synchronized(this.prefixLock) {
+			if( isCompletelyIndexed(validPrefix) ) {
+				this.indexedPrefixHitCount.incrementAndGet();
+				return this.keyIndex.findByPrefix(validPrefix);
+			}
+		}
+		final long loadGeneration = this.generation;
+		final long startNanos = System.nanoTime();
+		final String likePattern = toLikePattern(validPrefix);
+		final List<String> matchingKeys = new ArrayList<String>();
+		String afterKey = null;
+		boolean complete = false;
+		while( !complete && matchingKeys.size() < this.pageSize ) {
+			final List<String> loadedKeys = this.keyPageLoader.loadKeys(likePattern, afterKey, this.pageSize);
+			this.loadedPageCount.incrementAndGet();
+			// DBS with case-insensitive collations also return keys differing in case
+			loadedKeys.stream().filter( key -> null != key && key.startsWith(validPrefix) ).forEachOrdered(matchingKeys::add);
+			// a page with fewer keys than requested is the last one
+			complete = loadedKeys.size() < this.pageSize;
+			if( !loadedKeys.isEmpty() ) afterKey = loadedKeys.get( loadedKeys.size() - 1 );
+		}
+		// the DBS may order differently
+		Collections.sort(matchingKeys);
+		logger.log(Level.FINE, "Directory \""+this.name+"\" loaded "+matchingKeys.size()+" keys starting with \""+validPrefix+"\" in "+TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos)+" microseconds.");
+		synchronized(this.prefixLock) {
+			if(loadGeneration == this.generation) {
+				if( this.keyIndex.size() + matchingKeys.size() > MAX_INDEXED_KEYS ) {
+					this.keyIndex.replaceAll( Collections.emptyList() );
+					this.completePrefixes.clear();
+				}
+				this.keyIndex.addAll(matchingKeys);
+				// without the last page, the index lacks matches of longer prefixes
+				if(complete) {
+					this.completePrefixes.add(validPrefix);
+				}
+			}
+		}
+		return Collections.unmodifiableList(matchingKeys);
+	}
+	
+	/**
+	 * Must be called while holding {@link #prefixLock}.
+	 * 
+	 * @return    true if all keys starting with the given prefix are contained in the index, i. e. if all matches of the prefix or of one of its own prefixes were loaded
+	 */
+	private boolean isCompletelyIndexed(final String prefix) {
+		if( this.completePrefixes.isEmpty() ) return false;
+		for(int length = 0; length <= prefix.length(); length++) {
+			if( this.completePrefixes.contains( prefix.substring(0, length) ) ) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Loads the high-water mark of the incremental refresh before the first entry or key is cached. Entries added afterwards are loaded by the next refresh.
+	 */
+	private void ensureHighWaterMark() throws E {
+		if(this.highWaterMarkKnown) return;
+		synchronized(this.refreshLock) {
+			if(this.highWaterMarkKnown) return;
+			this.highWaterMark = this.loader.loadGreatestId();
+			this.highWaterMarkKnown = true;
+		}
+	}
+	
+	/**
+	 * Loads the entries added since the last refresh, i. e. the entries with an internal ID above the high-water mark, page by page. Runs periodically in the background.
+	 * Their keys are merged into the index and removed from the negative cache. The entries themselves are loaded on their first lookup.
+	 * 
+	 * @return    number of added entries
+	 * @throws E    if loading failed. The directory stays unchanged in this case.
+	 */
+	public int refresh() throws E {
+		synchronized(this.refreshLock) {
+			// nothing was cached yet
+			if(!this.highWaterMarkKnown) return 0;
+			final long startNanos = System.nanoTime();
+			final List<String> addedKeys = new ArrayList<String>();
+			long greatestId = this.highWaterMark;
+			List<V> page;
+			do {
+				page = this.loader.loadAfterId(greatestId, this.pageSize);
+				for(final V entry : page) {
+					addedKeys.add( this.keyOfEntry.apply(entry) );
+					greatestId = Math.max( greatestId, this.idOfEntry.applyAsLong(entry) );
+				}
+			}while( page.size() >= this.pageSize );
+			if( !addedKeys.isEmpty() ) {
+				synchronized(this.prefixLock) {
+					// loads which started before may have missed the added entries
+					this.generation++;
+					this.unknownKeys.removeAll(addedKeys);
+					if( this.keyIndex.size() + addedKeys.size() > MAX_INDEXED_KEYS ) {
+						this.keyIndex.replaceAll( Collections.emptyList() );
+						this.completePrefixes.clear();
+					}else {
+						// complete prefixes stay complete
+						this.keyIndex.addAll(addedKeys);
+					}
+				}
+			}
+			this.highWaterMark = greatestId;
+			this.refreshedEntryCount.addAndGet( addedKeys.size() );
+			logger.log(Level.FINE, "Directory \""+this.name+"\" refreshed "+addedKeys.size()+" added entries in "+TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos)+" microseconds.");
+			return addedKeys.size();
+		}
+	}
+	
+	/**
+	 * Task of the background refresh. Holds a permit of the {@link PersistenceExecutor} like every other database access.
+	 * Failures are logged only. The directory keeps serving the known entries and retries with the same high-water mark.
+	 */
+	private void refreshInBackground() {
+		try {
+			PersistenceExecutor.getInstance().callWithPermit(this::refresh);
+		}catch(Exception e) {
+			logger.log(Level.WARNING, "Directory \""+this.name+"\" failed to refresh its entries. Retrying in "+this.refreshPeriodMillis+" ms.", e);
+		}
+	}
+	
+	/**
+	 * Evicts all cached entries, pages and unknown keys, so that they are loaded again on the next lookup.
+	 * To be called on demand after entries were renamed or deleted, which the incremental refresh doesn't detect.
+	 */
+	public void evictAll() {
+		synchronized(this.prefixLock) {
+			this.generation++;
+			this.entriesByKey.clear();
+			this.entriesById.clear();
+			this.unknownKeys.clear();
+			this.keyIndex.replaceAll( Collections.emptyList() );
+			this.completePrefixes.clear();
+		}
+		logger.log(Level.FINE, "Directory \""+this.name+"\" evicted all entries and pages.");
+	}
+	
+	/**
+	 * @return    number of lookups by key or internal ID answered with a cached entry
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+	
+	/**
+	 * @return    number of lookups of keys or internal IDs which were neither cached nor known to be missing
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+	
+	/**
+	 * @return    number of lookups of keys not contained in the directory which were answered by the negative cache or by the index of a complete prefix
+	 */
+	public long getNegativeHitCount() {
+		return this.negativeHitCount.get();
+	}
+	
+	/**
+	 * @return    number of prefix lookups answered from the index of loaded pages
+	 */
+	public long getIndexedPrefixHitCount() {
+		return this.indexedPrefixHitCount.get();
+	}
+	
+	/**
+	 * @return    number of pages of keys loaded from the persistence layer
+	 */
+	public long getLoadedPageCount() {
+		return this.loadedPageCount.get();
+	}
+	
+	/**
+	 * @return    number of entries added by refreshes
+	 */
+	public long getRefreshedEntryCount() {
+		return this.refreshedEntryCount.get();
+	}
+	
+	/**
+	 * Stops the background refresh. Lookups keep working with the cached entries.
+	 */
+	public void shutdown() {
+		synchronized(this.prefixLock) {
+			if(this.shutDown) return;
+			this.shutDown = true;
+		}
+		this.refreshExecutor.shutdownNow();
+		activeDirectories.remove(this);
+		logger.log(Level.INFO, "Directory \""+this.name+"\" shut down. Cached entries: "+this.entriesById.size()+", refreshed entries: "+getRefreshedEntryCount()+", hits: "+getHitCount()+", misses: "+getMissCount()+", negative hits: "+getNegativeHitCount()+", loaded pages: "+getLoadedPageCount()+", indexed prefix hits: "+getIndexedPrefixHitCount()+".");
+	}
+	
+	/**
+	 * Stops the background refresh of all directories which are not shut down yet.
+	 * To be called on application exit before releasing persistence resources.
+	 */
+	public static void shutdownAll() {
+		for(final DirectoryCache<?, ?> directory : activeDirectories) {
+			directory.shutdown();
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *	 http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.util.Map;
+
+/**
+ * Writer used by {@link WriteBehindQueue} for persisting coalesced values.
+ * 
+ * @param <V>    type of the written values
+ */
+@FunctionalInterface
+public interface IBatchWriter<V> {
+	/**
+	 * Writes the given values in one batch.
+	 * Called from the flush thread of the write-behind queue only, i. e. never concurrently for the same queue.
+	 * 
+	 * @param values    values to be written by record ID
+	 * @return    failures of single records by record ID. Empty if all records were written.
+	 * @throws Exception    if writing the whole batch failed
+	 */
+	public Map<Long, Exception> writeBatch(final Map<Long, V> values) throws Exception;
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Loader used by {@link ChangeFeedPoller} for reading changed records from the persistence layer.
+ * 
+ * @param <V>    type of the records
+ * @param <E>    type of the exception thrown by the persistence layer
+ */
+public interface IChangeLoader<V, E extends Exception> {
+	/**
+	 * Loads the greatest internal ID of all records. Called once when the change feed is started, so that existing records aren't reported as new.
+	 * 
+	 * @return    greatest internal ID. -1 if there are no records.
+	 * @throws E    if the ID can't be loaded
+	 */
+	public long loadGreatestId() throws E;
+	
+	/**
+	 * Loads the current time of the database clock, which sets the modification timestamps. Called at the start of every poll.
+	 * 
+	 * @return    current database time
+	 * @throws E    if the time can't be loaded
+	 */
+	public LocalDateTime loadDatabaseTime() throws E;
+	
+	/**
+	 * Loads all records which were inserted or modified since the given high-water marks with one query,
+	 * e. g. "WHERE id &gt; :afterId OR last_modified &gt;= :modifiedSince", which is resolved by the primary key and an index on the modification timestamp.
+	 * Never called concurrently for the same change feed.
+	 * 
+	 * @param afterId    greatest internal ID already known. Records with a greater ID are new.
+	 * @param modifiedSince    records modified at or after this time (database time) are changed
+	 * @return    new and changed records. Empty if there are none.
+	 * @throws E    if the records can't be loaded
+	 */
+	public List<V> loadChanges(final long afterId, final LocalDateTime modifiedSince) throws E;
+}
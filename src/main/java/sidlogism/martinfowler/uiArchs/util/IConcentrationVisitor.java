@@ -0,0 +1,30 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+/**
+ * Callback of {@link ConcentrationTimeSeries} for visiting readings without creating an object per reading.
+ */
+@FunctionalInterface
+public interface IConcentrationVisitor {
+	/**
+	 * Visits one reading.
+	 * 
+	 * @param timestampMillis    reading timestamp as converted by {@link TimeTools#toEpochMillis(java.time.LocalDateTime)}
+	 * @param concentration    actual concentration value of the reading
+	 */
+	public void visit(final long timestampMillis, final short concentration);
+}
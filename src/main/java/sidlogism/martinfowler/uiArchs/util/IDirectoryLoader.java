@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.util.List;
+
+/**
+ * Loader used by {@link DirectoryCache} for reading directory entries from the persistence layer.
+ * 
+ * @param <V>    type of the directory entries
+ * @param <E>    type of the exception thrown by the persistence layer
+ */
+public interface IDirectoryLoader<V, E extends Exception> {
+	/**
+	 * Loads the entry with the given key. Called for each key which is neither cached nor known to be missing.
+	 * 
+	 * @param key    lookup key, e. g. external ID. Not null.
+	 * @return    entry with the given key. null if there is no such entry.
+	 * @throws E    if the entry can't be loaded
+	 */
+	public V loadByKey(final String key) throws E;
+	
+	/**
+	 * Loads the entry with the given internal ID. Called for each internal ID which is not cached.
+	 * 
+	 * @param id    internal ID
+	 * @return    entry with the given internal ID. null if there is no such entry.
+	 * @throws E    if the entry can't be loaded
+	 */
+	public V loadById(final long id) throws E;
+	
+	/**
+	 * Loads the greatest internal ID, which is the high-water mark of the incremental refresh. Called once before the first entry or key is cached.
+	 * 
+	 * @return    greatest internal ID of all entries. -1 if there are no entries.
+	 * @throws E    if the internal ID can't be loaded
+	 */
+	public long loadGreatestId() throws E;
+	
+	/**
+	 * Loads the entries following the given internal ID ordered ascending by internal ID, i. e. one page of the entries added since the last refresh.
+	 * 
+	 * @param afterId    high-water mark of the previous refresh or last internal ID of the previous page
+	 * @param limit    maximum number of entries
+	 * @return    entries with greater internal IDs. Fewer than limit entries indicate that there are no further entries.
+	 * @throws E    if the entries can't be loaded
+	 */
+	public List<V> loadAfterId(final long afterId, final int limit) throws E;
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *	 http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+/**
+ * Simple observer type for the results of flushes of a {@link WriteBehindQueue}.
+ * 
+ * @note    Callbacks run in the flush thread of the write-behind queue. UI updates must be handed to the UI thread (e. g. via Platform.runLater).
+ * 
+ * @param <V>    type of the written values
+ */
+public interface IFlushListener<V> {
+	/**
+	 * Handle successful write of a value.
+	 * 
+	 * @param recordId    ID of the written record
+	 * @param value    written value
+	 */
+	void flushSucceeded(long recordId, V value);
+	
+	/**
+	 * Handle failed write of a value.
+	 * 
+	 * @param recordId    ID of the record which couldn't be written
+	 * @param value    value which couldn't be written
+	 * @param cause    reason of the failure
+	 */
+	void flushFailed(long recordId, V value, Exception cause);
+}
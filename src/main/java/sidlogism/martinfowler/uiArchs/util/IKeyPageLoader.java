@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.util.List;
+
+/**
+ * Loader used by {@link DirectoryCache} for reading one page of keys starting with a prefix from the persistence layer, e. g. for type-ahead search.
+ * Pages are read by keyset pagination on the key.
+ * 
+ * @param <E>    type of the exception thrown by the persistence layer
+ */
+@FunctionalInterface
+public interface IKeyPageLoader<E extends Exception> {
+	/**
+	 * Loads the keys matching the given pattern which follow the given key, ordered ascending as compared by the DBS.
+	 * 
+	 * @param likePattern    pattern of the SQL or JPQL LIKE condition matching all keys starting with the prefix. Uses {@link DirectoryCache#LIKE_ESCAPE_CHARACTER} as escape character.
+	 * @param afterKey    last key of the previous page. null for the first page.
+	 * @param limit    maximum number of keys
+	 * @return    matching keys. Fewer than limit keys indicate that there are no further matches.
+	 * @throws E    if the keys can't be loaded
+	 */
+	public List<String> loadKeys(final String likePattern, final String afterKey, final int limit) throws E;
+}
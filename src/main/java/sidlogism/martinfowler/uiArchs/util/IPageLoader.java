@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous loader used by {@link KeysetPager} for reading one page of entries from the persistence layer.
+ * 
+ * @param <V>    type of the entries
+ */
+@FunctionalInterface
+public interface IPageLoader<V> {
+	/**
+	 * Starts loading the entries following the given internal ID, ordered ascending by internal ID.
+	 * 
+	 * @param afterId    greatest internal ID of the previous page. -1 for the first page.
+	 * @param limit    maximum number of entries of the page
+	 * @return    future completed with the entries of the page. Fewer than limit entries indicate the last page.
+	 */
+	public CompletableFuture<List<V>> loadPage(final long afterId, final int limit);
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Loads a long list of entries page by page using keyset pagination, e. g. while the user scrolls through a list of monitoring stations.
+ * 
+ * Each page is requested with the greatest internal ID of the previous page ("WHERE id > :afterId ORDER BY id LIMIT :limit").
+ * Unlike offset pagination, the database seeks directly to the start of the page on the primary key index, so every page costs the same no matter how far the user has scrolled.
+ * Only the pages actually requested are held in memory.
+ * 
+ * Relevant config entry: "pagination.pageSize".
+ * 
+ * @note    Pages must be requested from one thread (usually the UI thread), which must also be the thread of the result executor.
+ * @param <V>    type of the entries
+ */
+public class KeysetPager<V> {
+	private static final Logger logger = Logger.getLogger(KeysetPager.class.getName());
+	/**
+	 * Default for config entry "pagination.pageSize".
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 200;
+	
+	private final String name;
+	private final int pageSize;
+	private final IPageLoader<V> loader;
+	private final ToLongFunction<V> idOfEntry;
+	private final Consumer<List<V>> onPage;
+	private final Consumer<Throwable> onFailure;
+	private final Executor resultExecutor;
+	// statistics
+	private final AtomicLong loadedPageCount = new AtomicLong();
+	private final AtomicLong loadedEntryCount = new AtomicLong();
+	
+	// confined to the thread of the result executor
+	private long lastLoadedId = -1;
+	private boolean loading = false;
+	private boolean exhausted = false;
+	
+	/**
+	 * Creates a pager with the configured page size.
+	 * 
+	 * @param name    name used in log messages
+	 * @param loader    loader of one page
+	 * @param idOfEntry    provides the internal ID of an entry
+	 * @param onPage    receives each loaded page, e. g. for appending it to a list
+	 * @param onFailure    receives the cause of a failed page load. The page is requested again on the next call of {@link #loadNextPage()}.
+	 * @param resultExecutor    executor running the callbacks, e. g. Platform::runLater
+	 * @see #getConfiguredPageSize()
+	 */
+	public KeysetPager(final String name, final IPageLoader<V> loader, final ToLongFunction<V> idOfEntry, final Consumer<List<V>> onPage, final Consumer<Throwable> onFailure, final Executor resultExecutor) {
+		this(name, getConfiguredPageSize(), loader, idOfEntry, onPage, onFailure, resultExecutor);
+	}
+	
+	/**
+	 * Creates a pager.
+	 * 
+	 * @param name    name used in log messages
+	 * @param pageSize    maximum number of entries per page
+	 * @param loader    loader of one page
+	 * @param idOfEntry    provides the internal ID of an entry
+	 * @param onPage    receives each loaded page, e. g. for appending it to a list
+	 * @param onFailure    receives the cause of a failed page load. The page is requested again on the next call of {@link #loadNextPage()}.
+	 * @param resultExecutor    executor running the callbacks, e. g. Platform::runLater
+	 */
+	public KeysetPager(final String name, final int pageSize, final IPageLoader<V> loader, final ToLongFunction<V> idOfEntry, final Consumer<List<V>> onPage, final Consumer<Throwable> onFailure, final Executor resultExecutor) {
+		this.name = name;
+		this.pageSize = pageSize;
+		this.loader = loader;
+		this.idOfEntry = idOfEntry;
+		this.onPage = onPage;
+		this.onFailure = onFailure;
+		this.resultExecutor = resultExecutor;
+	}
+	
+	/**
+	 * Reads the page size from the config file.
+	 * 
+	 * @return    value of config entry "pagination.pageSize" or {@link #DEFAULT_PAGE_SIZE} if the config entry is missing or the config file can't be read
+	 */
+	public static int getConfiguredPageSize() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject paginationConfig = ConfigParser.getInstance().getRootNode().optJSONObject("pagination");
+			if(null == paginationConfig) return DEFAULT_PAGE_SIZE;
+			return paginationConfig.optInt("pageSize", DEFAULT_PAGE_SIZE);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default page size of "+DEFAULT_PAGE_SIZE+" entries.", e);
+			return DEFAULT_PAGE_SIZE;
+		}
+	}
+	
+	/**
+	 * Requests the page following the last loaded one. Ignored while a page is loading or after the last page was loaded.
+	 */
+	public void loadNextPage() {
+		if(this.loading || this.exhausted) return;
+		this.loading = true;
+		final long afterId = this.lastLoadedId;
+		final long startNanos = System.nanoTime();
+		this.loader.loadPage(afterId, this.pageSize).whenComplete( (page, failure) -> this.resultExecutor.execute( () -> {
+			this.loading = false;
+			if(null != failure) {
+				this.onFailure.accept( (failure instanceof CompletionException && null != failure.getCause()) ? failure.getCause() : failure );
+				return;
+			}
+			if(page.size() < this.pageSize) {
+				this.exhausted = true;
+			}
+			if(!page.isEmpty()) {
+				this.lastLoadedId = this.idOfEntry.applyAsLong( page.get(page.size() - 1) );
+				this.loadedPageCount.incrementAndGet();
+				this.loadedEntryCount.addAndGet( page.size() );
+			}
+			logger.log(Level.FINE, "Pager \""+this.name+"\" loaded "+page.size()+" entries after ID "+afterId+" in "+(System.nanoTime() - startNanos) / 1_000+" microseconds.");
+			this.onPage.accept(page);
+		}));
+	}
+	
+	/**
+	 * @return    true if the last page was loaded
+	 */
+	public boolean isExhausted() {
+		return this.exhausted;
+	}
+	
+	/**
+	 * @return    number of pages loaded so far
+	 */
+	public long getLoadedPageCount() {
+		return this.loadedPageCount.get();
+	}
+	
+	/**
+	 * @return    number of entries loaded so far
+	 */
+	public long getLoadedEntryCount() {
+		return this.loadedEntryCount.get();
+	}
+}
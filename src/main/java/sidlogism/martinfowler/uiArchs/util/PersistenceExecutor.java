@@ -0,0 +1,240 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide executor for persistence operations, so that database work never blocks the UI thread.
+ * 
+ * Each operation runs on its own virtual thread. A fair semaphore limits the number of concurrently running operations to the configured maximum size of the connection pool,
+ * because each running operation holds one connection. Further operations wait for a permit instead of waiting inside the connection pool, where they would run into its connection timeout.
+ * Independent operations (e. g. a station lookup, a reading lookup and a prefetch) run concurrently. There is no need to serialize them by synchronized methods.
+ * 
+ * Results are delivered as {@link CompletableFuture}s. Callers hand results to the UI thread themselves (e. g. via Platform.runLater or {@link SupersedingRequests}).
+ * The number of waiting operations and their waiting time are tracked for monitoring the DB concurrency limit.
+ * 
+ * The bound only holds if every connection is taken under a permit. Background threads which are not part of the executor (change-feed polling, write-behind flushes, directory refreshes) therefore run their database work via {@link #callWithPermit(Callable)}.
+ * An operation must use at most one connection at a time. Permits are not reentrant: an operation must neither submit and await another operation nor call {@link #callWithPermit(Callable)}, which could wait forever for a permit held by itself.
+ * 
+ * @see ConnectionPoolTools#getConfiguredMaximumPoolSize()
+ */
+public class PersistenceExecutor {
+	private static final Logger logger = Logger.getLogger(PersistenceExecutor.class.getName());
+	/**
+	 * Maximum time for finishing running operations on shutdown.
+	 */
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+	// guarded by PersistenceExecutor.class
+	private static PersistenceExecutor instance = null;
+	
+	private final ExecutorService executor;
+	private final int maxConcurrentOperations;
+	private final Semaphore connectionPermits;
+	// metrics
+	private final AtomicInteger waitingOperationCount = new AtomicInteger();
+	private final AtomicInteger runningOperationCount = new AtomicInteger();
+	private final AtomicLong completedOperationCount = new AtomicLong();
+	private final AtomicLong skippedOperationCount = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	
+	/**
+	 * Package-private for tests. Use {@link #getInstance()} otherwise.
+	 * 
+	 * @param maxConcurrentOperations    maximum number of operations running at the same time
+	 */
+	PersistenceExecutor(final int maxConcurrentOperations) {
+		this.maxConcurrentOperations = maxConcurrentOperations;
+		this.connectionPermits = new Semaphore(maxConcurrentOperations, true);
+		// virtual threads never keep the JVM alive
+		this.executor = Executors.newThreadPerTaskExecutor( Thread.ofVirtual().name("persistence-", 1).factory() );
+		logger.log(Level.INFO, "Started persistence executor with at most "+maxConcurrentOperations+" concurrent operations.");
+	}
+	
+	/**
+	 * Provides the process-wide executor. Creates it on first call and after {@link #shutdown()}.
+	 * 
+	 * @return    process-wide persistence executor
+	 */
+	public static synchronized PersistenceExecutor getInstance() {
+		if(null == instance) {
+			instance = new PersistenceExecutor( ConnectionPoolTools.getConfiguredMaximumPoolSize() );
+		}
+		return instance;
+	}
+	
+	/**
+	 * Runs the given persistence operation in the background as soon as a connection permit is available.
+	 * 
+	 * @param operation    persistence operation. Checked exceptions are passed to the returned future.
+	 * @return    future completed with the result of the operation or exceptionally with its exception. Cancel it to skip an operation which has not started yet.
+	 */
+	public <T> CompletableFuture<T> submit(final Callable<T> operation) {
+		/*
+		 * IMPORTANT: Cancelling the returned future before the operation holds a connection permit prevents the operation from running.
+		 * Every operation gets its virtual thread immediately and then waits for a permit. Hence the future is checked before and after waiting, so that a superseded operation neither takes a permit nor touches the database.
+		 * A running operation is not interrupted, because interrupting JDBC calls may break the connection.
+		 */
+		final CompletableFuture<T> result = new CompletableFuture<T>();
+		this.executor.execute( () -> {
+			if( result.isDone() ) {
+				this.skippedOperationCount.incrementAndGet();
+				return;
+			}
+			acquirePermit();
+			try {
+				if( result.isDone() ) {
+					// cancelled while waiting for the permit
+					this.skippedOperationCount.incrementAndGet();
+					return;
+				}
+				try {
+					result.complete( operation.call() );
+				}catch(Throwable e) {
+					result.completeExceptionally( new CompletionException(e) );
+				}
+				this.completedOperationCount.incrementAndGet();
+			}finally {
+				this.runningOperationCount.decrementAndGet();
+				this.connectionPermits.release();
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * Runs the given persistence operation in the calling thread as soon as a connection permit is available, e. g. in a background thread which is not part of the executor.
+	 * Unlike {@link #submit(Callable)}, the operation can't be cancelled. Must not be called by an operation of this executor (see class comment).
+	 * 
+	 * @param operation    persistence operation
+	 * @return    result of the operation
+	 * @throws Exception    exception thrown by the operation
+	 */
+	public <T> T callWithPermit(final Callable<T> operation) throws Exception {
+		acquirePermit();
+		try {
+			return operation.call();
+		}finally {
+			this.completedOperationCount.incrementAndGet();
+			this.runningOperationCount.decrementAndGet();
+			this.connectionPermits.release();
+		}
+	}
+	
+	/**
+	 * Blocks the current thread until a connection permit is available and records the waiting time.
+	 */
+	private void acquirePermit() {
+		final long startNanos = System.nanoTime();
+		this.waitingOperationCount.incrementAndGet();
+		try {
+			this.connectionPermits.acquireUninterruptibly();
+		}finally {
+			this.waitingOperationCount.decrementAndGet();
+		}
+		this.runningOperationCount.incrementAndGet();
+		final long waitNanos = System.nanoTime() - startNanos;
+		this.totalWaitNanos.addAndGet(waitNanos);
+		this.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+		if( logger.isLoggable(Level.FINE) && waitNanos >= TimeUnit.MILLISECONDS.toNanos(1) ) {
+			logger.log(Level.FINE, "Persistence operation waited "+TimeUnit.NANOSECONDS.toMicros(waitNanos)+" microseconds for a connection permit.");
+		}
+	}
+	
+	/**
+	 * @return    maximum number of operations running at the same time
+	 */
+	public int getMaxConcurrentOperations() {
+		return this.maxConcurrentOperations;
+	}
+	
+	/**
+	 * @return    number of operations currently waiting for a connection permit (queue depth)
+	 */
+	public int getWaitingOperationCount() {
+		return this.waitingOperationCount.get();
+	}
+	
+	/**
+	 * @return    number of operations currently running
+	 */
+	public int getRunningOperationCount() {
+		return this.runningOperationCount.get();
+	}
+	
+	/**
+	 * @return    number of finished operations, successful or not
+	 */
+	public long getCompletedOperationCount() {
+		return this.completedOperationCount.get();
+	}
+	
+	/**
+	 * @return    number of operations which were cancelled before they ran, e. g. superseded lookups
+	 */
+	public long getSkippedOperationCount() {
+		return this.skippedOperationCount.get();
+	}
+	
+	/**
+	 * @return    average time in microseconds the finished operations waited for a connection permit. 0 if no operation finished yet.
+	 */
+	public long getAverageWaitMicros() {
+		final long completed = this.completedOperationCount.get();
+		return completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros( this.totalWaitNanos.get() / completed );
+	}
+	
+	/**
+	 * @return    longest time in microseconds an operation waited for a connection permit
+	 */
+	public long getMaxWaitMicros() {
+		return TimeUnit.NANOSECONDS.toMicros( this.maxWaitNanos.get() );
+	}
+	
+	/**
+	 * Stops accepting operations and waits for running operations to finish.
+	 * To be called on application exit before releasing persistence resources.
+	 */
+	public static void shutdown() {
+		final PersistenceExecutor current;
+		synchronized(PersistenceExecutor.class) {
+			current = instance;
+			instance = null;
+		}
+		if(null == current) return;
+		current.executor.shutdown();
+		try {
+			if( !current.executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS) ) {
+				logger.log(Level.WARNING, "Persistence executor didn't finish running operations within "+SHUTDOWN_TIMEOUT_SECONDS+" seconds.");
+			}
+		}catch(InterruptedException e) {
+			logger.log(Level.WARNING, "Interrupted while waiting for persistence executor to finish running operations.", e);
+			Thread.currentThread().interrupt();
+		}
+		logger.log(Level.INFO, "Persistence executor shut down. Completed operations: "+current.getCompletedOperationCount()+", skipped operations: "+current.getSkippedOperationCount()+", average wait: "+current.getAverageWaitMicros()+" microseconds, maximum wait: "+current.getMaxWaitMicros()+" microseconds.");
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prefix index over a set of strings, e. g. the loaded external IDs of monitoring stations, for type-ahead search.
+ * 
+ * The strings are kept in one sorted array. All strings starting with a given prefix form a contiguous range of this array, which is located by two binary searches.
+ * Thus a lookup takes O(log n) comparisons and returns a view of the range without copying, so lookups stay cheap even for many strings.
+ * 
+ * New strings are merged into the sorted array in O(n + m). Lookups are not blocked by updates: they work on the array which was current at their start.
+ */
+public class PrefixIndex {
+	private static final String[] EMPTY = new String[0];
+	
+	/**
+	 * Sorted strings without duplicates. Never modified once published, updates replace the whole array.
+	 */
+	private volatile String[] sortedKeys = EMPTY;
+	
+	/**
+	 * Creates an empty index.
+	 */
+	public PrefixIndex() {
+	}
+	
+	/**
+	 * Creates an index of the given strings.
+	 * 
+	 * @param keys    strings to be indexed. null elements are ignored.
+	 */
+	public PrefixIndex(final Collection<String> keys) {
+		replaceAll(keys);
+	}
+	
+	/**
+	 * Adds the given strings to the index. Strings which are already indexed are ignored.
+	 * 
+	 * @param newKeys    strings to be added. null elements are ignored.
+	 */
+	public synchronized void addAll(final Collection<String> newKeys) {
+		final String[] additions = sortedWithoutDuplicates(newKeys);
+		if(0 == additions.length) return;
+		final String[] current = this.sortedKeys;
+		// merge both sorted arrays
+		final String[] merged = new String[current.length + additions.length];
+		int i = 0, j = 0, size = 0;
+		while(i < current.length && j < additions.length) {
+			final int comparison = current[i].compareTo(additions[j]);
+			if(comparison < 0) {
+				merged[size++] = current[i++];
+			}else if(comparison > 0) {
+				merged[size++] = additions[j++];
+			}else {
+				merged[size++] = current[i++];
+				j++;
+			}
+		}
+		while(i < current.length) merged[size++] = current[i++];
+		while(j < additions.length) merged[size++] = additions[j++];
+		this.sortedKeys = size == merged.length ? merged : Arrays.copyOf(merged, size);
+	}
+	
+	/**
+	 * Replaces all indexed strings by the given ones.
+	 * 
+	 * @param keys    strings to be indexed. null elements are ignored.
+	 */
+	public synchronized void replaceAll(final Collection<String> keys) {
+		this.sortedKeys = sortedWithoutDuplicates(keys);
+	}
+	
+	/**
+	 * Looks up all indexed strings starting with the given prefix.
+	 * 
+	 * @param prefix    prefix, e. g. the partial ID typed by the user. null or empty string matches all indexed strings.
+	 * @return    unmodifiable view of the matching strings in ascending order. Not affected by later updates of the index.
+	 */
+	public List<String> findByPrefix(final String prefix) {
+		final String[] keys = this.sortedKeys;
+		if(null == prefix || prefix.isEmpty()) return Collections.unmodifiableList( Arrays.asList(keys) );
+		final int from = firstIndexNotBefore(keys, prefix);
+		final int to = firstIndexWithoutPrefix(keys, prefix, from);
+		return Collections.unmodifiableList( Arrays.asList(keys).subList(from, to) );
+	}
+	
+	/**
+	 * @param prefix    prefix. null or empty string matches all indexed strings.
+	 * @return    number of indexed strings starting with the given prefix
+	 */
+	public int countByPrefix(final String prefix) {
+		final String[] keys = this.sortedKeys;
+		if(null == prefix || prefix.isEmpty()) return keys.length;
+		final int from = firstIndexNotBefore(keys, prefix);
+		return firstIndexWithoutPrefix(keys, prefix, from) - from;
+	}
+	
+	/**
+	 * @param key    string. null is never indexed.
+	 * @return    true if the given string is indexed
+	 */
+	public boolean contains(final String key) {
+		if(null == key) return false;
+		final String[] keys = this.sortedKeys;
+		final int index = firstIndexNotBefore(keys, key);
+		return index < keys.length && keys[index].equals(key);
+	}
+	
+	/**
+	 * @return    number of indexed strings
+	 */
+	public int size() {
+		return this.sortedKeys.length;
+	}
+	
+	/**
+	 * @return    index of the first string which is not less than the given prefix. Length of the array if there is none.
+	 */
+	private static int firstIndexNotBefore(final String[] keys, final String prefix) {
+		int low = 0, high = keys.length;
+		while(low < high) {
+			final int middle = (low + high) >>> 1;
+			if(keys[middle].compareTo(prefix) < 0) {
+				low = middle + 1;
+			}else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+	
+	/**
+	 * Strings starting with the prefix directly follow the first string which is not less than the prefix. Thus "has prefix" is monotone on the remaining range.
+	 * 
+	 * @return    index of the first string after the given start index which doesn't start with the given prefix. Length of the array if there is none.
+	 */
+	private static int firstIndexWithoutPrefix(final String[] keys, final String prefix, final int start) {
+		int low = start, high = keys.length;
+		while(low < high) {
+			final int middle = (low + high) >>> 1;
+			if(keys[middle].startsWith(prefix)) {
+				low = middle + 1;
+			}else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+	
+	private static String[] sortedWithoutDuplicates(final Collection<String> keys) {
+		if(null == keys || keys.isEmpty()) return EMPTY;
+		return keys.stream().filter( key -> null != key ).sorted().distinct().toArray(String[]::new);
+	}
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+/**
+ * Reading history of one monitoring station as input of {@link WindowedAggregator}.
+ * 
+ * @param stationId    ID of the monitoring station
+ * @param targetConcentration    target concentration of the monitoring station. Readings are compared against it.
+ * @param readings    readings of the monitoring station, e. g. loaded by loadReadingHistory() of the reading models
+ */
+public record StationHistory(long stationId, int targetConcentration, ConcentrationTimeSeries readings) {
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivers only the result of the latest of several asynchronous requests of one view, e. g. lookups triggered by consecutive keystrokes.
+ * 
+ * Submitting a request supersedes the request still in flight: the older future is cancelled (so a queued operation doesn't run at all) and its result is dropped.
+ * Cancellation only reaches the operation if the submitted future is the one returned by the executor of the operation (e. g. {@link PersistenceExecutor#submit}), not a dependent stage of it.
+ * Checks and conversions of the result thus belong into the mapping of {@link #submit(CompletableFuture, Function, Consumer, Consumer)} instead of a {@link CompletableFuture#thenApply} stage.
+ * Results and failures are handed to the callbacks in the result executor, e. g. Platform::runLater for the JavaFX application thread.
+ * 
+ * @note    Requests and callbacks of one instance must be submitted from one thread (usually the UI thread).
+ */
+public class SupersedingRequests {
+	private static final Logger logger = Logger.getLogger(SupersedingRequests.class.getName());
+	
+	private final String name;
+	private final Executor resultExecutor;
+	// sequence number of the latest request. Only the result of this request is delivered.
+	private final AtomicLong latestRequestNumber = new AtomicLong();
+	private final AtomicLong supersededRequestCount = new AtomicLong();
+	private volatile CompletableFuture<?> requestInFlight = null;
+	
+	/**
+	 * @param name    name used in log messages
+	 * @param resultExecutor    executor running the callbacks, e. g. Platform::runLater
+	 */
+	public SupersedingRequests(final String name, final Executor resultExecutor) {
+		this.name = name;
+		this.resultExecutor = resultExecutor;
+	}
+	
+	/**
+	 * Supersedes the request in flight, if any, by the given one.
+	 * 
+	 * @param request    started asynchronous request
+	 * @param onResult    receives the result if the request is still the latest one on completion
+	 * @param onFailure    receives the cause of failure if the request is still the latest one on completion
+	 */
+	public <T> void submit(final CompletableFuture<T> request, final Consumer<? super T> onResult, final Consumer<Throwable> onFailure) {
+		submit(request, Function.<T>identity(), onResult, onFailure);
+	}
+	
+	/**
+	 * Supersedes the request in flight, if any, by the given one. The result is checked or converted by the given mapping before it is delivered.
+	 * 
+	 * @param request    started asynchronous request as returned by its executor. Cancelled if superseded.
+	 * @param mapping    applied to the result in the result executor if the request is still the latest one on completion. Runtime exceptions are handed to onFailure.
+	 * @param onResult    receives the mapped result
+	 * @param onFailure    receives the cause of failure of the request or of the mapping
+	 */
+	public <S, T> void submit(final CompletableFuture<S> request, final Function<? super S, ? extends T> mapping, final Consumer<? super T> onResult, final Consumer<Throwable> onFailure) {
+		final long requestNumber = this.latestRequestNumber.incrementAndGet();
+		final CompletableFuture<?> supersededRequest = this.requestInFlight;
+		if(null != supersededRequest && supersededRequest.cancel(false)) {
+			this.supersededRequestCount.incrementAndGet();
+		}
+		this.requestInFlight = request;
+		
+		request.whenComplete( (result, failure) -> {
+			if(request.isCancelled()) return;
+			this.resultExecutor.execute( () -> {
+				if(requestNumber != this.latestRequestNumber.get()) {
+					// completed before it could be cancelled, but a newer request exists
+					this.supersededRequestCount.incrementAndGet();
+					logger.log(Level.FINE, "Dropped result of superseded request "+requestNumber+" of \""+this.name+"\".");
+					return;
+				}
+				this.requestInFlight = null;
+				if(null != failure) {
+					onFailure.accept( unwrap(failure) );
+					return;
+				}
+				final T mappedResult;
+				try {
+					mappedResult = mapping.apply(result);
+				}catch(RuntimeException e) {
+					onFailure.accept( unwrap(e) );
+					return;
+				}
+				onResult.accept(mappedResult);
+			});
+		});
+	}
+	
+	/**
+	 * @return    cause of the given failure if it only wraps the cause, otherwise the failure itself
+	 */
+	private static Throwable unwrap(final Throwable failure) {
+		return (failure instanceof CompletionException && null != failure.getCause()) ? failure.getCause() : failure;
+	}
+	
+	/**
+	 * @return    number of requests which were superseded before their result was delivered
+	 */
+	public long getSupersededRequestCount() {
+		return this.supersededRequestCount.get();
+	}
+}
@@ -16,6 +16,7 @@
 package sidlogism.martinfowler.uiArchs.util;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
@@ -55,4 +56,27 @@ public class TimeTools {
 		}
 		return result;
 	}
+	
+	/**
+	 * Converts a reading timestamp into a primitive value, e. g. for columnar storage in {@link ConcentrationTimeSeries}.
+	 * The local date and time is interpreted as UTC, so the conversion is independent of the time zone of the JVM and has no gaps or overlaps due to daylight saving time.
+	 * Sub-millisecond parts are truncated, i. e. only timestamps with at most millisecond precision survive the round trip through {@link #fromEpochMillis(long)} unchanged.
+	 * 
+	 * @param readingTimestamp    local date and time of a reading
+	 * @return milliseconds since 1970-01-01T00:00, rounded down
+	 * @see #fromEpochMillis(long)
+	 */
+	public final static long toEpochMillis(final LocalDateTime readingTimestamp) {
+		return readingTimestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+	}
+	
+	/**
+	 * Inverse of {@link #toEpochMillis(LocalDateTime)}.
+	 * 
+	 * @param epochMillis    milliseconds since 1970-01-01T00:00
+	 * @return local date and time of a reading
+	 */
+	public final static LocalDateTime fromEpochMillis(final long epochMillis) {
+		return LocalDateTime.ofEpochSecond( Math.floorDiv(epochMillis, 1000L), (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, ZoneOffset.UTC );
+	}
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects UI updates and applies them together in one task of the UI executor, e. g. Platform::runLater, so that a burst of changes is rendered in one pulse instead of several.
+ * 
+ * Updates are keyed, e. g. by the view applying them. An update replaces a pending update with the same key, so each view applies only its latest intended state.
+ * Updates of one batch are applied in the order of their first scheduling.
+ * 
+ * @note    A view scheduling an update usually keeps the intended values itself and applies all of them in its update. Its getters should return the intended values until then.
+ */
+public class UpdateBatcher {
+	private static final Logger logger = Logger.getLogger(UpdateBatcher.class.getName());
+	
+	private final String name;
+	private final Executor uiExecutor;
+	// statistics
+	private final AtomicLong scheduledUpdateCount = new AtomicLong();
+	private final AtomicLong appliedUpdateCount = new AtomicLong();
+	private final AtomicLong appliedBatchCount = new AtomicLong();
+	
+	// guarded by pendingUpdates
+	private final Map<Object, Runnable> pendingUpdates = new LinkedHashMap<Object, Runnable>();
+	private boolean batchScheduled = false;
+	
+	/**
+	 * @param name    name used in log messages
+	 * @param uiExecutor    executor applying the updates, e. g. Platform::runLater
+	 */
+	public UpdateBatcher(final String name, final Executor uiExecutor) {
+		this.name = name;
+		this.uiExecutor = uiExecutor;
+	}
+	
+	/**
+	 * Schedules an update for the next batch. Returns immediately.
+	 * 
+	 * @param key    identifies the update, e. g. the view applying it. A pending update with an equal key is replaced.
+	 * @param update    applies the intended state to the UI
+	 */
+	public void schedule(final Object key, final Runnable update) {
+		this.scheduledUpdateCount.incrementAndGet();
+		synchronized(this.pendingUpdates) {
+			this.pendingUpdates.put(key, update);
+			if(this.batchScheduled) return;
+			this.batchScheduled = true;
+		}
+		this.uiExecutor.execute(this::applyBatch);
+	}
+	
+	/**
+	 * Applies all pending updates. Runs in the UI executor.
+	 */
+	private void applyBatch() {
+		final List<Runnable> batch;
+		synchronized(this.pendingUpdates) {
+			batch = new ArrayList<Runnable>( this.pendingUpdates.values() );
+			this.pendingUpdates.clear();
+			this.batchScheduled = false;
+		}
+		for(final Runnable update : batch) {
+			try {
+				update.run();
+			}catch(RuntimeException e) {
+				// one failing update must not prevent the others
+				logger.log(Level.WARNING, "Update of \""+this.name+"\" failed.", e);
+			}
+		}
+		this.appliedUpdateCount.addAndGet(batch.size());
+		this.appliedBatchCount.incrementAndGet();
+		logger.log(Level.FINEST, "Applied batch of "+batch.size()+" updates of \""+this.name+"\".");
+	}
+	
+	/**
+	 * @return    number of scheduled updates
+	 */
+	public long getScheduledUpdateCount() {
+		return this.scheduledUpdateCount.get();
+	}
+	
+	/**
+	 * @return    number of applied updates. Scheduled updates which were replaced by later ones with the same key aren't applied.
+	 */
+	public long getAppliedUpdateCount() {
+		return this.appliedUpdateCount.get();
+	}
+	
+	/**
+	 * @return    number of batches, i. e. tasks of the UI executor
+	 */
+	public long getAppliedBatchCount() {
+		return this.appliedBatchCount.get();
+	}
+}
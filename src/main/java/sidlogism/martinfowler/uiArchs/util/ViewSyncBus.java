@@ -0,0 +1,118 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps several views showing the same value in sync, e. g. the selection of the station list and the station external ID of the reading view, and drops echoes.
+ * 
+ * Each view publishes the changes made by its user, tagged with its origin. A change of the synchronized value is accepted and handed to the handler exactly once, e. g. to look up the new monitoring station.
+ * The handler then updates the other views programmatically. Their resulting change events report the synchronized value again and are dropped as echoes.
+ * Thus each user action causes exactly one call of the handler, which is proven by the counters of accepted changes and dropped echoes.
+ * 
+ * @note    Changes must be published in one thread (usually the UI thread).
+ * @param <T>    type of the synchronized value
+ */
+public class ViewSyncBus<T> {
+	private static final Logger logger = Logger.getLogger(ViewSyncBus.class.getName());
+	
+	private final String name;
+	private final Consumer<T> handler;
+	// statistics
+	private final AtomicLong publishedChangeCount = new AtomicLong();
+	private final AtomicLong acceptedChangeCount = new AtomicLong();
+	private final AtomicLong droppedEchoCount = new AtomicLong();
+	
+	// value shown by all views and the origin of its last accepted change. null if unknown.
+	private T synchronizedValue = null;
+	private String synchronizedOrigin = null;
+	
+	/**
+	 * @param name    name used in log messages
+	 * @param handler    handles each accepted change, e. g. by looking up and displaying the new monitoring station
+	 */
+	public ViewSyncBus(final String name, final Consumer<T> handler) {
+		this.name = name;
+		this.handler = handler;
+	}
+	
+	/**
+	 * Hands the given change to the handler unless it is an echo of the synchronized value.
+	 * 
+	 * @param origin    view reporting the change, e. g. "station-list"
+	 * @param value    new value. null is ignored.
+	 * @return    true if the change was accepted and handled
+	 */
+	public boolean publish(final String origin, final T value) {
+		if(null == value) return false;
+		if( isEcho(origin, value) ) return false;
+		this.synchronizedValue = value;
+		this.synchronizedOrigin = origin;
+		this.acceptedChangeCount.incrementAndGet();
+		logger.log(Level.FINE, "Accepted change of \""+this.name+"\" to \""+value+"\" from "+origin+".");
+		this.handler.accept(value);
+		return true;
+	}
+	
+	/**
+	 * Checks whether the given change only reports the synchronized value again, e. g. as the result of a programmatic update of a view. Echoes are counted as dropped.
+	 * Use this for changes of views which aren't handed to the handler directly, e. g. text typed ahead before a selection.
+	 * 
+	 * @param origin    view reporting the change
+	 * @param value    reported value
+	 * @return    true if the change is an echo and must be dropped
+	 */
+	public boolean isEcho(final String origin, final T value) {
+		this.publishedChangeCount.incrementAndGet();
+		if( null == this.synchronizedValue || !this.synchronizedValue.equals(value) ) return false;
+		this.droppedEchoCount.incrementAndGet();
+		logger.log(Level.FINE, "Dropped echo \""+value+"\" of \""+this.name+"\" reported by "+origin+". The value was changed by "+this.synchronizedOrigin+".");
+		return true;
+	}
+	
+	/**
+	 * Forgets the synchronized value, e. g. after its handling failed, so that the user can repeat the same change.
+	 */
+	public void reset() {
+		this.synchronizedValue = null;
+		this.synchronizedOrigin = null;
+	}
+	
+	/**
+	 * @return    number of published changes including echoes
+	 */
+	public long getPublishedChangeCount() {
+		return this.publishedChangeCount.get();
+	}
+	
+	/**
+	 * @return    number of changes handed to the handler
+	 */
+	public long getAcceptedChangeCount() {
+		return this.acceptedChangeCount.get();
+	}
+	
+	/**
+	 * @return    number of dropped echoes
+	 */
+	public long getDroppedEchoCount() {
+		return this.droppedEchoCount.get();
+	}
+}
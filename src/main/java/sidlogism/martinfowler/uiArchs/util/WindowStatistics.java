@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.time.LocalDateTime;
+
+/**
+ * Statistics of the readings of one monitoring station within one time window, computed by {@link WindowedAggregator}.
+ * 
+ * @param stationId    ID of the monitoring station
+ * @param windowStart    start of the time window
+ * @param window    length of the time window
+ * @param targetConcentration    target concentration of the monitoring station
+ * @param readingCount    number of readings within the time window. Never 0.
+ * @param minConcentration    lowest actual concentration
+ * @param maxConcentration    highest actual concentration
+ * @param meanConcentration    arithmetic mean of the actual concentrations
+ * @param standardDeviation    population standard deviation of the actual concentrations
+ * @param percentOverTarget    percentage of readings whose actual concentration exceeds the target concentration
+ * @param percentUnderTarget    percentage of readings whose actual concentration falls below the target concentration
+ */
+public record WindowStatistics(long stationId, LocalDateTime windowStart, AggregationWindow window, int targetConcentration, int readingCount,
+		int minConcentration, int maxConcentration, double meanConcentration, double standardDeviation, double percentOverTarget, double percentUnderTarget) {
+	/**
+	 * @return mean variance of the actual concentrations, i. e. actual minus target concentration like the variance shown per reading
+	 */
+	public double meanVariance() {
+		return this.meanConcentration - this.targetConcentration;
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregates the reading history of monitoring stations per time window: minimum, maximum, mean, standard deviation and percentages of readings over and under target.
+ * 
+ * Works directly on the primitive columns of {@link ConcentrationTimeSeries}. The boundaries of each window are located by binary search.
+ * The readings of a window are aggregated in one tight loop over a short array without branches depending on the data, which the JIT compiles into vectorized code.
+ * Several monitoring stations are aggregated in parallel by fork-join.
+ */
+public class WindowedAggregator {
+	/**
+	 * Number of readings below which the histories of several monitoring stations are aggregated sequentially instead of being split into parallel subtasks.
+	 */
+	private static final long SEQUENTIAL_THRESHOLD_READINGS = 50_000;
+	
+	/*
+	 * No ctor needed. Class has only a static utility interface.
+	 */
+	private WindowedAggregator(){}
+	
+	/**
+	 * Aggregates the readings of one monitoring station within the given time range per time window.
+	 * Windows at the bounds of the time range only contain the readings within the time range.
+	 * 
+	 * @param history    reading history of the monitoring station
+	 * @param window    length of the time windows
+	 * @param fromMillis    inclusive lower bound of the reading timestamps
+	 * @param toMillis    exclusive upper bound of the reading timestamps
+	 * @return statistics of each time window containing readings, ascending by window start
+	 */
+	public static List<WindowStatistics> aggregate(final StationHistory history, final AggregationWindow window, final long fromMillis, final long toMillis) {
+		final List<WindowStatistics> result = new ArrayList<WindowStatistics>();
+		final ConcentrationTimeSeries series = history.readings();
+		// read size first: columns read afterwards hold at least this number of readings
+		final int size = series.size();
+		final long[] timestamps = series.timestampColumn();
+		final short[] concentrations = series.concentrationColumn();
+		
+		int windowFrom = ConcentrationTimeSeries.lowerBound(timestamps, size, fromMillis);
+		final int rangeTo = ConcentrationTimeSeries.lowerBound(timestamps, size, toMillis);
+		while(windowFrom < rangeTo) {
+			final long windowStartMillis = window.windowStartMillis( timestamps[windowFrom] );
+			final int windowTo = Math.min( rangeTo, ConcentrationTimeSeries.lowerBound(timestamps, size, window.nextWindowStartMillis(windowStartMillis)) );
+			result.add( aggregateWindow(history, window, windowStartMillis, concentrations, windowFrom, windowTo) );
+			windowFrom = windowTo;
+		}
+		return result;
+	}
+	
+	/**
+	 * Aggregates the readings of one monitoring station within the given time range per time window.
+	 * 
+	 * @param history    reading history of the monitoring station
+	 * @param window    length of the time windows
+	 * @param from    inclusive lower bound of the reading timestamps. null for no lower bound.
+	 * @param to    exclusive upper bound of the reading timestamps. null for no upper bound.
+	 * @return statistics of each time window containing readings, ascending by window start
+	 */
+	public static List<WindowStatistics> aggregate(final StationHistory history, final AggregationWindow window, final LocalDateTime from, final LocalDateTime to) {
+		return aggregate( history, window, toMillis(from, Long.MIN_VALUE), toMillis(to, Long.MAX_VALUE) );
+	}
+	
+	/**
+	 * Aggregates the readings of several monitoring stations within the given time range per time window. The monitoring stations are aggregated in parallel in the common fork-join pool.
+	 * 
+	 * @note    Blocks until all monitoring stations are aggregated. Don't call on the JavaFX application thread.
+	 * 
+	 * @param histories    reading histories of the monitoring stations
+	 * @param window    length of the time windows
+	 * @param from    inclusive lower bound of the reading timestamps. null for no lower bound.
+	 * @param to    exclusive upper bound of the reading timestamps. null for no upper bound.
+	 * @return statistics of each time window containing readings, ascending by window start, by station ID
+	 */
+	public static Map<Long, List<WindowStatistics>> aggregateAll(final Collection<StationHistory> histories, final AggregationWindow window, final LocalDateTime from, final LocalDateTime to) {
+		return aggregateAll( histories, window, toMillis(from, Long.MIN_VALUE), toMillis(to, Long.MAX_VALUE), ForkJoinPool.commonPool() );
+	}
+	
+	/**
+	 * Aggregates the readings of several monitoring stations within the given time range per time window. The monitoring stations are aggregated in parallel in the given fork-join pool.
+	 * 
+	 * @note    Blocks until all monitoring stations are aggregated. Don't call on the JavaFX application thread.
+	 * 
+	 * @param histories    reading histories of the monitoring stations
+	 * @param window    length of the time windows
+	 * @param fromMillis    inclusive lower bound of the reading timestamps
+	 * @param toMillis    exclusive upper bound of the reading timestamps
+	 * @param pool    fork-join pool executing the aggregation
+	 * @return statistics of each time window containing readings, ascending by window start, by station ID
+	 */
+	public static Map<Long, List<WindowStatistics>> aggregateAll(final Collection<StationHistory> histories, final AggregationWindow window, final long fromMillis, final long toMillis, final ForkJoinPool pool) {
+		final List<StationHistory> historyList = new ArrayList<StationHistory>(histories);
+		return pool.invoke( new AggregationTask(historyList, 0, historyList.size(), window, fromMillis, toMillis) );
+	}
+	
+	/**
+	 * Aggregates one time window in one pass over the concentration column.
+	 */
+	private static WindowStatistics aggregateWindow(final StationHistory history, final AggregationWindow window, final long windowStartMillis, final short[] concentrations, final int from, final int to) {
+		final int target = history.targetConcentration();
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		long sum = 0;
+		long sumOfSquares = 0;
+		int overTarget = 0;
+		int underTarget = 0;
+		for(int i = from; i < to; i++) {
+			final int concentration = concentrations[i];
+			min = Math.min(min, concentration);
+			max = Math.max(max, concentration);
+			sum += concentration;
+			sumOfSquares += (long) concentration * concentration;
+			overTarget += concentration > target ? 1 : 0;
+			underTarget += concentration < target ? 1 : 0;
+		}
+		final int count = to - from;
+		final double mean = (double) sum / count;
+		// sums are exact, so the variance suffers from cancellation only in the final division
+		final double variance = Math.max(0.0, ((double) sumOfSquares - (double) sum * mean) / count);
+		return new WindowStatistics( history.stationId(), TimeTools.fromEpochMillis(windowStartMillis), window, target, count,
+				min, max, mean, Math.sqrt(variance), 100.0 * overTarget / count, 100.0 * underTarget / count );
+	}
+	
+	private static long toMillis(final LocalDateTime timestamp, final long defaultMillis) {
+		return null == timestamp ? defaultMillis : TimeTools.toEpochMillis(timestamp);
+	}
+	
+	/**
+	 * Splits the monitoring stations in halves until the number of readings is small enough for sequential aggregation.
+	 */
+	private static class AggregationTask extends RecursiveTask<Map<Long, List<WindowStatistics>>> {
+		private static final long serialVersionUID = 1L;
+		private final List<StationHistory> histories;
+		private final int from;
+		private final int to;
+		private final AggregationWindow window;
+		private final long fromMillis;
+		private final long toMillis;
+		
+		AggregationTask(final List<StationHistory> histories, final int from, final int to, final AggregationWindow window, final long fromMillis, final long toMillis) {
+			this.histories = histories;
+			this.from = from;
+			this.to = to;
+			this.window = window;
+			this.fromMillis = fromMillis;
+			this.toMillis = toMillis;
+		}
+		
+		@Override
+		protected Map<Long, List<WindowStatistics>> compute() {
+			long readings = 0;
+			for(int i = this.from; i < this.to; i++) {
+				readings += this.histories.get(i).readings().size();
+			}
+			if(this.to - this.from <= 1 || readings < SEQUENTIAL_THRESHOLD_READINGS) {
+				final Map<Long, List<WindowStatistics>> result = new HashMap<Long, List<WindowStatistics>>();
+				for(int i = this.from; i < this.to; i++) {
+					final StationHistory history = this.histories.get(i);
+					result.put( Long.valueOf(history.stationId()), aggregate(history, this.window, this.fromMillis, this.toMillis) );
+				}
+				return result;
+			}
+			final int middle = (this.from + this.to) >>> 1;
+			final AggregationTask second = new AggregationTask(this.histories, middle, this.to, this.window, this.fromMillis, this.toMillis);
+			second.fork();
+			final Map<Long, List<WindowStatistics>> result = new AggregationTask(this.histories, this.from, middle, this.window, this.fromMillis, this.toMillis).compute();
+			result.putAll( second.join() );
+			return result;
+		}
+	}
+}
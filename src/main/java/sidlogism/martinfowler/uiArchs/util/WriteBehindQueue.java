@@ -0,0 +1,270 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *	 http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Write-behind buffer for frequently edited values of single records, e. g. values typed into a text field.
+ * 
+ * Submitted values are coalesced per record ID, i. e. only the last value submitted for a record is written.
+ * Pending values are written by one background thread after a quiet period without new submissions or immediately via {@link #flushNow()} (e. g. on focus loss of the edited UI element).
+ * Each flush hands all pending values as one batch to the {@link IBatchWriter}. Since there is only one flush thread, the write order per record is preserved.
+ * The outcome of each write is reported to the {@link IFlushListener}.
+ * The writer runs under a permit of the {@link PersistenceExecutor}, so that flushes count against the bound of concurrent connections.
+ * 
+ * Relevant config entry: "writeBehind.quietPeriodMillis".
+ * 
+ * @param <V>    type of the buffered values
+ */
+public class WriteBehindQueue<V> {
+	private static final Logger logger = Logger.getLogger(WriteBehindQueue.class.getName());
+	/**
+	 * Default for config entry "writeBehind.quietPeriodMillis".
+	 */
+	public static final long DEFAULT_QUIET_PERIOD_MILLIS = 400;
+	/**
+	 * Maximum time for writing pending values on shutdown.
+	 */
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+	/**
+	 * All queues which are not shut down yet.
+	 * @see #shutdownAll()
+	 */
+	private static final Set<WriteBehindQueue<?>> activeQueues = ConcurrentHashMap.newKeySet();
+	
+	private final String name;
+	private final long quietPeriodMillis;
+	private final IBatchWriter<V> writer;
+	private final IFlushListener<V> listener;
+	private final ScheduledExecutorService flushExecutor;
+	// statistics: ratio of submitted and written values shows the effect of coalescing
+	private final AtomicLong submittedValueCount = new AtomicLong();
+	private final AtomicLong writtenValueCount = new AtomicLong();
+	
+	// guarded by this
+	private Map<Long, V> pendingValues = new LinkedHashMap<Long, V>();
+	private ScheduledFuture<?> scheduledFlush = null;
+	private boolean shutDown = false;
+	
+	/**
+	 * Creates a write-behind queue with the configured quiet period.
+	 * 
+	 * @param name    name of the queue used for the flush thread and in log messages
+	 * @param writer    writer of the coalesced values
+	 * @param listener    observer of the flush results
+	 * @see #getConfiguredQuietPeriodMillis()
+	 */
+	public WriteBehindQueue(final String name, final IBatchWriter<V> writer, final IFlushListener<V> listener) {
+		this(name, getConfiguredQuietPeriodMillis(), writer, listener);
+	}
+	
+	/**
+	 * Creates a write-behind queue.
+	 * 
+	 * @param name    name of the queue used for the flush thread and in log messages
+	 * @param quietPeriodMillis    time without new submissions after which pending values are written
+	 * @param writer    writer of the coalesced values
+	 * @param listener    observer of the flush results
+	 */
+	public WriteBehindQueue(final String name, final long quietPeriodMillis, final IBatchWriter<V> writer, final IFlushListener<V> listener) {
+		this.name = name;
+		this.quietPeriodMillis = quietPeriodMillis;
+		this.writer = writer;
+		this.listener = listener;
+		this.flushExecutor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+			final Thread thread = new Thread(runnable, "write-behind-"+name);
+			// don't keep the JVM alive because of this thread. Pending values are written by shutdown().
+			thread.setDaemon(true);
+			return thread;
+		});
+		activeQueues.add(this);
+	}
+	
+	/**
+	 * Reads the quiet period from the config file.
+	 * 
+	 * @return    value of config entry "writeBehind.quietPeriodMillis" or {@link #DEFAULT_QUIET_PERIOD_MILLIS} if the config entry is missing or the config file can't be read
+	 */
+	public static long getConfiguredQuietPeriodMillis() {
+		try {
+			ConfigParser.getInstance().parseConfig();
+			final JSONObject writeBehindConfig = ConfigParser.getInstance().getRootNode().optJSONObject("writeBehind");
+			if(null == writeBehindConfig) return DEFAULT_QUIET_PERIOD_MILLIS;
+			return writeBehindConfig.optLong("quietPeriodMillis", DEFAULT_QUIET_PERIOD_MILLIS);
+		}catch(IOException | JSONException | URISyntaxException | FileSystemAccessException e) {
+			logger.log(Level.WARNING, "Failed reading configuration. Using default quiet period of "+DEFAULT_QUIET_PERIOD_MILLIS+" ms for write-behind.", e);
+			return DEFAULT_QUIET_PERIOD_MILLIS;
+		}
+	}
+	
+	/**
+	 * Buffers the given value for the given record. Replaces any pending value of the same record.
+	 * The pending values are written after the quiet period, unless further values are submitted in the meantime.
+	 * 
+	 * @param recordId    ID of the record
+	 * @param value    new value of the record
+	 * @throws IllegalStateException    if the queue is already shut down
+	 */
+	public synchronized void submit(final long recordId, final V value) {
+		if(this.shutDown) {
+			throw new IllegalStateException("Write-behind queue \""+this.name+"\" is already shut down. Rejected value \""+value+"\" for record with ID "+recordId+".");
+		}
+		this.pendingValues.put(Long.valueOf(recordId), value);
+		this.submittedValueCount.incrementAndGet();
+		scheduleFlush(this.quietPeriodMillis);
+	}
+	
+	/**
+	 * Writes all pending values without waiting for the end of the quiet period.
+	 * Returns immediately. The values are written in the flush thread.
+	 */
+	public synchronized void flushNow() {
+		if(this.shutDown || this.pendingValues.isEmpty()) return;
+		scheduleFlush(0);
+	}
+	
+	/**
+	 * Replaces the currently scheduled flush, if any.
+	 * Must be called while holding the lock of this queue.
+	 * 
+	 * @param delayMillis    delay of the new flush
+	 */
+	private void scheduleFlush(final long delayMillis) {
+		if(null != this.scheduledFlush) {
+			this.scheduledFlush.cancel(false);
+		}
+		this.scheduledFlush = this.flushExecutor.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Hands all pending values as one batch to the writer and reports the results to the listener.
+	 * Runs in the flush thread only.
+	 */
+	private void flush() {
+		final Map<Long, V> batch;
+		synchronized(this) {
+			if(this.pendingValues.isEmpty()) return;
+			batch = this.pendingValues;
+			this.pendingValues = new LinkedHashMap<Long, V>();
+		}
+		
+		final long startNanos = System.nanoTime();
+		Map<Long, Exception> failures = null;
+		try {
+			failures = PersistenceExecutor.getInstance().callWithPermit( () -> this.writer.writeBatch( Collections.unmodifiableMap(batch) ) );
+		}catch(Exception e) {
+			logger.log(Level.WARNING, "Write-behind queue \""+this.name+"\" failed to write batch of "+batch.size()+" values.", e);
+			for(final Map.Entry<Long, V> entry : batch.entrySet()) {
+				reportFailure(entry.getKey().longValue(), entry.getValue(), e);
+			}
+			return;
+		}
+		logger.log(Level.FINE, "Write-behind queue \""+this.name+"\" wrote batch of "+batch.size()+" values in "+TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos)+" microseconds.");
+		
+		for(final Map.Entry<Long, V> entry : batch.entrySet()) {
+			final Exception failure = (null == failures) ? null : failures.get(entry.getKey());
+			if(null == failure) {
+				this.writtenValueCount.incrementAndGet();
+				try {
+					this.listener.flushSucceeded(entry.getKey().longValue(), entry.getValue());
+				}catch(RuntimeException e) {
+					logger.log(Level.WARNING, "Flush listener of write-behind queue \""+this.name+"\" failed.", e);
+				}
+			}else {
+				reportFailure(entry.getKey().longValue(), entry.getValue(), failure);
+			}
+		}
+	}
+	
+	/**
+	 * Reports a failed write to the listener.
+	 */
+	private void reportFailure(final long recordId, final V value, final Exception cause) {
+		try {
+			this.listener.flushFailed(recordId, value, cause);
+		}catch(RuntimeException e) {
+			logger.log(Level.WARNING, "Flush listener of write-behind queue \""+this.name+"\" failed.", e);
+		}
+	}
+	
+	/**
+	 * @return    number of values submitted so far
+	 */
+	public long getSubmittedValueCount() {
+		return this.submittedValueCount.get();
+	}
+	
+	/**
+	 * @return    number of values written successfully so far. Less than the number of submitted values because of coalescing.
+	 */
+	public long getWrittenValueCount() {
+		return this.writtenValueCount.get();
+	}
+	
+	/**
+	 * Writes all pending values and stops the flush thread. Blocks until the pending values are written.
+	 * Further submissions are rejected.
+	 */
+	public void shutdown() {
+		synchronized(this) {
+			if(this.shutDown) return;
+			this.shutDown = true;
+			if(null != this.scheduledFlush) {
+				this.scheduledFlush.cancel(false);
+			}
+		}
+		// final flush runs after any flush currently in progress
+		this.flushExecutor.execute(this::flush);
+		this.flushExecutor.shutdown();
+		try {
+			if( !this.flushExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS) ) {
+				logger.log(Level.WARNING, "Write-behind queue \""+this.name+"\" didn't finish writing pending values within "+SHUTDOWN_TIMEOUT_SECONDS+" seconds.");
+			}
+		}catch(InterruptedException e) {
+			logger.log(Level.WARNING, "Interrupted while waiting for write-behind queue \""+this.name+"\" to finish writing pending values.", e);
+			Thread.currentThread().interrupt();
+		}
+		activeQueues.remove(this);
+		logger.log(Level.INFO, "Write-behind queue \""+this.name+"\" shut down. Submitted values: "+getSubmittedValueCount()+", written values: "+getWrittenValueCount()+".");
+	}
+	
+	/**
+	 * Shuts down all write-behind queues which are not shut down yet.
+	 * To be called on application exit before releasing persistence resources.
+	 */
+	public static void shutdownAll() {
+		for(final WriteBehindQueue<?> queue : activeQueues) {
+			queue.shutdown();
+		}
+	}
+}
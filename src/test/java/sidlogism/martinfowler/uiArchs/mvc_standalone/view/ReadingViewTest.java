@@ -0,0 +1,80 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.mvc_standalone.view;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+
+import sidlogism.martinfowler.uiArchs.util.UpdateBatcher;
+
+/**
+ * Tests for the getters of {@link ReadingView} while overwritten values are pending in its {@link UpdateBatcher}.
+ * The batch isn't run: writing the text fields needs a running JavaFX toolkit. The getters don't touch the text fields while values are pending.
+ */
+public class ReadingViewTest {
+	/**
+	 * Executor queuing its tasks without running them.
+	 */
+	private static class ManualExecutor implements Executor {
+		private final Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+		
+		@Override
+		public void execute(final Runnable task) {
+			this.tasks.add(task);
+		}
+	}
+	
+	private final ManualExecutor executor = new ManualExecutor();
+	private final UpdateBatcher batcher = new UpdateBatcher("test", this.executor);
+	private final ReadingView view = new ReadingView(this.batcher);
+	
+	/**
+	 * Getters return the overwritten values before the batch writes them to the text fields.
+	 */
+	@Test
+	public void testGettersSeePendingValues() {
+		final LocalDateTime readingTimestamp = LocalDateTime.of(2021, 1, 1, 12, 0);
+		this.view.overwriteUIStationExternalId("IC002");
+		this.view.overwriteUITargetConcentration(30);
+		this.view.overwriteUIReadingTimestamp(readingTimestamp);
+		this.view.overwriteUIActualConcentration(42);
+		assertEquals( "IC002", this.view.getStationExternalId() );
+		assertEquals( 30, this.view.getTargetConcentration() );
+		assertEquals( readingTimestamp, this.view.getReadingTimestamp() );
+		assertEquals( 42, this.view.getActualConcentration() );
+	}
+	
+	/**
+	 * A burst of overwrites of all text fields schedules one batch with one update of the view. The getters return the latest values.
+	 */
+	@Test
+	public void testBurstOfOverwritesSchedulesOneUpdate() {
+		this.view.overwriteUIStationExternalId("IC002");
+		this.view.overwriteUITargetConcentration(30);
+		this.view.overwriteUIActualConcentration(41);
+		this.view.overwriteUIActualConcentration(42);
+		assertEquals( 1, this.executor.tasks.size() );
+		assertEquals( 4, this.batcher.getScheduledUpdateCount() );
+		assertEquals( 0, this.batcher.getAppliedBatchCount() );
+		assertEquals( 42, this.view.getActualConcentration() );
+	}
+}
@@ -16,6 +16,7 @@
 package sidlogism.martinfowler.uiArchs.persistence;
 
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -71,7 +72,7 @@ public class DbConnectionTest {
 	 * @param dbsName    configuration identifier of the tested DBS
 	 */
 	@ParameterizedTest
-	@ValueSource(strings = { "mysql", "oracleXE", "oracleXE_PDB" })
+	@ValueSource(strings = { "mysql", "oracleXE", "oracleXE_PDB", "h2" })
 	public void testLoadingDbDriver(final String dbsName) {
 		JSONObject dbParameters = null;
 		try {
@@ -87,13 +88,14 @@ public class DbConnectionTest {
 	}
 	
 	/**
-	 * Test connecting to DB instance, run test query and print result.
+	 * Test connecting to DB instance, run test query and print result. Skipped unless the DBS is the active DBS.
 	 * 
 	 * @param dbsName    configuration identifier of the tested DBS
 	 */
 	@ParameterizedTest
-	@ValueSource(strings = { "mysql", "oracleXE", "oracleXE_PDB" })
+	@ValueSource(strings = { "mysql", "oracleXE", "oracleXE_PDB", "h2" })
 	public void testRawQueryExecution(final String dbsName) {
+		assumeActiveDbs(dbsName);
 		JSONObject dbParameters = null;
 		JSONArray testQueries = null;
 		try {
@@ -166,6 +168,17 @@ public class DbConnectionTest {
 		logger.log(Level.INFO, "\n\n\n\n");
 	}
 	
+	/**
+	 * Skips the calling test unless the given DBS is the active DBS, i. e. config entry "activeDbs" or its override by system property {@value ConfigParser#ACTIVE_DBS_PROPERTY}.
+	 * Other DBS than the embedded DBS 'h2' need an external DB service, which is usually only reachable for the active DBS.
+	 * 
+	 * @param dbsName    configuration identifier of the tested DBS
+	 */
+	private static void assumeActiveDbs(final String dbsName) {
+		final String activeDbs = ConfigParser.getInstance().getRootNode().optString("activeDbs");
+		assumeTrue( dbsName.equals(activeDbs), "DBS "+dbsName+" is not the active DBS "+activeDbs+". Run with \"-PactiveDbs="+dbsName+"\"." );
+	}
+	
 	/**
 	 * Load DB-driver for given DBS.
 	 * 
@@ -7,6 +7,7 @@ as shown at http://oss.oracle.com/licenses/upl
 package sidlogism.martinfowler.uiArchs.persistence;
 
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -41,13 +42,14 @@ public class GenericConnectionPoolTest {
 	}
 	
 	/**
-	 * Test connecting to DB instance via connection pool, run test query and print result.
+	 * Test connecting to DB instance via connection pool, run test query and print result. Skipped unless the DBS is the active DBS.
 	 * 
 	 * @param dbsName    configuration identifier of the tested DBS
 	 */
 	@ParameterizedTest
 	@ValueSource(strings = { "oracleXE" })
 	public void testQueryExecution(final String dbsName) {
+		assumeActiveDbs(dbsName);
 		JSONObject dbParameters = null;
 		JSONArray testQueries = null;
 		String queryText = null;
@@ -109,6 +111,17 @@ public class GenericConnectionPoolTest {
 		System.out.println("\n\n\n\n");
 	}
 
+	/**
+	 * Skips the calling test unless the given DBS is the active DBS, i. e. config entry "activeDbs" or its override by system property {@value ConfigParser#ACTIVE_DBS_PROPERTY}.
+	 * Other DBS than the embedded DBS 'h2' need an external DB service, which is usually only reachable for the active DBS.
+	 * 
+	 * @param dbsName    configuration identifier of the tested DBS
+	 */
+	private static void assumeActiveDbs(final String dbsName) {
+		final String activeDbs = ConfigParser.getInstance().getRootNode().optString("activeDbs");
+		assumeTrue( dbsName.equals(activeDbs), "DBS "+dbsName+" is not the active DBS "+activeDbs+". Run with \"-PactiveDbs="+dbsName+"\"." );
+	}
+	
 	/**
 	 * Connect to DB instance, run test query and print result.
 	 * 
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ConcentrationReadingDao;
+import sidlogism.martinfowler.uiArchs.util.ConfigParser;
+import sidlogism.martinfowler.uiArchs.util.FileSystemAccessException;
+
+
+
+/**
+ * Tests for the execution plan of the lookup of the youngest concentration reading per station.
+ * The lookup must be resolved by a seek on index concentration_reading__idx__station_latest. A full scan or a sort indicates a regression.
+ * The MySQL and Oracle cases need a running DB server. The H2 case runs against the embedded in-memory database of config profile "h2".
+ * 
+ * @see ConcentrationReadingDao#getLatestConcentrationReadingQuery(String)
+ */
+public class LatestReadingQueryPlanTest {
+	private static final Logger logger = Logger.getLogger(LatestReadingQueryPlanTest.class.getName());
+	private static final String LATEST_READING_INDEX = "concentration_reading__idx__station_latest";
+	// any existing station
+	private static final long STATION_ID = 1;
+	
+	/**
+	 * @throws FileSystemAccessException 
+	 * @throws org.json.JSONException
+	 */
+	@BeforeAll
+	public static void setup() throws IOException, URISyntaxException, FileSystemAccessException{
+		ConfigParser.getInstance().parseConfig();
+	}
+	
+	/**
+	 * Test execution plan of the lookup in MySQL: access type must be an index lookup on the composite index without filesort.
+	 * Skipped unless MySQL is the active DBS.
+	 * 
+	 * @param dbsName    configuration identifier of the tested DBS
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "mysql" })
+	public void testMysqlLatestReadingPlan(final String dbsName) {
+		assumeActiveDbs(dbsName);
+		final String query = ConcentrationReadingDao.getLatestConcentrationReadingQuery(dbsName);
+		final JSONObject dbParameters = getDbParameters(dbsName);
+		try(
+			final Connection connection = DriverManager.getConnection(dbParameters.getString("connectionUrl"), dbParameters.getString("user"), dbParameters.getString("password"));
+			final PreparedStatement stmt = connection.prepareStatement("EXPLAIN "+query);
+		){
+			stmt.setLong(1, STATION_ID);
+			try(
+				final ResultSet plan = stmt.executeQuery();
+			){
+				assertTrue( plan.next(), "Execution plan is empty. Query:\n"+query );
+				final String accessType = plan.getString("type");
+				final String usedIndex = plan.getString("key");
+				final String extra = plan.getString("Extra");
+				logger.log(Level.INFO, "Execution plan: type="+accessType+", key="+usedIndex+", Extra="+extra);
+				assertTrue( "ref".equals(accessType) || "range".equals(accessType), "Expected index lookup but got access type \""+accessType+"\". Query:\n"+query );
+				assertTrue( LATEST_READING_INDEX.equalsIgnoreCase(usedIndex), "Expected usage of index "+LATEST_READING_INDEX+" but got \""+usedIndex+"\". Query:\n"+query );
+				assertTrue( null == extra || !extra.contains("filesort"), "Expected no sorting but got \""+extra+"\". Query:\n"+query );
+			}
+		} catch (SQLException e) {
+			fail("Error while accessing database: "+dbParameters.getString("connectionUrl")+".\n"+e.getCause()+"\n"+e.getStackTrace());
+		}
+		// just for better separation of tests outputs
+		logger.log(Level.INFO, "\n\n\n\n");
+	}
+	
+	/**
+	 * Test execution plan of the lookup in Oracle: index range scan on the composite index without full scans and without sort.
+	 * Skipped unless Oracle is the active DBS.
+	 * 
+	 * @param dbsName    configuration identifier of the tested DBS
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "oracleXE" })
+	public void testOracleLatestReadingPlan(final String dbsName) {
+		assumeActiveDbs(dbsName);
+		// EXPLAIN PLAN doesn't bind parameters. Use a literal instead.
+		final String query = ConcentrationReadingDao.getLatestConcentrationReadingQuery(dbsName).replace("?", Long.toString(STATION_ID));
+		final String statementId = "latest_reading_"+System.nanoTime();
+		final JSONObject dbParameters = getDbParameters(dbsName);
+		try(
+			final Connection connection = DriverManager.getConnection(dbParameters.getString("connectionUrl"), dbParameters.getString("user"), dbParameters.getString("password"));
+			final Statement explainStmt = connection.createStatement();
+			final PreparedStatement planStmt = connection.prepareStatement("SELECT operation, options, object_name FROM plan_table WHERE statement_id = ? ORDER BY id");
+		){
+			explainStmt.execute("EXPLAIN PLAN SET STATEMENT_ID = '"+statementId+"' FOR "+query);
+			planStmt.setString(1, statementId);
+			final List<String> planSteps = new ArrayList<String>();
+			boolean usesIndex = false;
+			try(
+				final ResultSet plan = planStmt.executeQuery();
+			){
+				while( plan.next() ) {
+					final String operation = plan.getString(1);
+					final String options = null == plan.getString(2) ? "" : plan.getString(2);
+					final String objectName = plan.getString(3);
+					planSteps.add(operation+" "+options+" "+objectName);
+					assertTrue( !options.contains("FULL"), "Expected no full scan but got \""+operation+" "+options+" "+objectName+"\". Query:\n"+query );
+					assertTrue( !"SORT".equals(operation) && !options.startsWith("SORT"), "Expected no sorting but got \""+operation+" "+options+"\". Query:\n"+query );
+					if( "INDEX".equals(operation) && LATEST_READING_INDEX.equalsIgnoreCase(objectName) ) usesIndex = true;
+				}
+			}
+			logger.log(Level.INFO, "Execution plan: "+planSteps);
+			assertTrue( usesIndex, "Expected usage of index "+LATEST_READING_INDEX+". Execution plan: "+planSteps+". Query:\n"+query );
+		} catch (SQLException e) {
+			fail("Error while accessing database: "+dbParameters.getString("connectionUrl")+".\n"+e.getCause()+"\n"+e.getStackTrace());
+		}
+		// just for better separation of tests outputs
+		logger.log(Level.INFO, "\n\n\n\n");
+	}
+	
+	/**
+	 * Test execution plan of the lookup in the embedded H2 database: the plan must seek the composite index instead of the index H2 creates for the foreign key, and the index must deliver the order without sort.
+	 * H2 marks a plan without sort step by "index sorted". A partly sorted plan is marked by "index sorted: 1 of 3 columns" instead.
+	 * 
+	 * @param dbsName    configuration identifier of the tested DBS
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "h2" })
+	public void testH2LatestReadingPlan(final String dbsName) {
+		final String query = ConcentrationReadingDao.getLatestConcentrationReadingQuery(dbsName);
+		final JSONObject dbParameters = getDbParameters(dbsName);
+		try(
+			final Connection connection = DriverManager.getConnection(dbParameters.getString("connectionUrl"), dbParameters.getString("user"), dbParameters.getString("password"));
+			final PreparedStatement stmt = connection.prepareStatement("EXPLAIN "+query);
+		){
+			stmt.setLong(1, STATION_ID);
+			try(
+				final ResultSet plan = stmt.executeQuery();
+			){
+				assertTrue( plan.next(), "Execution plan is empty. Query:\n"+query );
+				final String planText = plan.getString(1);
+				logger.log(Level.INFO, "Execution plan:\n"+planText);
+				assertTrue( planText.toLowerCase().contains(LATEST_READING_INDEX), "Expected usage of index "+LATEST_READING_INDEX+". Execution plan:\n"+planText+"\nQuery:\n"+query );
+				assertTrue( planText.contains("/* index sorted */"), "Expected no sorting. Execution plan:\n"+planText+"\nQuery:\n"+query );
+			}
+		} catch (SQLException e) {
+			fail("Error while accessing database: "+dbParameters.getString("connectionUrl")+".\n"+e.getCause()+"\n"+e.getStackTrace());
+		}
+		// just for better separation of tests outputs
+		logger.log(Level.INFO, "\n\n\n\n");
+	}
+	
+	/**
+	 * Skips the calling test unless the given DBS is the active DBS, i. e. config entry "activeDbs" or its override by system property {@value ConfigParser#ACTIVE_DBS_PROPERTY}.
+	 * Other DBS than the embedded DBS 'h2' need an external DB service, which is usually only reachable for the active DBS.
+	 * 
+	 * @param dbsName    configuration identifier of the tested DBS
+	 */
+	private static void assumeActiveDbs(final String dbsName) {
+		final String activeDbs = ConfigParser.getInstance().getRootNode().optString("activeDbs");
+		assumeTrue( dbsName.equals(activeDbs), "DBS "+dbsName+" is not the active DBS "+activeDbs+". Run with \"-PactiveDbs="+dbsName+"\"." );
+	}
+	
+	/**
+	 * @param dbsName    configuration identifier of the tested DBS
+	 * @return    configuration holding DB connection parameters
+	 */
+	private JSONObject getDbParameters(final String dbsName) {
+		try {
+			return ConfigParser.getInstance().getRootNode().getJSONObject("dbParameters").getJSONObject(dbsName);
+		}catch(JSONException e) {
+			fail("Failed reading configuration: Could not get connection parameters for DBS "+dbsName+".\n"+e.getCause()+"\n"+e.getStackTrace());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.DbAccessException;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStation;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStationDao;
+import sidlogism.martinfowler.uiArchs.util.KeysetPager;
+
+/**
+ * Tests for the row limits of the keyset pagination and for the station lookups of {@link MonitoringStationDao}.
+ * Runs against the active DBS, which is the embedded in-memory database of config profile "h2" unless "gradle test -PactiveDbs=<DBS>" selects another one.
+ * Relies on the synthetic monitoring stations SY0001 to SY1000.
+ */
+public class MonitoringStationDaoTest {
+	private final MonitoringStationDao stationDao = new MonitoringStationDao();
+	
+	/**
+	 * Each page holds at most the requested number of monitoring stations in ascending order of their IDs. The next page starts after the last ID of the previous one.
+	 */
+	@Test
+	public void testFindPageLimitedByQuery() throws DbAccessException {
+		final List<MonitoringStation> firstPage = this.stationDao.findPage(-1, 3);
+		assertEquals( 3, firstPage.size() );
+		assertTrue( firstPage.get(0).getId() < firstPage.get(1).getId() && firstPage.get(1).getId() < firstPage.get(2).getId() );
+		
+		final List<MonitoringStation> secondPage = this.stationDao.findPage(firstPage.get(2).getId(), 3);
+		assertEquals( 3, secondPage.size() );
+		assertTrue( secondPage.get(0).getId() > firstPage.get(2).getId() );
+	}
+	
+	/**
+	 * A prefix with more matches than one page yields one page of external IDs. A prefix with fewer matches yields all of them.
+	 */
+	@Test
+	public void testExternalIdsByPrefixLimitedToOnePage() throws DbAccessException {
+		final List<String> page = this.stationDao.findExternalIdsByPrefix("SY0");
+		assertEquals( KeysetPager.getConfiguredPageSize(), page.size() );
+		assertEquals( "SY0001", page.get(0) );
+		assertTrue( page.stream().allMatch( externalId -> externalId.startsWith("SY0") ) );
+		assertEquals( page.stream().sorted().collect( Collectors.toList() ), page );
+		
+		final List<String> allMatches = IntStream.rangeClosed(1, 9).mapToObj( i -> "SY000"+i ).collect( Collectors.toList() );
+		assertEquals( allMatches, this.stationDao.findExternalIdsByPrefix("SY000") );
+	}
+	
+	/**
+	 * A monitoring station is found by its external ID and by its ID. Incomplete external IDs are not found.
+	 */
+	@Test
+	public void testStationLookups() throws DbAccessException {
+		final MonitoringStation station = this.stationDao.getStation("SY0042");
+		assertEquals( "SY0042", station.getStationExternalId() );
+		assertEquals( "SY0042", this.stationDao.getStationById( station.getId() ).getStationExternalId() );
+		assertNull( this.stationDao.getStation("SY004") );
+		assertNull( this.stationDao.getStation("SY00420") );
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ConcentrationReading;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ConcentrationReadingDao;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStationDao;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.StaleRecordException;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.IReadingModelListener;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.ReadingModel;
+import sidlogism.martinfowler.uiArchs.mvc_standalone.model.persistence.ReadingSummary;
+
+
+
+/**
+ * Tests for optimistic locking of the actual concentration updates: of two writers which loaded the same version of a reading record only the first one succeeds.
+ * Runs against the active DBS, which is the embedded in-memory database of config profile "h2" unless "gradle test -PactiveDbs=<DBS>" selects another one.
+ * Each test restores the original value of its reading record.
+ */
+public class OptimisticLockingTest {
+	/**
+	 * JDBC variant: the second writer gets a {@link StaleRecordException} and the value of the first writer is kept.
+	 */
+	@Test
+	public void testSecondJdbcWriterWithSameVersionIsRejected() throws Exception {
+		final ConcentrationReadingDao readingDao = new ConcentrationReadingDao();
+		final long stationId = new MonitoringStationDao().getStation("MW001").getId();
+		final ConcentrationReading loaded = readingDao.getLatestConcentrationReading(stationId);
+		
+		final int newVersion = readingDao.updateActualConcentration(loaded.getActualConcentration() + 1, loaded.getId(), loaded.getVersion());
+		assertEquals(loaded.getVersion() + 1, newVersion);
+		assertThrows(StaleRecordException.class, () -> readingDao.updateActualConcentration(loaded.getActualConcentration() + 2, loaded.getId(), loaded.getVersion()) );
+		
+		final ConcentrationReading stored = readingDao.getLatestConcentrationReading(stationId);
+		assertEquals(loaded.getActualConcentration() + 1, stored.getActualConcentration());
+		assertEquals(newVersion, stored.getVersion());
+		readingDao.updateActualConcentration(loaded.getActualConcentration(), loaded.getId(), newVersion);
+	}
+	
+	/**
+	 * JPA variant: the update of the second writer is skipped and its listeners are notified about the value and version of the first writer.
+	 */
+	@Test
+	public void testSecondJpaWriterWithSameVersionIsRejected() throws Exception {
+		final long stationId = new MonitoringStationDao().getStation("ZO001").getId();
+		// two clients with their own models. Notifications are delivered in the calling thread.
+		final ReadingModel firstWriter = new ReadingModel(Runnable::run);
+		final ReadingModel secondWriter = new ReadingModel(Runnable::run);
+		final List<String> secondWriterNotifications = new ArrayList<String>();
+		secondWriter.addReadingModelListener( new IReadingModelListener() {
+			@Override
+			public void actualConcentrationChanged(final long readingId, final int newValue) {
+				secondWriterNotifications.add("changed "+newValue);
+			}
+			@Override
+			public void actualConcentrationRejected(final long readingId, final int storedValue) {
+				secondWriterNotifications.add("rejected "+storedValue);
+			}
+			@Override
+			public void readingVersionChanged(final long readingId, final int newVersion) {
+				secondWriterNotifications.add("version "+newVersion);
+			}
+		});
+		final ReadingSummary loaded = firstWriter.getLatestConcentrationReading(stationId);
+		assertEquals(loaded, secondWriter.getLatestConcentrationReading(stationId));
+		final Long readingId = Long.valueOf(loaded.id());
+		final Map<Long, Integer> loadedVersion = Map.of(readingId, Integer.valueOf(loaded.version()));
+		
+		final Map<Long, Integer> firstResult = firstWriter.updateActualConcentrations(Map.of(readingId, Integer.valueOf(loaded.actualConcentration() + 1)), loadedVersion);
+		final Map<Long, Integer> secondResult = secondWriter.updateActualConcentrations(Map.of(readingId, Integer.valueOf(loaded.actualConcentration() + 2)), loadedVersion);
+		
+		assertEquals(Map.of(readingId, Integer.valueOf(loaded.version() + 1)), firstResult);
+		assertTrue(secondResult.isEmpty(), "The second writer must not overwrite the value of the first writer.");
+		assertEquals(List.of("rejected "+(loaded.actualConcentration() + 1), "version "+(loaded.version() + 1)), secondWriterNotifications);
+		
+		firstWriter.updateActualConcentrations(Map.of(readingId, Integer.valueOf(loaded.actualConcentration())), firstResult);
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.DbAccessException;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.DbConnector;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.IngestionResult;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStation;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.MonitoringStationDao;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ReadingIngestor;
+import sidlogism.martinfowler.uiArchs.formsandcontrols.persistence.ReadingSample;
+
+
+
+/**
+ * Tests for the counts of inserted and rejected readings of {@link ReadingIngestor}.
+ * Runs against the active DBS, which is the embedded in-memory database of config profile "h2" unless "gradle test -PactiveDbs=<DBS>" selects another one.
+ * The readings are inserted with timestamps before all test data and are deleted after each test.
+ */
+public class ReadingIngestorTest {
+	// any existing station
+	private static final String STATION_EXTERNAL_ID = "IC001";
+	private static final LocalDateTime INGESTED_READINGS_START = LocalDateTime.of(1990, 1, 1, 0, 0);
+	private static final LocalDateTime INGESTED_READINGS_END = LocalDateTime.of(2000, 1, 1, 0, 0);
+	
+	private final MonitoringStationDao stationDao = new MonitoringStationDao();
+	private long stationId = -1;
+	
+	/**
+	 * Looks up the test station and deletes readings left over by aborted runs.
+	 */
+	private void prepareStation() throws DbAccessException, SQLException {
+		final MonitoringStation station = this.stationDao.getStation(STATION_EXTERNAL_ID);
+		this.stationId = station.getId();
+		deleteIngestedReadings();
+	}
+	
+	@AfterEach
+	public void deleteIngestedReadings() throws DbAccessException, SQLException {
+		// tests without database access don't look up the station
+		if(this.stationId < 0) return;
+		try(
+			final Connection connection = DbConnector.getConnection();
+			final PreparedStatement stmt = connection.prepareStatement("DELETE FROM concentration_reading WHERE fk_station_id = ? AND reading_timestamp < ?");
+		){
+			stmt.setLong(1, this.stationId);
+			stmt.setTimestamp(2, Timestamp.valueOf(INGESTED_READINGS_END));
+			stmt.executeUpdate();
+			// pooled connections don't auto-commit
+			connection.commit();
+		}
+	}
+	
+	/**
+	 * @return number of reading records of the test station inserted by the ingestor
+	 */
+	private long countIngestedReadings() throws DbAccessException, SQLException {
+		try(
+			final Connection connection = DbConnector.getConnection();
+			final PreparedStatement stmt = connection.prepareStatement("SELECT COUNT(*) FROM concentration_reading WHERE fk_station_id = ? AND reading_timestamp < ?");
+		){
+			stmt.setLong(1, this.stationId);
+			stmt.setTimestamp(2, Timestamp.valueOf(INGESTED_READINGS_END));
+			try(
+				final ResultSet result = stmt.executeQuery();
+			){
+				result.next();
+				return result.getLong(1);
+			}
+		}
+	}
+	
+	/**
+	 * All valid samples are inserted, also the last incomplete batch.
+	 */
+	@Test
+	public void testInsertedCountOverSeveralBatches() throws DbAccessException, SQLException {
+		prepareStation();
+		final ReadingIngestor ingestor = new ReadingIngestor(this.stationDao, 3);
+		final IngestionResult result = ingestor.ingest( IntStream.range(0, 7).mapToObj(
+				i -> new ReadingSample(STATION_EXTERNAL_ID, INGESTED_READINGS_START.plusMinutes(i), i) ) );
+		assertEquals( 7, result.insertedRows() );
+		assertEquals( 0, result.rejectedRows() );
+		assertEquals( 7, countIngestedReadings() );
+	}
+	
+	/**
+	 * Samples of unknown monitoring stations, without timestamp or with concentrations outside the SMALLINT range are rejected. The valid samples between them are inserted.
+	 */
+	@Test
+	public void testRejectedSamples() throws DbAccessException, SQLException {
+		prepareStation();
+		final ReadingIngestor ingestor = new ReadingIngestor(this.stationDao, 2);
+		final IngestionResult result = ingestor.ingest( Stream.of(
+				new ReadingSample(STATION_EXTERNAL_ID, INGESTED_READINGS_START, 10),
+				new ReadingSample("unknown station", INGESTED_READINGS_START, 10),
+				new ReadingSample(STATION_EXTERNAL_ID, null, 10),
+				new ReadingSample(STATION_EXTERNAL_ID, INGESTED_READINGS_START.plusMinutes(1), Short.MAX_VALUE + 1),
+				new ReadingSample(STATION_EXTERNAL_ID, INGESTED_READINGS_START.plusMinutes(2), Short.MIN_VALUE - 1),
+				new ReadingSample(STATION_EXTERNAL_ID, INGESTED_READINGS_START.plusMinutes(3), Short.MAX_VALUE),
+				new ReadingSample(STATION_EXTERNAL_ID, INGESTED_READINGS_START.plusMinutes(4), Short.MIN_VALUE) ) );
+		assertEquals( 3, result.insertedRows() );
+		assertEquals( 4, result.rejectedRows() );
+		assertEquals( 3, countIngestedReadings() );
+	}
+	
+	/**
+	 * An empty stream inserts and rejects nothing.
+	 */
+	@Test
+	public void testEmptyStream() throws DbAccessException, SQLException {
+		prepareStation();
+		final IngestionResult result = new ReadingIngestor(this.stationDao, 10).ingest( Stream.empty() );
+		assertEquals( 0, result.insertedRows() );
+		assertEquals( 0, result.rejectedRows() );
+		assertEquals( 0, countIngestedReadings() );
+	}
+	
+	/**
+	 * The throughput refers to the inserted rows only and is 0 for runs without measurable duration.
+	 */
+	@Test
+	public void testRowsPerSecond() {
+		assertEquals( 2000.0, new IngestionResult(1000, 500, 500_000_000L).rowsPerSecond(), 1e-9 );
+		assertEquals( 0.0, new IngestionResult(1000, 0, 0).rowsPerSecond(), 1e-9 );
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the high-water marks and the suppression of unchanged records of {@link ChangeFeedPoller}, using a fake table with its own database clock.
+ */
+public class ChangeFeedPollerTest {
+	private static final long OVERLAP_MILLIS = 5_000;
+	
+	/**
+	 * Record of the fake table. The timestamp is set by the fake database on update, on insert it may carry any time.
+	 */
+	private record Row(long id, LocalDateTime timestamp, int value) {
+	}
+	
+	/**
+	 * Fake table answering the change query like "WHERE id &gt; :afterId OR timestamp &gt;= :modifiedSince".
+	 */
+	private static class FakeTable implements IChangeLoader<Row, Exception> {
+		private final List<Row> rows = new ArrayList<Row>();
+		private LocalDateTime databaseTime;
+		private int lastLoadedCount = 0;
+		private boolean failing = false;
+		
+		FakeTable(final LocalDateTime databaseTime) {
+			this.databaseTime = databaseTime;
+		}
+		
+		void advanceClock(final long millis) {
+			this.databaseTime = this.databaseTime.plusNanos(millis * 1_000_000L);
+		}
+		
+		void insert(final LocalDateTime timestamp, final int value) {
+			this.rows.add( new Row(this.rows.size() + 1, timestamp, value) );
+		}
+		
+		void update(final long id, final int value) {
+			this.rows.set( (int) id - 1, new Row(id, this.databaseTime, value) );
+		}
+		
+		@Override
+		public long loadGreatestId() {
+			return this.rows.size() > 0 ? this.rows.size() : -1;
+		}
+		
+		@Override
+		public LocalDateTime loadDatabaseTime() {
+			return this.databaseTime;
+		}
+		
+		@Override
+		public List<Row> loadChanges(final long afterId, final LocalDateTime modifiedSince) throws Exception {
+			if(this.failing) throw new Exception("database not available");
+			final List<Row> result = new ArrayList<Row>();
+			for(final Row row : this.rows) {
+				if(row.id() > afterId || !row.timestamp().isBefore(modifiedSince)) result.add(row);
+			}
+			this.lastLoadedCount = result.size();
+			return result;
+		}
+	}
+	
+	private final List<Row> delivered = new ArrayList<Row>();
+	private ChangeFeedPoller<Row, Exception> feed = null;
+	
+	private ChangeFeedPoller<Row, Exception> createFeed(final FakeTable table) {
+		this.feed = new ChangeFeedPoller<Row, Exception>("test", 60_000, OVERLAP_MILLIS, table, Row::id, Row::timestamp, this.delivered::addAll);
+		return this.feed;
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		if(null != this.feed) this.feed.shutdown();
+	}
+	
+	/**
+	 * The first poll only initializes the high-water marks: records modified before the overlap preceding the start aren't delivered.
+	 */
+	@Test
+	public void testFirstPollDeliversNothing() throws Exception {
+		final FakeTable table = new FakeTable( LocalDateTime.of(2021, 1, 1, 12, 0) );
+		table.insert(LocalDateTime.of(2021, 1, 1, 11, 0), 1);
+		final ChangeFeedPoller<Row, Exception> feed = createFeed(table);
+		assertEquals( 0, feed.poll() );
+		table.advanceClock(1_000);
+		assertEquals( 0, feed.poll() );
+		assertTrue( this.delivered.isEmpty() );
+	}
+	
+	/**
+	 * Inserted records are delivered once, whatever their timestamp is. Once the database clock has passed them by the overlap, they are no longer loaded.
+	 */
+	@Test
+	public void testInsertedRecordsAreDeliveredOnceAndNoLongerLoaded() throws Exception {
+		final FakeTable table = new FakeTable( LocalDateTime.of(2021, 1, 1, 12, 0) );
+		final ChangeFeedPoller<Row, Exception> feed = createFeed(table);
+		feed.poll();
+		table.insert(LocalDateTime.of(2021, 1, 1, 12, 0), 1);
+		// sensor reading taken before the start of the change feed
+		table.insert(LocalDateTime.of(2020, 6, 1, 0, 0), 2);
+		table.advanceClock(1_000);
+		assertEquals( 2, feed.poll() );
+		
+		// the first record is still within the overlap and loaded again, but not delivered again
+		table.advanceClock(2_000);
+		assertEquals( 0, feed.poll() );
+		assertEquals( 1, table.lastLoadedCount );
+		
+		table.advanceClock(10_000);
+		feed.poll();
+		assertEquals( 0, feed.poll() );
+		assertEquals( 0, table.lastLoadedCount );
+		assertEquals( 2, this.delivered.size() );
+		assertEquals( 2, feed.getDeliveredChangeCount() );
+	}
+	
+	/**
+	 * Under steady ingestion each poll loads only the records within the overlap, not all records inserted since the start.
+	 */
+	@Test
+	public void testSteadyIngestionStaysBounded() throws Exception {
+		final FakeTable table = new FakeTable( LocalDateTime.of(2021, 1, 1, 12, 0) );
+		final ChangeFeedPoller<Row, Exception> feed = createFeed(table);
+		feed.poll();
+		for(int poll = 0; poll < 50; poll++) {
+			table.insert(table.loadDatabaseTime(), poll);
+			table.advanceClock(2_000);
+			assertEquals( 1, feed.poll() );
+			assertTrue( table.lastLoadedCount <= 4, "poll "+poll+" loaded "+table.lastLoadedCount+" records" );
+		}
+		assertEquals( 50, this.delivered.size() );
+	}
+	
+	/**
+	 * Updated records are delivered with their new values. Loading them again within the overlap delivers nothing, updating them again delivers them again.
+	 */
+	@Test
+	public void testUpdatedRecordsAreDeliveredPerChange() throws Exception {
+		final FakeTable table = new FakeTable( LocalDateTime.of(2021, 1, 1, 12, 0) );
+		table.insert(LocalDateTime.of(2021, 1, 1, 11, 0), 1);
+		final ChangeFeedPoller<Row, Exception> feed = createFeed(table);
+		feed.poll();
+		table.advanceClock(1_000);
+		table.update(1, 10);
+		table.advanceClock(1_000);
+		assertEquals( 1, feed.poll() );
+		table.advanceClock(1_000);
+		assertEquals( 0, feed.poll() );
+		table.update(1, 20);
+		table.advanceClock(1_000);
+		assertEquals( 1, feed.poll() );
+		assertEquals( List.of(10, 20), this.delivered.stream().map(Row::value).toList() );
+	}
+	
+	/**
+	 * The modification mark follows the database clock, not the local clock. Updates are found even if the database clock is far behind the local one.
+	 */
+	@Test
+	public void testDatabaseClockBehindLocalClock() throws Exception {
+		final FakeTable table = new FakeTable( LocalDateTime.now().minusHours(1) );
+		table.insert(table.loadDatabaseTime(), 1);
+		final ChangeFeedPoller<Row, Exception> feed = createFeed(table);
+		feed.poll();
+		table.advanceClock(1_000);
+		table.update(1, 10);
+		assertEquals( 1, feed.poll() );
+		assertEquals( 10, this.delivered.get(0).value() );
+	}
+	
+	/**
+	 * A failed poll keeps the high-water marks, so the next poll delivers the changes.
+	 */
+	@Test
+	public void testFailedPollKeepsMarks() throws Exception {
+		final FakeTable table = new FakeTable( LocalDateTime.of(2021, 1, 1, 12, 0) );
+		table.insert(LocalDateTime.of(2021, 1, 1, 11, 0), 1);
+		final ChangeFeedPoller<Row, Exception> feed = createFeed(table);
+		feed.poll();
+		table.update(1, 10);
+		table.insert(LocalDateTime.of(2021, 1, 1, 11, 0), 2);
+		table.failing = true;
+		table.advanceClock(60_000);
+		assertThrows( Exception.class, feed::poll );
+		table.failing = false;
+		table.advanceClock(60_000);
+		assertEquals( 2, feed.poll() );
+	}
+}
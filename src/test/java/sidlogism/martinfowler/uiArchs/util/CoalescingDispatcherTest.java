@@ -0,0 +1,139 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the coalescing and the delivery order of {@link CoalescingDispatcher}, using a manually run executor.
+ */
+public class CoalescingDispatcherTest {
+	/**
+	 * Executor queuing its tasks until they are run by the test.
+	 */
+	private static class ManualExecutor implements Executor {
+		private final Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+		
+		@Override
+		public void execute(final Runnable task) {
+			this.tasks.add(task);
+		}
+		
+		int runAll() {
+			int count = 0;
+			while(! this.tasks.isEmpty() ) {
+				this.tasks.poll().run();
+				count++;
+			}
+			return count;
+		}
+	}
+	
+	private final ManualExecutor executor = new ManualExecutor();
+	private final CoalescingDispatcher<List<String>> dispatcher = new CoalescingDispatcher<List<String>>("test", this.executor);
+	
+	/**
+	 * A notification replaces the pending notification with the same key. Only one batch is scheduled for all pending notifications.
+	 */
+	@Test
+	public void testSameKeyIsReplaced() {
+		final List<String> received = new ArrayList<String>();
+		this.dispatcher.addListener(received);
+		this.dispatcher.post("a", listener -> listener.add("a1"));
+		this.dispatcher.post("a", listener -> listener.add("a2"));
+		this.dispatcher.post("a", listener -> listener.add("a3"));
+		assertEquals( 0, received.size() );
+		assertEquals( 1, this.executor.runAll() );
+		assertEquals( List.of("a3"), received );
+		assertEquals( 3, this.dispatcher.getPostedNotificationCount() );
+		assertEquals( 1, this.dispatcher.getDeliveredNotificationCount() );
+		assertEquals( 1, this.dispatcher.getDeliveredBatchCount() );
+	}
+	
+	/**
+	 * A batch is delivered in the order of the first posting of each key, also if a key is posted again later.
+	 */
+	@Test
+	public void testBatchOrderedByFirstPosting() {
+		final List<String> received = new ArrayList<String>();
+		this.dispatcher.addListener(received);
+		this.dispatcher.post("a", listener -> listener.add("a1"));
+		this.dispatcher.post("b", listener -> listener.add("b1"));
+		this.dispatcher.post("c", listener -> listener.add("c1"));
+		this.dispatcher.post("a", listener -> listener.add("a2"));
+		this.executor.runAll();
+		assertEquals( List.of("a2", "b1", "c1"), received );
+	}
+	
+	/**
+	 * Notifications posted after a batch has taken the pending notifications are delivered in a new batch, also for keys of the previous batch.
+	 */
+	@Test
+	public void testPostingAfterDeliveryStartsNewBatch() {
+		final List<String> received = new ArrayList<String>();
+		this.dispatcher.addListener(received);
+		this.dispatcher.post("a", listener -> listener.add("a1"));
+		this.executor.runAll();
+		this.dispatcher.post("a", listener -> listener.add("a2"));
+		this.executor.runAll();
+		assertEquals( List.of("a1", "a2"), received );
+		assertEquals( 2, this.dispatcher.getDeliveredBatchCount() );
+	}
+	
+	/**
+	 * A failing listener neither prevents the notification of the other listeners nor the delivery of the remaining notifications.
+	 */
+	@Test
+	public void testFailingListenerIsIsolated() {
+		final List<String> failing = new ArrayList<String>() {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			public boolean add(final String element) {
+				throw new IllegalStateException("listener failure");
+			}
+		};
+		final List<String> received = new ArrayList<String>();
+		this.dispatcher.addListener(failing);
+		this.dispatcher.addListener(received);
+		this.dispatcher.post("a", listener -> listener.add("a1"));
+		this.dispatcher.post("b", listener -> listener.add("b1"));
+		this.executor.runAll();
+		assertEquals( List.of("a1", "b1"), received );
+		assertEquals( 2, this.dispatcher.getDeliveredNotificationCount() );
+	}
+	
+	/**
+	 * Removed listeners don't receive batches delivered afterwards.
+	 */
+	@Test
+	public void testRemovedListener() {
+		final List<String> received = new ArrayList<String>();
+		this.dispatcher.addListener(received);
+		this.dispatcher.post("a", listener -> listener.add("a1"));
+		this.dispatcher.removeListener(received);
+		this.executor.runAll();
+		assertEquals( 0, received.size() );
+	}
+}
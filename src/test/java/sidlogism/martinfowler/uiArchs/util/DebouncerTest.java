@@ -0,0 +1,228 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the debouncing of {@link Debouncer}, using a timer whose time is advanced by the test.
+ */
+public class DebouncerTest {
+	private static final long QUIET_PERIOD_MILLIS = 250;
+	
+	/**
+	 * Timer running its scheduled tasks when the test advances the time past their due time. Only one-shot scheduling of runnables is supported.
+	 */
+	private static class ManualTimer extends AbstractExecutorService implements ScheduledExecutorService {
+		private final PriorityQueue<ManualTask> tasks = new PriorityQueue<ManualTask>( Comparator.comparingLong(ManualTask::dueMillis) );
+		private long nowMillis = 0;
+		
+		private class ManualTask implements ScheduledFuture<Object> {
+			private final Runnable command;
+			private final long dueMillis;
+			private boolean cancelled = false;
+			private boolean done = false;
+			
+			ManualTask(final Runnable command, final long dueMillis) {
+				this.command = command;
+				this.dueMillis = dueMillis;
+			}
+			
+			long dueMillis() {
+				return this.dueMillis;
+			}
+			
+			@Override
+			public long getDelay(final TimeUnit unit) {
+				return unit.convert(this.dueMillis - ManualTimer.this.nowMillis, TimeUnit.MILLISECONDS);
+			}
+			
+			@Override
+			public int compareTo(final Delayed other) {
+				return Long.compare( getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS) );
+			}
+			
+			@Override
+			public boolean cancel(final boolean mayInterruptIfRunning) {
+				if(this.done) return false;
+				this.cancelled = true;
+				this.done = true;
+				return ManualTimer.this.tasks.remove(this);
+			}
+			
+			@Override
+			public boolean isCancelled() {
+				return this.cancelled;
+			}
+			
+			@Override
+			public boolean isDone() {
+				return this.done;
+			}
+			
+			@Override
+			public Object get() {
+				return null;
+			}
+			
+			@Override
+			public Object get(final long timeout, final TimeUnit unit) {
+				return null;
+			}
+		}
+		
+		/**
+		 * Advances the time and runs all tasks which are due until then in the order of their due time.
+		 */
+		void advance(final long millis) {
+			final long targetMillis = this.nowMillis + millis;
+			while( !this.tasks.isEmpty() && this.tasks.peek().dueMillis() <= targetMillis ) {
+				final ManualTask task = this.tasks.poll();
+				this.nowMillis = task.dueMillis();
+				task.done = true;
+				task.command.run();
+			}
+			this.nowMillis = targetMillis;
+		}
+		
+		int pendingTaskCount() {
+			return this.tasks.size();
+		}
+		
+		@Override
+		public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+			final ManualTask task = new ManualTask(command, this.nowMillis + unit.toMillis(delay));
+			this.tasks.add(task);
+			return task;
+		}
+		
+		@Override
+		public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay, final TimeUnit unit) {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public ScheduledFuture<?> scheduleAtFixedRate(final Runnable command, final long initialDelay, final long period, final TimeUnit unit) {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable command, final long initialDelay, final long delay, final TimeUnit unit) {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public void execute(final Runnable command) {
+			schedule(command, 0, TimeUnit.MILLISECONDS);
+		}
+		
+		@Override
+		public void shutdown() {
+		}
+		
+		@Override
+		public List<Runnable> shutdownNow() {
+			return List.of();
+		}
+		
+		@Override
+		public boolean isShutdown() {
+			return false;
+		}
+		
+		@Override
+		public boolean isTerminated() {
+			return false;
+		}
+		
+		@Override
+		public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+			return false;
+		}
+	}
+	
+	private final ManualTimer timer = new ManualTimer();
+	private final List<String> handledValues = new ArrayList<String>();
+	private final Debouncer<String> debouncer = new Debouncer<String>("test", QUIET_PERIOD_MILLIS, this.handledValues::add, Runnable::run, this.timer);
+	
+	/**
+	 * Only the last value of a burst is handed to the action, after the quiet period following the last submission. The values typed past are counted as avoided actions.
+	 */
+	@Test
+	public void testOnlyLastValueOfBurstFires() {
+		this.debouncer.submit("M");
+		this.timer.advance(100);
+		this.debouncer.submit("MW");
+		this.timer.advance(100);
+		this.debouncer.submit("MW0");
+		this.timer.advance(QUIET_PERIOD_MILLIS - 1);
+		assertTrue( this.handledValues.isEmpty() );
+		
+		this.timer.advance(1);
+		assertEquals( List.of("MW0"), this.handledValues );
+		assertEquals( 3, this.debouncer.getSubmittedValueCount() );
+		assertEquals( 1, this.debouncer.getExecutedActionCount() );
+		assertEquals( 2, this.debouncer.getAvoidedActionCount() );
+		assertEquals( 0, this.timer.pendingTaskCount() );
+	}
+	
+	/**
+	 * Bursts separated by a quiet period are handled separately.
+	 */
+	@Test
+	public void testSeparateBurstsFireSeparately() {
+		this.debouncer.submit("A");
+		this.timer.advance(QUIET_PERIOD_MILLIS);
+		this.debouncer.submit("B");
+		this.debouncer.submit("C");
+		this.timer.advance(QUIET_PERIOD_MILLIS);
+		assertEquals( List.of("A", "C"), this.handledValues );
+		assertEquals( 2, this.debouncer.getExecutedActionCount() );
+		assertEquals( 1, this.debouncer.getAvoidedActionCount() );
+	}
+	
+	/**
+	 * Cancelling drops the pending value. Cancelling without a pending value changes nothing.
+	 */
+	@Test
+	public void testCancelDropsPendingValue() {
+		this.debouncer.submit("A");
+		this.debouncer.cancel();
+		this.debouncer.cancel();
+		this.timer.advance(10 * QUIET_PERIOD_MILLIS);
+		assertTrue( this.handledValues.isEmpty() );
+		assertEquals( 0, this.debouncer.getExecutedActionCount() );
+		assertEquals( 1, this.debouncer.getAvoidedActionCount() );
+		
+		this.debouncer.submit("B");
+		this.timer.advance(QUIET_PERIOD_MILLIS);
+		assertEquals( List.of("B"), this.handledValues );
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the lazy loading and the incremental refresh of {@link DirectoryCache}. The persistence layer is replaced by a map of keys to internal IDs which records the queries.
+ * The entries are the keys themselves.
+ */
+public class DirectoryCacheTest {
+	private static final int PAGE_SIZE = 3;
+	// in the order of a DBS with case-insensitive collation
+	private static final List<String> KEYS = List.of("IC01", "IC02", "IC03", "IC04", "ic05", "IC10", "IX%1", "IX01");
+	
+	// internal IDs in the order of insertion
+	private final Map<String, Long> idsByKey = new LinkedHashMap<String, Long>();
+	private final List<String> keyQueries = new ArrayList<String>();
+	private final List<Long> idQueries = new ArrayList<Long>();
+	private final List<Long> afterIdQueries = new ArrayList<Long>();
+	private final List<String> patternQueries = new ArrayList<String>();
+	private int greatestIdQueryCount = 0;
+	private final DirectoryCache<String, RuntimeException> directory = new DirectoryCache<String, RuntimeException>("test", 0, PAGE_SIZE,
+			new IDirectoryLoader<String, RuntimeException>() {
+				@Override
+				public String loadByKey(final String key) {
+					DirectoryCacheTest.this.keyQueries.add(key);
+					return DirectoryCacheTest.this.idsByKey.containsKey(key) ? key : null;
+				}
+				@Override
+				public String loadById(final long id) {
+					DirectoryCacheTest.this.idQueries.add( Long.valueOf(id) );
+					return DirectoryCacheTest.this.idsByKey.entrySet().stream().filter( entry -> entry.getValue().longValue() == id ).map(Map.Entry::getKey).findAny().orElse(null);
+				}
+				@Override
+				public long loadGreatestId() {
+					DirectoryCacheTest.this.greatestIdQueryCount++;
+					return DirectoryCacheTest.this.idsByKey.values().stream().mapToLong(Long::longValue).max().orElse(-1);
+				}
+				@Override
+				public List<String> loadAfterId(final long afterId, final int limit) {
+					DirectoryCacheTest.this.afterIdQueries.add( Long.valueOf(afterId) );
+					return DirectoryCacheTest.this.idsByKey.entrySet().stream().filter( entry -> entry.getValue().longValue() > afterId )
+							.limit(limit).map(Map.Entry::getKey).collect( Collectors.toList() );
+				}
+			},
+			(likePattern, afterKey, limit) -> {
+				this.patternQueries.add(likePattern);
+				final Pattern pattern = toRegex(likePattern);
+				return this.idsByKey.keySet().stream().sorted(String.CASE_INSENSITIVE_ORDER)
+						.dropWhile( key -> null != afterKey && !key.equals(afterKey) ).skip( (null == afterKey) ? 0 : 1 )
+						.filter( key -> pattern.matcher(key).matches() ).limit(limit).collect( Collectors.toList() );
+			},
+			this::idOf, key -> key);
+	
+	public DirectoryCacheTest() {
+		for(final String key : KEYS) {
+			add(key);
+		}
+	}
+	
+	private void add(final String key) {
+		this.idsByKey.put( key, Long.valueOf( this.idsByKey.size() + 1 ) );
+	}
+	
+	private long idOf(final String key) {
+		return this.idsByKey.get(key).longValue();
+	}
+	
+	/**
+	 * Like a DBS with case-insensitive collation.
+	 */
+	private static Pattern toRegex(final String likePattern) {
+		final StringBuilder regex = new StringBuilder();
+		for(int i = 0; i < likePattern.length(); i++) {
+			final char character = likePattern.charAt(i);
+			if(DirectoryCache.LIKE_ESCAPE_CHARACTER == character) {
+				regex.append( Pattern.quote( String.valueOf( likePattern.charAt(++i) ) ) );
+			}else if('%' == character) {
+				regex.append(".*");
+			}else if('_' == character) {
+				regex.append('.');
+			}else {
+				regex.append( Pattern.quote( String.valueOf(character) ) );
+			}
+		}
+		return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+	}
+	
+	@AfterEach
+	public void shutdown() {
+		this.directory.shutdown();
+	}
+	
+	/**
+	 * Wildcards and the escape character of a prefix are escaped.
+	 */
+	@Test
+	public void testLikePattern() {
+		assertEquals( "IC%", DirectoryCache.toLikePattern("IC") );
+		assertEquals( "I!%!_!!%", DirectoryCache.toLikePattern("I%_!") );
+		assertEquals( "%", DirectoryCache.toLikePattern("") );
+		assertEquals( "%", DirectoryCache.toLikePattern(null) );
+	}
+	
+	/**
+	 * Each key is loaded on its first lookup only. An unknown key loads the page of its prefix instead of the entry and is remembered.
+	 */
+	@Test
+	public void testGetByKey() {
+		assertEquals( "IC02", this.directory.getByKey("IC02") );
+		assertEquals( "IC02", this.directory.getByKey("IC02") );
+		assertNull( this.directory.getByKey("IC0") );
+		assertNull( this.directory.getByKey("IC0") );
+		assertNull( this.directory.getByKey(null) );
+		assertEquals( List.of("IC02"), this.keyQueries );
+		assertEquals( List.of("IC02%", "IC0%"), this.patternQueries );
+		assertEquals( 1, this.directory.getHitCount() );
+		assertEquals( 2, this.directory.getMissCount() );
+		assertEquals( 1, this.directory.getNegativeHitCount() );
+		assertEquals( 1, this.greatestIdQueryCount );
+		
+		this.directory.evictAll();
+		assertEquals( "IC02", this.directory.getByKey("IC02") );
+		assertEquals( 2, this.keyQueries.size() );
+	}
+	
+	/**
+	 * Once all keys of a prefix are indexed, longer incomplete keys typed afterwards are answered without any query. Only existing entries are loaded.
+	 */
+	@Test
+	public void testIncompleteKeysAnsweredFromCompletePrefix() {
+		assertNull( this.directory.getByKey("IC1") );
+		assertEquals( "IC10", this.directory.getByKey("IC10") );
+		assertNull( this.directory.getByKey("IC100") );
+		assertNull( this.directory.getByKey("IC11") );
+		assertEquals( List.of("IC1%"), this.patternQueries );
+		assertEquals( List.of("IC10"), this.keyQueries );
+		assertEquals( 2, this.directory.getNegativeHitCount() );
+	}
+	
+	/**
+	 * Each internal ID is loaded on its first lookup only. Entries loaded by internal ID are also found by key and vice versa.
+	 */
+	@Test
+	public void testGetById() {
+		assertEquals( "IC02", this.directory.getById(2) );
+		assertEquals( "IC02", this.directory.getById(2) );
+		assertEquals( "IC02", this.directory.getByKey("IC02") );
+		assertNull( this.directory.getById(99) );
+		assertEquals( List.of( Long.valueOf(2), Long.valueOf(99) ), this.idQueries );
+		assertTrue( this.keyQueries.isEmpty() );
+		assertTrue( this.patternQueries.isEmpty() );
+		
+		assertEquals( "IC10", this.directory.getByKey("IC10") );
+		assertEquals( "IC10", this.directory.getById(6) );
+		assertEquals( 2, this.idQueries.size() );
+		assertEquals( 3, this.directory.getHitCount() );
+		assertEquals( 3, this.directory.getMissCount() );
+	}
+	
+	/**
+	 * The refresh loads the entries added after the high-water mark page by page. Their keys are merged into complete prefixes and removed from the negative cache, cached entries and pages are kept.
+	 */
+	@Test
+	public void testIncrementalRefresh() {
+		// nothing cached yet
+		assertEquals( 0, this.directory.refresh() );
+		assertEquals( 0, this.greatestIdQueryCount );
+		
+		assertEquals( List.of("IC10"), this.directory.getKeysByPrefix("IC1") );
+		assertNull( this.directory.getByKey("IC11") );
+		assertNull( this.directory.getByKey("IX02") );
+		assertEquals( "IC02", this.directory.getByKey("IC02") );
+		add("IC11");
+		add("IC12");
+		add("IC13");
+		add("IX02");
+		
+		assertEquals( 4, this.directory.refresh() );
+		assertEquals( List.of( Long.valueOf(8), Long.valueOf(11) ), this.afterIdQueries );
+		assertEquals( List.of("IC10", "IC11", "IC12", "IC13"), this.directory.getKeysByPrefix("IC1") );
+		assertEquals( "IC11", this.directory.getByKey("IC11") );
+		assertEquals( "IX02", this.directory.getByKey("IX02") );
+		assertEquals( "IC02", this.directory.getByKey("IC02") );
+		assertEquals( List.of("IC1%", "IX02%", "IC02%"), this.patternQueries );
+		assertEquals( List.of("IC02", "IC11", "IX02"), this.keyQueries );
+		
+		assertEquals( 0, this.directory.refresh() );
+		assertEquals( List.of( Long.valueOf(8), Long.valueOf(11), Long.valueOf(12) ), this.afterIdQueries );
+		assertEquals( 4, this.directory.getRefreshedEntryCount() );
+		assertEquals( 1, this.greatestIdQueryCount );
+	}
+	
+	/**
+	 * A prefix loads at most one page. A full page may be incomplete, so a longer prefix is loaded again.
+	 * A page with fewer keys than the page size is complete, so longer prefixes are answered from memory.
+	 */
+	@Test
+	public void testKeysByPrefixInPages() {
+		assertEquals( List.of("IC01", "IC02", "IC03"), this.directory.getKeysByPrefix("IC") );
+		assertEquals( List.of("IC01", "IC02", "IC03"), this.directory.getKeysByPrefix("IC0") );
+		assertEquals( List.of("IC01"), this.directory.getKeysByPrefix("IC01") );
+		assertEquals( List.of("IC%", "IC0%", "IC01%"), this.patternQueries );
+		
+		assertEquals( List.of("IC10"), this.directory.getKeysByPrefix("IC1") );
+		assertTrue( this.directory.getKeysByPrefix("IC10").size() == 1 );
+		assertTrue( this.directory.getKeysByPrefix("IC100").isEmpty() );
+		assertEquals( List.of("IC%", "IC0%", "IC01%", "IC1%"), this.patternQueries );
+		assertEquals( 4, this.directory.getLoadedPageCount() );
+		assertEquals( 2, this.directory.getIndexedPrefixHitCount() );
+	}
+	
+	/**
+	 * Matching is case-sensitive although the persistence layer compares case-insensitively. Pages filled with keys differing in case are skipped. Wildcards in the prefix match literally.
+	 */
+	@Test
+	public void testKeysByPrefixCaseAndWildcards() {
+		assertEquals( List.of("ic05"), this.directory.getKeysByPrefix("ic") );
+		assertEquals( List.of("ic%", "ic%", "ic%"), this.patternQueries );
+		assertEquals( List.of("ic05"), this.directory.getKeysByPrefix("ic0") );
+		assertTrue( this.directory.getKeysByPrefix("ic1").isEmpty() );
+		assertEquals( 3, this.directory.getLoadedPageCount() );
+		assertTrue( this.directory.getKeysByPrefix("IC0").containsAll( List.of("IC01", "IC02", "IC03") ) );
+		assertEquals( List.of("IX%1"), this.directory.getKeysByPrefix("IX%") );
+		assertEquals( List.of("IX%1", "IX01"), this.directory.getKeysByPrefix("IX") );
+	}
+	
+	/**
+	 * Eviction forgets the loaded pages, so the next lookup queries again.
+	 */
+	@Test
+	public void testEvictionOfPages() {
+		this.directory.getKeysByPrefix("IC1");
+		this.directory.getKeysByPrefix("IC10");
+		this.directory.evictAll();
+		this.directory.getKeysByPrefix("IC10");
+		assertEquals( List.of("IC1%", "IC10%"), this.patternQueries );
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the page boundaries of {@link KeysetPager}. Pages are served from a list of IDs and callbacks run in the calling thread.
+ */
+public class KeysetPagerTest {
+	private static final int PAGE_SIZE = 3;
+	
+	private final List<Long> afterIds = new ArrayList<Long>();
+	private final List<List<Long>> pages = new ArrayList<List<Long>>();
+	private final List<Throwable> failures = new ArrayList<Throwable>();
+	
+	/**
+	 * @param ids    IDs in the table, ascending
+	 * @return    pager reading pages of the given IDs
+	 */
+	private KeysetPager<Long> createPager(final List<Long> ids) {
+		return new KeysetPager<Long>("test", PAGE_SIZE,
+				(afterId, limit) -> {
+					this.afterIds.add( Long.valueOf(afterId) );
+					return CompletableFuture.completedFuture( ids.stream().filter( id -> id.longValue() > afterId ).limit(limit).collect( Collectors.toList() ) );
+				},
+				Long::longValue, this.pages::add, this.failures::add, Runnable::run);
+	}
+	
+	private static List<Long> ids(final long first, final long last) {
+		return LongStream.rangeClosed(first, last).boxed().collect( Collectors.toList() );
+	}
+	
+	/**
+	 * Each page starts after the last ID of the previous page. A page with fewer entries than the page size is the last one.
+	 */
+	@Test
+	public void testPageBoundaries() {
+		final KeysetPager<Long> pager = createPager( List.of(2L, 3L, 5L, 7L, 11L, 13L, 17L) );
+		pager.loadNextPage();
+		pager.loadNextPage();
+		assertFalse( pager.isExhausted() );
+		pager.loadNextPage();
+		assertTrue( pager.isExhausted() );
+		
+		assertEquals( List.of(List.of(2L, 3L, 5L), List.of(7L, 11L, 13L), List.of(17L)), this.pages );
+		assertEquals( List.of(-1L, 5L, 13L), this.afterIds );
+		assertEquals( 3, pager.getLoadedPageCount() );
+		assertEquals( 7, pager.getLoadedEntryCount() );
+	}
+	
+	/**
+	 * If the number of entries is a multiple of the page size, the last page is only recognized by an additional empty page. Afterwards no more pages are requested.
+	 */
+	@Test
+	public void testLastPageFull() {
+		final KeysetPager<Long> pager = createPager( ids(1, 6) );
+		pager.loadNextPage();
+		pager.loadNextPage();
+		assertFalse( pager.isExhausted() );
+		pager.loadNextPage();
+		assertTrue( pager.isExhausted() );
+		pager.loadNextPage();
+		
+		assertEquals( List.of(-1L, 3L, 6L), this.afterIds );
+		assertEquals( List.of(ids(1, 3), ids(4, 6), List.of()), this.pages );
+		// the empty page isn't counted
+		assertEquals( 2, pager.getLoadedPageCount() );
+	}
+	
+	/**
+	 * An empty table results in one empty page.
+	 */
+	@Test
+	public void testEmpty() {
+		final KeysetPager<Long> pager = createPager( List.of() );
+		pager.loadNextPage();
+		pager.loadNextPage();
+		assertTrue( pager.isExhausted() );
+		assertEquals( List.of(-1L), this.afterIds );
+		assertEquals( List.of(List.of()), this.pages );
+		assertEquals( 0, pager.getLoadedEntryCount() );
+	}
+	
+	/**
+	 * Requests are ignored while a page is loading. A failed page is requested again with the same ID.
+	 */
+	@Test
+	public void testLoadingAndFailure() {
+		final List<CompletableFuture<List<Long>>> requests = new ArrayList<CompletableFuture<List<Long>>>();
+		final KeysetPager<Long> pager = new KeysetPager<Long>("test", PAGE_SIZE,
+				(afterId, limit) -> {
+					this.afterIds.add( Long.valueOf(afterId) );
+					final CompletableFuture<List<Long>> request = new CompletableFuture<List<Long>>();
+					requests.add(request);
+					return request;
+				},
+				Long::longValue, this.pages::add, this.failures::add, Runnable::run);
+		pager.loadNextPage();
+		pager.loadNextPage();
+		assertEquals( 1, requests.size() );
+		
+		final IllegalStateException failure = new IllegalStateException("connection lost");
+		requests.get(0).completeExceptionally(failure);
+		assertEquals( 1, this.failures.size() );
+		assertSame( failure, this.failures.get(0) );
+		
+		pager.loadNextPage();
+		requests.get(1).complete( ids(1, 3) );
+		pager.loadNextPage();
+		assertEquals( List.of(-1L, -1L, 3L), this.afterIds );
+		assertEquals( List.of(ids(1, 3)), this.pages );
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the connection permits of {@link PersistenceExecutor}. The operations block on latches instead of using connections.
+ */
+public class PersistenceExecutorTest {
+	private static final long TIMEOUT_MILLIS = 10_000;
+	
+	/**
+	 * Waits until the given condition holds.
+	 */
+	private static void awaitCondition(final BooleanSupplier condition) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while( !condition.getAsBoolean() ) {
+			assertTrue( System.currentTimeMillis() < deadline, "condition not met within "+TIMEOUT_MILLIS+" ms" );
+			Thread.sleep(1);
+		}
+	}
+	
+	/**
+	 * No more operations run at the same time than there are permits, including operations run by {@link PersistenceExecutor#callWithPermit}. The others wait in the queue.
+	 */
+	@Test
+	public void testPermitBound() throws Exception {
+		final PersistenceExecutor executor = new PersistenceExecutor(2);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final List<CompletableFuture<Integer>> results = new ArrayList<CompletableFuture<Integer>>();
+		for(int i = 0; i < 5; i++) {
+			final int operationNumber = i;
+			results.add( executor.submit( () -> {
+				maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+				try {
+					release.await();
+					return Integer.valueOf(operationNumber);
+				}finally {
+					running.decrementAndGet();
+				}
+			}));
+		}
+		final CompletableFuture<Integer> backgroundResult = CompletableFuture.supplyAsync( () -> {
+			try {
+				return executor.callWithPermit( () -> {
+					maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+					running.decrementAndGet();
+					return Integer.valueOf(-1);
+				});
+			}catch(Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		awaitCondition( () -> 2 == executor.getRunningOperationCount() && 4 == executor.getWaitingOperationCount() );
+		assertEquals( 2, running.get() );
+		assertEquals( 2, executor.getMaxConcurrentOperations() );
+		
+		release.countDown();
+		for(int i = 0; i < 5; i++) {
+			assertEquals( i, results.get(i).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).intValue() );
+		}
+		assertEquals( -1, backgroundResult.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).intValue() );
+		assertEquals( 2, maxRunning.get() );
+		assertEquals( 6, executor.getCompletedOperationCount() );
+		assertEquals( 0, executor.getWaitingOperationCount() );
+		awaitCondition( () -> 0 == executor.getRunningOperationCount() );
+	}
+	
+	/**
+	 * An operation cancelled while waiting for its permit doesn't run. It releases the permit without touching the database and is counted as skipped.
+	 */
+	@Test
+	public void testCancelledOperationIsSkipped() throws Exception {
+		final PersistenceExecutor executor = new PersistenceExecutor(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CompletableFuture<String> blocking = executor.submit( () -> {
+			release.await();
+			return "blocking";
+		});
+		final AtomicBoolean cancelledOperationRan = new AtomicBoolean(false);
+		final CompletableFuture<String> cancelled = executor.submit( () -> {
+			cancelledOperationRan.set(true);
+			return "cancelled";
+		});
+		awaitCondition( () -> 1 == executor.getWaitingOperationCount() );
+		assertTrue( cancelled.cancel(false) );
+		
+		release.countDown();
+		assertEquals( "blocking", blocking.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS) );
+		awaitCondition( () -> 1 == executor.getSkippedOperationCount() );
+		assertFalse( cancelledOperationRan.get() );
+		assertEquals( 1, executor.getCompletedOperationCount() );
+		
+		// the permit was released again
+		assertEquals( "next", executor.submit( () -> "next" ).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS) );
+	}
+	
+	/**
+	 * The queue depth counts the operations waiting for a permit. Their waiting time is reflected by the maximum and the average wait.
+	 */
+	@Test
+	public void testWaitMetrics() throws Exception {
+		final long blockMillis = 50;
+		final PersistenceExecutor executor = new PersistenceExecutor(1);
+		assertEquals( 0, executor.getAverageWaitMicros() );
+		final CountDownLatch release = new CountDownLatch(1);
+		final CompletableFuture<String> blocking = executor.submit( () -> {
+			release.await();
+			return "blocking";
+		});
+		awaitCondition( () -> 1 == executor.getRunningOperationCount() );
+		final CompletableFuture<String> first = executor.submit( () -> "first" );
+		final CompletableFuture<String> second = executor.submit( () -> "second" );
+		awaitCondition( () -> 2 == executor.getWaitingOperationCount() );
+		Thread.sleep(blockMillis);
+		
+		release.countDown();
+		blocking.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		first.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		second.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		assertEquals( 0, executor.getWaitingOperationCount() );
+		assertEquals( 3, executor.getCompletedOperationCount() );
+		assertTrue( executor.getMaxWaitMicros() >= TimeUnit.MILLISECONDS.toMicros(blockMillis) );
+		// two of three operations waited at least the blocking time
+		assertTrue( executor.getAverageWaitMicros() >= TimeUnit.MILLISECONDS.toMicros(blockMillis) * 2 / 3 );
+		assertTrue( executor.getAverageWaitMicros() <= executor.getMaxWaitMicros() );
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the prefix matching of {@link PrefixIndex}.
+ */
+public class PrefixIndexTest {
+	
+	private static PrefixIndex createIndex() {
+		return new PrefixIndex( Arrays.asList("IC02", "IC01", "ic03", "IC1", "IX", "I", "IC01", null) );
+	}
+	
+	/**
+	 * All strings starting with the prefix are found in ascending order. Duplicates and null elements are dropped.
+	 */
+	@Test
+	public void testFindByPrefix() {
+		final PrefixIndex index = createIndex();
+		assertEquals( List.of("IC01", "IC02", "IC1"), index.findByPrefix("IC") );
+		assertEquals( List.of("IC01", "IC02"), index.findByPrefix("IC0") );
+		assertEquals( 3, index.countByPrefix("IC") );
+		assertEquals( 6, index.size() );
+	}
+	
+	/**
+	 * A prefix equal to an indexed string matches this string and all longer ones.
+	 */
+	@Test
+	public void testPrefixEqualToKey() {
+		final PrefixIndex index = createIndex();
+		assertEquals( List.of("I", "IC01", "IC02", "IC1", "IX"), index.findByPrefix("I") );
+		assertEquals( List.of("IC1"), index.findByPrefix("IC1") );
+	}
+	
+	/**
+	 * null and empty prefixes match all strings. A prefix without matches returns an empty list, also beyond both ends of the sorted strings.
+	 */
+	@Test
+	public void testEmptyPrefixAndNoMatch() {
+		final PrefixIndex index = createIndex();
+		assertEquals( 6, index.findByPrefix("").size() );
+		assertEquals( 6, index.findByPrefix(null).size() );
+		assertEquals( 6, index.countByPrefix(null) );
+		assertTrue( index.findByPrefix("A").isEmpty() );
+		assertTrue( index.findByPrefix("zz").isEmpty() );
+		assertTrue( index.findByPrefix("IC011").isEmpty() );
+		assertEquals( 0, index.countByPrefix("IC3") );
+	}
+	
+	/**
+	 * Matching is case-sensitive.
+	 */
+	@Test
+	public void testCaseSensitivity() {
+		final PrefixIndex index = createIndex();
+		assertEquals( List.of("ic03"), index.findByPrefix("ic") );
+		assertEquals( List.of("IC01", "IC02", "IC1"), index.findByPrefix("IC") );
+		assertTrue( index.findByPrefix("Ic").isEmpty() );
+	}
+	
+	/**
+	 * Lookups on an empty index return empty lists.
+	 */
+	@Test
+	public void testEmptyIndex() {
+		final PrefixIndex index = new PrefixIndex();
+		assertTrue( index.findByPrefix("").isEmpty() );
+		assertTrue( index.findByPrefix("IC").isEmpty() );
+		assertEquals( 0, index.size() );
+	}
+	
+	/**
+	 * Added strings are merged in order. Results of earlier lookups are neither affected by later updates nor modifiable.
+	 */
+	@Test
+	public void testUpdates() {
+		final PrefixIndex index = createIndex();
+		final List<String> before = index.findByPrefix("IC");
+		index.addAll( Arrays.asList("IC00", "IC02", "IC15") );
+		assertEquals( List.of("IC00", "IC01", "IC02", "IC1", "IC15"), index.findByPrefix("IC") );
+		assertEquals( List.of("IC01", "IC02", "IC1"), before );
+		assertThrows( UnsupportedOperationException.class, () -> before.add("IC99") );
+		
+		index.replaceAll( List.of("B2", "B1") );
+		assertEquals( List.of("B1", "B2"), index.findByPrefix("") );
+		assertTrue( index.findByPrefix("IC").isEmpty() );
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the superseding of requests by {@link SupersedingRequests}, using a manually run result executor.
+ */
+public class SupersedingRequestsTest {
+	/**
+	 * Executor queuing its tasks until they are run by the test.
+	 */
+	private static class ManualExecutor implements Executor {
+		private final Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+		
+		@Override
+		public void execute(final Runnable task) {
+			this.tasks.add(task);
+		}
+		
+		int runAll() {
+			int count = 0;
+			while(! this.tasks.isEmpty() ) {
+				this.tasks.poll().run();
+				count++;
+			}
+			return count;
+		}
+	}
+	
+	private final ManualExecutor resultExecutor = new ManualExecutor();
+	private final SupersedingRequests requests = new SupersedingRequests("test", this.resultExecutor);
+	private final List<String> results = new ArrayList<String>();
+	private final List<Throwable> failures = new ArrayList<Throwable>();
+	
+	/**
+	 * A newer request cancels the request in flight. The callbacks of the cancelled request never run, even if its operation completes it later.
+	 */
+	@Test
+	public void testSupersededRequestCallbacksNeverRun() {
+		final CompletableFuture<String> first = new CompletableFuture<String>();
+		final CompletableFuture<String> second = new CompletableFuture<String>();
+		this.requests.submit(first, this.results::add, this.failures::add);
+		this.requests.submit(second, this.results::add, this.failures::add);
+		assertTrue( first.isCancelled() );
+		assertFalse( first.complete("first") );
+		assertEquals( 0, this.resultExecutor.runAll() );
+		
+		second.complete("second");
+		assertEquals( 1, this.resultExecutor.runAll() );
+		assertEquals( List.of("second"), this.results );
+		assertTrue( this.failures.isEmpty() );
+		assertEquals( 1, this.requests.getSupersededRequestCount() );
+	}
+	
+	/**
+	 * The future returned by the {@link PersistenceExecutor} is cancelled when its request is superseded. The result of the operation, which was already running, is dropped.
+	 */
+	@Test
+	public void testSupersededPersistenceFutureIsCancelled() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch finished = new CountDownLatch(1);
+		final CompletableFuture<String> first = PersistenceExecutor.getInstance().submit( () -> {
+			started.countDown();
+			try {
+				release.await();
+				return "first";
+			}finally {
+				finished.countDown();
+			}
+		});
+		this.requests.submit(first, this.results::add, this.failures::add);
+		assertTrue( started.await(10, TimeUnit.SECONDS) );
+		
+		final CompletableFuture<String> second = new CompletableFuture<String>();
+		this.requests.submit(second, this.results::add, this.failures::add);
+		assertTrue( first.isCancelled() );
+		release.countDown();
+		assertTrue( finished.await(10, TimeUnit.SECONDS) );
+		second.complete("second");
+		this.resultExecutor.runAll();
+		assertEquals( List.of("second"), this.results );
+		assertTrue( this.failures.isEmpty() );
+	}
+	
+	/**
+	 * A result completed before the newer request was submitted can't be cancelled any more. It is dropped in the result executor.
+	 */
+	@Test
+	public void testLateResultOfSupersededRequestIsDropped() {
+		this.requests.submit(CompletableFuture.completedFuture("first"), this.results::add, this.failures::add);
+		final CompletableFuture<String> second = new CompletableFuture<String>();
+		this.requests.submit(second, this.results::add, this.failures::add);
+		assertEquals( 1, this.resultExecutor.runAll() );
+		assertTrue( this.results.isEmpty() );
+		assertEquals( 1, this.requests.getSupersededRequestCount() );
+		
+		second.complete("second");
+		this.resultExecutor.runAll();
+		assertEquals( List.of("second"), this.results );
+	}
+	
+	/**
+	 * Runtime exceptions of the mapping are handed to onFailure instead of onResult.
+	 */
+	@Test
+	public void testMappingExceptionReachesOnFailure() {
+		final IllegalStateException mappingFailure = new IllegalStateException("rejected");
+		this.requests.<String, String>submit(CompletableFuture.completedFuture("value"), value -> { throw mappingFailure; }, this.results::add, this.failures::add);
+		this.resultExecutor.runAll();
+		assertTrue( this.results.isEmpty() );
+		assertEquals( 1, this.failures.size() );
+		assertSame( mappingFailure, this.failures.get(0) );
+	}
+	
+	/**
+	 * Failures of the request are unwrapped from the CompletionException added by the executor of the operation.
+	 */
+	@Test
+	public void testRequestFailureIsUnwrapped() {
+		final IOException cause = new IOException("unreachable");
+		this.requests.submit(CompletableFuture.<String>failedFuture( new CompletionException(cause) ), this.results::add, this.failures::add);
+		this.resultExecutor.runAll();
+		assertTrue( this.results.isEmpty() );
+		assertEquals( List.of(cause), this.failures );
+	}
+}
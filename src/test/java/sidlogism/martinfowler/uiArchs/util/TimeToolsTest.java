@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the conversion of reading timestamps into epoch milliseconds by {@link TimeTools}.
+ */
+public class TimeToolsTest {
+	
+	/**
+	 * Timestamps with at most millisecond precision survive the round trip unchanged, also before 1970.
+	 */
+	@Test
+	public void testEpochMillisRoundTrip() {
+		for(final LocalDateTime timestamp : new LocalDateTime[] {
+				LocalDateTime.of(2021, 1, 11, 11, 11, 11),
+				LocalDateTime.of(2021, 3, 28, 2, 30, 0, 123_000_000),
+				LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000),
+				LocalDateTime.of(1970, 1, 1, 0, 0) }) {
+			assertEquals( timestamp, TimeTools.fromEpochMillis( TimeTools.toEpochMillis(timestamp) ) );
+		}
+		assertEquals( 0L, TimeTools.toEpochMillis( LocalDateTime.of(1970, 1, 1, 0, 0) ) );
+		assertEquals( -1L, TimeTools.toEpochMillis( LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000) ) );
+	}
+	
+	/**
+	 * Sub-millisecond parts are truncated, i. e. rounded down also before 1970.
+	 */
+	@Test
+	public void testSubMillisecondTruncation() {
+		assertEquals( LocalDateTime.of(2021, 1, 11, 11, 11, 11, 123_000_000),
+				TimeTools.fromEpochMillis( TimeTools.toEpochMillis( LocalDateTime.of(2021, 1, 11, 11, 11, 11, 123_999_999) ) ) );
+		assertEquals( -1L, TimeTools.toEpochMillis( LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999) ) );
+		assertEquals( -1L, TimeTools.toEpochMillis( LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_001) ) );
+	}
+}
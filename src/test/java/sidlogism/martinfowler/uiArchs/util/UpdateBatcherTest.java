@@ -0,0 +1,148 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the batching of UI updates by {@link UpdateBatcher} and for the contract of views using it, using a manually run executor.
+ */
+public class UpdateBatcherTest {
+	/**
+	 * Executor queuing its tasks until they are run by the test.
+	 */
+	private static class ManualExecutor implements Executor {
+		private final Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+		
+		@Override
+		public void execute(final Runnable task) {
+			this.tasks.add(task);
+		}
+		
+		int runAll() {
+			int count = 0;
+			while(! this.tasks.isEmpty() ) {
+				this.tasks.poll().run();
+				count++;
+			}
+			return count;
+		}
+	}
+	
+	/**
+	 * View keeping its intended value until the batch applies it, as recommended by {@link UpdateBatcher}.
+	 */
+	private static class FakeView {
+		private final UpdateBatcher batcher;
+		private String displayedValue = "";
+		private String pendingValue = null;
+		private int applyCount = 0;
+		
+		FakeView(final UpdateBatcher batcher) {
+			this.batcher = batcher;
+		}
+		
+		void overwriteValue(final String value) {
+			this.pendingValue = value;
+			this.batcher.schedule(this, this::applyPendingValue);
+		}
+		
+		String getValue() {
+			if(null != this.pendingValue) return this.pendingValue;
+			return this.displayedValue;
+		}
+		
+		private void applyPendingValue() {
+			this.displayedValue = this.pendingValue;
+			this.pendingValue = null;
+			this.applyCount++;
+		}
+	}
+	
+	private final ManualExecutor executor = new ManualExecutor();
+	private final UpdateBatcher batcher = new UpdateBatcher("test", this.executor);
+	
+	/**
+	 * A burst of overwrites is applied once with the latest value. Until then the getter of the view returns the pending value.
+	 */
+	@Test
+	public void testBatchAppliesOnceAndGettersSeePendingValues() {
+		final FakeView view = new FakeView(this.batcher);
+		view.overwriteValue("a");
+		view.overwriteValue("b");
+		view.overwriteValue("c");
+		assertEquals( "c", view.getValue() );
+		assertEquals( "", view.displayedValue );
+		assertEquals( 0, view.applyCount );
+		
+		assertEquals( 1, this.executor.runAll() );
+		assertEquals( 1, view.applyCount );
+		assertEquals( "c", view.displayedValue );
+		assertEquals( "c", view.getValue() );
+		assertEquals( 3, this.batcher.getScheduledUpdateCount() );
+		assertEquals( 1, this.batcher.getAppliedUpdateCount() );
+		assertEquals( 1, this.batcher.getAppliedBatchCount() );
+	}
+	
+	/**
+	 * Updates of several views are applied in one batch in the order of their first scheduling.
+	 */
+	@Test
+	public void testSeveralViewsInOneBatch() {
+		final List<String> applied = new ArrayList<String>();
+		this.batcher.schedule("first", () -> applied.add("first 1"));
+		this.batcher.schedule("second", () -> applied.add("second 1"));
+		this.batcher.schedule("first", () -> applied.add("first 2"));
+		assertEquals( 1, this.executor.runAll() );
+		assertEquals( List.of("first 2", "second 1"), applied );
+	}
+	
+	/**
+	 * Updates scheduled after a batch was applied are applied by a new batch.
+	 */
+	@Test
+	public void testSchedulingAfterBatchStartsNewBatch() {
+		final FakeView view = new FakeView(this.batcher);
+		view.overwriteValue("a");
+		this.executor.runAll();
+		view.overwriteValue("b");
+		assertEquals( "b", view.getValue() );
+		assertEquals( 1, this.executor.runAll() );
+		assertEquals( 2, view.applyCount );
+		assertEquals( 2, this.batcher.getAppliedBatchCount() );
+	}
+	
+	/**
+	 * A failing update doesn't prevent the other updates of the batch.
+	 */
+	@Test
+	public void testFailingUpdateIsIsolated() {
+		final FakeView view = new FakeView(this.batcher);
+		this.batcher.schedule("failing", () -> { throw new IllegalStateException("update failure"); });
+		view.overwriteValue("a");
+		this.executor.runAll();
+		assertEquals( "a", view.displayedValue );
+		assertEquals( 2, this.batcher.getAppliedUpdateCount() );
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the dropping of echoes and the counters of {@link ViewSyncBus}.
+ */
+public class ViewSyncBusTest {
+	private final List<String> handledValues = new ArrayList<String>();
+	
+	/**
+	 * A user change is accepted, its programmatic echo from another view is dropped. After a reset the same value is accepted again.
+	 */
+	@Test
+	public void testUserChangeEchoAndRepeatAfterReset() {
+		final ViewSyncBus<String> bus = new ViewSyncBus<String>("test", this.handledValues::add);
+		assertTrue( bus.publish("station-list", "IC001") );
+		assertFalse( bus.publish("station-view", "IC001") );
+		bus.reset();
+		assertTrue( bus.publish("station-list", "IC001") );
+		
+		assertEquals( List.of("IC001", "IC001"), this.handledValues );
+		assertEquals( 3, bus.getPublishedChangeCount() );
+		assertEquals( 2, bus.getAcceptedChangeCount() );
+		assertEquals( 1, bus.getDroppedEchoCount() );
+	}
+	
+	/**
+	 * Echoes reported while the handler updates the other views are dropped. Each user action causes exactly one call of the handler.
+	 */
+	@Test
+	public void testEchoDuringHandling() {
+		final List<ViewSyncBus<String>> busHolder = new ArrayList<ViewSyncBus<String>>();
+		final ViewSyncBus<String> bus = new ViewSyncBus<String>("test", value -> {
+			this.handledValues.add(value);
+			// programmatic update of the other view reports the value again
+			busHolder.get(0).publish("station-view", value);
+		});
+		busHolder.add(bus);
+		bus.publish("station-list", "IC001");
+		bus.publish("station-list", "IC002");
+		
+		assertEquals( List.of("IC001", "IC002"), this.handledValues );
+		assertEquals( 4, bus.getPublishedChangeCount() );
+		assertEquals( 2, bus.getAcceptedChangeCount() );
+		assertEquals( 2, bus.getDroppedEchoCount() );
+	}
+	
+	/**
+	 * A change to another value is accepted whatever view reports it. Changes checked by {@link ViewSyncBus#isEcho(String, Object)} are counted as published but never handled.
+	 */
+	@Test
+	public void testChangesAndEchoChecks() {
+		final ViewSyncBus<String> bus = new ViewSyncBus<String>("test", this.handledValues::add);
+		assertFalse( bus.isEcho("station-view", "IC0") );
+		bus.publish("station-list", "IC001");
+		assertTrue( bus.isEcho("station-view", "IC001") );
+		assertTrue( bus.publish("station-view", "IC002") );
+		assertFalse( bus.publish("station-list", null) );
+		
+		assertEquals( List.of("IC001", "IC002"), this.handledValues );
+		assertEquals( 4, bus.getPublishedChangeCount() );
+		assertEquals( 2, bus.getAcceptedChangeCount() );
+		assertEquals( 1, bus.getDroppedEchoCount() );
+	}
+}
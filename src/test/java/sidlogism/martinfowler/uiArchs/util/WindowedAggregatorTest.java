@@ -0,0 +1,201 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the aggregation of reading histories per time window by {@link WindowedAggregator} and the window arithmetic of {@link AggregationWindow}.
+ */
+public class WindowedAggregatorTest {
+	private static final double DELTA = 1e-9;
+	private static final int TARGET = 20;
+	
+	private static LocalDateTime at(final int year, final int month, final int day, final int hour, final int minute) {
+		return LocalDateTime.of(year, month, day, hour, minute);
+	}
+	
+	private static StationHistory history(final long stationId, final Object... timestampsAndConcentrations) {
+		final ConcentrationTimeSeries series = new ConcentrationTimeSeries(1);
+		for(int i = 0; i < timestampsAndConcentrations.length; i += 2) {
+			series.append( (LocalDateTime) timestampsAndConcentrations[i], ((Integer) timestampsAndConcentrations[i + 1]).intValue() );
+		}
+		return new StationHistory(stationId, TARGET, series);
+	}
+	
+	private static List<LocalDateTime> windowStarts(final List<WindowStatistics> statistics) {
+		return statistics.stream().map(WindowStatistics::windowStart).collect( Collectors.toList() );
+	}
+	
+	/**
+	 * A reading at the start of a window belongs to this window, a reading one millisecond before belongs to the previous one.
+	 */
+	@Test
+	public void testWindowBoundaries() {
+		final StationHistory history = history(1,
+				at(2021, 1, 1, 10, 0), 10,
+				at(2021, 1, 1, 10, 59).plusSeconds(59).plusNanos(999_000_000), 30,
+				at(2021, 1, 1, 11, 0), 20);
+		final List<WindowStatistics> statistics = WindowedAggregator.aggregate(history, AggregationWindow.HOUR, (LocalDateTime) null, null);
+		assertEquals( List.of(at(2021, 1, 1, 10, 0), at(2021, 1, 1, 11, 0)), windowStarts(statistics) );
+		assertEquals( 2, statistics.get(0).readingCount() );
+		assertEquals( 1, statistics.get(1).readingCount() );
+		assertEquals( AggregationWindow.HOUR, statistics.get(0).window() );
+		assertEquals( 1L, statistics.get(0).stationId() );
+	}
+	
+	/**
+	 * Minimum, maximum, mean, population standard deviation and percentages over and under target of one window.
+	 */
+	@Test
+	public void testStatistics() {
+		final StationHistory history = history(1,
+				at(2021, 1, 1, 0, 0), 10,
+				at(2021, 1, 1, 6, 0), 20,
+				at(2021, 1, 1, 12, 0), 30,
+				at(2021, 1, 1, 18, 0), 40);
+		final WindowStatistics day = WindowedAggregator.aggregate(history, AggregationWindow.DAY, (LocalDateTime) null, null).get(0);
+		assertEquals( 4, day.readingCount() );
+		assertEquals( 10, day.minConcentration() );
+		assertEquals( 40, day.maxConcentration() );
+		assertEquals( 25.0, day.meanConcentration(), DELTA );
+		assertEquals( Math.sqrt(125.0), day.standardDeviation(), DELTA );
+		assertEquals( 50.0, day.percentOverTarget(), DELTA );
+		assertEquals( 25.0, day.percentUnderTarget(), DELTA );
+		assertEquals( 5.0, day.meanVariance(), DELTA );
+		assertEquals( TARGET, day.targetConcentration() );
+	}
+	
+	/**
+	 * Windows without readings are skipped. An empty history or a time range without readings has no windows.
+	 */
+	@Test
+	public void testEmptyWindows() {
+		final StationHistory history = history(1,
+				at(2021, 1, 1, 10, 15), 10,
+				at(2021, 1, 1, 13, 45), 10);
+		assertEquals( List.of(at(2021, 1, 1, 10, 0), at(2021, 1, 1, 13, 0)), windowStarts( WindowedAggregator.aggregate(history, AggregationWindow.HOUR, (LocalDateTime) null, null) ) );
+		assertTrue( WindowedAggregator.aggregate(history, AggregationWindow.HOUR, at(2021, 1, 1, 11, 0), at(2021, 1, 1, 13, 0)).isEmpty() );
+		assertTrue( WindowedAggregator.aggregate(history(2), AggregationWindow.DAY, (LocalDateTime) null, null).isEmpty() );
+		assertTrue( WindowedAggregator.aggregate(history(2), AggregationWindow.MONTH, at(2021, 1, 1, 0, 0), at(2022, 1, 1, 0, 0)).isEmpty() );
+	}
+	
+	/**
+	 * Windows at the bounds of the time range keep their calendar start but only contain readings within the range. The upper bound is exclusive.
+	 */
+	@Test
+	public void testRangeBounds() {
+		final StationHistory history = history(1,
+				at(2021, 1, 1, 10, 0), 10,
+				at(2021, 1, 1, 10, 30), 20,
+				at(2021, 1, 1, 10, 45), 30,
+				at(2021, 1, 1, 11, 0), 40);
+		final List<WindowStatistics> statistics = WindowedAggregator.aggregate(history, AggregationWindow.HOUR, at(2021, 1, 1, 10, 30), at(2021, 1, 1, 11, 0));
+		assertEquals( 1, statistics.size() );
+		assertEquals( at(2021, 1, 1, 10, 0), statistics.get(0).windowStart() );
+		assertEquals( 2, statistics.get(0).readingCount() );
+		assertEquals( 20, statistics.get(0).minConcentration() );
+		assertEquals( 30, statistics.get(0).maxConcentration() );
+	}
+	
+	/**
+	 * Month windows follow the calendar, including leap years and the turn of the year.
+	 */
+	@Test
+	public void testMonthWindows() {
+		final StationHistory history = history(1,
+				at(2023, 12, 31, 23, 59), 10,
+				at(2024, 1, 1, 0, 0), 10,
+				at(2024, 2, 29, 23, 59), 10,
+				at(2024, 3, 1, 0, 0), 10);
+		assertEquals( List.of(at(2023, 12, 1, 0, 0), at(2024, 1, 1, 0, 0), at(2024, 2, 1, 0, 0), at(2024, 3, 1, 0, 0)),
+				windowStarts( WindowedAggregator.aggregate(history, AggregationWindow.MONTH, (LocalDateTime) null, null) ) );
+		
+		final long february = TimeTools.toEpochMillis( at(2024, 2, 1, 0, 0) );
+		assertEquals( TimeTools.toEpochMillis( at(2024, 3, 1, 0, 0) ), AggregationWindow.MONTH.nextWindowStartMillis(february) );
+		assertEquals( february, AggregationWindow.MONTH.windowStartMillis( TimeTools.toEpochMillis( at(2024, 2, 29, 23, 59) ) ) );
+	}
+	
+	/**
+	 * Fixed-length windows are aligned to calendar boundaries also before 1970, i. e. for negative timestamps.
+	 */
+	@Test
+	public void testWindowsBefore1970() {
+		final long lateEvening = TimeTools.toEpochMillis( at(1969, 12, 31, 23, 30) );
+		assertEquals( TimeTools.toEpochMillis( at(1969, 12, 31, 0, 0) ), AggregationWindow.DAY.windowStartMillis(lateEvening) );
+		assertEquals( TimeTools.toEpochMillis( at(1969, 12, 31, 23, 0) ), AggregationWindow.HOUR.windowStartMillis(lateEvening) );
+		assertEquals( 0L, AggregationWindow.HOUR.nextWindowStartMillis( AggregationWindow.HOUR.windowStartMillis(lateEvening) ) );
+	}
+	
+	/**
+	 * Readings older than the last appended one are rejected and leave the history unchanged. Readings with equal timestamps are accepted and aggregated into the same window.
+	 */
+	@Test
+	public void testOutOfOrderReadings() {
+		final StationHistory history = history(1,
+				at(2021, 1, 1, 10, 30), 10,
+				at(2021, 1, 1, 10, 30), 30);
+		assertThrows( IllegalArgumentException.class, () -> history.readings().append(at(2021, 1, 1, 10, 29), 50) );
+		assertThrows( IllegalArgumentException.class, () -> history.readings().append(at(2021, 1, 1, 9, 0), 50) );
+		assertEquals( 2, history.readings().size() );
+		
+		final List<WindowStatistics> statistics = WindowedAggregator.aggregate(history, AggregationWindow.HOUR, (LocalDateTime) null, null);
+		assertEquals( 1, statistics.size() );
+		assertEquals( 2, statistics.get(0).readingCount() );
+		assertEquals( 20.0, statistics.get(0).meanConcentration(), DELTA );
+		assertEquals( 10.0, statistics.get(0).standardDeviation(), DELTA );
+	}
+	
+	/**
+	 * Parallel aggregation of several monitoring stations yields the same statistics as the sequential aggregation of each monitoring station.
+	 * The histories are large enough to be split into parallel subtasks.
+	 */
+	@Test
+	public void testAggregateAllInParallel() {
+		final List<StationHistory> histories = new ArrayList<StationHistory>();
+		final long start = TimeTools.toEpochMillis( at(2021, 1, 1, 0, 0) );
+		for(long stationId = 1; stationId <= 4; stationId++) {
+			final ConcentrationTimeSeries series = new ConcentrationTimeSeries(40_000);
+			for(int i = 0; i < 40_000; i++) {
+				series.append( start + i * 60_000L, (int) ((i * 7 + stationId * 13) % 60) );
+			}
+			histories.add( new StationHistory(stationId, TARGET, series) );
+		}
+		final ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			final Map<Long, List<WindowStatistics>> result = WindowedAggregator.aggregateAll(histories, AggregationWindow.DAY, Long.MIN_VALUE, Long.MAX_VALUE, pool);
+			assertEquals( 4, result.size() );
+			for(final StationHistory history : histories) {
+				final List<WindowStatistics> expected = WindowedAggregator.aggregate(history, AggregationWindow.DAY, Long.MIN_VALUE, Long.MAX_VALUE);
+				assertEquals( expected, result.get( Long.valueOf(history.stationId()) ) );
+				assertEquals( 40_000, expected.stream().mapToInt(WindowStatistics::readingCount).sum() );
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2025 Sidlogism
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sidlogism.martinfowler.uiArchs.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for coalescing, flush timing and result reporting of {@link WriteBehindQueue}, using a fake writer.
+ * Queues with a long quiet period are flushed by the tests explicitly.
+ */
+public class WriteBehindQueueTest {
+	private static final long LONG_QUIET_PERIOD_MILLIS = 60_000;
+	private static final long WAIT_SECONDS = 5;
+	
+	/**
+	 * Writer recording each written batch. Fails the records given in {@link #failures} and the whole batch if {@link #batchFailure} is set.
+	 */
+	private static class FakeWriter implements IBatchWriter<String> {
+		final BlockingQueue<Map<Long, String>> batches = new LinkedBlockingQueue<Map<Long, String>>();
+		final Map<Long, Exception> failures = new HashMap<Long, Exception>();
+		volatile Exception batchFailure = null;
+		
+		@Override
+		public Map<Long, Exception> writeBatch(final Map<Long, String> values) throws Exception {
+			this.batches.add( Map.copyOf(values) );
+			if(null != this.batchFailure) throw this.batchFailure;
+			final Map<Long, Exception> result = new HashMap<Long, Exception>();
+			for(final Long recordId : values.keySet()) {
+				if( this.failures.containsKey(recordId) ) result.put(recordId, this.failures.get(recordId));
+			}
+			return result;
+		}
+	}
+	
+	/**
+	 * Listener recording each flush result as text, e. g. "ok 1=a" or "failed 2=b".
+	 */
+	private static class RecordingListener implements IFlushListener<String> {
+		final BlockingQueue<String> results = new LinkedBlockingQueue<String>();
+		final Map<Long, Exception> causes = new HashMap<Long, Exception>();
+		
+		@Override
+		public void flushSucceeded(final long recordId, final String value) {
+			this.results.add("ok "+recordId+"="+value);
+		}
+		
+		@Override
+		public synchronized void flushFailed(final long recordId, final String value, final Exception cause) {
+			this.causes.put(Long.valueOf(recordId), cause);
+			this.results.add("failed "+recordId+"="+value);
+		}
+		
+		/**
+		 * Waits for the given number of results.
+		 */
+		List<String> take(final int count) throws InterruptedException {
+			final String[] taken = new String[count];
+			for(int i = 0; i < count; i++) {
+				taken[i] = this.results.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+				assertNotNull(taken[i], "Missing flush result "+(i + 1)+" of "+count+".");
+			}
+			return List.of(taken);
+		}
+	}
+	
+	private final FakeWriter writer = new FakeWriter();
+	private final RecordingListener listener = new RecordingListener();
+	private WriteBehindQueue<String> queue = null;
+	
+	@AfterEach
+	public void shutdownQueue() {
+		if(null != this.queue) this.queue.shutdown();
+	}
+	
+	/**
+	 * Only the last value submitted for a record is written. Values of different records are written in one batch in the order of their first submission.
+	 */
+	@Test
+	public void testLastValueWinsPerRecord() throws InterruptedException {
+		this.queue = new WriteBehindQueue<String>("test", LONG_QUIET_PERIOD_MILLIS, this.writer, this.listener);
+		this.queue.submit(1, "a1");
+		this.queue.submit(2, "b1");
+		this.queue.submit(1, "a2");
+		this.queue.submit(1, "a3");
+		this.queue.flushNow();
+		
+		assertEquals( Map.of(1L, "a3", 2L, "b1"), this.writer.batches.poll(WAIT_SECONDS, TimeUnit.SECONDS) );
+		assertEquals( List.of("ok 1=a3", "ok 2=b1"), this.listener.take(2) );
+		assertEquals( 4, this.queue.getSubmittedValueCount() );
+		assertEquals( 2, this.queue.getWrittenValueCount() );
+	}
+	
+	/**
+	 * Submissions within the quiet period restart it, so a burst of submissions is written as one batch after the burst.
+	 */
+	@Test
+	public void testOneBatchPerQuietPeriod() throws InterruptedException {
+		this.queue = new WriteBehindQueue<String>("test", 500, this.writer, this.listener);
+		for(int i = 0; i < 5; i++) {
+			this.queue.submit(i, "v"+i);
+		}
+		assertNull( this.writer.batches.poll(100, TimeUnit.MILLISECONDS), "No batch may be written within the quiet period." );
+		
+		assertEquals( 5, this.writer.batches.poll(WAIT_SECONDS, TimeUnit.SECONDS).size() );
+		assertNull( this.writer.batches.poll(1, TimeUnit.SECONDS), "All values of the burst must be written in one batch." );
+		
+		// a later submission starts a new quiet period and batch
+		this.queue.submit(7, "v7");
+		assertEquals( Map.of(7L, "v7"), this.writer.batches.poll(WAIT_SECONDS, TimeUnit.SECONDS) );
+	}
+	
+	/**
+	 * flushNow() writes the pending values without waiting for the end of the quiet period and doesn't call the writer without pending values.
+	 */
+	@Test
+	public void testFlushNow() throws InterruptedException {
+		this.queue = new WriteBehindQueue<String>("test", LONG_QUIET_PERIOD_MILLIS, this.writer, this.listener);
+		this.queue.flushNow();
+		assertNull( this.writer.batches.poll(200, TimeUnit.MILLISECONDS) );
+		
+		this.queue.submit(1, "a");
+		this.queue.flushNow();
+		assertEquals( Map.of(1L, "a"), this.writer.batches.poll(WAIT_SECONDS, TimeUnit.SECONDS) );
+		assertEquals( List.of("ok 1=a"), this.listener.take(1) );
+	}
+	
+	/**
+	 * Failures of single records returned by the writer are reported to flushFailed() with their cause. The other records of the batch succeed.
+	 */
+	@Test
+	public void testRecordFailuresReportedToFlushFailed() throws InterruptedException {
+		final Exception conflict = new Exception("record 2 was modified by someone else");
+		this.writer.failures.put(Long.valueOf(2), conflict);
+		this.queue = new WriteBehindQueue<String>("test", LONG_QUIET_PERIOD_MILLIS, this.writer, this.listener);
+		this.queue.submit(1, "a");
+		this.queue.submit(2, "b");
+		this.queue.flushNow();
+		
+		assertEquals( List.of("ok 1=a", "failed 2=b"), this.listener.take(2) );
+		synchronized(this.listener) {
+			assertSame( conflict, this.listener.causes.get(Long.valueOf(2)) );
+		}
+		assertEquals( 1, this.queue.getWrittenValueCount() );
+	}
+	
+	/**
+	 * If the writer fails the whole batch, each record of the batch is reported to flushFailed().
+	 */
+	@Test
+	public void testBatchFailureReportedForEachRecord() throws InterruptedException {
+		this.writer.batchFailure = new Exception("database unreachable");
+		this.queue = new WriteBehindQueue<String>("test", LONG_QUIET_PERIOD_MILLIS, this.writer, this.listener);
+		this.queue.submit(1, "a");
+		this.queue.submit(2, "b");
+		this.queue.flushNow();
+		
+		assertEquals( List.of("failed 1=a", "failed 2=b"), this.listener.take(2) );
+		assertEquals( 0, this.queue.getWrittenValueCount() );
+	}
+	
+	/**
+	 * shutdown() writes pending values before it returns. Later submissions are rejected.
+	 */
+	@Test
+	public void testShutdownFlushesPendingValues() {
+		this.queue = new WriteBehindQueue<String>("test", LONG_QUIET_PERIOD_MILLIS, this.writer, this.listener);
+		this.queue.submit(1, "a");
+		this.queue.shutdown();
+		
+		assertEquals( Map.of(1L, "a"), this.writer.batches.poll() );
+		assertEquals( "ok 1=a", this.listener.results.poll() );
+		assertThrows( IllegalStateException.class, () -> this.queue.submit(2, "b") );
+	}
+}
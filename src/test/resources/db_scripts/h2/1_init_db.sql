@@ -0,0 +1,34 @@
+-- Schema of the embedded in-process H2 database (config entry "activeDbs": "h2"), equivalent to ../mysql/1_init_db.sql .
+-- Run by the connection URL on each new connection, so all statements must be idempotent.
+-- No user script is needed: H2 creates the connecting user as owner of a new in-memory database.
+
+CREATE TABLE IF NOT EXISTS monitoring_station (
+	id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	station_external_id VARCHAR(255) NOT NULL UNIQUE,
+	station_name VARCHAR(4095) DEFAULT NULL,
+	target_concentration SMALLINT NOT NULL
+);
+CREATE INDEX IF NOT EXISTS monitoring_station__idx__station_external_id ON monitoring_station (station_external_id ASC);
+CREATE INDEX IF NOT EXISTS monitoring_station__combined_idx ON monitoring_station (id ASC, station_external_id ASC);
+
+
+CREATE TABLE IF NOT EXISTS concentration_reading (
+	id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+	fk_station_id BIGINT NOT NULL,
+	reading_timestamp TIMESTAMP(0) NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, -- whole seconds like TIMESTAMP of MySQL. The JDBC variant parses the timestamps without microseconds.
+	actual_concentration SMALLINT NOT NULL,
+	version INT NOT NULL DEFAULT 0 -- row version for optimistic locking. Incremented by every update.
+);
+CREATE INDEX IF NOT EXISTS concentration_reading__idx__reading_timestamp ON concentration_reading (reading_timestamp ASC);
+-- lookup of the youngest reading per station: one index seek without sort.
+-- The null ordering equals the one H2 applies to ORDER BY in MySQL mode. Only then the planner sees that the index delivers the order of the lookup and prefers it to the separate index H2 creates for the foreign key below.
+-- The columns are NOT NULL, so the null ordering doesn't change the order of the entries.
+CREATE INDEX IF NOT EXISTS concentration_reading__idx__station_latest ON concentration_reading (
+	fk_station_id ASC NULLS LAST,
+	reading_timestamp DESC NULLS FIRST,
+	id DESC NULLS FIRST
+);
+ALTER TABLE concentration_reading ADD CONSTRAINT IF NOT EXISTS concentration_reading__fk__station
+	FOREIGN KEY (fk_station_id)
+	REFERENCES monitoring_station(id)
+	ON UPDATE CASCADE;
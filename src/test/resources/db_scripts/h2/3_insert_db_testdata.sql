@@ -0,0 +1,24 @@
+-- Test data of the embedded in-process H2 database, equal to ../mysql/3_insert_db_testdata.sql .
+-- Run by the connection URL on each new connection. Only inserts into empty tables, so changes made by the application are kept.
+-- The IDs are generated: a new database assigns 1 to 3 to the monitoring stations and 1 to 9 to the reading records like in MySQL.
+
+INSERT INTO monitoring_station (station_external_id, station_name, target_concentration)
+SELECT * FROM ( VALUES
+	('IC001', 'ice corner 1', 11),
+	('ZO001', 'Zoo Kiosk 2', 22),
+	('MW001', 'Mobile ice wagon 3', 33)
+) WHERE NOT EXISTS (SELECT 1 FROM monitoring_station);
+
+
+INSERT INTO concentration_reading (fk_station_id, reading_timestamp, actual_concentration)
+SELECT * FROM ( VALUES
+	(1, TIMESTAMP '2021-01-11 11:11:11', 11),
+	(1, TIMESTAMP '2021-01-21 21:21:21', 21),
+	(1, TIMESTAMP '2021-01-31 01:31:31', 31),
+	(2, TIMESTAMP '2021-01-12 12:12:12', 12),
+	(2, TIMESTAMP '2021-01-22 22:22:22', 22),
+	(2, TIMESTAMP '2021-02-02 02:32:32', 32),
+	(3, TIMESTAMP '2021-01-13 13:13:13', 13),
+	(3, TIMESTAMP '2021-01-23 23:23:23', 23),
+	(3, TIMESTAMP '2021-02-03 03:33:33', 33)
+) WHERE NOT EXISTS (SELECT 1 FROM concentration_reading);
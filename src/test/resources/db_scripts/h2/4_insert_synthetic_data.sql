@@ -0,0 +1,21 @@
+-- Synthetic load of the embedded in-process H2 database for benchmarks and load tests: 1000 monitoring stations "SY0001" to "SY1000" with 100 hourly readings each.
+-- The values are derived from the row numbers only, so every run works on the same data.
+-- Run by the connection URL on each new connection after 3_insert_db_testdata.sql . Only inserts if no synthetic monitoring station exists yet.
+
+INSERT INTO monitoring_station (station_external_id, station_name, target_concentration)
+SELECT 'SY' || LPAD(CAST(x AS VARCHAR), 4, '0'), 'synthetic station ' || x, 10 + MOD(x, 40)
+FROM SYSTEM_RANGE(1, 1000)
+WHERE NOT EXISTS (SELECT 1 FROM monitoring_station WHERE station_external_id LIKE 'SY%')
+ORDER BY x;
+
+
+INSERT INTO concentration_reading (fk_station_id, reading_timestamp, actual_concentration)
+SELECT s.id, DATEADD(HOUR, r.x, TIMESTAMP '2021-01-01 00:00:00'), MOD(s.id * 7 + r.x * 13, 60)
+FROM monitoring_station s, SYSTEM_RANGE(1, 100) r
+WHERE s.station_external_id LIKE 'SY%'
+AND NOT EXISTS (SELECT 1 FROM concentration_reading c WHERE c.fk_station_id = s.id)
+ORDER BY s.id, r.x;
+
+
+-- selectivity statistics for the planner, collected once the test data is complete
+ANALYZE;
@@ -18,12 +18,18 @@ CREATE TABLE IF NOT EXISTS monitoring_station (
 CREATE TABLE IF NOT EXISTS concentration_reading (
 	id SERIAL PRIMARY KEY,
 	fk_station_id BIGINT UNSIGNED NOT NULL,
-	INDEX concentration_reading__idx__fk_station_id (fk_station_id ASC),
 	FOREIGN KEY (fk_station_id)
 		REFERENCES monitoring_station(id)
 		ON DELETE SET DEFAULT
 		ON UPDATE CASCADE,
 	reading_timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
 	INDEX concentration_reading__idx__reading_timestamp (reading_timestamp ASC),
-	actual_concentration SMALLINT NOT NULL
+	actual_concentration SMALLINT NOT NULL,
+	version INT UNSIGNED NOT NULL DEFAULT 0, -- row version for optimistic locking. Incremented by every update.
+	-- lookup of the youngest reading per station: one index seek. Also serves the foreign key on fk_station_id.
+	INDEX concentration_reading__idx__station_latest (
+		fk_station_id ASC,
+		reading_timestamp DESC,
+		id DESC
+	)
 );
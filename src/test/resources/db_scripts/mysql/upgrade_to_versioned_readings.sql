@@ -0,0 +1,14 @@
+-- Upgrades a database created by an older 1_init_db.sql, i. e. without row versions of the reading records. Run once as privileged DB-user (e. g. root).
+-- Databases created by the current 1_init_db.sql already have these changes.
+USE martinfowler_uiArchs;
+
+-- row version for optimistic locking. Incremented by every update. Existing reading records start with version 0.
+ALTER TABLE concentration_reading ADD COLUMN version INT UNSIGNED NOT NULL DEFAULT 0;
+
+-- lookup of the youngest reading per station: one index seek. Also serves the foreign key on fk_station_id, so the old single-column index is dropped afterwards.
+CREATE INDEX concentration_reading__idx__station_latest ON concentration_reading (
+	fk_station_id ASC,
+	reading_timestamp DESC,
+	id DESC
+);
+DROP INDEX concentration_reading__idx__fk_station_id ON concentration_reading;
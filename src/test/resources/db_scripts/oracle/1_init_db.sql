@@ -19,9 +19,15 @@ CREATE TABLE concentration_reading (
 		REFERENCES monitoring_station(id)
 		ON DELETE SET NULL, -- ON UPDATE CASCADE missing in Oracle SQL. Maybe already implicit behaviour?
 	reading_timestamp DATE DEFAULT SYSDATE NOT NULL,
-	actual_concentration NUMBER(5,0) NOT NULL
+	actual_concentration NUMBER(5,0) NOT NULL,
+	version NUMBER(10,0) DEFAULT 0 NOT NULL -- row version for optimistic locking. Incremented by every update.
+);
+-- lookup of the youngest reading per station: one index seek. Also serves the foreign key on fk_station_id.
+CREATE INDEX concentration_reading__idx__station_latest ON concentration_reading (
+		fk_station_id ASC,
+		reading_timestamp DESC,
+		id DESC
 );
-CREATE INDEX concentration_reading__idx__fk_station_id ON concentration_reading (fk_station_id ASC);
 CREATE INDEX concentration_reading__idx__reading_timestamp ON concentration_reading (reading_timestamp ASC);
 
 
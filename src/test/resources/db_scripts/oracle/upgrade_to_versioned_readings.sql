@@ -0,0 +1,13 @@
+-- Upgrades a database created by an older 1_init_db.sql, i. e. without row versions of the reading records. Run once as the owner of the tables.
+-- Databases created by the current 1_init_db.sql already have these changes.
+
+-- row version for optimistic locking. Incremented by every update. Existing reading records start with version 0.
+ALTER TABLE concentration_reading ADD version NUMBER(10,0) DEFAULT 0 NOT NULL;
+
+-- lookup of the youngest reading per station: one index seek. Also serves the foreign key on fk_station_id, so the old single-column index is dropped afterwards.
+CREATE INDEX concentration_reading__idx__station_latest ON concentration_reading (
+		fk_station_id ASC,
+		reading_timestamp DESC,
+		id DESC
+);
+DROP INDEX concentration_reading__idx__fk_station_id;